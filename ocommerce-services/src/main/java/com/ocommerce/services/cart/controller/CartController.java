@@ -3,6 +3,11 @@ package com.ocommerce.services.cart.controller;
 import com.ocommerce.services.cart.dto.*;
 import com.ocommerce.services.cart.mapper.CartMapper;
 import com.ocommerce.services.cart.service.CartService;
+import com.ocommerce.services.idempotency.service.IdempotencyService;
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.dto.OrderIntentResponse;
+import com.ocommerce.services.order.mapper.OrderMapper;
+import com.ocommerce.services.order.service.OrderPlacementService;
 import com.ocommerce.services.user.domain.User;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,11 +20,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.UUID;
 
 /**
@@ -35,6 +42,9 @@ import java.util.UUID;
 public class CartController {
     private final CartService cartService;
     private final CartMapper cartMapper;
+    private final OrderPlacementService orderPlacementService;
+    private final OrderMapper orderMapper;
+    private final IdempotencyService idempotencyService;
 
     /**
      * Get current user's shopping cart
@@ -84,6 +94,52 @@ public class CartController {
         return ResponseEntity.ok(cartMapper.toCartResponse(cart));
     }
 
+    /**
+     * Add many items to shopping cart
+     */
+    @PostMapping("/items/bulk")
+    @Operation(summary = "Add items to cart in bulk", description = "Add many products or variants to the user's shopping cart in one request. All lines are validated against the catalog together and saved at once.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Items added to cart successfully",
+                    content = @Content(schema = @Schema(implementation = CartResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or insufficient stock"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Product or variant not found")
+    })
+    public ResponseEntity<CartResponse> addItems(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Cart lines to add, each with product ID, variant ID (optional), and quantity", required = true)
+            @Valid @RequestBody CartItemsRequest itemsDto) {
+
+        log.info("Bulk add items to cart request for user: {}, lines: {}", user.getId(), itemsDto.getItems().size());
+
+        var cart = cartService.addItems(user.getId(), itemsDto.getItems());
+        return ResponseEntity.ok(cartMapper.toCartResponse(cart));
+    }
+
+    /**
+     * Replace all items in shopping cart
+     */
+    @PutMapping("/items")
+    @Operation(summary = "Replace cart items", description = "Replace the contents of the user's shopping cart with the given lines. All lines are validated against the catalog together and saved at once.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cart items replaced successfully",
+                    content = @Content(schema = @Schema(implementation = CartResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or insufficient stock"),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Product or variant not found")
+    })
+    public ResponseEntity<CartResponse> replaceItems(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "New cart lines, each with product ID, variant ID (optional), and quantity", required = true)
+            @Valid @RequestBody CartItemsRequest itemsDto) {
+
+        log.info("Replace cart items request for user: {}, lines: {}", user.getId(), itemsDto.getItems().size());
+
+        var cart = cartService.replaceItems(user.getId(), itemsDto.getItems());
+        return ResponseEntity.ok(cartMapper.toCartResponse(cart));
+    }
+
     /**
      * Update quantity of cart item
      */
@@ -229,18 +285,46 @@ public class CartController {
      * Convert cart to order (checkout)
      */
     @PostMapping("/checkout")
-    @Operation(summary = "Checkout cart", description = "Convert the user's cart to an order. Requires shipping and billing addresses to be set.")
+    @Operation(summary = "Checkout cart", description = "Convert the user's cart to an order. Requires shipping and billing addresses to be set. Send an Idempotency-Key header to make retries safe: a repeated request with the same key does not place another order but replays the first response (marked with Idempotent-Replayed: true).")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Cart converted to order successfully"),
             @ApiResponse(responseCode = "400", description = "Cart validation failed or missing required addresses"),
             @ApiResponse(responseCode = "401", description = "User not authenticated"),
             @ApiResponse(responseCode = "404", description = "Cart not found or empty"),
-            @ApiResponse(responseCode = "409", description = "Insufficient stock for one or more items")
+            @ApiResponse(responseCode = "409", description = "Insufficient stock for one or more items, or a request with the same Idempotency-Key is still in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different request")
     })
-    public ResponseEntity<Void> convertCartToOrder(@AuthenticationPrincipal User user) {
+    public ResponseEntity<Void> convertCartToOrder(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "Client-generated key that identifies this checkout across retries", example = "6f1c1d9e-3b7a-4f5e-9c1a-2d4b8e7f0a12")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         log.info("Convert cart to order request for user: {}", user.getId());
 
-        cartService.convertCartToOrder(user.getId());
-        return ResponseEntity.ok().build();
+        return idempotencyService.execute(user.getId(), "cart.checkout", idempotencyKey, null,
+                HttpStatus.OK.value(), Void.class, () -> {
+                    cartService.convertCartToOrder(user.getId());
+                    return null;
+                }).toResponseEntity();
+    }
+
+    /**
+     * Queue the cart for asynchronous order placement
+     */
+    @PostMapping("/checkout/async")
+    @Operation(summary = "Checkout cart asynchronously", description = "Queue the user's cart for order placement and return immediately. Poll the returned order intent (see the Location header) until it is COMPLETED or FAILED. If a checkout is already in flight for the user, that one is returned.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Checkout accepted for processing",
+                    content = @Content(schema = @Schema(implementation = OrderIntentResponse.class))),
+            @ApiResponse(responseCode = "401", description = "User not authenticated"),
+            @ApiResponse(responseCode = "404", description = "Cart not found or empty"),
+            @ApiResponse(responseCode = "503", description = "Checkout queue is full, retry after the Retry-After delay")
+    })
+    public ResponseEntity<OrderIntentResponse> checkoutAsync(@AuthenticationPrincipal User user) {
+        log.info("Async checkout request for user: {}", user.getId());
+
+        OrderIntent intent = orderPlacementService.submit(user.getId());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/orders/intents/" + intent.getId()))
+                .body(orderMapper.toOrderIntentResponse(intent));
     }
 }
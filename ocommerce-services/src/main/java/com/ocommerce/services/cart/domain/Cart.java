@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+    @Index(name = "idx_carts_updated_at", columnList = "updated_at, id")
+})
 @Getter
 @Setter
 public class Cart {
@@ -29,6 +32,19 @@ public class Cart {
     @Column(nullable = true)
     private UUID billingAddressId;
 
+    // Totals cached by the pricing pipeline whenever the cart contents change
+    @Column(nullable = true)
+    private BigDecimal subtotalAmount;
+
+    @Column(nullable = true)
+    private BigDecimal discountAmount;
+
+    @Column(nullable = true)
+    private BigDecimal taxAmount;
+
+    @Column(nullable = true)
+    private BigDecimal totalAmount;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -45,13 +61,24 @@ public class Cart {
         updatedAt = Instant.now();
     }
 
-    // Helper method to calculate total cart amount
-    public java.math.BigDecimal getTotalAmount() {
-        if (items == null || items.isEmpty()) return java.math.BigDecimal.ZERO;
+    // Cached total, or the sum of item totals for carts that have not been priced yet
+    public BigDecimal getTotalAmount() {
+        if (totalAmount != null) return totalAmount;
+        if (items == null || items.isEmpty()) return BigDecimal.ZERO;
         return items.stream()
             .map(CartItem::getTotalPrice)
-            .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
-    // Getters and setters
+    public void applyTotals(BigDecimal subtotal, BigDecimal discount, BigDecimal tax, BigDecimal total) {
+        this.subtotalAmount = subtotal;
+        this.discountAmount = discount;
+        this.taxAmount = tax;
+        this.totalAmount = total;
+    }
+
+    // Drop cached totals after the items were changed outside the pricing pipeline
+    public void clearTotals() {
+        applyTotals(null, null, null, null);
+    }
 }
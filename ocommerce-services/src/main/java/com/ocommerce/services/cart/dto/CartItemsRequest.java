@@ -0,0 +1,18 @@
+package com.ocommerce.services.cart.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(description = "Bulk cart items request")
+@Data
+public class CartItemsRequest {
+    @Schema(description = "Cart lines to add or replace; lines for the same product and variant are combined")
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 200, message = "At most 200 items can be submitted at once")
+    private List<@Valid CartItemRequest> items;
+}
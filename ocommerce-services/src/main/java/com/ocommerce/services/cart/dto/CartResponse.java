@@ -24,6 +24,15 @@ public class CartResponse {
     @Schema(description = "Billing address ID", example = "550e8400-e29b-41d4-a716-446655440003")
     private UUID billingAddressId;
 
+    @Schema(description = "Sum of item prices before discounts and tax", example = "219.99")
+    private BigDecimal subtotalAmount;
+
+    @Schema(description = "Total discount from promotions", example = "20.00")
+    private BigDecimal discountAmount;
+
+    @Schema(description = "Total tax", example = "0.00")
+    private BigDecimal taxAmount;
+
     @Schema(description = "Total amount for the cart", example = "199.99")
     private BigDecimal totalAmount;
 }
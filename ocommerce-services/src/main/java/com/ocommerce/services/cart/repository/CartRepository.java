@@ -2,13 +2,53 @@ package com.ocommerce.services.cart.repository;
 
 
 import com.ocommerce.services.cart.domain.Cart;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, UUID> {
     java.util.Optional<Cart> findByUserId(UUID userId);
-    // Add custom queries as needed
+
+    // Lock the user's cart so concurrent checkouts of it are serialized
+    @Query(value = "SELECT * FROM carts c WHERE c.user_id = :userId FOR UPDATE", nativeQuery = true)
+    java.util.Optional<Cart> findByUserIdForUpdate(@Param("userId") UUID userId);
+
+    // Load a cart and its items in one query
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id = :id")
+    java.util.Optional<Cart> findWithItemsById(@Param("id") UUID id);
+
+    // Keyset page of carts idle since before the cutoff, in (updatedAt, id) order after the given position
+    @Query("SELECT c.id AS id, c.updatedAt AS updatedAt FROM Cart c WHERE c.updatedAt < :cutoff " +
+           "AND (c.updatedAt > :lastUpdatedAt OR (c.updatedAt = :lastUpdatedAt AND c.id > :lastId)) " +
+           "ORDER BY c.updatedAt, c.id")
+    List<IdleCart> findIdleCarts(@Param("cutoff") Instant cutoff,
+                                 @Param("lastUpdatedAt") Instant lastUpdatedAt,
+                                 @Param("lastId") UUID lastId,
+                                 Pageable pageable);
+
+    // Bulk delete items of the given carts that are still idle
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cart.id IN " +
+           "(SELECT c.id FROM Cart c WHERE c.id IN :ids AND c.updatedAt < :cutoff)")
+    int deleteItemsOfIdleCarts(@Param("ids") Collection<UUID> ids, @Param("cutoff") Instant cutoff);
+
+    // Bulk delete the given carts that are still idle
+    @Modifying
+    @Query("DELETE FROM Cart c WHERE c.id IN :ids AND c.updatedAt < :cutoff")
+    int deleteIdleCarts(@Param("ids") Collection<UUID> ids, @Param("cutoff") Instant cutoff);
+
+    interface IdleCart {
+        UUID getId();
+
+        Instant getUpdatedAt();
+    }
 }
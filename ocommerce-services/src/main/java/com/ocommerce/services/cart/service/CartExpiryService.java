@@ -0,0 +1,113 @@
+package com.ocommerce.services.cart.service;
+
+import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.cart.repository.CartRepository.IdleCart;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deletes carts that have not been updated within the configured TTL.
+ * Idle carts are walked in (updatedAt, id) keyset order in bounded chunks,
+ * and each chunk is deleted in its own short transaction.
+ */
+@Slf4j
+@Service
+public class CartExpiryService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final CartRepository cartRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final DistributionSummary expiredPerRun;
+    private final Timer runDuration;
+
+    @Autowired
+    public CartExpiryService(CartRepository cartRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.cart.expiry.ttl-days:30}") long ttlDays,
+                             @Value("${app.cart.expiry.chunk-size:500}") int chunkSize,
+                             @Value("${app.cart.expiry.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofDays(ttlDays);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.expiredPerRun = DistributionSummary.builder("cart.expiry.expired")
+            .description("Carts expired per sweeper run")
+            .baseUnit("carts")
+            .register(meterRegistry);
+        this.runDuration = Timer.builder("cart.expiry.run")
+            .description("Duration of a cart expiry sweeper run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.expiry.interval-ms:3600000}",
+               initialDelayString = "${app.cart.expiry.initial-delay-ms:60000}")
+    public void sweep() {
+        try {
+            expireIdleCarts();
+        } catch (Exception e) {
+            log.error("Cart expiry run failed", e);
+        }
+    }
+
+    /**
+     * Delete carts idle for longer than the TTL
+     * @return Number of carts deleted
+     */
+    public int expireIdleCarts() {
+        Timer.Sample sample = Timer.start();
+        Instant cutoff = Instant.now().minus(ttl);
+        Instant lastUpdatedAt = Instant.EPOCH;
+        UUID lastId = MIN_UUID;
+        int expired = 0;
+        int chunks = 0;
+
+        while (chunks < maxChunksPerRun) {
+            List<IdleCart> idleCarts = cartRepository.findIdleCarts(
+                cutoff, lastUpdatedAt, lastId, PageRequest.of(0, chunkSize));
+            if (idleCarts.isEmpty()) {
+                break;
+            }
+            chunks++;
+
+            List<UUID> ids = idleCarts.stream().map(IdleCart::getId).toList();
+            Integer deleted = transactionTemplate.execute(status -> {
+                cartRepository.deleteItemsOfIdleCarts(ids, cutoff);
+                return cartRepository.deleteIdleCarts(ids, cutoff);
+            });
+            expired += deleted != null ? deleted : 0;
+
+            IdleCart last = idleCarts.get(idleCarts.size() - 1);
+            lastUpdatedAt = last.getUpdatedAt();
+            lastId = last.getId();
+            if (idleCarts.size() < chunkSize) {
+                break;
+            }
+        }
+
+        long durationNanos = sample.stop(runDuration);
+        expiredPerRun.record(expired);
+        log.info("Expired {} carts idle since before {} in {} chunks ({} ms)",
+            expired, cutoff, chunks, Duration.ofNanos(durationNanos).toMillis());
+        return expired;
+    }
+}
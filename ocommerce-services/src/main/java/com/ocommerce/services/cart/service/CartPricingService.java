@@ -0,0 +1,104 @@
+package com.ocommerce.services.cart.service;
+
+import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.promotion.service.PromotionEvaluator;
+import com.ocommerce.services.promotion.service.PromotionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cart pricing pipeline: base price, line promotions, cart promotions, tax, then totals.
+ * Runs whenever the cart contents change and stores the results on the cart and its items,
+ * so reading a cart never recomputes prices.
+ */
+@Slf4j
+@Service
+public class CartPricingService {
+
+    private final PromotionService promotionService;
+    private final BigDecimal taxRate;
+
+    @Autowired
+    public CartPricingService(PromotionService promotionService,
+                              @Value("${app.pricing.tax-rate:0}") BigDecimal taxRate) {
+        this.promotionService = promotionService;
+        this.taxRate = taxRate;
+    }
+
+    /**
+     * Price every line of the cart and cache the cart totals
+     * @param cart Cart to price
+     * @param categoryIdsByProduct Catalog categories of the cart's products, used by category promotions
+     */
+    public void priceCart(Cart cart, Map<UUID, ? extends Collection<UUID>> categoryIdsByProduct) {
+        List<CartItem> items = cart.getItems() != null ? cart.getItems() : List.of();
+        PromotionEvaluator evaluator = promotionService.getEvaluator();
+
+        // Base price and line promotions
+        int lineCount = items.size();
+        BigDecimal[] netAmounts = new BigDecimal[lineCount];
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal netTotal = BigDecimal.ZERO;
+        int largestLine = -1;
+        for (int i = 0; i < lineCount; i++) {
+            CartItem item = items.get(i);
+            BigDecimal lineSubtotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            BigDecimal lineDiscount = evaluator.lineDiscount(item.getSku(),
+                categoryIdsByProduct.get(item.getProductId()), lineSubtotal, item.getQuantity());
+
+            item.setDiscountAmount(lineDiscount);
+            netAmounts[i] = lineSubtotal.subtract(lineDiscount);
+            subtotal = subtotal.add(lineSubtotal);
+            netTotal = netTotal.add(netAmounts[i]);
+            if (largestLine < 0 || netAmounts[i].compareTo(netAmounts[largestLine]) > 0) {
+                largestLine = i;
+            }
+        }
+
+        // Cart promotions, spread over the lines in proportion to their amount so line totals add up
+        BigDecimal cartDiscount = lineCount > 0 ? evaluator.cartDiscount(netTotal) : BigDecimal.ZERO;
+        BigDecimal[] cartDiscountShares = new BigDecimal[lineCount];
+        BigDecimal allocated = BigDecimal.ZERO;
+        for (int i = 0; i < lineCount; i++) {
+            cartDiscountShares[i] = cartDiscount.signum() == 0
+                ? BigDecimal.ZERO
+                : cartDiscount.multiply(netAmounts[i]).divide(netTotal, 2, RoundingMode.DOWN);
+            allocated = allocated.add(cartDiscountShares[i]);
+        }
+        if (largestLine >= 0) {
+            cartDiscountShares[largestLine] = cartDiscountShares[largestLine].add(cartDiscount.subtract(allocated));
+        }
+
+        // Tax and totals
+        BigDecimal discountTotal = BigDecimal.ZERO;
+        BigDecimal taxTotal = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineCount; i++) {
+            CartItem item = items.get(i);
+            BigDecimal taxable = netAmounts[i].subtract(cartDiscountShares[i]);
+            BigDecimal tax = taxable.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+
+            item.setDiscountAmount(item.getDiscountAmount().add(cartDiscountShares[i]));
+            item.setTaxAmount(tax);
+            item.setTotalPrice(taxable.add(tax));
+
+            discountTotal = discountTotal.add(item.getDiscountAmount());
+            taxTotal = taxTotal.add(tax);
+            total = total.add(item.getTotalPrice());
+        }
+
+        cart.applyTotals(subtotal, discountTotal, taxTotal, total);
+        log.debug("Priced cart {}: subtotal={}, discount={}, tax={}, total={}",
+            cart.getId(), subtotal, discountTotal, taxTotal, total);
+    }
+}
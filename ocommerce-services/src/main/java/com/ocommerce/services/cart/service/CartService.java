@@ -2,9 +2,15 @@ package com.ocommerce.services.cart.service;
 
 import com.ocommerce.services.cart.domain.Cart;
 import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.cart.dto.CartItemRequest;
 import com.ocommerce.services.cart.dto.ProductPricingInfo;
 import com.ocommerce.services.cart.exception.ProductValidationException;
 import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.ArchivedOrderItem;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
 import com.ocommerce.services.order.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,8 +18,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -22,6 +36,7 @@ public class CartService {
     private final CartRepository cartRepository;
     private final OrderService orderService;
     private final ProductValidationService productValidationService;
+    private final CartPricingService cartPricingService;
 
     @Transactional
     public Cart addItem(UUID userId, UUID productId, UUID variantId, int quantity) {
@@ -71,6 +86,7 @@ public class CartService {
             cart.getItems().add(newItem);
         }
 
+        priceCart(cart);
         return cartRepository.save(cart);
     }
 
@@ -84,6 +100,7 @@ public class CartService {
         if (cart.getItems() != null) {
             cart.getItems().removeIf(i -> i.getId().equals(itemId));
         }
+        priceCart(cart);
         return cartRepository.save(cart);
     }
 
@@ -112,6 +129,7 @@ public class CartService {
             item.setQuantity(quantity);
             updateCartItemPricing(item, pricingInfo);
         }
+        priceCart(cart);
         return cartRepository.save(cart);
     }
 
@@ -136,56 +154,99 @@ public class CartService {
         return cartRepository.findByUserId(userId);
     }
 
+    /**
+     * Add many items to the cart with a single catalog query and a single save.
+     * Lines for the same product/variant are combined with each other and with existing cart lines.
+     */
+    @Transactional
+    public Cart addItems(UUID userId, List<CartItemRequest> items) {
+        log.info("Adding {} items to cart for user {}", items.size(), userId);
+
+        Cart cart = findOrCreateCart(userId);
+        mergeItems(cart, toLineQuantities(items), false, false);
+        return cartRepository.save(cart);
+    }
+
+    /**
+     * Replace the cart contents with the given items using a single catalog query and a single save.
+     * Existing lines for the same product/variant are kept and updated in place.
+     */
+    @Transactional
+    public Cart replaceItems(UUID userId, List<CartItemRequest> items) {
+        log.info("Replacing cart contents with {} items for user {}", items.size(), userId);
+
+        Cart cart = findOrCreateCart(userId);
+        mergeItems(cart, toLineQuantities(items), true, false);
+        return cartRepository.save(cart);
+    }
+
+    /**
+     * Copy all items of a previous order into the cart as one batched operation.
+     * Products that are no longer available are skipped and quantities are capped at available stock.
+     * Archived orders can be copied as well.
+     */
     @Transactional
     public Cart copyItemsFromOrder(UUID userId, UUID orderId) {
-        // TODO: This will be implemented when Order domain is ready
-        // For now, return existing cart or create new one
-        return cartRepository.findByUserId(userId).orElseGet(() -> {
-            Cart newCart = new Cart();
-            newCart.setUserId(userId);
-            newCart.setItems(new java.util.ArrayList<>());
-            return cartRepository.save(newCart);
-        });
+        log.info("Copying items from order {} to cart for user {}", orderId, userId);
+
+        Map<CartLineKey, Integer> lines = new LinkedHashMap<>();
+        Optional<Order> order = orderService.getOrderById(orderId, userId);
+        if (order.isPresent()) {
+            if (order.get().getItems() != null) {
+                for (OrderItem orderItem : order.get().getItems()) {
+                    lines.merge(new CartLineKey(orderItem.getProductId(), orderItem.getVariantId()),
+                        orderItem.getQuantity(), Integer::sum);
+                }
+            }
+        } else {
+            // Closed orders older than the archival window are only found in the archive
+            ArchivedOrder archivedOrder = orderService.getArchivedOrder(orderId, userId)
+                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+            if (archivedOrder.getItems() != null) {
+                for (ArchivedOrderItem orderItem : archivedOrder.getItems()) {
+                    lines.merge(new CartLineKey(orderItem.getProductId(), orderItem.getVariantId()),
+                        orderItem.getQuantity(), Integer::sum);
+                }
+            }
+        }
+
+        Cart cart = findOrCreateCart(userId);
+        mergeItems(cart, lines, false, true);
+        return cartRepository.save(cart);
     }
 
+    /**
+     * Merge a guest cart into the user's cart as one batched operation.
+     * Guest lines are validated with a single catalog query and combined with matching user lines,
+     * quantities are capped at available stock, and the guest cart is deleted in the same flush.
+     */
     @Transactional
     public void mergeGuestCart(UUID guestCartId, UUID userId) {
-        Optional<Cart> guestCart = cartRepository.findById(guestCartId);
+        Optional<Cart> guestCart = cartRepository.findWithItemsById(guestCartId);
         if (guestCart.isEmpty()) {
             return; // Guest cart not found, nothing to merge
         }
 
-        Cart userCart = cartRepository.findByUserId(userId).orElseGet(() -> {
-            Cart newCart = new Cart();
-            newCart.setUserId(userId);
-            newCart.setItems(new java.util.ArrayList<>());
-            return newCart;
-        });
+        Cart userCart = findOrCreateCart(userId);
+        if (guestCart.get().getId().equals(userCart.getId())) {
+            return; // Already the user's cart
+        }
 
-        // Merge items from guest cart to user cart
+        Map<CartLineKey, Integer> lines = new LinkedHashMap<>();
         if (guestCart.get().getItems() != null) {
-            if (userCart.getItems() == null) {
-                userCart.setItems(new java.util.ArrayList<>());
-            }
             for (CartItem guestItem : guestCart.get().getItems()) {
-                // Re-validate and update pricing for merged items
-                try {
-                    ProductPricingInfo pricingInfo = productValidationService.validateAndGetProductPricing(
-                        guestItem.getProductId(), guestItem.getVariantId());
-
-                    updateCartItemPricing(guestItem, pricingInfo);
-                    guestItem.setCart(userCart);
-                    userCart.getItems().add(guestItem);
-                } catch (ProductValidationException e) {
-                    log.warn("Skipping invalid product during cart merge: {}", e.getMessage());
-                    // Skip invalid products during merge
-                }
+                lines.merge(CartLineKey.of(guestItem), guestItem.getQuantity(), Integer::sum);
             }
         }
+        log.info("Merging {} guest cart lines from cart {} into cart for user {}", lines.size(), guestCartId, userId);
 
-        // Save merged cart and delete guest cart
-        cartRepository.save(userCart);
+        if (!lines.isEmpty()) {
+            mergeItems(userCart, lines, false, true);
+        }
+
+        // Both changes are flushed together when the transaction commits
         cartRepository.delete(guestCart.get());
+        cartRepository.save(userCart);
     }
 
     @Transactional
@@ -234,6 +295,121 @@ public class CartService {
                 throw new RuntimeException("Checkout validation failed for product in cart: " + e.getMessage(), e);
             }
         }
+
+        priceCart(cart);
+    }
+
+    private Cart findOrCreateCart(UUID userId) {
+        Cart cart = cartRepository.findByUserId(userId).orElseGet(() -> {
+            Cart newCart = new Cart();
+            newCart.setUserId(userId);
+            return newCart;
+        });
+        if (cart.getItems() == null) {
+            cart.setItems(new ArrayList<>());
+        }
+        return cart;
+    }
+
+    private Map<CartLineKey, Integer> toLineQuantities(List<CartItemRequest> items) {
+        Map<CartLineKey, Integer> lines = new LinkedHashMap<>();
+        for (CartItemRequest item : items) {
+            lines.merge(new CartLineKey(item.getProductId(), item.getVariantId()), item.getQuantity(), Integer::sum);
+        }
+        return lines;
+    }
+
+    /**
+     * Merge product lines into the cart in memory, validating all of them against one catalog query.
+     *
+     * @param replace         when true, the lines become the new cart contents; otherwise quantities are added
+     * @param skipUnavailable when true, invalid or out-of-stock lines are skipped and quantities are capped
+     *                        at available stock instead of failing the merge
+     */
+    private void mergeItems(Cart cart, Map<CartLineKey, Integer> lines, boolean replace, boolean skipUnavailable) {
+        Map<CartLineKey, CartItem> existingItems = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            existingItems.putIfAbsent(CartLineKey.of(item), item);
+        }
+        if (replace) {
+            cart.getItems().removeIf(item -> {
+                CartLineKey key = CartLineKey.of(item);
+                return !lines.containsKey(key) || existingItems.get(key) != item;
+            });
+        }
+
+        // Products of untouched cart lines are loaded too, so the whole cart can be priced afterwards
+        Set<UUID> productIds = lines.keySet().stream()
+            .map(CartLineKey::productId)
+            .collect(Collectors.toCollection(HashSet::new));
+        cart.getItems().forEach(item -> productIds.add(item.getProductId()));
+        Map<UUID, ProductResponse> products = productValidationService.getProductsForValidation(productIds);
+
+        for (Map.Entry<CartLineKey, Integer> line : lines.entrySet()) {
+            CartLineKey key = line.getKey();
+            CartItem existingItem = existingItems.get(key);
+            int quantity = replace || existingItem == null
+                ? line.getValue()
+                : existingItem.getQuantity() + line.getValue();
+
+            try {
+                ProductPricingInfo pricingInfo = productValidationService.validateAndGetProductPricing(
+                    products, key.productId(), key.variantId());
+
+                if (!productValidationService.validateStockAvailability(pricingInfo, quantity)) {
+                    if (!skipUnavailable || pricingInfo.getAvailableStock() == null || pricingInfo.getAvailableStock() <= 0) {
+                        throw new ProductValidationException(
+                            "Insufficient stock for product " + key.productId() + " and quantity: " + quantity);
+                    }
+                    log.warn("Capping quantity of product {} at available stock {}", key.productId(),
+                        pricingInfo.getAvailableStock());
+                    quantity = pricingInfo.getAvailableStock();
+                }
+
+                if (existingItem != null) {
+                    existingItem.setQuantity(quantity);
+                    updateCartItemPricing(existingItem, pricingInfo);
+                } else {
+                    cart.getItems().add(createCartItem(cart, pricingInfo, quantity));
+                }
+            } catch (ProductValidationException e) {
+                if (!skipUnavailable) {
+                    throw e;
+                }
+                log.warn("Skipping unavailable product {} during cart merge: {}", key.productId(), e.getMessage());
+            }
+        }
+
+        priceCart(cart, products);
+    }
+
+    /**
+     * Run the pricing pipeline over the whole cart, loading the catalog categories with a single query
+     */
+    private void priceCart(Cart cart) {
+        Set<UUID> productIds = cart.getItems() == null ? Set.of() : cart.getItems().stream()
+            .map(CartItem::getProductId)
+            .collect(Collectors.toSet());
+        priceCart(cart, productIds.isEmpty() ? Map.of() : productValidationService.getProductsForValidation(productIds));
+    }
+
+    private void priceCart(Cart cart, Map<UUID, ProductResponse> products) {
+        Map<UUID, List<UUID>> categoryIds = new HashMap<>();
+        products.forEach((productId, product) -> {
+            if (product.getCategoryIds() != null) {
+                categoryIds.put(productId, product.getCategoryIds());
+            }
+        });
+        cartPricingService.priceCart(cart, categoryIds);
+    }
+
+    /**
+     * Identity of a cart line: a product and an optional variant
+     */
+    private record CartLineKey(UUID productId, UUID variantId) {
+        static CartLineKey of(CartItem item) {
+            return new CartLineKey(item.getProductId(), item.getVariantId());
+        }
     }
 
     /**
@@ -252,7 +428,7 @@ public class CartService {
     }
 
     /**
-     * Update cart item with current pricing information
+     * Update cart item with current catalog pricing; discounts and tax are applied by {@link CartPricingService}
      */
     private void updateCartItemPricing(CartItem item, ProductPricingInfo pricingInfo) {
         item.setUnitPrice(pricingInfo.getPrice());
@@ -260,12 +436,10 @@ public class CartService {
         item.setVariantName(pricingInfo.getVariantName());
         item.setSku(pricingInfo.getSku());
 
-        // Calculate total price for the item
+        // Base price until the cart is priced
         BigDecimal totalPrice = pricingInfo.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
         item.setTotalPrice(totalPrice);
-
-        // Set other pricing fields (can be extended for discounts, taxes, etc.)
-        item.setDiscountAmount(BigDecimal.ZERO); // No discount for now
-        item.setTaxAmount(BigDecimal.ZERO); // No tax calculation for now
+        item.setDiscountAmount(BigDecimal.ZERO);
+        item.setTaxAmount(BigDecimal.ZERO);
     }
 }
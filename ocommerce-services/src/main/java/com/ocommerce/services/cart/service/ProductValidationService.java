@@ -10,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -36,9 +38,40 @@ public class ProductValidationService {
         ProductResponse productResponse = productService.getProductById(productId)
             .orElseThrow(() -> new ProductValidationException("Product not found: " + productId));
 
+        return validateAndGetProductPricing(productResponse, variantId);
+    }
+
+    /**
+     * Load the catalog products for a batch of cart lines with a single catalog query
+     * @param productIds Product IDs referenced by the lines
+     * @return Active products keyed by product ID
+     */
+    public Map<UUID, ProductResponse> getProductsForValidation(Collection<UUID> productIds) {
+        log.info("Loading {} products for batch validation", productIds.size());
+        return productService.getActiveProductsByIds(productIds);
+    }
+
+    /**
+     * Validate product and get pricing information from a batch loaded via {@link #getProductsForValidation}
+     * @param products Products loaded for the batch
+     * @param productId Product ID to validate
+     * @param variantId Optional variant ID
+     * @return ProductPricingInfo with current pricing data
+     * @throws ProductValidationException if product is invalid
+     */
+    public ProductPricingInfo validateAndGetProductPricing(Map<UUID, ProductResponse> products,
+                                                          UUID productId, UUID variantId) {
+        ProductResponse productResponse = products.get(productId);
+        if (productResponse == null) {
+            throw new ProductValidationException("Product not found: " + productId);
+        }
+        return validateAndGetProductPricing(productResponse, variantId);
+    }
+
+    private ProductPricingInfo validateAndGetProductPricing(ProductResponse productResponse, UUID variantId) {
         // Check if product is active
         if (!"ACTIVE".equals(productResponse.getStatus())) {
-            throw new ProductValidationException("Product is not active: " + productId);
+            throw new ProductValidationException("Product is not active: " + productResponse.getId());
         }
 
         // If variant is specified, validate it
@@ -125,14 +158,24 @@ public class ProductValidationService {
             // Get product pricing info (which includes stock info)
             ProductPricingInfo pricingInfo = validateAndGetProductPricing(productId, variantId);
 
-            if (!pricingInfo.isInventoryTracking()) {
-                return true; // No inventory tracking means unlimited stock
-            }
-
-            return pricingInfo.getAvailableStock() >= requestedQuantity;
+            return validateStockAvailability(pricingInfo, requestedQuantity);
         } catch (ProductValidationException e) {
             log.warn("Product validation failed during stock check: {}", e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Validate stock availability against already fetched pricing information
+     * @param pricingInfo Pricing information including stock data
+     * @param requestedQuantity Requested quantity
+     * @return true if stock is available
+     */
+    public boolean validateStockAvailability(ProductPricingInfo pricingInfo, int requestedQuantity) {
+        if (!pricingInfo.isInventoryTracking()) {
+            return true; // No inventory tracking means unlimited stock
+        }
+
+        return pricingInfo.getAvailableStock() >= requestedQuantity;
+    }
 }
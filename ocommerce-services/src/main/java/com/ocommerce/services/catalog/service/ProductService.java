@@ -20,7 +20,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -56,6 +60,27 @@ public class ProductService {
                 .map(this::convertToProductResponse);
     }
 
+    /**
+     * Get active products by IDs using a single catalog query
+     *
+     * @return active products keyed by product ID; missing or inactive IDs are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, ProductResponse> getActiveProductsByIds(Collection<UUID> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+        log.info("Fetching {} products by ID", productIds.size());
+
+        Map<UUID, ProductResponse> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(new HashSet<>(productIds))) {
+            if (product.getStatus() == ProductStatus.ACTIVE) {
+                products.put(product.getId(), convertToProductResponse(product));
+            }
+        }
+        return products;
+    }
+
     /**
      * Get product by slug
      */
@@ -1,14 +1,23 @@
 package com.ocommerce.services.common.exception;
 
 import com.ocommerce.services.user.exception.AddressNotFoundException;
+import com.ocommerce.services.user.exception.LoginThrottledException;
+import com.ocommerce.services.user.exception.PasswordHashingBusyException;
 import com.ocommerce.services.user.exception.UserAlreadyExistsException;
 import com.ocommerce.services.user.exception.UserNotFoundException;
 import com.ocommerce.services.catalog.exception.CategoryNotFoundException;
 import com.ocommerce.services.catalog.exception.ProductNotFoundException;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyInProgressException;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyMismatchException;
+import com.ocommerce.services.order.exception.OrderPlacementRejectedException;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import com.ocommerce.services.payment.exception.RefundInProgressException;
 import com.ocommerce.services.user.service.RefreshTokenService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -70,6 +79,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 
+    /**
+     * Handle access denied exception (missing authority)
+     */
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDeniedException(
+            AccessDeniedException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.FORBIDDEN.value(),
+                "Access denied",
+                "You are not allowed to perform this operation",
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Access denied: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+
     /**
      * Handle user not found exception
      */
@@ -178,6 +205,142 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
 
+    /**
+     * Handle a login refused because of too many recent failures
+     */
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorResponse> handleLoginThrottledException(
+            LoginThrottledException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too many login attempts",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Login throttled: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle a login or signup refused because the password hashing queue is full
+     */
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingBusyException(
+            PasswordHashingBusyException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Authentication unavailable",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Password hashing rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle a full checkout queue
+     */
+    @ExceptionHandler(OrderPlacementRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleOrderPlacementRejectedException(
+            OrderPlacementRejectedException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Checkout unavailable",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Checkout rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle a payment gateway call refused because the gateway is failing or has no free worker
+     */
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentGatewayUnavailableException(
+            PaymentGatewayUnavailableException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Payment unavailable",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Payment rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle a refund requested while an earlier refund of the payment is still being processed
+     */
+    @ExceptionHandler(RefundInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleRefundInProgressException(
+            RefundInProgressException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Refund in progress",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Refund in progress: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    /**
+     * Handle a duplicate request whose Idempotency-Key is still being processed
+     */
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInProgressException(
+            IdempotencyKeyInProgressException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT.value(),
+                "Request in progress",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Idempotency key in progress: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle an Idempotency-Key reused for a different request
+     */
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(
+            IdempotencyKeyMismatchException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                "Idempotency key reused",
+                ex.getMessage(),
+                request.getDescription(false),
+                LocalDateTime.now());
+
+        log.warn("Idempotency key mismatch: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse);
+    }
+
     /**
      * Handle illegal argument exception
      */
@@ -11,7 +11,11 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
         "com.ocommerce.services.user",
         "com.ocommerce.services.cart",
         "com.ocommerce.services.order",
-        "com.ocommerce.services.payment"
+        "com.ocommerce.services.payment",
+        "com.ocommerce.services.promotion",
+        "com.ocommerce.services.outbox",
+        "com.ocommerce.services.reporting",
+        "com.ocommerce.services.idempotency"
 })
 public class JpaConfig {
 }
@@ -1,6 +1,8 @@
 package com.ocommerce.services.config;
 
+import com.ocommerce.services.security.BoundedPasswordEncoder;
 import com.ocommerce.services.security.JwtAuthenticationFilter;
+import com.ocommerce.services.security.PasswordHashingExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,12 +39,15 @@ public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final PasswordHashingExecutor passwordHashingExecutor;
 
     @Autowired
     public SecurityConfig(UserDetailsService userDetailsService,
-            JwtAuthenticationFilter jwtAuthenticationFilter) {
+            JwtAuthenticationFilter jwtAuthenticationFilter,
+            PasswordHashingExecutor passwordHashingExecutor) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.passwordHashingExecutor = passwordHashingExecutor;
     }
 
     /**
@@ -111,11 +116,13 @@ public class SecurityConfig {
     }
 
     /**
-     * Password encoder bean
+     * Password encoder bean, hashing on the bounded password hashing pool instead of request threads
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // Strength 12 for better security
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(12), // Strength 12 for better security
+                passwordHashingExecutor);
     }
 
     /**
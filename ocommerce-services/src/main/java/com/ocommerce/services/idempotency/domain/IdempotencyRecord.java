@@ -0,0 +1,60 @@
+package com.ocommerce.services.idempotency.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outcome of a request made with an Idempotency-Key, unique per user, scope and key.
+ * While IN_PROGRESS, expiresAt bounds how long the key stays claimed if the instance
+ * handling the request dies; once COMPLETED it bounds how long the response is replayed.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+    uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_keys_user_scope_key",
+        columnNames = {"user_id", "scope", "idempotency_key"}),
+    indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false, length = 50)
+    private String scope;
+
+    @Column(nullable = false, length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request, to reject a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status = IdempotencyStatus.IN_PROGRESS;
+
+    @Column(nullable = true)
+    private Integer responseStatus;
+
+    @Column(nullable = true, columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
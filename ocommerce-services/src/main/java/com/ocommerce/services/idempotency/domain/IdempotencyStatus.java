@@ -0,0 +1,6 @@
+package com.ocommerce.services.idempotency.domain;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,11 @@
+package com.ocommerce.services.idempotency.exception;
+
+/**
+ * Exception thrown when a request reuses an Idempotency-Key whose first request is still being processed
+ */
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
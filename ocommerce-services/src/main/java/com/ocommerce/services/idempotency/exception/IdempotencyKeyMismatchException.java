@@ -0,0 +1,11 @@
+package com.ocommerce.services.idempotency.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused for a different request
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
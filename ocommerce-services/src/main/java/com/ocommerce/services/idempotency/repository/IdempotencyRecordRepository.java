@@ -0,0 +1,33 @@
+package com.ocommerce.services.idempotency.repository;
+
+import com.ocommerce.services.idempotency.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    Optional<IdempotencyRecord> findByUserIdAndScopeAndIdempotencyKey(UUID userId, String scope, String idempotencyKey);
+
+    // Store the response of a claimed key; returns 0 if the claim was lost in the meantime
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.ocommerce.services.idempotency.domain.IdempotencyStatus.COMPLETED, " +
+           "r.responseStatus = :responseStatus, r.responseBody = :responseBody, r.expiresAt = :expiresAt " +
+           "WHERE r.id = :id AND r.status = com.ocommerce.services.idempotency.domain.IdempotencyStatus.IN_PROGRESS")
+    int complete(@Param("id") UUID id,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") Instant expiresAt);
+
+    // Bulk delete expired keys
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,279 @@
+package com.ocommerce.services.idempotency.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.idempotency.domain.IdempotencyRecord;
+import com.ocommerce.services.idempotency.domain.IdempotencyStatus;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyInProgressException;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyMismatchException;
+import com.ocommerce.services.idempotency.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes requests carrying an Idempotency-Key at most once per user, scope and key.
+ * <ul>
+ *   <li>Concurrent duplicates on this instance wait for the first execution (single-flight)
+ *       and get its response instead of racing it.</li>
+ *   <li>The key is claimed durably under a unique index before executing, so duplicates
+ *       on other instances are rejected while it runs.</li>
+ *   <li>The response is stored in the same transaction as the action's own writes and
+ *       replayed to retries until the TTL expires. A failed action releases the key.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTransactionTemplate;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter replayed;
+    private final Counter joined;
+
+    @Autowired
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${app.idempotency.lease-seconds:60}") long leaseSeconds,
+                              @Value("${app.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.replayed = Counter.builder("idempotency.replayed")
+            .description("Requests answered with the stored response of an earlier execution")
+            .register(meterRegistry);
+        this.joined = Counter.builder("idempotency.single-flight.joined")
+            .description("Concurrent duplicate requests that waited for the first execution")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run the action once for the given key and return its response, or replay the stored
+     * response of an earlier execution. Without a key the action simply runs.
+     * @param scope Name of the operation, so one key can be used for different operations
+     * @param request Request body the key is bound to, or null if the request has none
+     * @param successStatus HTTP status of a successful execution
+     * @throws IdempotencyKeyInProgressException if the key is being processed by another request
+     * @throws IdempotencyKeyMismatchException if the key was used for a different request
+     */
+    public <T> IdempotentResponse<T> execute(UUID userId, String scope, String key, Object request,
+                                             int successStatus, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return new IdempotentResponse<>(successStatus, action.get(), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String flightKey = userId + ":" + scope + ":" + key;
+
+        for (int attempt = 1; ; attempt++) {
+            CompletableFuture<StoredResponse> flight = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(flightKey, flight);
+            if (leader == null) {
+                try {
+                    return lead(userId, scope, key, requestHash, successStatus, responseType, action, flight);
+                } catch (RuntimeException e) {
+                    flight.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(flightKey, flight);
+                }
+            }
+
+            joined.increment();
+            Optional<StoredResponse> response = await(leader);
+            if (response.isPresent()) {
+                return replay(response.get(), requestHash, responseType);
+            }
+            // The first execution failed and released the key, so try to run it ourselves
+            if (attempt >= MAX_ATTEMPTS) {
+                throw new IdempotencyKeyInProgressException("A request with this " + HEADER + " is being processed");
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+               initialDelayString = "${app.idempotency.purge-initial-delay-ms:60000}")
+    public void purgeExpired() {
+        try {
+            Integer purged = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+            log.info("Purged {} expired idempotency keys", purged);
+        } catch (Exception e) {
+            log.error("Idempotency key purge failed", e);
+        }
+    }
+
+    private <T> IdempotentResponse<T> lead(UUID userId, String scope, String key, String requestHash, int successStatus,
+                                           Class<T> responseType, Supplier<T> action,
+                                           CompletableFuture<StoredResponse> flight) {
+        IdempotencyRecord claimed = claim(userId, scope, key, requestHash);
+        if (claimed.getStatus() == IdempotencyStatus.COMPLETED) {
+            StoredResponse stored = new StoredResponse(claimed.getRequestHash(), claimed.getResponseStatus(), claimed.getResponseBody());
+            flight.complete(stored);
+            return replay(stored, requestHash, responseType);
+        }
+
+        T body;
+        String json;
+        try {
+            // The response is stored in the action's transaction, so both commit or neither does
+            Execution<T> execution = transactionTemplate.execute(status -> {
+                T result = action.get();
+                String serialized = serialize(result);
+                if (idempotencyRecordRepository.complete(claimed.getId(), successStatus, serialized,
+                        Instant.now().plus(ttl)) == 0) {
+                    throw new IdempotencyKeyInProgressException("The claim on this " + HEADER + " expired before the request completed");
+                }
+                return new Execution<>(result, serialized);
+            });
+            body = execution.body();
+            json = execution.json();
+        } catch (RuntimeException e) {
+            release(claimed.getId());
+            throw e;
+        }
+        flight.complete(new StoredResponse(requestHash, successStatus, json));
+        return new IdempotentResponse<>(successStatus, body, false);
+    }
+
+    private IdempotencyRecord claim(UUID userId, String scope, String key, String requestHash) {
+        try {
+            return claimTransactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                Optional<IdempotencyRecord> existing =
+                    idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, scope, key);
+                if (existing.isPresent()) {
+                    IdempotencyRecord record = existing.get();
+                    if (record.getExpiresAt().isAfter(now)) {
+                        if (!record.getRequestHash().equals(requestHash)) {
+                            throw new IdempotencyKeyMismatchException(HEADER + " was already used for a different request");
+                        }
+                        if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                            return record;
+                        }
+                        throw new IdempotencyKeyInProgressException("A request with this " + HEADER + " is being processed");
+                    }
+                    // Expired response, or an abandoned claim whose action never committed
+                    idempotencyRecordRepository.delete(record);
+                    idempotencyRecordRepository.flush();
+                }
+
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setUserId(userId);
+                record.setScope(scope);
+                record.setIdempotencyKey(key);
+                record.setRequestHash(requestHash);
+                record.setExpiresAt(now.plus(lease));
+                return idempotencyRecordRepository.saveAndFlush(record);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance claimed the key between our lookup and insert
+            throw new IdempotencyKeyInProgressException("A request with this " + HEADER + " is being processed");
+        }
+    }
+
+    private void release(UUID recordId) {
+        try {
+            claimTransactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(recordId));
+        } catch (RuntimeException e) {
+            // The claim then expires after the lease
+            log.warn("Could not release idempotency key {}: {}", recordId, e.getMessage());
+        }
+    }
+
+    private Optional<StoredResponse> await(CompletableFuture<StoredResponse> leader) {
+        try {
+            return Optional.of(leader.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException("A request with this " + HEADER + " is being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted while waiting for a request with the same " + HEADER);
+        }
+    }
+
+    private <T> IdempotentResponse<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(HEADER + " was already used for a different request");
+        }
+        replayed.increment();
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), responseType);
+            return new IdempotentResponse<>(stored.status(), body, true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private String serialize(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for replay", e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] content = request == null ? new byte[0] : objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, int status, String body) {
+    }
+
+    private record Execution<T>(T body, String json) {
+    }
+}
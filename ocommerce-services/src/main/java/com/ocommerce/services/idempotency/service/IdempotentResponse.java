@@ -0,0 +1,15 @@
+package com.ocommerce.services.idempotency.service;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Response of an idempotent request; replayed is true when it was served from an earlier execution
+ */
+public record IdempotentResponse<T>(int status, T body, boolean replayed) {
+
+    public ResponseEntity<T> toResponseEntity() {
+        return ResponseEntity.status(status)
+            .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(replayed))
+            .body(body);
+    }
+}
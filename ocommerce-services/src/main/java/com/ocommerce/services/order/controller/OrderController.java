@@ -1,8 +1,16 @@
 package com.ocommerce.services.order.controller;
 
+import com.ocommerce.services.idempotency.service.IdempotencyService;
+import com.ocommerce.services.order.dto.BulkStatusTransitionRequest;
+import com.ocommerce.services.order.dto.BulkStatusTransitionResponse;
 import com.ocommerce.services.order.dto.CreateOrderRequest;
+import com.ocommerce.services.order.dto.OrderCountResponse;
+import com.ocommerce.services.order.dto.OrderIntentResponse;
 import com.ocommerce.services.order.dto.OrderResponse;
+import com.ocommerce.services.order.dto.OrderSliceResponse;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
 import com.ocommerce.services.order.mapper.OrderMapper;
+import com.ocommerce.services.order.service.OrderPlacementService;
 import com.ocommerce.services.order.service.OrderService;
 import com.ocommerce.services.user.domain.User;
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,11 +44,13 @@ import java.util.UUID;
 public class OrderController {
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final OrderPlacementService orderPlacementService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     @Operation(
         summary = "Create a new order",
-        description = "Creates a new order from the user's current cart contents. The cart must contain at least one item and all items must be available. Requires valid shipping and billing addresses. The cart will be cleared upon successful order creation.",
+        description = "Creates a new order from the user's current cart contents. The cart must contain at least one item and all items must be available. Requires valid shipping and billing addresses. The cart will be cleared upon successful order creation. Send an Idempotency-Key header to make retries safe: a repeated request with the same key does not create another order but replays the first response (marked with Idempotent-Replayed: true).",
         operationId = "createOrder"
     )
     @ApiResponses(value = {
@@ -61,6 +71,14 @@ public class OrderController {
             responseCode = "404",
             description = "Cart not found for the authenticated user"
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A request with the same Idempotency-Key is still in progress"
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Idempotency-Key was already used for a different request"
+        ),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
@@ -74,20 +92,27 @@ public class OrderController {
                 required = true,
                 schema = @Schema(implementation = CreateOrderRequest.class)
             )
-            @Valid @RequestBody CreateOrderRequest requestDTO) {
-        var order = orderService.createOrderFromCart(
-            user.getId(),
-            requestDTO.getShippingAddressId(),
-            requestDTO.getBillingAddressId()
-        );
-        return ResponseEntity.status(HttpStatus.CREATED)
-            .body(orderMapper.toOrderResponse(order));
+            @Valid @RequestBody CreateOrderRequest requestDTO,
+            @Parameter(
+                description = "Client-generated key that identifies this order across retries",
+                example = "6f1c1d9e-3b7a-4f5e-9c1a-2d4b8e7f0a12"
+            )
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(user.getId(), "order.create", idempotencyKey, requestDTO,
+            HttpStatus.CREATED.value(), OrderResponse.class, () -> {
+                var order = orderService.createOrderFromCart(
+                    user.getId(),
+                    requestDTO.getShippingAddressId(),
+                    requestDTO.getBillingAddressId()
+                );
+                return orderMapper.toOrderResponse(order);
+            }).toResponseEntity();
     }
 
     @GetMapping("/{id}")
     @Operation(
         summary = "Retrieve order details",
-        description = "Fetches detailed information about a specific order including all order items, addresses, and current status. Only orders belonging to the authenticated user can be accessed.",
+        description = "Fetches detailed information about a specific order including all order items, addresses, and current status. Only orders belonging to the authenticated user can be accessed. Closed orders that were moved to the archive are still returned.",
         operationId = "getOrderById"
     )
     @ApiResponses(value = {
@@ -119,8 +144,10 @@ public class OrderController {
                 schema = @Schema(type = "string", format = "uuid")
             )
             @PathVariable UUID id) {
+        // Closed orders older than the archival window are served from the archive
         return orderService.getOrderById(id, user.getId())
             .map(orderMapper::toOrderResponse)
+            .or(() -> orderService.getArchivedOrder(id, user.getId()).map(orderMapper::toOrderResponse))
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -128,7 +155,7 @@ public class OrderController {
     @GetMapping
     @Operation(
         summary = "Retrieve user orders",
-        description = "Fetches a paginated list of orders for the authenticated user. Orders are returned in descending order by creation date (most recent first). Supports pagination to handle large order histories efficiently.",
+        description = "Fetches a paginated list of orders for the authenticated user. Orders are returned in descending order by creation date (most recent first). Supports pagination to handle large order histories efficiently. Closed orders moved to the archive are listed after the remaining orders.",
         operationId = "getUserOrders"
     )
     @ApiResponses(value = {
@@ -162,9 +189,146 @@ public class OrderController {
             )
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<OrderResponse> orders = orderService.getUserOrders(user.getId(), pageable)
-            .map(orderMapper::toOrderResponse);
-        return ResponseEntity.ok(orders);
+        return ResponseEntity.ok(orderService.getUserOrders(user.getId(), pageable));
+    }
+
+    @GetMapping("/history")
+    @Operation(
+        summary = "Retrieve user order history by cursor",
+        description = "Fetches a slice of the authenticated user's orders, most recent first, using cursor-based paging. Pass the returned nextCursor to fetch the following slice. Unlike page-number paging, deep slices are as fast as the first one and no total count is computed; use /count for the total. Archived orders are included in date order.",
+        operationId = "getUserOrderHistory"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Orders retrieved successfully"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<OrderSliceResponse> getUserOrderHistory(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @Parameter(
+                description = "Continuation token from the previous response; omit for the first slice"
+            )
+            @RequestParam(required = false) String cursor,
+            @Parameter(
+                description = "Number of orders per slice",
+                example = "10",
+                schema = @Schema(type = "integer", minimum = "1", maximum = "100", defaultValue = "10")
+            )
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(orderService.getUserOrderSlice(user.getId(), cursor, size));
+    }
+
+    @GetMapping("/count")
+    @Operation(
+        summary = "Count user orders",
+        description = "Returns the total number of orders of the authenticated user, archived orders included. The value is cached briefly and may lag behind recent orders.",
+        operationId = "countUserOrders"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Order count retrieved successfully"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<OrderCountResponse> countUserOrders(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(new OrderCountResponse(orderService.countUserOrders(user.getId())));
+    }
+
+    @GetMapping("/intents/{intentId}")
+    @Operation(
+        summary = "Get asynchronous checkout status",
+        description = "Returns the status of a checkout queued with POST /api/v1/cart/checkout/async. Once the status is COMPLETED the orderId of the placed order is set; FAILED intents carry the failure reason.",
+        operationId = "getOrderIntent"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Checkout status retrieved successfully"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Order intent not found or not owned by the user",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<OrderIntentResponse> getOrderIntent(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @Parameter(
+                description = "Order intent ID returned by the asynchronous checkout",
+                required = true,
+                example = "550e8400-e29b-41d4-a716-446655440200"
+            )
+            @PathVariable UUID intentId) {
+        return orderPlacementService.getOrderIntent(intentId, user.getId())
+            .map(orderMapper::toOrderIntentResponse)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/summary")
+    @Operation(
+        summary = "Retrieve user order summaries",
+        description = "Fetches a paginated list of order summaries (id, status, total, item count, creation date) for the authenticated user, most recent first. Order items are not loaded, which makes this the preferred endpoint for order history listings. Closed orders moved to the archive are listed after the remaining orders.",
+        operationId = "getUserOrderSummaries"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Order summaries retrieved successfully"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<Page<OrderSummaryResponse>> getUserOrderSummaries(
+            @Parameter(hidden = true) @AuthenticationPrincipal User user,
+            @Parameter(
+                description = "Page number (0-based)",
+                example = "0",
+                schema = @Schema(type = "integer", minimum = "0", defaultValue = "0")
+            )
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(
+                description = "Number of orders per page",
+                example = "10",
+                schema = @Schema(type = "integer", minimum = "1", maximum = "100", defaultValue = "10")
+            )
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(orderService.getUserOrderSummaries(user.getId(), pageable));
     }
 
     @PutMapping("/{id}/cancel")
@@ -209,4 +373,40 @@ public class OrderController {
         var cancelledOrder = orderService.cancelOrder(id, user.getId());
         return ResponseEntity.ok(orderMapper.toOrderResponse(cancelledOrder));
     }
+
+    @PostMapping("/status/bulk")
+    @PreAuthorize("hasAuthority('ORDER_ADMIN')")
+    @Operation(
+        summary = "Transition many orders to one status",
+        description = "Moves up to 1000 orders to the target status in one set-based update, e.g. to mark a warehouse batch SHIPPED. Only transitions allowed by the order state machine are applied (PENDING -> CONFIRMED -> SHIPPED -> DELIVERED, and CANCELLED from any non-final status). Orders that are missing or in an incompatible status are left unchanged and reported per ID. Requires the ORDER_ADMIN authority.",
+        operationId = "transitionOrderStatuses"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Transitions applied; see the per-order outcomes"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request - empty or more than 1000 order IDs, or missing target status"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - ORDER_ADMIN authority required",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<BulkStatusTransitionResponse> transitionOrderStatuses(
+            @Parameter(
+                description = "Order IDs and the status to move them to",
+                required = true
+            )
+            @Valid @RequestBody BulkStatusTransitionRequest request) {
+        return ResponseEntity.ok(orderService.transitionOrderStatuses(request.getOrderIds(), request.getTargetStatus()));
+    }
 }
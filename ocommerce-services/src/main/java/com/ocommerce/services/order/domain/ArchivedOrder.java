@@ -0,0 +1,67 @@
+package com.ocommerce.services.order.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Closed order moved out of the hot {@code orders} table by the archival job.
+ * Rows are written with INSERT ... SELECT. Afterwards only a refund changes them, through
+ * conditional updates of the payment status and sales reversal flag in ArchivedOrderRepository.
+ * On PostgreSQL the table may be range-partitioned by created_at, see db/orders-archive-postgresql.sql.
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive", indexes = {
+    @Index(name = "idx_orders_archive_user_created_id", columnList = "user_id, created_at DESC, id DESC")
+})
+@Getter
+@Setter
+public class ArchivedOrder {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @OneToMany(mappedBy = "order", fetch = FetchType.LAZY)
+    private List<ArchivedOrderItem> items;
+
+    @Column(nullable = false)
+    private UUID shippingAddressId;
+
+    @Column(nullable = false)
+    private UUID billingAddressId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus orderStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus paymentStatus;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private boolean salesRecorded;
+
+    @Column(nullable = false)
+    private boolean salesReversed;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
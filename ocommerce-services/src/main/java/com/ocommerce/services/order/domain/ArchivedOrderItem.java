@@ -0,0 +1,65 @@
+package com.ocommerce.services.order.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Item of an {@link ArchivedOrder}. Carries the order's created_at so both archive
+ * tables can be partitioned alike; there is no foreign key, as a partitioned parent
+ * would need it to include the partition key.
+ */
+@Entity
+@Immutable
+@Table(name = "order_items_archive", indexes = {
+    @Index(name = "idx_order_items_archive_order_id", columnList = "order_id")
+})
+@Getter
+@Setter
+public class ArchivedOrderItem {
+    @Id
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private ArchivedOrder order;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Column(nullable = true)
+    private UUID variantId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private BigDecimal unitPrice;
+
+    @Column(nullable = true)
+    private BigDecimal discountAmount;
+
+    @Column(nullable = true)
+    private BigDecimal taxAmount;
+
+    @Column(nullable = true)
+    private String productName;
+
+    @Column(nullable = true)
+    private String variantName;
+
+    @Column(nullable = true)
+    private String sku;
+
+    // Resolved when archiving, so it is always set
+    @Column(nullable = false)
+    private BigDecimal totalPrice;
+
+    @Column(nullable = false)
+    private Instant orderCreatedAt;
+}
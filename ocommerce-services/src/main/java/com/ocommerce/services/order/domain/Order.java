@@ -10,7 +10,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_created_id", columnList = "user_id, created_at DESC, id DESC"),
+    @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 public class Order {
@@ -41,6 +44,24 @@ public class Order {
     @Column(nullable = false)
     private BigDecimal totalAmount;
 
+    // Item prices and total are guaranteed until then; payment only re-prices after it passes
+    @Column(nullable = true)
+    private Instant priceLockedUntil;
+
+    // Whether the order is counted in the sales rollups, and whether it was taken out again
+    @Column(nullable = false)
+    private boolean salesRecorded;
+
+    @Column(nullable = false)
+    private boolean salesReversed;
+
+    // Incremented whenever the order is re-priced; salesPricingVersion is the pricing counted in the sales rollups
+    @Column(nullable = false)
+    private int pricingVersion;
+
+    @Column(nullable = false)
+    private int salesPricingVersion;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -57,6 +78,10 @@ public class Order {
         updatedAt = Instant.now();
     }
 
+    public boolean isPriceLocked(Instant now) {
+        return priceLockedUntil != null && now.isBefore(priceLockedUntil);
+    }
+
     // Calculate total amount from order items
     public BigDecimal calculateTotalAmount() {
         if (items == null || items.isEmpty()) return BigDecimal.ZERO;
@@ -0,0 +1,59 @@
+package com.ocommerce.services.order.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A checkout request accepted for asynchronous processing.
+ * Clients poll it until it is COMPLETED (orderId is set) or FAILED (failureReason is set).
+ */
+@Entity
+@Table(name = "order_intents", indexes = {
+    @Index(name = "idx_order_intents_user_status", columnList = "user_id, status")
+})
+@Getter
+@Setter
+public class OrderIntent {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private UUID shippingAddressId;
+
+    @Column(nullable = false)
+    private UUID billingAddressId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderIntentStatus status = OrderIntentStatus.QUEUED;
+
+    @Column(nullable = true)
+    private UUID orderId;
+
+    @Column(nullable = true, length = 500)
+    private String failureReason;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
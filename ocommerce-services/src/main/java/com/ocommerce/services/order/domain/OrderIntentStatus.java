@@ -0,0 +1,8 @@
+package com.ocommerce.services.order.domain;
+
+public enum OrderIntentStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
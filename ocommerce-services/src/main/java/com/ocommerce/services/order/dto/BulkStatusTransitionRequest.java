@@ -0,0 +1,24 @@
+package com.ocommerce.services.order.dto;
+
+import com.ocommerce.services.order.domain.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Schema(description = "Move many orders to one status")
+public class BulkStatusTransitionRequest {
+    @Schema(description = "Orders to transition", example = "[\"550e8400-e29b-41d4-a716-446655440100\"]")
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 1000, message = "At most 1000 orders can be transitioned at once")
+    private List<@NotNull UUID> orderIds;
+
+    @Schema(description = "Status to move the orders to", example = "SHIPPED")
+    @NotNull(message = "Target status is required")
+    private OrderStatus targetStatus;
+}
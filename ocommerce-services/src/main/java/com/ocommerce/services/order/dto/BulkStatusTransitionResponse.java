@@ -0,0 +1,24 @@
+package com.ocommerce.services.order.dto;
+
+import com.ocommerce.services.order.domain.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Bulk status transition result")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusTransitionResponse {
+    @Schema(description = "Status the orders were moved to", example = "SHIPPED")
+    private OrderStatus targetStatus;
+
+    @Schema(description = "Number of orders transitioned", example = "998")
+    private int transitioned;
+
+    @Schema(description = "Outcome per requested order, in request order")
+    private List<OrderTransitionOutcome> outcomes;
+}
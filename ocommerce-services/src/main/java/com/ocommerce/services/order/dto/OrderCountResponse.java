@@ -0,0 +1,15 @@
+package com.ocommerce.services.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Order count response")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCountResponse {
+    @Schema(description = "Total number of orders of the user; may lag behind by up to a minute", example = "42")
+    private long count;
+}
@@ -0,0 +1,30 @@
+package com.ocommerce.services.order.dto;
+
+import com.ocommerce.services.order.domain.OrderIntentStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Status of an asynchronous checkout")
+@Data
+public class OrderIntentResponse {
+    @Schema(description = "Order intent identifier", example = "550e8400-e29b-41d4-a716-446655440200")
+    private UUID id;
+
+    @Schema(description = "Processing status", example = "QUEUED")
+    private OrderIntentStatus status;
+
+    @Schema(description = "ID of the created order, set once the status is COMPLETED", example = "550e8400-e29b-41d4-a716-446655440100")
+    private UUID orderId;
+
+    @Schema(description = "Why the order could not be placed, set when the status is FAILED", example = "Insufficient stock for product")
+    private String failureReason;
+
+    @Schema(description = "Time the checkout was accepted (UTC)", example = "2024-08-19T10:15:30Z")
+    private Instant createdAt;
+
+    @Schema(description = "Time of the last status change (UTC)", example = "2024-08-19T10:15:31Z")
+    private Instant updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.ocommerce.services.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "Slice of the order history with a continuation token")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSliceResponse {
+    @Schema(description = "Orders in this slice, most recent first")
+    private List<OrderResponse> content;
+
+    @Schema(description = "Token to pass as cursor to fetch the next slice; absent on the last slice",
+            example = "MTcwNTMxNDIwMDowOjU1MGU4NDAwLWUyOWItNDFkNC1hNzE2LTQ0NjY1NTQ0MDEwMA")
+    private String nextCursor;
+
+    @Schema(description = "Whether more orders are available", example = "true")
+    private boolean hasNext;
+}
@@ -0,0 +1,32 @@
+package com.ocommerce.services.order.dto;
+
+import com.ocommerce.services.order.domain.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Schema(description = "Order summary for order history listings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    @Schema(description = "Order unique identifier", example = "550e8400-e29b-41d4-a716-446655440100")
+    private UUID id;
+
+    @Schema(description = "Order status", example = "PENDING")
+    private OrderStatus orderStatus;
+
+    @Schema(description = "Total amount for the order", example = "199.99")
+    private BigDecimal totalAmount;
+
+    @Schema(description = "Number of order lines", example = "3")
+    private int itemCount;
+
+    @Schema(description = "Order creation timestamp", example = "2024-01-15T10:30:00Z")
+    private Instant createdAt;
+}
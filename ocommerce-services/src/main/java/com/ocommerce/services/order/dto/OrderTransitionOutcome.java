@@ -0,0 +1,30 @@
+package com.ocommerce.services.order.dto;
+
+import com.ocommerce.services.order.domain.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Schema(description = "Result of a status transition for one order")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionOutcome {
+    public enum Result {
+        TRANSITIONED,
+        NOT_FOUND,
+        INVALID_TRANSITION
+    }
+
+    @Schema(description = "Order ID", example = "550e8400-e29b-41d4-a716-446655440100")
+    private UUID orderId;
+
+    @Schema(description = "Whether the order was transitioned, and why not otherwise", example = "TRANSITIONED")
+    private Result result;
+
+    @Schema(description = "Status before the transition; null if the order was not found", example = "CONFIRMED")
+    private OrderStatus previousStatus;
+}
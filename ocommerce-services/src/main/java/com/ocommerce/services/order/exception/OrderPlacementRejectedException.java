@@ -0,0 +1,11 @@
+package com.ocommerce.services.order.exception;
+
+/**
+ * Exception thrown when the asynchronous checkout queue is full
+ */
+public class OrderPlacementRejectedException extends RuntimeException {
+
+    public OrderPlacementRejectedException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,11 @@
 package com.ocommerce.services.order.mapper;
 
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.ArchivedOrderItem;
 import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderIntent;
 import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.order.dto.OrderIntentResponse;
 import com.ocommerce.services.order.dto.OrderResponse;
 import com.ocommerce.services.order.dto.OrderItemResponse;
 import org.mapstruct.Mapper;
@@ -18,4 +22,10 @@ public interface OrderMapper {
     List<OrderItemResponse> toOrderItemResponseList(List<OrderItem> items);
 
     OrderResponse toOrderResponse(Order order);
+
+    OrderItemResponse toOrderItemResponse(ArchivedOrderItem orderItem);
+
+    OrderResponse toOrderResponse(ArchivedOrder order);
+
+    OrderIntentResponse toOrderIntentResponse(OrderIntent orderIntent);
 }
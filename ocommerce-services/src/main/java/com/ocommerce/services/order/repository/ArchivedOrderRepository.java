@@ -0,0 +1,134 @@
+package com.ocommerce.services.order.repository;
+
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import com.ocommerce.services.order.repository.OrderRepository.OrderSalesTotal;
+import com.ocommerce.services.order.repository.OrderRepository.ProductSalesLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    // Find an archived order with its items (for security)
+    @EntityGraph(attributePaths = "items")
+    Optional<ArchivedOrder> findWithItemsByIdAndUserId(UUID id, UUID userId);
+
+    long countByUserId(UUID userId);
+
+    // Archived part of a user's order history; the offset is relative to the archive, not to the whole history
+    @Query(value = "SELECT * FROM orders_archive o WHERE o.user_id = :userId " +
+                   "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<ArchivedOrder> findHistoryPage(@Param("userId") UUID userId,
+                                        @Param("offset") long offset,
+                                        @Param("limit") int limit);
+
+    // First slice of a user's archived orders in (createdAt, id) descending keyset order
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<ArchivedOrder> findFirstOrderSlice(@Param("userId") UUID userId, Pageable pageable);
+
+    // Next slice of a user's archived orders after the given (createdAt, id) position
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM ArchivedOrder o WHERE o.userId = :userId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<ArchivedOrder> findOrderSliceAfter(@Param("userId") UUID userId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") UUID id,
+                                             Pageable pageable);
+
+    // Load archived orders with their items in one query
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT o FROM ArchivedOrder o WHERE o.id IN :ids")
+    List<ArchivedOrder> findWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Summaries of the given archived orders without loading items
+    @Query("SELECT new com.ocommerce.services.order.dto.OrderSummaryResponse(" +
+           "o.id, o.orderStatus, o.totalAmount, SIZE(o.items), o.createdAt) " +
+           "FROM ArchivedOrder o WHERE o.id IN :ids")
+    List<OrderSummaryResponse> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Record a payment status change made after the order was archived; returns 0 if the order is not archived
+    @Modifying
+    @Query(value = "UPDATE orders_archive SET payment_status = :status, updated_at = :now WHERE id = :id",
+           nativeQuery = true)
+    int updatePaymentStatus(@Param("id") UUID id, @Param("status") String status, @Param("now") Instant now);
+
+    // Take an archived order out of the sales rollups at most once; returns 0 if it was never counted or already is
+    @Modifying
+    @Query(value = "UPDATE orders_archive SET sales_reversed = true " +
+                   "WHERE id = :id AND sales_recorded = true AND sales_reversed = false",
+           nativeQuery = true)
+    int markSalesReversed(@Param("id") UUID id);
+
+    // Rollup backfill: count every archived order created in the range
+    @Modifying
+    @Query(value = "UPDATE orders_archive SET sales_recorded = true " +
+                   "WHERE created_at >= :from AND created_at < :to AND sales_recorded = false",
+           nativeQuery = true)
+    int markSalesRecordedCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Rollup backfill: reverse cancelled and refunded archived orders created in the range
+    @Modifying
+    @Query(value = "UPDATE orders_archive SET sales_reversed = true " +
+                   "WHERE created_at >= :from AND created_at < :to AND sales_reversed = false " +
+                   "AND (order_status = :cancelled OR payment_status = :refunded)",
+           nativeQuery = true)
+    int markSalesReversedCreatedBetween(@Param("from") Instant from,
+                                        @Param("to") Instant to,
+                                        @Param("cancelled") String cancelled,
+                                        @Param("refunded") String refunded);
+
+    // Rollup backfill: archived order counts and revenue of the range, split by reversal
+    @Query("SELECT o.salesReversed AS reversed, COUNT(o) AS orderCount, SUM(o.totalAmount) AS revenue " +
+           "FROM ArchivedOrder o WHERE o.createdAt >= :from AND o.createdAt < :to GROUP BY o.salesReversed")
+    List<OrderSalesTotal> sumSalesCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Rollup backfill: units and revenue per product variant of the archived orders still counted in the range
+    @Query("SELECT i.productId AS productId, i.variantId AS variantId, MAX(i.sku) AS sku, " +
+           "SUM(i.quantity) AS unitsSold, SUM(i.totalPrice) AS revenue " +
+           "FROM ArchivedOrderItem i JOIN i.order o " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to AND o.salesReversed = false " +
+           "GROUP BY i.productId, i.variantId")
+    List<ProductSalesLine> sumProductSalesCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Copy the given orders into the archive
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive (id, user_id, shipping_address_id, billing_address_id, order_status, " +
+                   "payment_status, total_amount, sales_recorded, sales_reversed, created_at, updated_at, archived_at) " +
+                   "SELECT o.id, o.user_id, o.shipping_address_id, o.billing_address_id, o.order_status, " +
+                   "o.payment_status, o.total_amount, o.sales_recorded, o.sales_reversed, o.created_at, o.updated_at, :now " +
+                   "FROM orders o WHERE o.id IN (:ids)",
+           nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    // Copy the items of the given orders into the archive, resolving their total price
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, product_id, variant_id, quantity, unit_price, " +
+                   "discount_amount, tax_amount, product_name, variant_name, sku, total_price, order_created_at) " +
+                   "SELECT i.id, i.order_id, i.product_id, i.variant_id, i.quantity, i.unit_price, " +
+                   "i.discount_amount, i.tax_amount, i.product_name, i.variant_name, i.sku, " +
+                   "COALESCE(i.total_price, i.unit_price * i.quantity - COALESCE(i.discount_amount, 0) + COALESCE(i.tax_amount, 0)), " +
+                   "o.created_at " +
+                   "FROM order_items i JOIN orders o ON o.id = i.order_id WHERE i.order_id IN (:ids)",
+           nativeQuery = true)
+    int copyOrderItems(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,57 @@
+package com.ocommerce.services.order.repository;
+
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.domain.OrderIntentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OrderIntentRepository extends JpaRepository<OrderIntent, UUID> {
+
+    Optional<OrderIntent> findByIdAndUserId(UUID id, UUID userId);
+
+    // An intent of the user that is still waiting or being processed
+    Optional<OrderIntent> findFirstByUserIdAndStatusIn(UUID userId, Collection<OrderIntentStatus> statuses);
+
+    // In-flight intents that have not changed since the cutoff, oldest first
+    List<OrderIntent> findByStatusInAndUpdatedAtBeforeOrderByUpdatedAt(Collection<OrderIntentStatus> statuses,
+                                                                     Instant cutoff, Pageable pageable);
+
+    // Move an intent on only if it is still in the expected status; returns 0 if another worker or recovery got there first
+    @Modifying
+    @Query("UPDATE OrderIntent i SET i.status = :to, i.updatedAt = :now WHERE i.id = :id AND i.status = :from")
+    int transition(@Param("id") UUID id,
+                   @Param("from") OrderIntentStatus from,
+                   @Param("to") OrderIntentStatus to,
+                   @Param("now") Instant now);
+
+    // Record the placed order, only while the intent is still being processed
+    @Modifying
+    @Query("UPDATE OrderIntent i SET i.status = :completed, i.orderId = :orderId, i.updatedAt = :now " +
+           "WHERE i.id = :id AND i.status = :processing")
+    int markCompleted(@Param("id") UUID id,
+                      @Param("orderId") UUID orderId,
+                      @Param("processing") OrderIntentStatus processing,
+                      @Param("completed") OrderIntentStatus completed,
+                      @Param("now") Instant now);
+
+    // Fail an intent that is still in the expected status
+    @Modifying
+    @Query("UPDATE OrderIntent i SET i.status = :failed, i.failureReason = :reason, i.updatedAt = :now " +
+           "WHERE i.id = :id AND i.status = :from")
+    int markFailed(@Param("id") UUID id,
+                   @Param("from") OrderIntentStatus from,
+                   @Param("failed") OrderIntentStatus failed,
+                   @Param("reason") String reason,
+                   @Param("now") Instant now);
+}
@@ -2,13 +2,24 @@ package com.ocommerce.services.order.repository;
 
 import com.ocommerce.services.order.domain.Order;
 import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.domain.PaymentStatus;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,8 +28,126 @@ import java.util.UUID;
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     // Find orders by user ID with pagination
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Page<Order> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
+    // First slice of a user's order history in (createdAt, id) descending keyset order
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findFirstOrderSlice(@Param("userId") UUID userId, Pageable pageable);
+
+    // Next slice of a user's order history after the given (createdAt, id) position
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<Order> findOrderSliceAfter(@Param("userId") UUID userId,
+                                     @Param("createdAt") Instant createdAt,
+                                     @Param("id") UUID id,
+                                     Pageable pageable);
+
+    // Load orders with their items in one query (for a page of order history)
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Order history summaries without loading items
+    @Query(value = "SELECT new com.ocommerce.services.order.dto.OrderSummaryResponse(" +
+                   "o.id, o.orderStatus, o.totalAmount, SIZE(o.items), o.createdAt) " +
+                   "FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
+    Page<OrderSummaryResponse> findSummariesByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    // Lock orders for a bulk status transition; rows are locked in id order to avoid deadlocks
+    @Query(value = "SELECT * FROM orders o WHERE o.id IN (:ids) ORDER BY o.id FOR UPDATE", nativeQuery = true)
+    List<Order> findAllByIdInForUpdate(@Param("ids") Collection<UUID> ids);
+
+    // Lock an order so concurrent payment attempts for it are serialized
+    @Query(value = "SELECT * FROM orders o WHERE o.id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    // Set-based status transition, guarded by the allowed predecessor statuses
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.orderStatus = :target, o.updatedAt = :now " +
+           "WHERE o.id IN :ids AND o.orderStatus IN :allowedFrom")
+    int transitionStatus(@Param("ids") Collection<UUID> ids,
+                         @Param("allowedFrom") Collection<OrderStatus> allowedFrom,
+                         @Param("target") OrderStatus target,
+                         @Param("now") Instant now);
+
+    // Count an order in the sales rollups at most once, at its current pricing; returns 0 if it already is
+    @Modifying
+    @Query("UPDATE Order o SET o.salesRecorded = true, o.salesPricingVersion = o.pricingVersion " +
+           "WHERE o.id = :id AND o.salesRecorded = false")
+    int markSalesRecorded(@Param("id") UUID id);
+
+    // Move a counted order to the next pricing in the sales rollups; returns 0 if the rollups do not hold the previous one
+    @Modifying
+    @Query("UPDATE Order o SET o.salesPricingVersion = :version " +
+           "WHERE o.id = :id AND o.salesRecorded = true AND o.salesReversed = false " +
+           "AND o.salesPricingVersion = :version - 1")
+    int markSalesRepriced(@Param("id") UUID id, @Param("version") int version);
+
+    // Take an order out of the sales rollups at most once; returns 0 if it was never counted or already reversed
+    @Modifying
+    @Query("UPDATE Order o SET o.salesReversed = true " +
+           "WHERE o.id = :id AND o.salesRecorded = true AND o.salesReversed = false")
+    int markSalesReversed(@Param("id") UUID id);
+
+    // Rollup backfill: count every order created in the range
+    @Modifying
+    @Query("UPDATE Order o SET o.salesRecorded = true, o.salesPricingVersion = o.pricingVersion " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to AND o.salesRecorded = false")
+    int markSalesRecordedCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Rollup backfill: reverse cancelled and refunded orders created in the range
+    @Modifying
+    @Query("UPDATE Order o SET o.salesReversed = true " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to AND o.salesReversed = false " +
+           "AND (o.orderStatus = :cancelled OR o.paymentStatus = :refunded)")
+    int markSalesReversedCreatedBetween(@Param("from") Instant from,
+                                        @Param("to") Instant to,
+                                        @Param("cancelled") OrderStatus cancelled,
+                                        @Param("refunded") PaymentStatus refunded);
+
+    // Rollup backfill: order counts and revenue of the range, split by reversal
+    @Query("SELECT o.salesReversed AS reversed, COUNT(o) AS orderCount, SUM(o.totalAmount) AS revenue " +
+           "FROM Order o WHERE o.createdAt >= :from AND o.createdAt < :to GROUP BY o.salesReversed")
+    List<OrderSalesTotal> sumSalesCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Rollup backfill: units and revenue per product variant of the orders still counted in the range
+    @Query("SELECT i.productId AS productId, i.variantId AS variantId, MAX(i.sku) AS sku, " +
+           "SUM(i.quantity) AS unitsSold, " +
+           "SUM(COALESCE(i.totalPrice, i.unitPrice * i.quantity - COALESCE(i.discountAmount, 0) + COALESCE(i.taxAmount, 0))) AS revenue " +
+           "FROM OrderItem i JOIN i.order o " +
+           "WHERE o.createdAt >= :from AND o.createdAt < :to AND o.salesReversed = false " +
+           "GROUP BY i.productId, i.variantId")
+    List<ProductSalesLine> sumProductSalesCreatedBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Creation time of the oldest order in one of the statuses created before the cutoff
+    @Query("SELECT MIN(o.createdAt) FROM Order o WHERE o.orderStatus IN :statuses AND o.createdAt < :cutoff")
+    Optional<Instant> findOldestCreatedAt(@Param("statuses") Collection<OrderStatus> statuses,
+                                          @Param("cutoff") Instant cutoff);
+
+    // Closed orders created before the cutoff, oldest first, locked for archiving; rows locked elsewhere are skipped
+    @Query(value = "SELECT * FROM orders o WHERE o.order_status IN (:statuses) AND o.created_at < :cutoff " +
+                   "ORDER BY o.created_at, o.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<Order> findArchivableForUpdate(@Param("statuses") Collection<String> statuses,
+                                        @Param("cutoff") Instant cutoff,
+                                        @Param("limit") int limit);
+
+    // Bulk delete items of archived orders
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :ids")
+    int deleteItemsByOrderIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Bulk delete archived orders
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
     // Find orders by user ID and status
     List<Order> findByUserIdAndOrderStatus(UUID userId, OrderStatus orderStatus);
 
@@ -31,4 +160,24 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     // Find recent orders for user
     @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.createdAt DESC")
     List<Order> findRecentOrdersByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    interface OrderSalesTotal {
+        boolean isReversed();
+
+        long getOrderCount();
+
+        BigDecimal getRevenue();
+    }
+
+    interface ProductSalesLine {
+        UUID getProductId();
+
+        UUID getVariantId();
+
+        String getSku();
+
+        long getUnitsSold();
+
+        BigDecimal getRevenue();
+    }
 }
@@ -0,0 +1,133 @@
+package com.ocommerce.services.order.service;
+
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Moves closed orders (DELIVERED or CANCELLED) older than the configured number of months
+ * from {@code orders}/{@code order_items} to the archive tables, so the hot tables and their
+ * indexes only hold recent orders. Each chunk is locked, copied and deleted in one short
+ * transaction; orders locked by other transactions are skipped until the next run.
+ */
+@Slf4j
+@Service
+public class OrderArchivalService {
+
+    private static final List<OrderStatus> CLOSED_STATUSES = Arrays.stream(OrderStatus.values())
+        .filter(OrderStatus::isFinal)
+        .toList();
+    private static final List<String> CLOSED_STATUS_NAMES = CLOSED_STATUSES.stream().map(Enum::name).toList();
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchivePartitionManager partitionManager;
+    private final TransactionTemplate transactionTemplate;
+    private final long afterMonths;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final DistributionSummary archivedPerRun;
+    private final Timer runDuration;
+
+    @Autowired
+    public OrderArchivalService(OrderRepository orderRepository,
+                                ArchivedOrderRepository archivedOrderRepository,
+                                OrderArchivePartitionManager partitionManager,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.orders.archive.after-months:6}") long afterMonths,
+                                @Value("${app.orders.archive.chunk-size:500}") int chunkSize,
+                                @Value("${app.orders.archive.max-chunks-per-run:200}") int maxChunksPerRun) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.partitionManager = partitionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterMonths = afterMonths;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.archivedPerRun = DistributionSummary.builder("order.archive.archived")
+            .description("Orders archived per archival run")
+            .baseUnit("orders")
+            .register(meterRegistry);
+        this.runDuration = Timer.builder("order.archive.run")
+            .description("Duration of an order archival run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.archive.interval-ms:86400000}",
+               initialDelayString = "${app.orders.archive.initial-delay-ms:300000}")
+    public void sweep() {
+        try {
+            archiveClosedOrders();
+        } catch (Exception e) {
+            log.error("Order archival run failed", e);
+        }
+    }
+
+    /**
+     * Archive closed orders created more than the configured number of months ago
+     * @return Number of orders archived
+     */
+    public int archiveClosedOrders() {
+        Timer.Sample sample = Timer.start();
+        Instant cutoff = ZonedDateTime.now(ZoneOffset.UTC).minusMonths(afterMonths).toInstant();
+        int archived = 0;
+        int chunks = 0;
+
+        Optional<Instant> oldest = orderRepository.findOldestCreatedAt(CLOSED_STATUSES, cutoff);
+        if (oldest.isPresent()) {
+            partitionManager.ensurePartitions(oldest.get(), cutoff);
+            while (chunks < maxChunksPerRun) {
+                Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                int count = moved != null ? moved : 0;
+                if (count == 0) {
+                    break;
+                }
+                chunks++;
+                archived += count;
+                if (count < chunkSize) {
+                    break;
+                }
+            }
+        }
+
+        long durationNanos = sample.stop(runDuration);
+        archivedPerRun.record(archived);
+        log.info("Archived {} closed orders created before {} in {} chunks ({} ms)",
+            archived, cutoff, chunks, Duration.ofNanos(durationNanos).toMillis());
+        return archived;
+    }
+
+    private int archiveChunk(Instant cutoff) {
+        List<Order> orders = orderRepository.findArchivableForUpdate(CLOSED_STATUS_NAMES, cutoff, chunkSize);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = orders.stream().map(Order::getId).toList();
+        archivedOrderRepository.copyOrders(ids, Instant.now());
+        archivedOrderRepository.copyOrderItems(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        return ids.size();
+    }
+}
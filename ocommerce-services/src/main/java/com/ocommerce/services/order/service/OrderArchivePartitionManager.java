@@ -0,0 +1,68 @@
+package com.ocommerce.services.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the monthly range partitions of the order archive tables on demand.
+ * Only enabled when the archive tables were created partitioned by created_at on PostgreSQL
+ * (see db/orders-archive-postgresql.sql); with plain archive tables this does nothing.
+ */
+@Slf4j
+@Component
+public class OrderArchivePartitionManager {
+
+    static final String ORDERS_ARCHIVE = "orders_archive";
+    static final String ORDER_ITEMS_ARCHIVE = "order_items_archive";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Set<YearMonth> ensured = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public OrderArchivePartitionManager(JdbcTemplate jdbcTemplate,
+                                        @Value("${app.orders.archive.partitioning.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Make sure a partition exists for every month from the one containing {@code from}
+     * to the one containing {@code to}. Runs outside any transaction, so each partition
+     * is committed on its own and the parent table is locked only briefly.
+     */
+    public void ensurePartitions(Instant from, Instant to) {
+        if (!enabled) {
+            return;
+        }
+        YearMonth last = YearMonth.from(to.atZone(ZoneOffset.UTC));
+        for (YearMonth month = YearMonth.from(from.atZone(ZoneOffset.UTC)); !month.isAfter(last); month = month.plusMonths(1)) {
+            if (ensured.contains(month)) {
+                continue;
+            }
+            createPartition(ORDERS_ARCHIVE, month);
+            createPartition(ORDER_ITEMS_ARCHIVE, month);
+            ensured.add(month);
+        }
+    }
+
+    private void createPartition(String table, YearMonth month) {
+        String partition = table + "_p" + month.format(SUFFIX);
+        // Bounds in UTC, as the partition key is a timestamp with time zone
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table +
+            " FOR VALUES FROM ('" + month.atDay(1) + " 00:00:00+00') TO ('" + month.plusMonths(1).atDay(1) + " 00:00:00+00')");
+        log.debug("Ensured archive partition {}", partition);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ocommerce.services.order.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded, short-lived cache of per-user order counts, so order history paging never needs a count query
+ */
+@Component
+public class OrderCountCache {
+
+    private final Cache<UUID, Long> counts;
+
+    public OrderCountCache(@Value("${app.orders.count-cache.ttl-ms:60000}") long ttlMs,
+                           @Value("${app.orders.count-cache.max-size:10000}") long maxSize) {
+        this.counts = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(ttlMs))
+            .maximumSize(maxSize)
+            .build();
+    }
+
+    public long get(UUID userId, Function<UUID, Long> loader) {
+        return counts.get(userId, loader);
+    }
+
+    public void evict(UUID userId) {
+        counts.invalidate(userId);
+    }
+}
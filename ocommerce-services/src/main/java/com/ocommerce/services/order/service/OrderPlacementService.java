@@ -0,0 +1,278 @@
+package com.ocommerce.services.order.service;
+
+import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.domain.OrderIntentStatus;
+import com.ocommerce.services.order.exception.OrderPlacementRejectedException;
+import com.ocommerce.services.order.repository.OrderIntentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places orders asynchronously. A checkout request only records an {@link OrderIntent}
+ * and enqueues it; a fixed number of workers then run {@link OrderService#createOrderFromCart},
+ * which bounds the database connections used by checkout regardless of request load.
+ * When the queue is full new checkouts are rejected instead of piling up.
+ * <p>
+ * The queue lives in memory only. Intents left QUEUED by a restart are re-enqueued by a
+ * periodic recovery, and intents left PROCESSING by a worker that stopped are failed; since
+ * an order and its intent's completion commit together, such an intent never has an order.
+ * Workers claim an intent with a conditional update, so an intent enqueued twice is placed once.
+ */
+@Slf4j
+@Service
+public class OrderPlacementService {
+
+    private static final Set<OrderIntentStatus> IN_FLIGHT = EnumSet.of(OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING);
+    private static final int MAX_FAILURE_REASON_LENGTH = 500;
+
+    private final OrderService orderService;
+    private final CartRepository cartRepository;
+    private final OrderIntentRepository orderIntentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Duration staleAfter;
+    private final int recoveryBatchSize;
+    private final Timer queueWait;
+    private final Counter rejected;
+    private final Counter requeued;
+    private final Counter abandoned;
+
+    @Autowired
+    public OrderPlacementService(OrderService orderService,
+                                 CartRepository cartRepository,
+                                 OrderIntentRepository orderIntentRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.orders.placement.workers:4}") int workers,
+                                 @Value("${app.orders.placement.queue-capacity:500}") int queueCapacity,
+                                 @Value("${app.orders.placement.recovery.stale-after-seconds:300}") long staleAfterSeconds,
+                                 @Value("${app.orders.placement.recovery.batch-size:100}") int recoveryBatchSize) {
+        this.orderService = orderService;
+        this.cartRepository = cartRepository;
+        this.orderIntentRepository = orderIntentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofVirtual().name("order-placement-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.recoveryBatchSize = recoveryBatchSize;
+        Gauge.builder("order.placement.queue.depth", executor, e -> e.getQueue().size())
+            .description("Checkouts waiting for a placement worker")
+            .register(meterRegistry);
+        Gauge.builder("order.placement.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Checkouts currently being placed")
+            .register(meterRegistry);
+        this.queueWait = Timer.builder("order.placement.queue.wait")
+            .description("Time a checkout waited in the queue before placement started")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("order.placement.rejected")
+            .description("Checkouts rejected because the placement queue was full")
+            .register(meterRegistry);
+        this.requeued = Counter.builder("order.placement.recovery.requeued")
+            .description("Stale queued checkouts enqueued again by recovery")
+            .register(meterRegistry);
+        this.abandoned = Counter.builder("order.placement.recovery.failed")
+            .description("Checkouts failed by recovery because their placement was interrupted")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Accept the user's cart for checkout and enqueue its placement.
+     * If the user already has a checkout in flight, that one is returned instead.
+     * @throws OrderPlacementRejectedException if the placement queue is full
+     */
+    public OrderIntent submit(UUID userId) {
+        Submission submission = transactionTemplate.execute(status -> recordIntent(userId));
+        OrderIntent intent = submission.intent();
+        if (!submission.created()) {
+            log.info("Checkout already in flight for user: {}, intent: {}", userId, intent.getId());
+            return intent;
+        }
+
+        // Enqueue only after the intent is committed, so the worker can always see it
+        try {
+            enqueue(intent.getId());
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            orderIntentRepository.deleteById(intent.getId());
+            log.warn("Checkout queue full ({} waiting), rejected checkout for user: {}", executor.getQueue().size(), userId);
+            throw new OrderPlacementRejectedException("Checkout is busy, please retry shortly");
+        }
+        log.info("Queued checkout for user: {}, intent: {}", userId, intent.getId());
+        return intent;
+    }
+
+    public Optional<OrderIntent> getOrderIntent(UUID intentId, UUID userId) {
+        return orderIntentRepository.findByIdAndUserId(intentId, userId);
+    }
+
+    private Submission recordIntent(UUID userId) {
+        // The cart lock makes concurrent submits of the same user see each other's intent
+        Cart cart = cartRepository.findByUserIdForUpdate(userId)
+            .orElseThrow(() -> new RuntimeException("Cart not found for user: " + userId));
+
+        if (cart.getItems() == null || cart.getItems().isEmpty()) {
+            throw new RuntimeException("Cannot create order from empty cart");
+        }
+        if (cart.getShippingAddressId() == null || cart.getBillingAddressId() == null) {
+            throw new RuntimeException("Shipping and billing addresses must be set before checkout");
+        }
+
+        Optional<OrderIntent> inFlight = orderIntentRepository.findFirstByUserIdAndStatusIn(userId, IN_FLIGHT);
+        if (inFlight.isPresent()) {
+            return new Submission(inFlight.get(), false);
+        }
+
+        OrderIntent intent = new OrderIntent();
+        intent.setUserId(userId);
+        intent.setShippingAddressId(cart.getShippingAddressId());
+        intent.setBillingAddressId(cart.getBillingAddressId());
+        return new Submission(orderIntentRepository.save(intent), true);
+    }
+
+    private void enqueue(UUID intentId) {
+        long enqueuedAt = System.nanoTime();
+        executor.execute(() -> place(intentId, enqueuedAt));
+    }
+
+    void place(UUID intentId, long enqueuedAt) {
+        queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "completed";
+        try {
+            // Another worker or recovery may already have taken or failed the intent
+            Integer claimed = transactionTemplate.execute(status -> orderIntentRepository.transition(
+                intentId, OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING, Instant.now()));
+            if (claimed == null || claimed == 0) {
+                outcome = "skipped";
+                return;
+            }
+            OrderIntent intent = orderIntentRepository.findById(intentId).orElseThrow();
+
+            try {
+                // The order and the intent's completion commit together
+                transactionTemplate.executeWithoutResult(status -> {
+                    Order order = orderService.createOrderFromCart(
+                        intent.getUserId(), intent.getShippingAddressId(), intent.getBillingAddressId());
+                    if (orderIntentRepository.markCompleted(intentId, order.getId(),
+                            OrderIntentStatus.PROCESSING, OrderIntentStatus.COMPLETED, Instant.now()) == 0) {
+                        throw new IllegalStateException("Checkout was abandoned while the order was being placed");
+                    }
+                });
+            } catch (RuntimeException e) {
+                outcome = "failed";
+                log.warn("Order placement failed for intent: {}: {}", intentId, e.getMessage());
+                transactionTemplate.executeWithoutResult(status -> orderIntentRepository.markFailed(intentId,
+                    OrderIntentStatus.PROCESSING, OrderIntentStatus.FAILED, truncate(e.getMessage()), Instant.now()));
+            }
+        } catch (RuntimeException e) {
+            outcome = "error";
+            log.error("Could not update order intent: {}", intentId, e);
+        } finally {
+            sample.stop(Timer.builder("order.placement.duration")
+                .description("Time spent placing a queued checkout")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.placement.recovery.interval-ms:60000}",
+               initialDelayString = "${app.orders.placement.recovery.interval-ms:60000}")
+    public void sweep() {
+        try {
+            recoverStaleIntents();
+        } catch (Exception e) {
+            log.error("Order intent recovery run failed", e);
+        }
+    }
+
+    /**
+     * Resolve one batch of intents that have been in flight for longer than the threshold:
+     * QUEUED ones are enqueued again, PROCESSING ones are failed so the user can retry.
+     * The stale-after threshold must be well above the longest queue wait plus placement.
+     * @return Number of intents resolved
+     */
+    public int recoverStaleIntents() {
+        List<OrderIntent> stale = orderIntentRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAt(
+            IN_FLIGHT, Instant.now().minus(staleAfter), PageRequest.of(0, recoveryBatchSize));
+        int resolved = 0;
+        for (OrderIntent intent : stale) {
+            try {
+                if (intent.getStatus() == OrderIntentStatus.QUEUED) {
+                    // Touch the intent so it is not picked up again while it waits in this queue
+                    Integer touched = transactionTemplate.execute(status -> orderIntentRepository.transition(
+                        intent.getId(), OrderIntentStatus.QUEUED, OrderIntentStatus.QUEUED, Instant.now()));
+                    if (touched != null && touched > 0) {
+                        enqueue(intent.getId());
+                        requeued.increment();
+                        log.warn("Re-enqueued stale checkout {} of user {}", intent.getId(), intent.getUserId());
+                    }
+                } else {
+                    Integer failed = transactionTemplate.execute(status -> orderIntentRepository.markFailed(
+                        intent.getId(), OrderIntentStatus.PROCESSING, OrderIntentStatus.FAILED,
+                        "Checkout was interrupted, please try again", Instant.now()));
+                    if (failed != null && failed > 0) {
+                        abandoned.increment();
+                        log.warn("Failed interrupted checkout {} of user {}", intent.getId(), intent.getUserId());
+                    }
+                }
+                resolved++;
+            } catch (RejectedExecutionException e) {
+                log.warn("Order intent recovery paused, placement queue is full");
+                break;
+            } catch (RuntimeException e) {
+                log.error("Could not recover order intent {}", intent.getId(), e);
+            }
+        }
+        return resolved;
+    }
+
+    // Let queued checkouts finish on a graceful shutdown
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Order placement did not drain in time, {} checkouts left queued", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_FAILURE_REASON_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_FAILURE_REASON_LENGTH);
+    }
+
+    private record Submission(OrderIntent intent, boolean created) {
+    }
+}
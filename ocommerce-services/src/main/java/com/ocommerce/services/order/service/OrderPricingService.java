@@ -0,0 +1,168 @@
+package com.ocommerce.services.order.service;
+
+import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.cart.dto.ProductPricingInfo;
+import com.ocommerce.services.cart.exception.ProductValidationException;
+import com.ocommerce.services.cart.service.CartPricingService;
+import com.ocommerce.services.cart.service.ProductValidationService;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Price locks for orders. The item prices captured when an order is created are honoured
+ * until the lock expires, so paying within the lock needs no catalog lookups. Once the lock
+ * has expired the order is re-priced from a single batched catalog query and locked again.
+ * <p>
+ * Order lines are priced by the same pipeline as the cart (promotions, then tax), so an order
+ * placed from a cart totals what the cart showed. A re-pricing that changes any amount is
+ * recorded as an {@code OrderRepriced} outbox event carrying the old and new amounts.
+ */
+@Slf4j
+@Service
+public class OrderPricingService {
+
+    private final ProductValidationService productValidationService;
+    private final CartPricingService cartPricingService;
+    private final OutboxService outboxService;
+    private final Duration lockDuration;
+
+    @Autowired
+    public OrderPricingService(ProductValidationService productValidationService,
+                               CartPricingService cartPricingService,
+                               OutboxService outboxService,
+                               @Value("${app.orders.price-lock-minutes:15}") long lockMinutes) {
+        this.productValidationService = productValidationService;
+        this.cartPricingService = cartPricingService;
+        this.outboxService = outboxService;
+        this.lockDuration = Duration.ofMinutes(lockMinutes);
+    }
+
+    /**
+     * Expiry of a price lock taken now
+     */
+    public Instant lockExpiry() {
+        return Instant.now().plus(lockDuration);
+    }
+
+    /**
+     * Re-price the order at current catalog prices with one catalog query and lock the new
+     * prices. Updates the items, total and lock of the order in place; the caller persists it.
+     * Must run in the caller's transaction, which also records the change in the outbox.
+     * @return New order total
+     * @throws ProductValidationException if a product is no longer available or out of stock
+     */
+    public BigDecimal reprice(Order order) {
+        Set<UUID> productIds = order.getItems().stream()
+            .map(OrderItem::getProductId)
+            .collect(Collectors.toSet());
+        Map<UUID, ProductResponse> products = productValidationService.getProductsForValidation(productIds);
+
+        List<BigDecimal> previousLineTotals = order.getItems().stream().map(OrderItem::getTotalPrice).toList();
+        for (OrderItem item : order.getItems()) {
+            ProductPricingInfo pricing = productValidationService.validateAndGetProductPricing(
+                products, item.getProductId(), item.getVariantId());
+            if (!productValidationService.validateStockAvailability(pricing, item.getQuantity())) {
+                throw new ProductValidationException("Insufficient stock for product: " + pricing.getProductName());
+            }
+            item.setUnitPrice(pricing.getPrice());
+        }
+
+        BigDecimal previousTotal = order.getTotalAmount();
+        BigDecimal total = applyPricing(order, products);
+        if (previousTotal != null && previousTotal.compareTo(total) != 0) {
+            log.warn("Order {} re-priced from {} to {} after its price lock expired",
+                order.getId(), previousTotal, total);
+        }
+        recordRepricing(order, previousTotal, previousLineTotals);
+        order.setPriceLockedUntil(lockExpiry());
+        return total;
+    }
+
+    // Consumers such as the sales rollups apply the difference between the old and new amounts
+    private void recordRepricing(Order order, BigDecimal previousTotal, List<BigDecimal> previousLineTotals) {
+        boolean changed = !sameAmount(previousTotal, order.getTotalAmount());
+        List<RepricedLine> lines = new ArrayList<>(order.getItems().size());
+        for (int i = 0; i < order.getItems().size(); i++) {
+            OrderItem item = order.getItems().get(i);
+            BigDecimal previousLineTotal = previousLineTotals.get(i);
+            changed |= !sameAmount(previousLineTotal, item.getTotalPrice());
+            lines.add(new RepricedLine(item.getProductId(), item.getVariantId(), item.getSku(),
+                previousLineTotal, item.getTotalPrice()));
+        }
+        if (!changed) {
+            return;
+        }
+        order.setPricingVersion(order.getPricingVersion() + 1);
+        outboxService.record(OutboxEventTypes.ORDER, order.getId(), OutboxEventTypes.ORDER_REPRICED,
+            new OrderRepricedEvent(order.getId(), order.getPricingVersion(), previousTotal, order.getTotalAmount(), lines));
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * Apply promotions and tax to the order items at their current unit prices and set the
+     * item and order totals. Runs the cart pricing pipeline over a transient copy of the lines.
+     * @param products Catalog products of the items, used by category promotions
+     * @return New order total
+     */
+    public BigDecimal applyPricing(Order order, Map<UUID, ProductResponse> products) {
+        List<CartItem> lines = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            CartItem line = new CartItem();
+            line.setProductId(item.getProductId());
+            line.setVariantId(item.getVariantId());
+            line.setSku(item.getSku());
+            line.setQuantity(item.getQuantity());
+            line.setUnitPrice(item.getUnitPrice());
+            lines.add(line);
+        }
+        Cart pricing = new Cart();
+        pricing.setItems(lines);
+
+        Map<UUID, List<UUID>> categoryIds = new HashMap<>();
+        products.forEach((productId, product) -> {
+            if (product.getCategoryIds() != null) {
+                categoryIds.put(productId, product.getCategoryIds());
+            }
+        });
+        cartPricingService.priceCart(pricing, categoryIds);
+
+        for (int i = 0; i < lines.size(); i++) {
+            OrderItem item = order.getItems().get(i);
+            item.setDiscountAmount(lines.get(i).getDiscountAmount());
+            item.setTaxAmount(lines.get(i).getTaxAmount());
+            item.setTotalPrice(lines.get(i).getTotalPrice());
+        }
+        order.setTotalAmount(pricing.getTotalAmount());
+        return order.getTotalAmount();
+    }
+
+    record OrderRepricedEvent(UUID orderId, int pricingVersion, BigDecimal previousTotal, BigDecimal totalAmount,
+                              List<RepricedLine> lines) {
+    }
+
+    record RepricedLine(UUID productId, UUID variantId, String sku, BigDecimal previousTotalPrice,
+                        BigDecimal totalPrice) {
+    }
+}
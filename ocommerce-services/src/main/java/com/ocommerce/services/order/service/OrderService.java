@@ -1,34 +1,73 @@
 package com.ocommerce.services.order.service;
 
 import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.domain.CartItem;
 import com.ocommerce.services.cart.dto.ProductPricingInfo;
 import com.ocommerce.services.cart.exception.ProductValidationException;
 import com.ocommerce.services.cart.repository.CartRepository;
 import com.ocommerce.services.cart.service.ProductValidationService;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.order.domain.ArchivedOrder;
 import com.ocommerce.services.order.domain.Order;
 import com.ocommerce.services.order.domain.OrderItem;
 import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.dto.BulkStatusTransitionResponse;
+import com.ocommerce.services.order.dto.OrderResponse;
+import com.ocommerce.services.order.dto.OrderSliceResponse;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import com.ocommerce.services.order.dto.OrderTransitionOutcome;
+import com.ocommerce.services.order.mapper.OrderMapper;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
 import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.service.OutboxService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderService {
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_BULK_TRANSITION_SIZE = 1000;
+
+    // (createdAt, id) descending; ids compare as their text, which matches the database's byte-wise uuid order
+    private static final Comparator<OrderResponse> HISTORY_ORDER = Comparator
+        .comparing(OrderResponse::getCreatedAt)
+        .thenComparing(order -> order.getId().toString())
+        .reversed();
+
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final CartRepository cartRepository;
     private final ProductValidationService productValidationService;
+    private final OrderPricingService orderPricingService;
+    private final OrderCountCache orderCountCache;
+    private final OrderMapper orderMapper;
+    private final OutboxService outboxService;
 
     @Transactional
     public Order createOrderFromCart(UUID userId, UUID shippingAddressId, UUID billingAddressId) {
@@ -42,8 +81,10 @@ public class OrderService {
             throw new RuntimeException("Cannot create order from empty cart");
         }
 
-        // Validate all cart items before creating order
-        validateCartItemsForOrder(cart);
+        // Validate all cart items with one catalog query before creating order
+        Map<UUID, ProductResponse> products = productValidationService.getProductsForValidation(
+            cart.getItems().stream().map(CartItem::getProductId).collect(Collectors.toSet()));
+        List<ProductPricingInfo> linePricing = validateCartItemsForOrder(cart, products);
 
         // Create new order
         Order order = new Order();
@@ -53,42 +94,43 @@ public class OrderService {
         order.setOrderStatus(OrderStatus.PENDING);
 
         // Convert cart items to order items with validated pricing
-        List<OrderItem> orderItems = cart.getItems().stream()
-            .map(cartItem -> {
-                // Re-validate product and get current pricing for order
-                ProductPricingInfo pricingInfo = productValidationService.validateAndGetProductPricing(
-                    cartItem.getProductId(), cartItem.getVariantId());
-
-                OrderItem orderItem = new OrderItem();
-                orderItem.setOrder(order);
-                orderItem.setProductId(cartItem.getProductId());
-                orderItem.setVariantId(cartItem.getVariantId());
-                orderItem.setQuantity(cartItem.getQuantity());
-
-                // Use validated pricing from catalog domain
-                orderItem.setUnitPrice(pricingInfo.getPrice());
-                orderItem.setProductName(pricingInfo.getProductName());
-                orderItem.setVariantName(pricingInfo.getVariantName());
-                orderItem.setSku(pricingInfo.getSku());
-
-                // Calculate pricing (can be extended for discounts/taxes)
-                orderItem.setDiscountAmount(BigDecimal.ZERO);
-                orderItem.setTaxAmount(BigDecimal.ZERO);
-                orderItem.setTotalPrice(pricingInfo.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
-
-                return orderItem;
-            })
-            .collect(Collectors.toList());
+        List<OrderItem> orderItems = new ArrayList<>(cart.getItems().size());
+        for (int i = 0; i < cart.getItems().size(); i++) {
+            CartItem cartItem = cart.getItems().get(i);
+            ProductPricingInfo pricingInfo = linePricing.get(i);
+
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrder(order);
+            orderItem.setProductId(cartItem.getProductId());
+            orderItem.setVariantId(cartItem.getVariantId());
+            orderItem.setQuantity(cartItem.getQuantity());
+
+            // Use validated pricing from catalog domain
+            orderItem.setUnitPrice(pricingInfo.getPrice());
+            orderItem.setProductName(pricingInfo.getProductName());
+            orderItem.setVariantName(pricingInfo.getVariantName());
+            orderItem.setSku(pricingInfo.getSku());
+            orderItems.add(orderItem);
+        }
 
         order.setItems(orderItems);
-        order.setTotalAmount(order.calculateTotalAmount());
+        // Same promotions and tax as the cart, so the order totals what the customer saw
+        BigDecimal total = orderPricingService.applyPricing(order, products);
+        if (cart.getTotalAmount().compareTo(total) != 0) {
+            log.info("Cart {} total changed from {} to {} at checkout", cart.getId(), cart.getTotalAmount(), total);
+        }
+        order.setPriceLockedUntil(orderPricingService.lockExpiry());
 
         // Save order
         Order savedOrder = orderRepository.save(order);
+        outboxService.record(OutboxEventTypes.ORDER, savedOrder.getId(), OutboxEventTypes.ORDER_CREATED,
+            new OrderCreatedEvent(savedOrder.getId(), userId, savedOrder.getTotalAmount(), orderItems.size()));
 
         // Clear cart after order creation
         cart.getItems().clear();
+        cart.clearTotals();
         cartRepository.save(cart);
+        orderCountCache.evict(userId);
 
         log.info("Order created successfully with ID: {} and total amount: {}",
                 savedOrder.getId(), savedOrder.getTotalAmount());
@@ -97,31 +139,34 @@ public class OrderService {
 
     /**
      * Validate all cart items before creating order
+     * @return Current catalog pricing of each cart item, in cart order
      */
-    private void validateCartItemsForOrder(Cart cart) {
+    private List<ProductPricingInfo> validateCartItemsForOrder(Cart cart, Map<UUID, ProductResponse> products) {
         log.info("Validating cart items for order creation: cart={}", cart.getId());
 
+        List<ProductPricingInfo> linePricing = new ArrayList<>(cart.getItems().size());
         for (var cartItem : cart.getItems()) {
             try {
                 // Validate product exists and is active
                 ProductPricingInfo pricingInfo = productValidationService.validateAndGetProductPricing(
-                    cartItem.getProductId(), cartItem.getVariantId());
+                    products, cartItem.getProductId(), cartItem.getVariantId());
 
                 // Validate stock availability
-                if (!productValidationService.validateStockAvailability(
-                    cartItem.getProductId(), cartItem.getVariantId(), cartItem.getQuantity())) {
+                if (!productValidationService.validateStockAvailability(pricingInfo, cartItem.getQuantity())) {
                     throw new ProductValidationException(
                         "Insufficient stock for product: " + pricingInfo.getProductName());
                 }
 
                 log.debug("Product validation passed for: {} ({})",
                     pricingInfo.getProductName(), pricingInfo.getSku());
+                linePricing.add(pricingInfo);
 
             } catch (ProductValidationException e) {
                 log.error("Product validation failed during order creation: {}", e.getMessage());
                 throw new RuntimeException("Order validation failed: " + e.getMessage(), e);
             }
         }
+        return linePricing;
     }
 
     @Transactional(readOnly = true)
@@ -129,9 +174,120 @@ public class OrderService {
         return orderRepository.findByIdAndUserId(orderId, userId);
     }
 
+    /**
+     * Closed order of the user that was moved to the archive, with its items
+     */
+    @Transactional(readOnly = true)
+    public Optional<ArchivedOrder> getArchivedOrder(UUID orderId, UUID userId) {
+        return archivedOrderRepository.findWithItemsByIdAndUserId(orderId, userId);
+    }
+
+    /**
+     * Page of a user's order history with items loaded for the whole page in one extra query per table.
+     * Orders still in the hot table come first, most recent first, followed by the archived orders.
+     */
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getUserOrders(UUID userId, Pageable pageable) {
+        Page<Order> page = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+        List<OrderResponse> content = new ArrayList<>(withItems(page.getContent()).stream()
+            .map(orderMapper::toOrderResponse)
+            .toList());
+
+        // Fill the rest of the page from the archive once the hot orders are exhausted
+        int remaining = pageable.getPageSize() - content.size();
+        if (remaining > 0) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - page.getTotalElements());
+            withArchivedItems(archivedOrderRepository.findHistoryPage(userId, archiveOffset, remaining)).stream()
+                .map(orderMapper::toOrderResponse)
+                .forEach(content::add);
+        }
+        return new PageImpl<>(content, pageable, page.getTotalElements() + archivedOrderRepository.countByUserId(userId));
+    }
+
+    /**
+     * Slice of a user's order history, most recent first, continuing after the given cursor.
+     * Uses keyset paging on (createdAt, id) over both the hot and the archive table, merging
+     * the two, and runs no count query.
+     * @param cursor Continuation token from the previous slice, or null for the first slice
+     * @param size Maximum number of orders, capped at 100
+     */
+    @Transactional(readOnly = true)
+    public OrderSliceResponse getUserOrderSlice(UUID userId, String cursor, int size) {
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(size, MAX_SLICE_SIZE)));
+        Slice<Order> hot;
+        Slice<ArchivedOrder> archived;
+        if (cursor == null || cursor.isBlank()) {
+            hot = orderRepository.findFirstOrderSlice(userId, pageable);
+            archived = archivedOrderRepository.findFirstOrderSlice(userId, pageable);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            hot = orderRepository.findOrderSliceAfter(userId, position.createdAt(), position.id(), pageable);
+            archived = archivedOrderRepository.findOrderSliceAfter(userId, position.createdAt(), position.id(), pageable);
+        }
+
+        List<OrderResponse> merged = new ArrayList<>(hot.getNumberOfElements() + archived.getNumberOfElements());
+        withItems(hot.getContent()).forEach(order -> merged.add(orderMapper.toOrderResponse(order)));
+        withArchivedItems(archived.getContent()).forEach(order -> merged.add(orderMapper.toOrderResponse(order)));
+        merged.sort(HISTORY_ORDER);
+
+        boolean hasNext = hot.hasNext() || archived.hasNext() || merged.size() > pageable.getPageSize();
+        List<OrderResponse> content = merged.subList(0, Math.min(merged.size(), pageable.getPageSize()));
+        String nextCursor = hasNext ? OrderCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new OrderSliceResponse(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    /**
+     * Total number of orders of a user, archived ones included, cached for a short time
+     */
+    @Transactional(readOnly = true)
+    public long countUserOrders(UUID userId) {
+        return orderCountCache.get(userId,
+            id -> orderRepository.countByUserId(id) + archivedOrderRepository.countByUserId(id));
+    }
+
+    // Reloads the orders with their items, keeping their order
+    private List<Order> withItems(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<UUID, Order> ordersWithItems = orderRepository.findWithItemsByIdIn(orders.stream().map(Order::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return orders.stream().map(order -> ordersWithItems.getOrDefault(order.getId(), order)).toList();
+    }
+
+    private List<ArchivedOrder> withArchivedItems(List<ArchivedOrder> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<UUID, ArchivedOrder> ordersWithItems = archivedOrderRepository
+            .findWithItemsByIdIn(orders.stream().map(ArchivedOrder::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(ArchivedOrder::getId, Function.identity()));
+        return orders.stream().map(order -> ordersWithItems.getOrDefault(order.getId(), order)).toList();
+    }
+
+    /**
+     * Page of a user's order summaries; like {@link #getUserOrders} the archived orders follow the hot ones
+     */
     @Transactional(readOnly = true)
-    public Page<Order> getUserOrders(UUID userId, Pageable pageable) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
+    public Page<OrderSummaryResponse> getUserOrderSummaries(UUID userId, Pageable pageable) {
+        Page<OrderSummaryResponse> page = orderRepository.findSummariesByUserId(userId, pageable);
+        List<OrderSummaryResponse> content = new ArrayList<>(page.getContent());
+
+        int remaining = pageable.getPageSize() - content.size();
+        if (remaining > 0) {
+            long archiveOffset = Math.max(0, pageable.getOffset() - page.getTotalElements());
+            List<UUID> ids = archivedOrderRepository.findHistoryPage(userId, archiveOffset, remaining).stream()
+                .map(ArchivedOrder::getId)
+                .toList();
+            if (!ids.isEmpty()) {
+                Map<UUID, OrderSummaryResponse> summaries = archivedOrderRepository.findSummariesByIdIn(ids).stream()
+                    .collect(Collectors.toMap(OrderSummaryResponse::getId, Function.identity()));
+                ids.stream().map(summaries::get).filter(Objects::nonNull).forEach(content::add);
+            }
+        }
+        return new PageImpl<>(content, pageable, page.getTotalElements() + archivedOrderRepository.countByUserId(userId));
     }
 
     @Transactional
@@ -142,13 +298,14 @@ public class OrderService {
             .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
         // Check if order can be cancelled
-        if (order.getOrderStatus() == OrderStatus.DELIVERED ||
-            order.getOrderStatus() == OrderStatus.CANCELLED) {
+        if (!order.getOrderStatus().canTransitionTo(OrderStatus.CANCELLED)) {
             throw new RuntimeException("Cannot cancel order in status: " + order.getOrderStatus());
         }
 
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(OrderStatus.CANCELLED);
         Order cancelledOrder = orderRepository.save(order);
+        recordStatusChange(cancelledOrder, previousStatus);
 
         log.info("Order cancelled successfully: {}", orderId);
         return cancelledOrder;
@@ -161,26 +318,79 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
-        // Validate status transition (basic validation)
         validateStatusTransition(order.getOrderStatus(), newStatus);
 
+        OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
+        recordStatusChange(updatedOrder, previousStatus);
 
         log.info("Order status updated successfully: {} -> {}", orderId, newStatus);
         return updatedOrder;
     }
 
-    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
-        // Basic status transition validation
-        if (currentStatus == OrderStatus.CANCELLED || currentStatus == OrderStatus.DELIVERED) {
-            throw new RuntimeException("Cannot change status from " + currentStatus);
+    /**
+     * Move many orders to one status with a single set-based update.
+     * Orders that do not exist or whose current status does not allow the transition are
+     * left unchanged and reported in the outcomes; all others are transitioned together.
+     */
+    @Transactional
+    public BulkStatusTransitionResponse transitionOrderStatuses(Collection<UUID> orderIds, OrderStatus targetStatus) {
+        Set<UUID> requestedIds = new LinkedHashSet<>(orderIds);
+        if (requestedIds.size() > MAX_BULK_TRANSITION_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_TRANSITION_SIZE + " orders can be transitioned at once");
+        }
+        log.info("Transitioning {} orders to {}", requestedIds.size(), targetStatus);
+
+        Map<UUID, Order> orders = orderRepository.findAllByIdInForUpdate(requestedIds).stream()
+            .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        List<OrderTransitionOutcome> outcomes = new ArrayList<>(requestedIds.size());
+        Map<UUID, OrderStatusChangedEvent> events = new LinkedHashMap<>();
+        for (UUID orderId : requestedIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                outcomes.add(new OrderTransitionOutcome(orderId, OrderTransitionOutcome.Result.NOT_FOUND, null));
+            } else if (!order.getOrderStatus().canTransitionTo(targetStatus)) {
+                outcomes.add(new OrderTransitionOutcome(
+                    orderId, OrderTransitionOutcome.Result.INVALID_TRANSITION, order.getOrderStatus()));
+            } else {
+                outcomes.add(new OrderTransitionOutcome(
+                    orderId, OrderTransitionOutcome.Result.TRANSITIONED, order.getOrderStatus()));
+                events.put(orderId, new OrderStatusChangedEvent(
+                    orderId, order.getUserId(), order.getOrderStatus(), targetStatus));
+            }
         }
 
-        // Add more specific validation rules as needed
-        if (currentStatus == OrderStatus.SHIPPED && newStatus == OrderStatus.CONFIRMED) {
-            throw new RuntimeException("Cannot go back from SHIPPED to CONFIRMED");
+        if (!events.isEmpty()) {
+            int updated = orderRepository.transitionStatus(
+                events.keySet(), targetStatus.predecessors(), targetStatus, Instant.now());
+            // The rows are locked, so nothing can have changed since they were read
+            if (updated != events.size()) {
+                throw new IllegalStateException("Expected to transition " + events.size() + " orders but updated " + updated);
+            }
+            outboxService.recordAll(OutboxEventTypes.ORDER, OutboxEventTypes.ORDER_STATUS_CHANGED, events);
         }
+
+        log.info("Transitioned {} of {} orders to {}", events.size(), requestedIds.size(), targetStatus);
+        return new BulkStatusTransitionResponse(targetStatus, events.size(), outcomes);
+    }
+
+    private void recordStatusChange(Order order, OrderStatus previousStatus) {
+        outboxService.record(OutboxEventTypes.ORDER, order.getId(), OutboxEventTypes.ORDER_STATUS_CHANGED,
+            new OrderStatusChangedEvent(order.getId(), order.getUserId(), previousStatus, order.getOrderStatus()));
     }
-}
 
+    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
+        if (!currentStatus.canTransitionTo(newStatus)) {
+            throw new RuntimeException("Cannot change status from " + currentStatus + " to " + newStatus);
+        }
+    }
+
+    // Outbox payloads
+    record OrderCreatedEvent(UUID orderId, UUID userId, BigDecimal totalAmount, int itemCount) {
+    }
+
+    record OrderStatusChangedEvent(UUID orderId, UUID userId, OrderStatus previousStatus, OrderStatus status) {
+    }
+}
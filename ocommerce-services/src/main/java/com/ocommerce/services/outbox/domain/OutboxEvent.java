@@ -0,0 +1,60 @@
+package com.ocommerce.services.outbox.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A domain event written in the same transaction as the change it describes,
+ * and delivered afterwards by the outbox relay.
+ * Ids are allocated in insertion order, which is also the delivery order per aggregate.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_pending", columnList = "published_at, failed_at, id"),
+    @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_id, id")
+})
+@Getter
+@Setter
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // Set once every sink accepted the event
+    @Column(nullable = true)
+    private Instant publishedAt;
+
+    // Set when delivery was given up after too many attempts
+    @Column(nullable = true)
+    private Instant failedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = true, length = 500)
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ocommerce.services.outbox.domain;
+
+/**
+ * Aggregate and event type names written to the outbox.
+ * Payment events use the order as aggregate, so all events of one order are delivered in order.
+ */
+public final class OutboxEventTypes {
+
+    public static final String ORDER = "Order";
+
+    public static final String ORDER_CREATED = "OrderCreated";
+    public static final String ORDER_STATUS_CHANGED = "OrderStatusChanged";
+    public static final String ORDER_REPRICED = "OrderRepriced";
+    public static final String PAYMENT_COMPLETED = "PaymentCompleted";
+    public static final String PAYMENT_REFUNDED = "PaymentRefunded";
+
+    private OutboxEventTypes() {
+    }
+}
@@ -0,0 +1,17 @@
+package com.ocommerce.services.outbox.domain;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Immutable view of an outbox event handed to sinks and published as a Spring application event.
+ * Delivery is at-least-once: consumers should de-duplicate on id.
+ */
+public record OutboxMessage(Long id, String aggregateType, UUID aggregateId, String eventType,
+                            String payload, Instant createdAt) {
+
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+            event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+}
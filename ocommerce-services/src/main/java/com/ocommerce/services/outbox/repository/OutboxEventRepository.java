@@ -0,0 +1,35 @@
+package com.ocommerce.services.outbox.repository;
+
+import com.ocommerce.services.outbox.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Lock the oldest pending event of each aggregate, skipping rows another relay holds.
+    // Later events of an aggregate stay invisible until the earlier one is published,
+    // even when it is locked by a concurrent relay, which keeps delivery in order per aggregate.
+    @Query(value = "SELECT * FROM outbox_events e " +
+                   "WHERE e.published_at IS NULL AND e.failed_at IS NULL " +
+                   "AND NOT EXISTS (SELECT 1 FROM outbox_events p " +
+                   "                WHERE p.aggregate_id = e.aggregate_id AND p.id < e.id " +
+                   "                AND p.published_at IS NULL AND p.failed_at IS NULL) " +
+                   "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> claimPending(@Param("limit") int limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.failedAt IS NULL")
+    Optional<Instant> findOldestPendingCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,23 @@
+package com.ocommerce.services.outbox.service;
+
+import com.ocommerce.services.outbox.domain.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers outbox events to in-process {@code @EventListener(OutboxMessage.class)} methods.
+ * Listeners run synchronously on the relay thread, in the event's own delivery transaction;
+ * an exception marks the delivery failed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventOutboxSink implements OutboxEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void deliver(OutboxMessage message) {
+        applicationEventPublisher.publishEvent(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ocommerce.services.outbox.service;
+
+import com.ocommerce.services.outbox.domain.OutboxMessage;
+
+/**
+ * Destination for outbox events, e.g. a message broker or webhook.
+ * Every sink bean receives every event; throwing leaves the event pending so it is retried.
+ * Sinks run in a transaction per event, separate from the relay's batch transaction.
+ */
+public interface OutboxEventSink {
+
+    void deliver(OutboxMessage message);
+}
@@ -0,0 +1,191 @@
+package com.ocommerce.services.outbox.service;
+
+import com.ocommerce.services.outbox.domain.OutboxEvent;
+import com.ocommerce.services.outbox.domain.OutboxMessage;
+import com.ocommerce.services.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers pending outbox events to all {@link OutboxEventSink}s.
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED and marked published in the same
+ * short transaction, so several instances can relay concurrently. Delivery is at-least-once.
+ * <p>
+ * Each event is delivered in a transaction of its own, so a sink that fails, or marks its
+ * transaction rollback-only, only rolls back its own work; the batch still commits the retry
+ * count and dead-lettering of the failed event. Sinks must therefore tolerate redelivery.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate deliveryTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final AtomicReference<Instant> oldestPending = new AtomicReference<>();
+    private final Timer deliveryLag;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter deadLettered;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxEventSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${app.outbox.relay.max-batches-per-run:50}") int maxBatchesPerRun,
+                       @Value("${app.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.retention-hours:72}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deliveryTemplate = new TransactionTemplate(transactionManager);
+        this.deliveryTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.retention = Duration.ofHours(retentionHours);
+        Gauge.builder("outbox.relay.lag", oldestPending, oldest -> {
+                Instant value = oldest.get();
+                return value == null ? 0 : Duration.between(value, Instant.now()).toMillis() / 1000.0;
+            })
+            .description("Age of the oldest undelivered outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.event.lag")
+            .description("Time from writing an outbox event to delivering it")
+            .register(meterRegistry);
+        this.delivered = Counter.builder("outbox.relay.delivered")
+            .description("Outbox events delivered")
+            .register(meterRegistry);
+        this.failed = Counter.builder("outbox.relay.failed")
+            .description("Failed outbox delivery attempts")
+            .register(meterRegistry);
+        this.deadLettered = Counter.builder("outbox.relay.dead-lettered")
+            .description("Outbox events given up after max attempts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:1000}",
+               initialDelayString = "${app.outbox.relay.initial-delay-ms:10000}")
+    public void poll() {
+        try {
+            relay();
+        } catch (Exception e) {
+            log.error("Outbox relay run failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:3600000}",
+               initialDelayString = "${app.outbox.relay.initial-delay-ms:10000}")
+    public void purge() {
+        try {
+            Instant cutoff = Instant.now().minus(retention);
+            Integer purged = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+            log.info("Purged {} outbox events published before {}", purged, cutoff);
+        } catch (Exception e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+
+    /**
+     * Deliver pending events in batches until none are left or the per-run limit is reached
+     * @return Number of events delivered
+     */
+    public int relay() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            BatchResult result = transactionTemplate.execute(status -> relayBatch());
+            if (result == null) {
+                break;
+            }
+            total += result.delivered();
+            // Stop when drained, or when nothing could be delivered so failing events are not retried in a tight loop
+            if (result.claimed() < batchSize || result.delivered() == 0) {
+                break;
+            }
+        }
+        oldestPending.set(outboxEventRepository.findOldestPendingCreatedAt().orElse(null));
+        if (total > 0) {
+            log.debug("Relayed {} outbox events", total);
+        }
+        return total;
+    }
+
+    private BatchResult relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.claimPending(batchSize);
+        int deliveredInBatch = 0;
+        for (OutboxEvent event : events) {
+            if (deliver(event)) {
+                deliveredInBatch++;
+            }
+        }
+        // Changes to the claimed rows are flushed as one batch when the transaction commits
+        return new BatchResult(events.size(), deliveredInBatch);
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        OutboxMessage message = OutboxMessage.of(event);
+        try {
+            deliveryTemplate.executeWithoutResult(status -> {
+                for (OutboxEventSink sink : sinks) {
+                    sink.deliver(message);
+                }
+            });
+        } catch (RuntimeException e) {
+            failed.increment();
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(truncate(e.getMessage()));
+            if (event.getAttempts() >= maxAttempts) {
+                // Stop retrying so later events of the aggregate are no longer held back
+                event.setFailedAt(Instant.now());
+                deadLettered.increment();
+                log.error("Giving up on outbox event {} ({} for {}) after {} attempts",
+                    event.getId(), event.getEventType(), event.getAggregateId(), event.getAttempts(), e);
+            } else {
+                log.warn("Delivery of outbox event {} failed (attempt {}): {}",
+                    event.getId(), event.getAttempts(), e.getMessage());
+            }
+            return false;
+        }
+
+        Instant now = Instant.now();
+        event.setPublishedAt(now);
+        delivered.increment();
+        deliveryLag.record(Duration.between(event.getCreatedAt(), now));
+        return true;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private record BatchResult(int claimed, int delivered) {
+    }
+}
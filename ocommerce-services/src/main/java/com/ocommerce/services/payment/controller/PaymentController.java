@@ -1,5 +1,6 @@
 package com.ocommerce.services.payment.controller;
 
+import com.ocommerce.services.payment.domain.PaymentStatus;
 import com.ocommerce.services.payment.dto.InitiatePaymentRequest;
 import com.ocommerce.services.payment.dto.PaymentResponse;
 import com.ocommerce.services.payment.mapper.PaymentMapper;
@@ -37,7 +38,7 @@ public class PaymentController {
     @PostMapping
     @Operation(
         summary = "Initiate a new payment",
-        description = "Creates a new payment transaction for the specified order. Supports various payment methods including credit cards, digital wallets, and bank transfers. The request must include an idempotency key to prevent duplicate payments.",
+        description = "Creates a new payment transaction for the specified order. Supports various payment methods including credit cards, digital wallets, and bank transfers. The request must include an idempotency key to prevent duplicate payments. If the payment processor does not answer in time the payment is returned as PENDING and completed in the background.",
         operationId = "initiatePayment"
     )
     @ApiResponses(value = {
@@ -75,13 +76,18 @@ public class PaymentController {
         ),
         @ApiResponse(
             responseCode = "422",
-            description = "Unprocessable entity - payment processor error",
+            description = "Unprocessable entity - payment processor error, or idempotency key already used for a different order",
             content = @Content(mediaType = "application/json")
         ),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Payment processor is busy, retry after the Retry-After interval",
+            content = @Content(mediaType = "application/json")
         )
     })
     public ResponseEntity<PaymentResponse> initiatePayment(
@@ -157,7 +163,7 @@ public class PaymentController {
     @PostMapping("/{id}/refund")
     @Operation(
         summary = "Refund a payment",
-        description = "Processes a full refund for a completed payment transaction. The payment must be in COMPLETED status and belong to an order owned by the authenticated user. Partial refunds are not supported through this endpoint.",
+        description = "Processes a full refund for a completed payment transaction. The payment must be in COMPLETED status and belong to an order owned by the authenticated user. Partial refunds are not supported through this endpoint. If the refund processor does not answer in time the refund is accepted and completed in the background.",
         operationId = "refundPayment"
     )
     @ApiResponses(value = {
@@ -165,6 +171,10 @@ public class PaymentController {
             responseCode = "200",
             description = "Payment refunded successfully"
         ),
+        @ApiResponse(
+            responseCode = "202",
+            description = "Refund still processing - the payment stays COMPLETED with refundRequestedAt set until it is recorded"
+        ),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid refund request - payment cannot be refunded"
@@ -189,6 +199,11 @@ public class PaymentController {
                 )
             )
         ),
+        @ApiResponse(
+            responseCode = "409",
+            description = "A refund of the payment is already in progress",
+            content = @Content(mediaType = "application/json")
+        ),
         @ApiResponse(
             responseCode = "422",
             description = "Unprocessable entity - refund processor error"
@@ -209,6 +224,7 @@ public class PaymentController {
             )
             @PathVariable UUID id) {
         var refundedPayment = paymentService.refundPayment(id);
-        return ResponseEntity.ok(paymentMapper.toPaymentResponse(refundedPayment));
+        HttpStatus status = refundedPayment.getPaymentStatus() == PaymentStatus.REFUNDED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(paymentMapper.toPaymentResponse(refundedPayment));
     }
 }
@@ -0,0 +1,12 @@
+package com.ocommerce.services.payment.domain;
+
+public enum DiscrepancyType {
+    // Completed or refunded payment the gateway did not settle
+    MISSING_SETTLEMENT,
+    // Settlement for a payment that is not completed or refunded in the reconciled window
+    UNEXPECTED_SETTLEMENT,
+    // Payment settled more than once
+    DUPLICATE_SETTLEMENT,
+    AMOUNT_MISMATCH,
+    STATUS_MISMATCH
+}
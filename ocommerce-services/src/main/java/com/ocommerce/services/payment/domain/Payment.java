@@ -9,7 +9,12 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+    uniqueConstraints = @UniqueConstraint(name = "uk_payments_transaction_id", columnNames = "transaction_id"),
+    indexes = {
+        @Index(name = "idx_payments_status_created_at", columnList = "payment_status, created_at"),
+        @Index(name = "idx_payments_refund_requested_at", columnList = "refund_requested_at")
+    })
 @Getter
 @Setter
 public class Payment {
@@ -31,6 +36,7 @@ public class Payment {
     @Column(nullable = false)
     private BigDecimal amount;
 
+    // Idempotency key of the request that created the payment, or a random id
     @Column(nullable = true)
     private String transactionId;
 
@@ -40,6 +46,10 @@ public class Payment {
     @Column(nullable = true)
     private String failureReason;
 
+    // Set while a refund is with the gateway, so it is requested only once; see PaymentRecoveryService
+    @Column(nullable = true)
+    private Instant refundRequestedAt;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -0,0 +1,53 @@
+package com.ocommerce.services.payment.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Difference between a payment and the gateway's settlement of it, found by a reconciliation run
+ */
+@Entity
+@Table(name = "payment_discrepancies",
+    indexes = @Index(name = "idx_payment_discrepancies_run_id", columnList = "run_id"))
+@Getter
+@Setter
+public class PaymentDiscrepancy {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID runId;
+
+    @Column(nullable = false)
+    private UUID paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DiscrepancyType discrepancyType;
+
+    @Column(nullable = true)
+    private BigDecimal ledgerAmount;
+
+    @Column(nullable = true)
+    private BigDecimal settledAmount;
+
+    @Column(nullable = true)
+    private String ledgerStatus;
+
+    @Column(nullable = true)
+    private String settlementStatus;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
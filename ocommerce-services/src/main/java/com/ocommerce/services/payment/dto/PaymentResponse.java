@@ -33,6 +33,9 @@ public class PaymentResponse {
     @Schema(description = "Reason for payment failure (if any)", example = "Insufficient funds")
     private String failureReason;
 
+    @Schema(description = "When a refund was requested (UTC); set while the refund is processing and kept once it is recorded", example = "2024-08-19T11:00:00Z")
+    private Instant refundRequestedAt;
+
     @Schema(description = "Payment creation timestamp (UTC)", example = "2024-08-19T10:15:30Z")
     private Instant createdAt;
 
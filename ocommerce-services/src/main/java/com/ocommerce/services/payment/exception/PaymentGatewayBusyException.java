@@ -0,0 +1,11 @@
+package com.ocommerce.services.payment.exception;
+
+/**
+ * Exception thrown when no payment gateway worker is available to take a request
+ */
+public class PaymentGatewayBusyException extends PaymentGatewayUnavailableException {
+
+    public PaymentGatewayBusyException(String message) {
+        super(message);
+    }
+}
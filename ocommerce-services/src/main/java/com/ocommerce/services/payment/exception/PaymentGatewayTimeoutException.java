@@ -0,0 +1,12 @@
+package com.ocommerce.services.payment.exception;
+
+/**
+ * Exception thrown when a payment gateway call exceeds its deadline.
+ * The gateway may still have processed the request.
+ */
+public class PaymentGatewayTimeoutException extends RuntimeException {
+
+    public PaymentGatewayTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ocommerce.services.payment.exception;
+
+/**
+ * Exception thrown when a payment gateway call is refused without reaching the gateway,
+ * because the gateway is failing or all gateway workers are busy
+ */
+public class PaymentGatewayUnavailableException extends RuntimeException {
+
+    public PaymentGatewayUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ocommerce.services.payment.exception;
+
+/**
+ * Exception thrown when a refund is requested for a payment whose refund is already
+ * being processed. The refund in progress is recorded once the gateway answers.
+ */
+public class RefundInProgressException extends RuntimeException {
+
+    public RefundInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ocommerce.services.payment.repository;
+
+import com.ocommerce.services.payment.domain.PaymentDiscrepancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentDiscrepancyRepository extends JpaRepository<PaymentDiscrepancy, UUID> {
+
+    // Discrepancies found by a reconciliation run
+    List<PaymentDiscrepancy> findByRunId(UUID runId);
+}
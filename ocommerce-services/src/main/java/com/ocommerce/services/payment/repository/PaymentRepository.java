@@ -2,11 +2,17 @@ package com.ocommerce.services.payment.repository;
 
 import com.ocommerce.services.payment.domain.Payment;
 import com.ocommerce.services.payment.domain.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,6 +32,38 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     // Find payments by status
     List<Payment> findByPaymentStatus(PaymentStatus paymentStatus);
 
+    // Lock a payment while recording the outcome of its gateway call
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") UUID id);
+
+    // Oldest payments that have been in a status since before the cutoff
+    List<Payment> findByPaymentStatusAndCreatedAtBeforeOrderByCreatedAt(PaymentStatus paymentStatus, Instant cutoff,
+                                                                        Pageable pageable);
+
+    // Oldest payments in a status whose refund was requested before the cutoff
+    List<Payment> findByPaymentStatusAndRefundRequestedAtBeforeOrderByRefundRequestedAt(PaymentStatus paymentStatus,
+                                                                                        Instant cutoff,
+                                                                                        Pageable pageable);
+
+    // Next keyset chunk of payments in the given statuses created in [from, to), in id order
+    @Query("SELECT p.id AS id, p.amount AS amount, p.paymentStatus AS paymentStatus FROM Payment p " +
+           "WHERE p.paymentStatus IN :statuses AND p.createdAt >= :from AND p.createdAt < :to AND p.id > :afterId " +
+           "ORDER BY p.id")
+    List<LedgerEntry> findLedgerEntries(@Param("statuses") Collection<PaymentStatus> statuses,
+                                        @Param("from") Instant from,
+                                        @Param("to") Instant to,
+                                        @Param("afterId") UUID afterId,
+                                        Pageable pageable);
+
     // Count payments by order ID
     long countByOrderId(UUID orderId);
+
+    interface LedgerEntry {
+        UUID getId();
+
+        BigDecimal getAmount();
+
+        PaymentStatus getPaymentStatus();
+    }
 }
@@ -0,0 +1,154 @@
+package com.ocommerce.services.payment.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker for payment gateway calls, over a sliding window of the latest call outcomes.
+ * <ul>
+ *   <li>CLOSED: calls pass; once at least minimum-calls are in the window and the failure
+ *       rate reaches the threshold, the breaker opens.</li>
+ *   <li>OPEN: calls are refused without reaching the gateway until open-duration has passed.</li>
+ *   <li>HALF_OPEN: up to half-open-probes calls are let through; if all succeed the breaker
+ *       closes, any failure opens it again.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class PaymentGatewayCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private State state = State.CLOSED;
+    private int windowCalls;
+    private int windowFailures;
+    private int windowPosition;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    @Autowired
+    public PaymentGatewayCircuitBreaker(MeterRegistry meterRegistry,
+                                        @Value("${app.payments.gateway.circuit-breaker.window-size:50}") int windowSize,
+                                        @Value("${app.payments.gateway.circuit-breaker.minimum-calls:20}") int minimumCalls,
+                                        @Value("${app.payments.gateway.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+                                        @Value("${app.payments.gateway.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+                                        @Value("${app.payments.gateway.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = Duration.ofMillis(openDurationMs).toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        Gauge.builder("payment.gateway.circuit.state", this, breaker -> breaker.getState().ordinal())
+            .description("Gateway circuit breaker state: 0 closed, 1 open, 2 half-open")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ask to make a gateway call. Every granted call must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     * @return false if the call must not be made
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+            log.info("Payment gateway circuit half-open, probing with up to {} calls", halfOpenProbes);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                open();
+            }
+        }
+    }
+
+    // Give back a granted call that never reached the gateway
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void open() {
+        log.warn("Payment gateway circuit opened after {} failures in {} calls", windowFailures, windowCalls);
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void close() {
+        log.info("Payment gateway circuit closed after {} successful probes", probesSucceeded);
+        state = State.CLOSED;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowCalls = 0;
+        windowFailures = 0;
+        windowPosition = 0;
+    }
+}
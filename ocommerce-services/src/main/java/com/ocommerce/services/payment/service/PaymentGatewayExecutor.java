@@ -0,0 +1,148 @@
+package com.ocommerce.services.payment.service;
+
+import com.ocommerce.services.payment.exception.PaymentGatewayBusyException;
+import com.ocommerce.services.payment.exception.PaymentGatewayTimeoutException;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs payment gateway calls isolated from request threads and database connections:
+ * <ul>
+ *   <li>a bulkhead of bounded workers and queue, rejecting calls when full</li>
+ *   <li>a deadline per call, after which the call is interrupted and fails with
+ *       {@link PaymentGatewayTimeoutException}</li>
+ *   <li>a {@link PaymentGatewayCircuitBreaker} refusing calls while the gateway is failing</li>
+ *   <li>latency histograms per operation and outcome</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class PaymentGatewayExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService deadlines;
+    private final PaymentGatewayCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final Counter rejected;
+    private final Counter shortCircuited;
+
+    @Autowired
+    public PaymentGatewayExecutor(PaymentGatewayCircuitBreaker circuitBreaker,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.payments.gateway.workers:16}") int workers,
+                                  @Value("${app.payments.gateway.queue-capacity:200}") int queueCapacity,
+                                  @Value("${app.payments.gateway.timeout-ms:5000}") long timeoutMs) {
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofVirtual().name("payment-gateway-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("payment-gateway-deadline").daemon().factory());
+        Gauge.builder("payment.gateway.queue.depth", executor, e -> e.getQueue().size())
+            .description("Gateway calls waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("payment.gateway.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Gateway calls in progress")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("payment.gateway.rejected")
+            .description("Gateway calls rejected because all workers were busy")
+            .register(meterRegistry);
+        this.shortCircuited = Counter.builder("payment.gateway.short-circuited")
+            .description("Gateway calls refused because the circuit breaker was open")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run a gateway call on a gateway worker within the call deadline
+     * @param operation Name of the gateway operation, used to tag its metrics
+     * @throws PaymentGatewayUnavailableException if the circuit is open or the worker queue is full
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            shortCircuited.increment();
+            throw new PaymentGatewayUnavailableException("Payment gateway is unavailable, please retry shortly");
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queuedAt = System.nanoTime();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.release();
+            rejected.increment();
+            log.warn("Payment gateway queue full ({} waiting), rejected gateway call", executor.getQueue().size());
+            throw new PaymentGatewayBusyException("Payment gateway is busy, please retry shortly");
+        }
+
+        // The deadline covers queueing too, since the caller is waiting either way. Callers' dependent
+        // stages run on the completing thread, so a timeout is completed off the shared deadline thread.
+        ScheduledFuture<?> deadline = deadlines.schedule(() -> Thread.startVirtualThread(() -> {
+            if (result.completeExceptionally(new PaymentGatewayTimeoutException(
+                    "Payment gateway " + operation + " did not complete within " + timeout.toMillis() + " ms"))) {
+                task.cancel(true);
+            }
+        }), timeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        result.whenComplete((value, error) -> {
+            deadline.cancel(false);
+            String outcome;
+            if (error == null) {
+                outcome = "success";
+                circuitBreaker.onSuccess();
+            } else {
+                outcome = error instanceof PaymentGatewayTimeoutException ? "timeout" : "error";
+                circuitBreaker.onFailure();
+            }
+            Timer.builder("payment.gateway.call")
+                .description("Gateway call latency including queueing")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        });
+        return result;
+    }
+
+    // Let in-flight gateway calls finish and record their outcome on a graceful shutdown
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Payment gateway calls did not drain in time, {} left queued", executor.getQueue().size());
+            executor.shutdownNow();
+        }
+        deadlines.shutdownNow();
+    }
+}
@@ -1,28 +1,64 @@
 package com.ocommerce.services.payment.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ocommerce.services.payment.domain.Payment;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Mock Payment Gateway Service for demonstration purposes.
  * In production, this would integrate with actual payment processors like Stripe, PayPal, etc.
+ * <p>
+ * Latency is log-normally distributed with the configured median and 99th percentile
+ * (equal values give a constant latency), and calls fail at the configured rate,
+ * so degradation can be load-tested locally.
  */
 @Service
 @Slf4j
 public class PaymentGatewayService {
 
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final double latencyMedianMs;
+    private final double latencySigma;
+    private final double failureRate;
+
+    // Stand in for the gateway's own records of processed payments and refunds, used to recover lost outcomes
+    private final Cache<UUID, String> processedPayments = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofDays(1))
+        .maximumSize(100_000)
+        .build();
+
+    private final Cache<UUID, String> processedRefunds = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofDays(1))
+        .maximumSize(100_000)
+        .build();
+
+    @Autowired
+    public PaymentGatewayService(@Value("${app.payments.gateway.mock.latency-median-ms:100}") long latencyMedianMs,
+                                 @Value("${app.payments.gateway.mock.latency-p99-ms:100}") long latencyP99Ms,
+                                 @Value("${app.payments.gateway.mock.failure-rate:0.0}") double failureRate) {
+        this.latencyMedianMs = latencyMedianMs;
+        this.latencySigma = latencyMedianMs > 0 && latencyP99Ms > latencyMedianMs
+            ? Math.log((double) latencyP99Ms / latencyMedianMs) / Z_99
+            : 0;
+        this.failureRate = failureRate;
+    }
+
     public String processPayment(Payment payment) {
         log.info("Processing payment through mock gateway: {}", payment.getId());
 
         // Simulate payment processing
-        try {
-            Thread.sleep(100); // Simulate gateway response time
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        simulateGatewayCall("payment", payment);
 
         // Mock successful payment response
         String mockTransactionId = "TXN_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
@@ -34,18 +70,24 @@ public class PaymentGatewayService {
         );
 
         log.info("Mock payment processed: {}", mockResponse);
+        processedPayments.put(payment.getId(), mockResponse);
         return mockResponse;
     }
 
+    /**
+     * Look up the outcome of an earlier payment request, for payments whose result was never recorded
+     * @return The gateway response, or empty if the gateway never processed the payment
+     */
+    public Optional<String> findPayment(Payment payment) {
+        log.info("Looking up payment in mock gateway: {}", payment.getId());
+        return Optional.ofNullable(processedPayments.getIfPresent(payment.getId()));
+    }
+
     public String processRefund(Payment payment) {
         log.info("Processing refund through mock gateway: {}", payment.getId());
 
         // Simulate refund processing
-        try {
-            Thread.sleep(100); // Simulate gateway response time
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        simulateGatewayCall("refund", payment);
 
         // Mock successful refund response
         String mockRefundId = "REF_" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
@@ -56,6 +98,31 @@ public class PaymentGatewayService {
         );
 
         log.info("Mock refund processed: {}", mockResponse);
+        processedRefunds.put(payment.getId(), mockResponse);
         return mockResponse;
     }
+
+    /**
+     * Look up the outcome of an earlier refund request, for refunds whose result was never recorded
+     * @return The gateway response, or empty if the gateway never refunded the payment
+     */
+    public Optional<String> findRefund(Payment payment) {
+        log.info("Looking up refund in mock gateway: {}", payment.getId());
+        return Optional.ofNullable(processedRefunds.getIfPresent(payment.getId()));
+    }
+
+    private void simulateGatewayCall(String operation, Payment payment) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMs = Math.round(latencyMedianMs * Math.exp(latencySigma * random.nextGaussian()));
+        try {
+            Thread.sleep(latencyMs); // Simulate gateway response time
+        } catch (InterruptedException e) {
+            // The caller gave up on the call, e.g. its deadline passed
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Mock gateway " + operation + " interrupted for payment: " + payment.getId(), e);
+        }
+        if (random.nextDouble() < failureRate) {
+            throw new IllegalStateException("Mock gateway error processing " + operation + " for payment: " + payment.getId());
+        }
+    }
 }
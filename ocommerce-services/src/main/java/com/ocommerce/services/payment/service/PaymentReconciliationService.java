@@ -0,0 +1,324 @@
+package com.ocommerce.services.payment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.payment.domain.DiscrepancyType;
+import com.ocommerce.services.payment.domain.PaymentDiscrepancy;
+import com.ocommerce.services.payment.domain.PaymentStatus;
+import com.ocommerce.services.payment.repository.PaymentDiscrepancyRepository;
+import com.ocommerce.services.payment.repository.PaymentRepository;
+import com.ocommerce.services.payment.repository.PaymentRepository.LedgerEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reconciles payments against the gateway's settlement file for a time window.
+ * Payments are read in keyset chunks ordered by id and the settlement file, sorted by
+ * reference, is streamed alongside them; the two are merge-joined so memory use stays
+ * constant however many payments the window holds. Discrepancies are written in batches.
+ * Pending payments are left to {@link PaymentRecoveryService} and are not reconciled.
+ */
+@Slf4j
+@Service
+public class PaymentReconciliationService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final Set<PaymentStatus> RECONCILED_STATUSES = EnumSet.of(
+        PaymentStatus.COMPLETED, PaymentStatus.REFUNDED, PaymentStatus.FAILED, PaymentStatus.CANCELLED);
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentDiscrepancyRepository paymentDiscrepancyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path settlementDirectory;
+    private final int chunkSize;
+    private final int writeBatchSize;
+    private final AtomicLong progress = new AtomicLong();
+    private final Timer runTimer;
+    private final Counter paymentsRead;
+    private final Counter settlementsRead;
+    private final Map<DiscrepancyType, Counter> discrepanciesFound = new EnumMap<>(DiscrepancyType.class);
+
+    @Autowired
+    public PaymentReconciliationService(PaymentRepository paymentRepository,
+                                        PaymentDiscrepancyRepository paymentDiscrepancyRepository,
+                                        ObjectMapper objectMapper,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.payments.reconciliation.settlement-dir:settlements}") String settlementDirectory,
+                                        @Value("${app.payments.reconciliation.chunk-size:1000}") int chunkSize,
+                                        @Value("${app.payments.reconciliation.write-batch-size:500}") int writeBatchSize) {
+        this.paymentRepository = paymentRepository;
+        this.paymentDiscrepancyRepository = paymentDiscrepancyRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settlementDirectory = Path.of(settlementDirectory);
+        this.chunkSize = chunkSize;
+        this.writeBatchSize = writeBatchSize;
+        Gauge.builder("payment.reconciliation.progress", progress, AtomicLong::get)
+            .description("Payments and settlement records processed by the current reconciliation run")
+            .register(meterRegistry);
+        this.runTimer = Timer.builder("payment.reconciliation.run")
+            .description("Duration of payment reconciliation runs")
+            .register(meterRegistry);
+        this.paymentsRead = Counter.builder("payment.reconciliation.payments")
+            .description("Payments read by reconciliation")
+            .register(meterRegistry);
+        this.settlementsRead = Counter.builder("payment.reconciliation.settlements")
+            .description("Settlement records read by reconciliation")
+            .register(meterRegistry);
+        for (DiscrepancyType type : DiscrepancyType.values()) {
+            discrepanciesFound.put(type, Counter.builder("payment.reconciliation.discrepancies")
+                .description("Discrepancies found by reconciliation")
+                .tag("type", type.name())
+                .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(cron = "${app.payments.reconciliation.cron:0 30 2 * * *}", zone = "UTC")
+    public void reconcileNightly() {
+        try {
+            reconcileDay(LocalDate.now(ZoneOffset.UTC).minusDays(1));
+        } catch (Exception e) {
+            log.error("Payment reconciliation run failed", e);
+        }
+    }
+
+    /**
+     * Reconcile the payments created on a UTC day against that day's settlement file,
+     * {@code settlement-yyyy-MM-dd.csv} or {@code .ndjson} in the settlement directory
+     * @return Summary of the run, or empty if the gateway has not delivered the file
+     */
+    public Optional<ReconciliationSummary> reconcileDay(LocalDate day) {
+        Optional<Path> file = settlementFile(day);
+        if (file.isEmpty()) {
+            log.warn("No settlement file for {} in {}, skipping reconciliation", day, settlementDirectory);
+            return Optional.empty();
+        }
+        Instant from = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant to = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return Optional.of(reconcile(file.get(), from, to));
+    }
+
+    /**
+     * Reconcile the payments created in [from, to) against a settlement file sorted by reference
+     * @return Summary of the run
+     */
+    public ReconciliationSummary reconcile(Path settlementFile, Instant from, Instant to) {
+        Run run = new Run(UUID.randomUUID());
+        progress.set(0);
+        log.info("Reconciliation run {} started for payments created in [{}, {}) against {}",
+            run.runId, from, to, settlementFile);
+        Timer.Sample sample = Timer.start();
+        try (SettlementFileReader settlements = SettlementFileReader.open(settlementFile, objectMapper)) {
+            Iterator<LedgerEntry> payments = new LedgerCursor(from, to);
+            LedgerEntry payment = nextPayment(payments, run);
+            SettlementRecord settlement = nextSettlement(settlements, run);
+            UUID lastSettled = null;
+            while (payment != null || settlement != null) {
+                if (settlement != null && settlement.reference().equals(lastSettled)) {
+                    run.record(null, settlement, DiscrepancyType.DUPLICATE_SETTLEMENT);
+                    settlement = nextSettlement(settlements, run);
+                    continue;
+                }
+                int order = compare(payment, settlement);
+                if (order < 0) {
+                    if (isSettleable(payment.getPaymentStatus())) {
+                        run.record(payment, null, DiscrepancyType.MISSING_SETTLEMENT);
+                    }
+                    payment = nextPayment(payments, run);
+                } else if (order > 0) {
+                    run.record(null, settlement, DiscrepancyType.UNEXPECTED_SETTLEMENT);
+                    lastSettled = settlement.reference();
+                    settlement = nextSettlement(settlements, run);
+                } else {
+                    if (expectedStatus(settlement) != payment.getPaymentStatus()) {
+                        run.record(payment, settlement, DiscrepancyType.STATUS_MISMATCH);
+                    } else if (payment.getAmount().compareTo(settlement.amount()) != 0) {
+                        run.record(payment, settlement, DiscrepancyType.AMOUNT_MISMATCH);
+                    }
+                    lastSettled = settlement.reference();
+                    payment = nextPayment(payments, run);
+                    settlement = nextSettlement(settlements, run);
+                }
+            }
+            run.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read settlement file " + settlementFile, e);
+        } finally {
+            sample.stop(runTimer);
+        }
+
+        ReconciliationSummary summary = new ReconciliationSummary(
+            run.runId, run.payments, run.settlements, run.discrepancies);
+        log.info("Reconciliation run {} finished: {} payments, {} settlement records, {} discrepancies",
+            run.runId, summary.payments(), summary.settlements(), summary.discrepancies());
+        return summary;
+    }
+
+    private Optional<Path> settlementFile(LocalDate day) {
+        for (String extension : List.of(".csv", ".ndjson")) {
+            Path file = settlementDirectory.resolve("settlement-" + day + extension);
+            if (Files.isRegularFile(file)) {
+                return Optional.of(file);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private LedgerEntry nextPayment(Iterator<LedgerEntry> payments, Run run) {
+        if (!payments.hasNext()) {
+            return null;
+        }
+        run.payments++;
+        paymentsRead.increment();
+        progress.incrementAndGet();
+        return payments.next();
+    }
+
+    private SettlementRecord nextSettlement(SettlementFileReader settlements, Run run) {
+        if (!settlements.hasNext()) {
+            return null;
+        }
+        run.settlements++;
+        settlementsRead.increment();
+        progress.incrementAndGet();
+        return settlements.next();
+    }
+
+    // Payments and settlements are both ordered by the string form of the id; a missing side sorts last
+    private static int compare(LedgerEntry payment, SettlementRecord settlement) {
+        if (payment == null) {
+            return 1;
+        }
+        if (settlement == null) {
+            return -1;
+        }
+        return payment.getId().toString().compareTo(settlement.reference().toString());
+    }
+
+    private static boolean isSettleable(PaymentStatus status) {
+        return status == PaymentStatus.COMPLETED || status == PaymentStatus.REFUNDED;
+    }
+
+    private static PaymentStatus expectedStatus(SettlementRecord settlement) {
+        return switch (settlement.status()) {
+            case SETTLED -> PaymentStatus.COMPLETED;
+            case REFUNDED -> PaymentStatus.REFUNDED;
+        };
+    }
+
+    public record ReconciliationSummary(UUID runId, long payments, long settlements, long discrepancies) {
+    }
+
+    /**
+     * Walks the reconciled payments of a window in id order, one keyset chunk at a time
+     */
+    private final class LedgerCursor implements Iterator<LedgerEntry> {
+
+        private final Instant from;
+        private final Instant to;
+        private Iterator<LedgerEntry> chunk = List.<LedgerEntry>of().iterator();
+        private UUID lastId = MIN_UUID;
+        private boolean exhausted;
+
+        LedgerCursor(Instant from, Instant to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!chunk.hasNext() && !exhausted) {
+                List<LedgerEntry> entries = paymentRepository.findLedgerEntries(
+                    RECONCILED_STATUSES, from, to, lastId, PageRequest.of(0, chunkSize));
+                exhausted = entries.size() < chunkSize;
+                if (!entries.isEmpty()) {
+                    lastId = entries.get(entries.size() - 1).getId();
+                }
+                chunk = entries.iterator();
+            }
+            return chunk.hasNext();
+        }
+
+        @Override
+        public LedgerEntry next() {
+            hasNext();
+            return chunk.next();
+        }
+    }
+
+    /**
+     * State of one reconciliation run: counts and the discrepancies not yet written
+     */
+    private final class Run {
+
+        private final UUID runId;
+        private final List<PaymentDiscrepancy> pending = new ArrayList<>();
+        private long payments;
+        private long settlements;
+        private long discrepancies;
+
+        Run(UUID runId) {
+            this.runId = runId;
+        }
+
+        void record(LedgerEntry payment, SettlementRecord settlement, DiscrepancyType type) {
+            PaymentDiscrepancy discrepancy = new PaymentDiscrepancy();
+            discrepancy.setRunId(runId);
+            discrepancy.setPaymentId(payment != null ? payment.getId() : settlement.reference());
+            discrepancy.setDiscrepancyType(type);
+            if (payment != null) {
+                discrepancy.setLedgerAmount(payment.getAmount());
+                discrepancy.setLedgerStatus(payment.getPaymentStatus().name());
+            }
+            if (settlement != null) {
+                discrepancy.setSettledAmount(settlement.amount());
+                discrepancy.setSettlementStatus(settlement.status().name());
+            }
+            pending.add(discrepancy);
+            discrepancies++;
+            discrepanciesFound.get(type).increment();
+            if (pending.size() >= writeBatchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> paymentDiscrepancyRepository.saveAll(pending));
+            log.debug("Reconciliation run {}: {} payments, {} settlement records processed",
+                runId, payments, settlements);
+            pending.clear();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.ocommerce.services.payment.service;
+
+import com.ocommerce.services.payment.domain.Payment;
+import com.ocommerce.services.payment.domain.PaymentStatus;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import com.ocommerce.services.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Resolves payments stuck in PENDING, e.g. because the instance died between the gateway
+ * call and recording its outcome. The gateway is asked whether it processed the payment;
+ * if it did the payment is completed, otherwise it is failed. Refunds left in progress are
+ * resolved the same way: recorded if the gateway refunded, otherwise released for another attempt.
+ * The stale-after threshold must be well above the longest gateway call.
+ */
+@Slf4j
+@Service
+public class PaymentRecoveryService {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final PaymentGatewayExecutor paymentGatewayExecutor;
+    private final PaymentService paymentService;
+    private final Duration staleAfter;
+    private final int batchSize;
+    private final Counter recovered;
+    private final Counter abandoned;
+    private final Counter refunded;
+    private final Counter refundsReleased;
+
+    @Autowired
+    public PaymentRecoveryService(PaymentRepository paymentRepository,
+                                  PaymentGatewayService paymentGatewayService,
+                                  PaymentGatewayExecutor paymentGatewayExecutor,
+                                  PaymentService paymentService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.payments.recovery.stale-after-seconds:300}") long staleAfterSeconds,
+                                  @Value("${app.payments.recovery.batch-size:100}") int batchSize) {
+        this.paymentRepository = paymentRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.paymentGatewayExecutor = paymentGatewayExecutor;
+        this.paymentService = paymentService;
+        this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+        this.batchSize = batchSize;
+        this.recovered = Counter.builder("payment.recovery.completed")
+            .description("Stuck payments completed because the gateway had processed them")
+            .register(meterRegistry);
+        this.abandoned = Counter.builder("payment.recovery.failed")
+            .description("Stuck payments failed because the gateway never processed them")
+            .register(meterRegistry);
+        this.refunded = Counter.builder("payment.recovery.refunded")
+            .description("Stuck refunds recorded because the gateway had refunded them")
+            .register(meterRegistry);
+        this.refundsReleased = Counter.builder("payment.recovery.refund-released")
+            .description("Stuck refunds released because the gateway never refunded them")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.payments.recovery.interval-ms:60000}",
+               initialDelayString = "${app.payments.recovery.initial-delay-ms:60000}")
+    public void sweep() {
+        try {
+            recoverStalePayments();
+            recoverStaleRefunds();
+        } catch (Exception e) {
+            log.error("Payment recovery run failed", e);
+        }
+    }
+
+    /**
+     * Resolve one batch of payments that have been PENDING for longer than the threshold
+     * @return Number of payments resolved
+     */
+    public int recoverStalePayments() {
+        Instant cutoff = Instant.now().minus(staleAfter);
+        List<Payment> stale = paymentRepository.findByPaymentStatusAndCreatedAtBeforeOrderByCreatedAt(
+            PaymentStatus.PENDING, cutoff, PageRequest.of(0, batchSize));
+        int resolved = 0;
+        for (Payment payment : stale) {
+            try {
+                // The gateway is queried outside any transaction; each outcome is recorded in its own
+                Optional<String> gatewayResponse = paymentGatewayExecutor
+                    .submit("lookup", () -> paymentGatewayService.findPayment(payment))
+                    .join();
+                if (gatewayResponse.isPresent()) {
+                    paymentService.completePayment(payment.getId(), gatewayResponse.get());
+                    recovered.increment();
+                    log.warn("Recovered payment {} for order {} as completed", payment.getId(), payment.getOrderId());
+                } else {
+                    paymentService.failPayment(payment.getId(), "Payment was not processed by the gateway");
+                    abandoned.increment();
+                    log.warn("Recovered payment {} for order {} as failed", payment.getId(), payment.getOrderId());
+                }
+                resolved++;
+            } catch (PaymentGatewayUnavailableException e) {
+                log.warn("Payment recovery paused, {} stuck payments left: {}", stale.size() - resolved, e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                log.error("Could not recover payment {}", payment.getId(), e);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolve one batch of refunds that have been in progress for longer than the threshold
+     * @return Number of refunds resolved
+     */
+    public int recoverStaleRefunds() {
+        Instant cutoff = Instant.now().minus(staleAfter);
+        List<Payment> stale = paymentRepository.findByPaymentStatusAndRefundRequestedAtBeforeOrderByRefundRequestedAt(
+            PaymentStatus.COMPLETED, cutoff, PageRequest.of(0, batchSize));
+        int resolved = 0;
+        for (Payment payment : stale) {
+            try {
+                Optional<String> refundResponse = paymentGatewayExecutor
+                    .submit("lookup", () -> paymentGatewayService.findRefund(payment))
+                    .join();
+                if (refundResponse.isPresent()) {
+                    paymentService.recordRefund(payment.getId(), refundResponse.get());
+                    refunded.increment();
+                    log.warn("Recovered refund of payment {} for order {} as refunded", payment.getId(), payment.getOrderId());
+                } else {
+                    paymentService.releaseRefund(payment.getId());
+                    refundsReleased.increment();
+                    log.warn("Released refund of payment {} for order {}; it was not refunded by the gateway",
+                        payment.getId(), payment.getOrderId());
+                }
+                resolved++;
+            } catch (PaymentGatewayUnavailableException e) {
+                log.warn("Refund recovery paused, {} stuck refunds left: {}", stale.size() - resolved, e.getMessage());
+                break;
+            } catch (RuntimeException e) {
+                log.error("Could not recover refund of payment {}", payment.getId(), e);
+            }
+        }
+        return resolved;
+    }
+}
@@ -1,51 +1,224 @@
 package com.ocommerce.services.payment.service;
 
-import com.ocommerce.services.cart.dto.ProductPricingInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ocommerce.services.cart.exception.ProductValidationException;
-import com.ocommerce.services.cart.service.ProductValidationService;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyMismatchException;
 import com.ocommerce.services.payment.domain.Payment;
 import com.ocommerce.services.payment.domain.PaymentMethod;
 import com.ocommerce.services.payment.domain.PaymentStatus;
+import com.ocommerce.services.payment.exception.PaymentGatewayTimeoutException;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import com.ocommerce.services.payment.exception.RefundInProgressException;
 import com.ocommerce.services.payment.repository.PaymentRepository;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
 import com.ocommerce.services.order.repository.OrderRepository;
 import com.ocommerce.services.order.domain.Order;
-import com.ocommerce.services.order.domain.OrderItem;
-import lombok.RequiredArgsConstructor;
+import com.ocommerce.services.order.service.OrderPricingService;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Payments are processed in three steps so no database connection or row lock is held
+ * while the gateway works: the payment is validated and saved as PENDING in a short
+ * transaction, the gateway is called on a {@link PaymentGatewayExecutor} worker outside
+ * any transaction, and the outcome is recorded in a second short transaction.
+ * Payments and refunds whose outcome was never recorded are resolved by {@link PaymentRecoveryService}.
+ * The order is locked while its payment is created, so an order never has two payments in flight.
+ * <p>
+ * The idempotency key is stored as the payment's unique transaction id, so a key can only
+ * ever create one payment. Concurrent requests with the same key on this instance wait for
+ * the first one instead of racing it, and recently finished payments are replayed from memory.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final PaymentGatewayService paymentGatewayService;
-    private final ProductValidationService productValidationService;
+    private final PaymentGatewayExecutor paymentGatewayExecutor;
+    private final OrderPricingService orderPricingService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration waitTimeout;
+    private final ConcurrentHashMap<String, CompletableFuture<Payment>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Payment> finishedPayments;
+    private final Counter replayed;
+    private final Counter joined;
+
+    @Autowired
+    public PaymentService(PaymentRepository paymentRepository,
+                          OrderRepository orderRepository,
+                          ArchivedOrderRepository archivedOrderRepository,
+                          PaymentGatewayService paymentGatewayService,
+                          PaymentGatewayExecutor paymentGatewayExecutor,
+                          OrderPricingService orderPricingService,
+                          OutboxService outboxService,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.payments.gateway.wait-timeout-ms:10000}") long waitTimeoutMs,
+                          @Value("${app.payments.idempotency.cache-ttl-ms:60000}") long cacheTtlMs,
+                          @Value("${app.payments.idempotency.cache-max-size:10000}") long cacheMaxSize) {
+        this.paymentRepository = paymentRepository;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.paymentGatewayExecutor = paymentGatewayExecutor;
+        this.orderPricingService = orderPricingService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+        this.finishedPayments = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+            .maximumSize(cacheMaxSize)
+            .build();
+        this.replayed = Counter.builder("payment.idempotency.replayed")
+            .description("Payment requests answered with the payment created by an earlier request with the same key")
+            .register(meterRegistry);
+        this.joined = Counter.builder("payment.idempotency.single-flight.joined")
+            .description("Concurrent payment requests that waited for the first request with the same key")
+            .register(meterRegistry);
+    }
 
-    @Transactional
+    /**
+     * Validate and charge the order. If the gateway has not answered within the wait timeout
+     * the payment is returned as PENDING and its outcome is recorded once the gateway answers.
+     * A request repeating an earlier idempotency key gets the payment that key created.
+     * @throws PaymentGatewayUnavailableException if the gateway circuit is open or no gateway worker is available
+     * @throws IdempotencyKeyMismatchException if the key was used to pay a different order
+     */
     public Payment initiatePayment(UUID orderId, PaymentMethod paymentMethod, BigDecimal amount, String idempotencyKey) {
         log.info("Initiating payment for order: {} with method: {} and amount: {}", orderId, paymentMethod, amount);
 
+        if (idempotencyKey == null) {
+            return process(orderId, paymentMethod, amount, null);
+        }
+
+        Payment finished = finishedPayments.getIfPresent(idempotencyKey);
+        if (finished != null) {
+            return replay(finished, orderId, paymentMethod);
+        }
+
+        CompletableFuture<Payment> flight = new CompletableFuture<>();
+        CompletableFuture<Payment> leader = inFlight.putIfAbsent(idempotencyKey, flight);
+        if (leader != null) {
+            // The first request is bounded by the gateway wait timeout, so this wait is too
+            joined.increment();
+            try {
+                return replay(leader.join(), orderId, paymentMethod);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Payment payment = process(orderId, paymentMethod, amount, idempotencyKey);
+            flight.complete(payment);
+            return payment;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, flight);
+        }
+    }
+
+    private Payment process(UUID orderId, PaymentMethod paymentMethod, BigDecimal amount, String idempotencyKey) {
+        PendingPayment pending;
+        try {
+            pending = transactionTemplate.execute(
+                status -> createPendingPayment(orderId, paymentMethod, amount, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the payment for this key between our lookup and insert
+            Payment existing = idempotencyKey == null ? null
+                : paymentRepository.findByTransactionId(idempotencyKey).orElse(null);
+            if (existing == null) {
+                throw e;
+            }
+            pending = new PendingPayment(existing, false);
+        }
+        Payment payment = pending.payment();
+        if (!pending.created()) {
+            log.info("Returning existing payment for idempotency key: {}", idempotencyKey);
+            return replay(payment, orderId, paymentMethod);
+        }
+
+        // Submitted only after the PENDING payment is committed, so the recovery sweeper can always see it
+        CompletableFuture<Payment> outcome;
+        try {
+            outcome = paymentGatewayExecutor.submit("payment", () -> paymentGatewayService.processPayment(payment))
+                .handle((gatewayResponse, error) -> recordOutcome(payment, gatewayResponse, error));
+        } catch (PaymentGatewayUnavailableException e) {
+            paymentRepository.deleteById(payment.getId());
+            throw e;
+        }
+        return remember(await(outcome, payment, "Payment for order " + orderId));
+    }
+
+    private Payment replay(Payment payment, UUID orderId, PaymentMethod paymentMethod) {
+        if (!payment.getOrderId().equals(orderId) || payment.getPaymentMethod() != paymentMethod) {
+            throw new IdempotencyKeyMismatchException("Idempotency key was already used for a different payment");
+        }
+        replayed.increment();
+        return remember(payment);
+    }
+
+    // Only finished payments are cached, so retries keep seeing a PENDING payment's progress
+    private Payment remember(Payment payment) {
+        if (payment.getTransactionId() != null
+                && (payment.getPaymentStatus() == PaymentStatus.COMPLETED || payment.getPaymentStatus() == PaymentStatus.FAILED)) {
+            finishedPayments.put(payment.getTransactionId(), payment);
+        }
+        return payment;
+    }
+
+    private PendingPayment createPendingPayment(UUID orderId, PaymentMethod paymentMethod, BigDecimal amount,
+                                                String idempotencyKey) {
         // Check for idempotency if key provided
         if (idempotencyKey != null) {
             Optional<Payment> existingPayment = paymentRepository.findByTransactionId(idempotencyKey);
             if (existingPayment.isPresent()) {
-                log.info("Returning existing payment for idempotency key: {}", idempotencyKey);
-                return existingPayment.get();
+                return new PendingPayment(existingPayment.get(), false);
             }
         }
 
-        // Validate order exists
-        Order order = orderRepository.findById(orderId)
+        // Validate order exists; the lock serializes concurrent attempts to pay it until this transaction commits
+        Order order = orderRepository.findByIdForUpdate(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
 
-        // Re-validate order total with current product prices before payment
+        // Check if payment already exists for this order
+        Optional<Payment> existingOrderPayment = paymentRepository.findByOrderIdAndPaymentStatus(
+            orderId, PaymentStatus.COMPLETED);
+        if (existingOrderPayment.isPresent()) {
+            throw new RuntimeException("Payment already completed for order: " + orderId);
+        }
+        // A PENDING payment may still be charged, either by its gateway call or by PaymentRecoveryService
+        if (paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.PENDING).isPresent()) {
+            throw new RuntimeException("Payment already in progress for order: " + orderId);
+        }
+
         BigDecimal calculatedTotal = validateAndCalculateOrderTotal(order);
 
         // Validate requested payment amount matches calculated total
@@ -56,21 +229,6 @@ public class PaymentService {
                              amount.doubleValue(), calculatedTotal.doubleValue()));
         }
 
-        // Update order total if it has changed due to price updates
-        if (order.getTotalAmount().compareTo(calculatedTotal) != 0) {
-            log.warn("Order total updated from {} to {} due to price changes",
-                    order.getTotalAmount(), calculatedTotal);
-            order.setTotalAmount(calculatedTotal);
-            orderRepository.save(order);
-        }
-
-        // Check if payment already exists for this order
-        Optional<Payment> existingOrderPayment = paymentRepository.findByOrderIdAndPaymentStatus(
-            orderId, PaymentStatus.COMPLETED);
-        if (existingOrderPayment.isPresent()) {
-            throw new RuntimeException("Payment already completed for order: " + orderId);
-        }
-
         // Create new payment with validated amount
         Payment payment = new Payment();
         payment.setOrderId(orderId);
@@ -79,69 +237,111 @@ public class PaymentService {
         payment.setPaymentStatus(PaymentStatus.PENDING);
         payment.setTransactionId(idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString());
 
-        // Save payment
-        Payment savedPayment = paymentRepository.save(payment);
+        return new PendingPayment(paymentRepository.saveAndFlush(payment), true);
+    }
 
-        // Process payment through gateway
-        try {
-            String gatewayResponse = paymentGatewayService.processPayment(payment);
-            savedPayment.setGatewayResponse(gatewayResponse);
-            savedPayment.setPaymentStatus(PaymentStatus.COMPLETED);
+    // Runs on the thread that completed the gateway call, outside any transaction
+    private Payment recordOutcome(Payment payment, String gatewayResponse, Throwable failure) {
+        if (failure == null) {
+            return completePayment(payment.getId(), gatewayResponse);
+        }
+        Throwable error = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (error instanceof PaymentGatewayTimeoutException) {
+            // The gateway may still have charged; PaymentRecoveryService asks it once the payment is stale
+            log.warn("Payment for order: {} left pending: {}", payment.getOrderId(), error.getMessage());
+            return payment;
+        }
+        log.error("Payment failed for order: {}", payment.getOrderId(), error);
+        return failPayment(payment.getId(), error.getMessage());
+    }
+
+    /**
+     * Record a successful gateway charge. Does nothing if the payment is no longer PENDING.
+     */
+    Payment completePayment(UUID paymentId, String gatewayResponse) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+            if (payment.getPaymentStatus() != PaymentStatus.PENDING) {
+                return payment;
+            }
+            payment.setGatewayResponse(gatewayResponse);
+            payment.setPaymentStatus(PaymentStatus.COMPLETED);
 
             // Update order payment status
+            Order order = orderRepository.findById(payment.getOrderId())
+                .orElseThrow(() -> new RuntimeException("Order not found for payment: " + paymentId));
             order.setPaymentStatus(com.ocommerce.services.order.domain.PaymentStatus.COMPLETED);
             orderRepository.save(order);
+            recordPaymentEvent(OutboxEventTypes.PAYMENT_COMPLETED, payment);
 
-            log.info("Payment completed successfully for order: {} with amount: {}", orderId, calculatedTotal);
-        } catch (Exception e) {
-            log.error("Payment failed for order: {}", orderId, e);
-            savedPayment.setPaymentStatus(PaymentStatus.FAILED);
-            savedPayment.setFailureReason(e.getMessage());
+            log.info("Payment completed successfully for order: {} with amount: {}", payment.getOrderId(), payment.getAmount());
+            return paymentRepository.save(payment);
+        });
+    }
+
+    /**
+     * Record a failed gateway charge. Does nothing if the payment is no longer PENDING.
+     */
+    Payment failPayment(UUID paymentId, String failureReason) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+            if (payment.getPaymentStatus() != PaymentStatus.PENDING) {
+                return payment;
+            }
+            payment.setPaymentStatus(PaymentStatus.FAILED);
+            payment.setFailureReason(failureReason);
+            return paymentRepository.save(payment);
+        });
+    }
+
+    private Payment await(CompletableFuture<Payment> outcome, Payment pending, String description) {
+        try {
+            return outcome.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The gateway worker still records the outcome when the gateway answers
+            log.warn("{} is still processing after {} ms", description, waitTimeout.toMillis());
+            return pending;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return pending;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(description + " failed: " + e.getCause().getMessage(), e.getCause());
         }
+    }
 
-        return paymentRepository.save(savedPayment);
+    // Payment events are keyed by order so they are delivered in order with the order's own events
+    private void recordPaymentEvent(String eventType, Payment payment) {
+        outboxService.record(OutboxEventTypes.ORDER, payment.getOrderId(), eventType,
+            new PaymentEvent(payment.getId(), payment.getOrderId(), payment.getAmount(), payment.getPaymentMethod()));
     }
 
     /**
-     * Validate all order items and calculate current total with latest product prices
+     * Total to charge for the order: the total locked at order creation while the lock holds,
+     * otherwise the total at current prices, which is then saved with a fresh lock
      */
     private BigDecimal validateAndCalculateOrderTotal(Order order) {
-        log.info("Validating and calculating order total for order: {}", order.getId());
-
+        // Neither the items nor the catalog are read while the lock holds
+        if (order.isPriceLocked(Instant.now())) {
+            return order.getTotalAmount();
+        }
         if (order.getItems() == null || order.getItems().isEmpty()) {
             throw new RuntimeException("Cannot process payment for order with no items");
         }
 
-        BigDecimal calculatedTotal = BigDecimal.ZERO;
-
-        for (OrderItem item : order.getItems()) {
-            try {
-                // Validate product and get current pricing
-                ProductPricingInfo currentPricing = productValidationService.validateAndGetProductPricing(
-                    item.getProductId(), item.getVariantId());
-
-                // Validate stock availability
-                if (!productValidationService.validateStockAvailability(
-                    item.getProductId(), item.getVariantId(), item.getQuantity())) {
-                    throw new ProductValidationException(
-                        "Insufficient stock for product: " + currentPricing.getProductName());
-                }
-
-                // Calculate item total with current pricing
-                BigDecimal itemTotal = currentPricing.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                calculatedTotal = calculatedTotal.add(itemTotal);
-
-                log.debug("Validated item: {} - Current price: {}, Quantity: {}, Total: {}",
-                    currentPricing.getProductName(), currentPricing.getPrice(), item.getQuantity(), itemTotal);
-
-            } catch (ProductValidationException e) {
-                log.error("Product validation failed during payment processing: {}", e.getMessage());
-                throw new RuntimeException("Payment validation failed: " + e.getMessage(), e);
-            }
+        log.info("Price lock of order {} expired, re-pricing before payment", order.getId());
+        try {
+            BigDecimal calculatedTotal = orderPricingService.reprice(order);
+            orderRepository.save(order);
+            return calculatedTotal;
+        } catch (ProductValidationException e) {
+            log.error("Product validation failed during payment processing: {}", e.getMessage());
+            throw new RuntimeException("Payment validation failed: " + e.getMessage(), e);
         }
-
-        log.info("Calculated order total: {} for order: {}", calculatedTotal, order.getId());
-        return calculatedTotal;
     }
 
     @Transactional(readOnly = true)
@@ -149,44 +349,144 @@ public class PaymentService {
         return paymentRepository.findById(paymentId);
     }
 
-    @Transactional
+    /**
+     * Refund a completed payment. The refund is first claimed on the locked payment, so it is
+     * requested from the gateway only once; if the outcome is never recorded the claim is
+     * resolved by {@link PaymentRecoveryService}. If the gateway has not answered within the wait
+     * timeout the claimed payment is returned still COMPLETED, with its refund requested.
+     * @throws RefundInProgressException if a refund of the payment is already being processed
+     * @throws PaymentGatewayUnavailableException if the gateway circuit is open or no gateway worker is available
+     */
     public Payment refundPayment(UUID paymentId) {
         log.info("Initiating refund for payment: {}", paymentId);
 
-        Payment payment = paymentRepository.findById(paymentId)
-            .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        Payment payment = transactionTemplate.execute(status -> claimRefund(paymentId));
 
-        if (payment.getPaymentStatus() == PaymentStatus.REFUNDED) {
-            throw new RuntimeException("Payment is already refunded");
+        // The gateway is called outside any transaction; the refund is recorded once it answers
+        CompletableFuture<Payment> outcome;
+        try {
+            outcome = paymentGatewayExecutor
+                .submit("refund", () -> paymentGatewayService.processRefund(payment))
+                .handle((refundResponse, error) -> recordRefundOutcome(payment, refundResponse, error));
+        } catch (PaymentGatewayUnavailableException e) {
+            releaseRefund(paymentId);
+            throw e;
+        }
+        try {
+            return outcome.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The gateway worker still records the outcome when the gateway answers
+            log.warn("Refund of payment {} is still processing after {} ms", paymentId, waitTimeout.toMillis());
+            return payment;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return payment;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PaymentGatewayTimeoutException) {
+                // The claim is kept and resolved by PaymentRecoveryService
+                return payment;
+            }
+            log.error("Refund failed for payment: {}", paymentId, e.getCause());
+            throw new RuntimeException("Refund processing failed: " + e.getCause().getMessage(), e.getCause());
         }
+    }
 
-        if (payment.getPaymentStatus() != PaymentStatus.COMPLETED) {
-            throw new RuntimeException("Cannot refund payment that is not completed");
+    private Payment claimRefund(UUID paymentId) {
+        Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+            .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        checkRefundable(payment);
+        if (payment.getRefundRequestedAt() != null) {
+            throw new RefundInProgressException("Refund already in progress for payment: " + paymentId);
         }
+        // Refunds of archived orders are recorded on the archive row
+        if (!orderRepository.existsById(payment.getOrderId())
+                && !archivedOrderRepository.existsById(payment.getOrderId())) {
+            throw new RuntimeException("Order not found for payment: " + paymentId);
+        }
+        payment.setRefundRequestedAt(Instant.now());
+        return paymentRepository.save(payment);
+    }
 
-        try {
-            // Process refund through gateway
-            String refundResponse = paymentGatewayService.processRefund(payment);
+    // Runs on the thread that completed the gateway call, outside any transaction
+    private Payment recordRefundOutcome(Payment payment, String refundResponse, Throwable failure) {
+        if (failure == null) {
+            return recordRefund(payment.getId(), refundResponse);
+        }
+        Throwable error = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (!(error instanceof PaymentGatewayTimeoutException)) {
+            releaseRefund(payment.getId());
+        } else {
+            // The gateway may still have refunded; PaymentRecoveryService asks it once the claim is stale
+            log.warn("Refund of payment: {} left in progress: {}", payment.getId(), error.getMessage());
+        }
+        throw error instanceof RuntimeException cause ? cause : new CompletionException(error);
+    }
+
+    /**
+     * Record a refund the gateway made. Does nothing if the payment is already refunded.
+     */
+    Payment recordRefund(UUID paymentId, String refundResponse) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+            if (payment.getPaymentStatus() == PaymentStatus.REFUNDED) {
+                return payment;
+            }
+            checkRefundable(payment);
             payment.setGatewayResponse(refundResponse);
             payment.setPaymentStatus(PaymentStatus.REFUNDED);
 
-            // Update order payment status
-            Order order = orderRepository.findById(payment.getOrderId())
-                .orElseThrow(() -> new RuntimeException("Order not found for payment: " + paymentId));
-            order.setPaymentStatus(com.ocommerce.services.order.domain.PaymentStatus.REFUNDED);
-            orderRepository.save(order);
+            // Update order payment status, in the archive if the order was archived since it was paid
+            Optional<Order> order = orderRepository.findById(payment.getOrderId());
+            if (order.isPresent()) {
+                order.get().setPaymentStatus(com.ocommerce.services.order.domain.PaymentStatus.REFUNDED);
+                orderRepository.save(order.get());
+            } else if (archivedOrderRepository.updatePaymentStatus(payment.getOrderId(),
+                    com.ocommerce.services.order.domain.PaymentStatus.REFUNDED.name(), Instant.now()) == 0) {
+                throw new RuntimeException("Order not found for payment: " + paymentId);
+            }
+            recordPaymentEvent(OutboxEventTypes.PAYMENT_REFUNDED, payment);
+            finishedPayments.invalidate(payment.getTransactionId());
 
             log.info("Payment refunded successfully: {}", paymentId);
-        } catch (Exception e) {
-            log.error("Refund failed for payment: {}", paymentId, e);
-            throw new RuntimeException("Refund processing failed: " + e.getMessage(), e);
+            return paymentRepository.save(payment);
+        });
+    }
+
+    /**
+     * Drop the refund claim of a payment the gateway did not refund, so the refund can be requested again
+     */
+    Payment releaseRefund(UUID paymentId) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+            if (payment.getPaymentStatus() != PaymentStatus.COMPLETED || payment.getRefundRequestedAt() == null) {
+                return payment;
+            }
+            payment.setRefundRequestedAt(null);
+            return paymentRepository.save(payment);
+        });
+    }
+
+    private static void checkRefundable(Payment payment) {
+        if (payment.getPaymentStatus() == PaymentStatus.REFUNDED) {
+            throw new RuntimeException("Payment is already refunded");
         }
 
-        return paymentRepository.save(payment);
+        if (payment.getPaymentStatus() != PaymentStatus.COMPLETED) {
+            throw new RuntimeException("Cannot refund payment that is not completed");
+        }
     }
 
     @Transactional(readOnly = true)
     public Optional<Payment> getPaymentByOrderId(UUID orderId) {
         return paymentRepository.findByOrderId(orderId).stream().findFirst();
     }
+
+    private record PendingPayment(Payment payment, boolean created) {
+    }
+
+    // Outbox payload
+    record PaymentEvent(UUID paymentId, UUID orderId, BigDecimal amount, PaymentMethod paymentMethod) {
+    }
 }
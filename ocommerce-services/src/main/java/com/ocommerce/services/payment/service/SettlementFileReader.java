@@ -0,0 +1,156 @@
+package com.ocommerce.services.payment.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Streams a settlement file one record at a time, so memory use does not grow with the file.
+ * Files ending in .ndjson hold one JSON object per line; anything else is read as CSV with a
+ * {@code reference,amount,status} header (columns in any order, extra columns ignored).
+ * Records must be sorted by reference in ascending string order, which is how the
+ * reconciliation job walks payments; an out-of-order record fails the read.
+ */
+public class SettlementFileReader implements Iterator<SettlementRecord>, Closeable {
+
+    private final Iterator<SettlementRecord> records;
+    private final Closeable source;
+    private SettlementRecord next;
+    private String previousReference;
+
+    private SettlementFileReader(Iterator<SettlementRecord> records, Closeable source) {
+        this.records = records;
+        this.source = source;
+    }
+
+    public static SettlementFileReader open(Path file, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file);
+        try {
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".ndjson")) {
+                MappingIterator<SettlementRecord> json = objectMapper.readerFor(SettlementRecord.class).readValues(reader);
+                return new SettlementFileReader(json, json);
+            }
+            return new SettlementFileReader(new CsvRecords(reader), reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && records.hasNext()) {
+            next = validate(records.next());
+        }
+        return next != null;
+    }
+
+    @Override
+    public SettlementRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SettlementRecord current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private SettlementRecord validate(SettlementRecord record) {
+        if (record.reference() == null || record.amount() == null || record.status() == null) {
+            throw new IllegalStateException("Incomplete settlement record: " + record);
+        }
+        String reference = record.reference().toString();
+        if (previousReference != null && reference.compareTo(previousReference) < 0) {
+            throw new IllegalStateException("Settlement file is not sorted by reference: "
+                + reference + " follows " + previousReference);
+        }
+        previousReference = reference;
+        return record;
+    }
+
+    private static final class CsvRecords implements Iterator<SettlementRecord> {
+
+        private final BufferedReader reader;
+        private final int referenceColumn;
+        private final int amountColumn;
+        private final int statusColumn;
+        private String line;
+        private long lineNumber = 1;
+
+        CsvRecords(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalStateException("Settlement file has no header");
+            }
+            List<String> columns = Arrays.stream(header.split(","))
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+            this.referenceColumn = column(columns, "reference");
+            this.amountColumn = column(columns, "amount");
+            this.statusColumn = column(columns, "status");
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (line == null) {
+                    String read = reader.readLine();
+                    if (read == null) {
+                        return false;
+                    }
+                    lineNumber++;
+                    if (!read.isBlank()) {
+                        line = read;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public SettlementRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String[] fields = line.split(",", -1);
+            line = null;
+            try {
+                return new SettlementRecord(
+                    UUID.fromString(fields[referenceColumn].trim()),
+                    new BigDecimal(fields[amountColumn].trim()),
+                    SettlementRecord.SettlementStatus.valueOf(fields[statusColumn].trim().toUpperCase(Locale.ROOT)));
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Malformed settlement record on line " + lineNumber, e);
+            }
+        }
+
+        private static int column(List<String> columns, String name) {
+            int index = columns.indexOf(name);
+            if (index < 0) {
+                throw new IllegalStateException("Settlement file header is missing column '" + name + "'");
+            }
+            return index;
+        }
+    }
+}
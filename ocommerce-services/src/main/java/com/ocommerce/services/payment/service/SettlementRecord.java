@@ -0,0 +1,15 @@
+package com.ocommerce.services.payment.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One line of a gateway settlement file; the reference is the payment id
+ */
+public record SettlementRecord(UUID reference, BigDecimal amount, SettlementStatus status) {
+
+    public enum SettlementStatus {
+        SETTLED,
+        REFUNDED
+    }
+}
@@ -0,0 +1,6 @@
+package com.ocommerce.services.promotion.domain;
+
+public enum DiscountType {
+    PERCENTAGE,
+    FIXED_AMOUNT
+}
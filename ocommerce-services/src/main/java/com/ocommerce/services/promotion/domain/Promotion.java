@@ -0,0 +1,74 @@
+package com.ocommerce.services.promotion.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A discount rule applied by the cart pricing pipeline.
+ * SKU and CATEGORY promotions discount matching lines (FIXED_AMOUNT is per unit);
+ * CART promotions discount the whole cart once its amount reaches minCartAmount.
+ */
+@Entity
+@Table(name = "promotions", indexes = {
+    @Index(name = "idx_promotions_active_ends_at", columnList = "active, ends_at")
+})
+@Getter
+@Setter
+public class Promotion {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PromotionScope scope;
+
+    @Column(nullable = true)
+    private String sku;
+
+    @Column(nullable = true)
+    private UUID categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DiscountType discountType;
+
+    @Column(nullable = false)
+    private BigDecimal discountValue;
+
+    @Column(nullable = true)
+    private BigDecimal minCartAmount;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Column(nullable = true)
+    private Instant startsAt;
+
+    @Column(nullable = true)
+    private Instant endsAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
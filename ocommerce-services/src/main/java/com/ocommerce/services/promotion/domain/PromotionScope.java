@@ -0,0 +1,7 @@
+package com.ocommerce.services.promotion.domain;
+
+public enum PromotionScope {
+    SKU,
+    CATEGORY,
+    CART
+}
@@ -0,0 +1,19 @@
+package com.ocommerce.services.promotion.repository;
+
+import com.ocommerce.services.promotion.domain.Promotion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PromotionRepository extends JpaRepository<Promotion, UUID> {
+
+    // Active promotions that have not ended yet, including ones scheduled to start later
+    @Query("SELECT p FROM Promotion p WHERE p.active = true AND (p.endsAt IS NULL OR p.endsAt > :now)")
+    List<Promotion> findActiveOrUpcoming(@Param("now") Instant now);
+}
@@ -0,0 +1,182 @@
+package com.ocommerce.services.promotion.service;
+
+import com.ocommerce.services.promotion.domain.DiscountType;
+import com.ocommerce.services.promotion.domain.Promotion;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Immutable, precompiled view of the promotions in effect at a point in time.
+ * Line promotions are indexed by SKU and category, and cart promotions are kept as sorted thresholds
+ * with running best discounts, so pricing a line or a cart never scans the promotion list.
+ * When several promotions match, the one giving the largest discount wins; discounts do not stack.
+ */
+public final class PromotionEvaluator {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    public static final PromotionEvaluator EMPTY = compile(List.of(), Instant.EPOCH);
+
+    private final Map<String, Rule> skuRules;
+    private final Map<UUID, Rule> categoryRules;
+    private final BigDecimal[] cartThresholds;
+    private final Rule[] bestCartRules;
+    private final Instant validUntil;
+    private final int promotionCount;
+
+    private PromotionEvaluator(Map<String, Rule> skuRules, Map<UUID, Rule> categoryRules,
+                               TreeMap<BigDecimal, Rule> cartRules, Instant validUntil, int promotionCount) {
+        this.skuRules = skuRules;
+        this.categoryRules = categoryRules;
+        this.cartThresholds = cartRules.keySet().toArray(new BigDecimal[0]);
+        this.bestCartRules = new Rule[cartThresholds.length];
+        Rule best = Rule.NONE;
+        int i = 0;
+        for (Rule rule : cartRules.values()) {
+            best = best.max(rule);
+            bestCartRules[i++] = best;
+        }
+        this.validUntil = validUntil;
+        this.promotionCount = promotionCount;
+    }
+
+    /**
+     * Compile the promotions that are in effect at the given instant.
+     * Promotions that start or end later limit how long the result stays valid.
+     */
+    public static PromotionEvaluator compile(Collection<Promotion> promotions, Instant now) {
+        Map<String, Rule> skuRules = new HashMap<>();
+        Map<UUID, Rule> categoryRules = new HashMap<>();
+        TreeMap<BigDecimal, Rule> cartRules = new TreeMap<>();
+        Instant validUntil = null;
+        int count = 0;
+
+        for (Promotion promotion : promotions) {
+            if (!promotion.isActive() || promotion.getDiscountValue() == null
+                || promotion.getDiscountValue().signum() <= 0) {
+                continue;
+            }
+            if (promotion.getStartsAt() != null && promotion.getStartsAt().isAfter(now)) {
+                validUntil = earliest(validUntil, promotion.getStartsAt());
+                continue;
+            }
+            if (promotion.getEndsAt() != null) {
+                if (!promotion.getEndsAt().isAfter(now)) {
+                    continue;
+                }
+                validUntil = earliest(validUntil, promotion.getEndsAt());
+            }
+
+            Rule rule = Rule.of(promotion);
+            switch (promotion.getScope()) {
+                case SKU -> {
+                    if (promotion.getSku() == null) continue;
+                    skuRules.merge(promotion.getSku(), rule, Rule::max);
+                }
+                case CATEGORY -> {
+                    if (promotion.getCategoryId() == null) continue;
+                    categoryRules.merge(promotion.getCategoryId(), rule, Rule::max);
+                }
+                case CART -> {
+                    BigDecimal threshold = promotion.getMinCartAmount() != null
+                        ? promotion.getMinCartAmount()
+                        : BigDecimal.ZERO;
+                    cartRules.merge(threshold, rule, Rule::max);
+                }
+            }
+            count++;
+        }
+
+        return new PromotionEvaluator(skuRules, categoryRules, cartRules, validUntil, count);
+    }
+
+    /**
+     * Best discount for a cart line from SKU and category promotions
+     * @param sku Line SKU, may be null
+     * @param categoryIds Categories of the line's product, may be empty
+     * @param lineSubtotal Unit price times quantity
+     * @param quantity Line quantity
+     * @return Discount amount, never more than the line subtotal
+     */
+    public BigDecimal lineDiscount(String sku, Collection<UUID> categoryIds, BigDecimal lineSubtotal, int quantity) {
+        Rule rule = Rule.NONE;
+        if (sku != null && !skuRules.isEmpty()) {
+            rule = rule.max(skuRules.getOrDefault(sku, Rule.NONE));
+        }
+        if (categoryIds != null && !categoryRules.isEmpty()) {
+            for (UUID categoryId : categoryIds) {
+                rule = rule.max(categoryRules.getOrDefault(categoryId, Rule.NONE));
+            }
+        }
+        return rule.discount(lineSubtotal, quantity);
+    }
+
+    /**
+     * Best discount from cart threshold promotions
+     * @param cartSubtotal Cart amount after line discounts
+     * @return Discount amount, never more than the cart subtotal
+     */
+    public BigDecimal cartDiscount(BigDecimal cartSubtotal) {
+        int index = Arrays.binarySearch(cartThresholds, cartSubtotal, BigDecimal::compareTo);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index < 0 ? BigDecimal.ZERO : bestCartRules[index].discount(cartSubtotal, 1);
+    }
+
+    /**
+     * Whether this evaluator still reflects the promotions in effect at the given instant
+     */
+    public boolean isValidAt(Instant now) {
+        return validUntil == null || now.isBefore(validUntil);
+    }
+
+    public Instant getValidUntil() {
+        return validUntil;
+    }
+
+    public int getPromotionCount() {
+        return promotionCount;
+    }
+
+    private static Instant earliest(Instant current, Instant candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    /**
+     * Best percentage and best fixed amount among the promotions sharing a key
+     */
+    private record Rule(BigDecimal percent, BigDecimal fixed) {
+        static final Rule NONE = new Rule(BigDecimal.ZERO, BigDecimal.ZERO);
+
+        static Rule of(Promotion promotion) {
+            return promotion.getDiscountType() == DiscountType.PERCENTAGE
+                ? new Rule(promotion.getDiscountValue().min(HUNDRED), BigDecimal.ZERO)
+                : new Rule(BigDecimal.ZERO, promotion.getDiscountValue());
+        }
+
+        Rule max(Rule other) {
+            if (other == NONE) return this;
+            if (this == NONE) return other;
+            return new Rule(percent.max(other.percent), fixed.max(other.fixed));
+        }
+
+        BigDecimal discount(BigDecimal amount, int quantity) {
+            if (this == NONE || amount.signum() <= 0) {
+                return BigDecimal.ZERO;
+            }
+            BigDecimal byPercent = amount.multiply(percent).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+            BigDecimal byFixed = fixed.multiply(BigDecimal.valueOf(quantity));
+            return byPercent.max(byFixed).min(amount).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ocommerce.services.promotion.service;
+
+import com.ocommerce.services.promotion.domain.Promotion;
+import com.ocommerce.services.promotion.repository.PromotionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Keeps the compiled promotion rules used by the cart pricing pipeline.
+ * Rules are recompiled when a promotion changes, when a promotion starts or ends,
+ * and at a fixed interval so changes made by other instances are picked up.
+ */
+@Slf4j
+@Service
+public class PromotionService {
+
+    private final PromotionRepository promotionRepository;
+    private final Duration refreshInterval;
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public PromotionService(PromotionRepository promotionRepository,
+                            @Value("${app.pricing.promotions.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.promotionRepository = promotionRepository;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMs);
+    }
+
+    /**
+     * Get the promotion rules in effect now, recompiling them if they are stale
+     */
+    public PromotionEvaluator getEvaluator() {
+        Instant now = Instant.now();
+        Snapshot current = snapshot;
+        if (current != null && now.isBefore(current.refreshAt())) {
+            return current.evaluator();
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || !now.isBefore(current.refreshAt())) {
+                current = compile(now);
+                snapshot = current;
+            }
+            return current.evaluator();
+        }
+    }
+
+    /**
+     * Create or update a promotion and drop the compiled rules
+     */
+    public Promotion savePromotion(Promotion promotion) {
+        Promotion saved = promotionRepository.save(promotion);
+        invalidate();
+        return saved;
+    }
+
+    /**
+     * Force the rules to be recompiled on next use
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot compile(Instant now) {
+        List<Promotion> promotions = promotionRepository.findActiveOrUpcoming(now);
+        PromotionEvaluator evaluator = PromotionEvaluator.compile(promotions, now);
+
+        Instant refreshAt = now.plus(refreshInterval);
+        if (evaluator.getValidUntil() != null && evaluator.getValidUntil().isBefore(refreshAt)) {
+            refreshAt = evaluator.getValidUntil();
+        }
+        log.info("Compiled {} active promotions out of {} loaded", evaluator.getPromotionCount(), promotions.size());
+        return new Snapshot(evaluator, refreshAt);
+    }
+
+    private record Snapshot(PromotionEvaluator evaluator, Instant refreshAt) {
+    }
+}
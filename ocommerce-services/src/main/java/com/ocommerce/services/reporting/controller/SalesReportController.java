@@ -0,0 +1,143 @@
+package com.ocommerce.services.reporting.controller;
+
+import com.ocommerce.services.reporting.dto.DailySalesResponse;
+import com.ocommerce.services.reporting.dto.ProductSalesResponse;
+import com.ocommerce.services.reporting.dto.SalesBackfillResponse;
+import com.ocommerce.services.reporting.service.SalesRollupBackfillService;
+import com.ocommerce.services.reporting.service.SalesRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/reports/sales")
+@RequiredArgsConstructor
+@PreAuthorize("hasAuthority('SALES_REPORTS')")
+@Tag(name = "Sales Reports", description = "APIs for sales reporting, served from daily rollups instead of the order tables")
+@SecurityRequirement(name = "bearerAuth")
+public class SalesReportController {
+
+    private final SalesRollupService salesRollupService;
+    private final SalesRollupBackfillService salesRollupBackfillService;
+
+    @GetMapping("/daily")
+    @Operation(
+        summary = "Daily sales totals",
+        description = "Returns order count, units sold and revenue per day (UTC) for a date range of up to 366 days, net of cancelled and refunded orders. Days without sales are omitted. Read from the daily rollups, which trail order events by the outbox relay delay. Requires the SALES_REPORTS authority.",
+        operationId = "getDailySales"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Daily totals retrieved successfully"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid date range"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - SALES_REPORTS authority required",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<List<DailySalesResponse>> getDailySales(
+            @Parameter(description = "First day of the range (UTC)", required = true, example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range (UTC), inclusive", required = true, example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.getDailySales(from, to));
+    }
+
+    @GetMapping("/products")
+    @Operation(
+        summary = "Best-selling products",
+        description = "Returns the product variants with the highest revenue over a date range of up to 366 days, net of cancelled and refunded orders. Read from the daily rollups. Requires the SALES_REPORTS authority.",
+        operationId = "getTopProducts"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Product sales retrieved successfully"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid date range"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - SALES_REPORTS authority required",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<List<ProductSalesResponse>> getTopProducts(
+            @Parameter(description = "First day of the range (UTC)", required = true, example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day of the range (UTC), inclusive", required = true, example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(
+                description = "Maximum number of products to return",
+                example = "20",
+                schema = @Schema(type = "integer", minimum = "1", maximum = "100", defaultValue = "20")
+            )
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesRollupService.getTopProducts(from, to, limit));
+    }
+
+    @PostMapping("/backfill")
+    @Operation(
+        summary = "Rebuild sales rollups",
+        description = "Recomputes the daily rollups of a date range of up to 366 days from the order history, one day per transaction. Use it to load history recorded before the rollups existed or to repair them. Safe to repeat and to run while orders are being placed. Requires the SALES_REPORTS authority.",
+        operationId = "backfillSalesRollups"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Rollups rebuilt"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid date range"
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - valid authentication required",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - SALES_REPORTS authority required",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    public ResponseEntity<SalesBackfillResponse> backfill(
+            @Parameter(description = "First day to rebuild (UTC)", required = true, example = "2024-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Last day to rebuild (UTC), inclusive", required = true, example = "2024-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupBackfillService.rebuild(from, to));
+    }
+}
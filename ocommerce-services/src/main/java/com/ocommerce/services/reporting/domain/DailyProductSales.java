@@ -0,0 +1,40 @@
+package com.ocommerce.services.reporting.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Units and revenue of one product variant on one UTC day, net of cancelled and refunded orders.
+ */
+@Entity
+@Table(name = "sales_daily_products", indexes = {
+    @Index(name = "idx_sales_daily_products_product_date", columnList = "product_id, sales_date")
+})
+@Getter
+@Setter
+public class DailyProductSales {
+    @EmbeddedId
+    private DailyProductSalesId id;
+
+    @Column(nullable = true)
+    private String sku;
+
+    @Column(nullable = false)
+    private long unitsSold;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ocommerce.services.reporting.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProductSalesId implements Serializable {
+
+    // Stands in for a missing variant, since key columns cannot be null
+    public static final UUID NO_VARIANT = new UUID(0L, 0L);
+
+    @Column(nullable = false)
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private UUID variantKey;
+
+    public static UUID variantKey(UUID variantId) {
+        return variantId != null ? variantId : NO_VARIANT;
+    }
+
+    public static UUID variantId(UUID variantKey) {
+        return NO_VARIANT.equals(variantKey) ? null : variantKey;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ocommerce.services.reporting.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Sales totals of one UTC day, net of cancelled and refunded orders.
+ */
+@Entity
+@Table(name = "sales_daily_totals")
+@Getter
+@Setter
+public class DailySales {
+    @Id
+    private LocalDate salesDate;
+
+    @Column(nullable = false)
+    private long orderCount;
+
+    @Column(nullable = false)
+    private long unitsSold;
+
+    @Column(nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long reversedOrderCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = Instant.now();
+    }
+}
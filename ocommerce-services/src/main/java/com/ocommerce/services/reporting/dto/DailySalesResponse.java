@@ -0,0 +1,30 @@
+package com.ocommerce.services.reporting.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Sales totals of one day (UTC), net of cancelled and refunded orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesResponse {
+    @Schema(description = "Day the orders were placed (UTC)", example = "2024-01-15")
+    private LocalDate salesDate;
+
+    @Schema(description = "Orders placed on the day that were not cancelled or refunded", example = "128")
+    private long orderCount;
+
+    @Schema(description = "Units sold", example = "342")
+    private long unitsSold;
+
+    @Schema(description = "Revenue of the counted orders", example = "15432.50")
+    private BigDecimal revenue;
+
+    @Schema(description = "Orders placed on the day that were later cancelled or refunded", example = "4")
+    private long reversedOrderCount;
+}
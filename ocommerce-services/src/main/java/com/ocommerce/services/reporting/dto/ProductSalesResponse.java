@@ -0,0 +1,30 @@
+package com.ocommerce.services.reporting.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(description = "Sales of one product variant over a date range, net of cancelled and refunded orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesResponse {
+    @Schema(description = "Product unique identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+    private UUID productId;
+
+    @Schema(description = "Variant unique identifier, if the product was sold as a variant", example = "550e8400-e29b-41d4-a716-446655440001")
+    private UUID variantId;
+
+    @Schema(description = "SKU the variant was sold under", example = "TSHIRT-RED-M")
+    private String sku;
+
+    @Schema(description = "Units sold", example = "57")
+    private long unitsSold;
+
+    @Schema(description = "Revenue of the sold units", example = "1139.43")
+    private BigDecimal revenue;
+}
@@ -0,0 +1,23 @@
+package com.ocommerce.services.reporting.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Schema(description = "Result of a sales rollup backfill")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBackfillResponse {
+    @Schema(description = "First rebuilt day (UTC)", example = "2024-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Last rebuilt day (UTC)", example = "2024-01-31")
+    private LocalDate to;
+
+    @Schema(description = "Number of days rebuilt", example = "31")
+    private int daysRebuilt;
+}
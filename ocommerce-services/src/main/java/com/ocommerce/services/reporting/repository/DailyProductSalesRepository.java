@@ -0,0 +1,59 @@
+package com.ocommerce.services.reporting.repository;
+
+import com.ocommerce.services.reporting.domain.DailyProductSales;
+import com.ocommerce.services.reporting.domain.DailyProductSalesId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, DailyProductSalesId> {
+
+    // Apply a delta in place so concurrent writers never lose each other's updates
+    @Modifying
+    @Query("UPDATE DailyProductSales s SET s.unitsSold = s.unitsSold + :units, s.revenue = s.revenue + :revenue, " +
+           "s.updatedAt = :now WHERE s.id.salesDate = :salesDate AND s.id.productId = :productId " +
+           "AND s.id.variantKey = :variantKey")
+    int increment(@Param("salesDate") LocalDate salesDate,
+                  @Param("productId") UUID productId,
+                  @Param("variantKey") UUID variantKey,
+                  @Param("units") long units,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("now") Instant now);
+
+    // Used by the backfill; clears the persistence context so rebuilt rows are inserted afresh
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM DailyProductSales s WHERE s.id.salesDate = :salesDate")
+    int deleteBySalesDate(@Param("salesDate") LocalDate salesDate);
+
+    // Best sellers of a date range, summed over the daily rows
+    @Query("SELECT s.id.productId AS productId, s.id.variantKey AS variantKey, MAX(s.sku) AS sku, " +
+           "SUM(s.unitsSold) AS unitsSold, SUM(s.revenue) AS revenue " +
+           "FROM DailyProductSales s WHERE s.id.salesDate BETWEEN :from AND :to " +
+           "GROUP BY s.id.productId, s.id.variantKey " +
+           "ORDER BY SUM(s.revenue) DESC, s.id.productId, s.id.variantKey")
+    List<ProductSalesTotal> findTopProducts(@Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            Pageable pageable);
+
+    interface ProductSalesTotal {
+        UUID getProductId();
+
+        UUID getVariantKey();
+
+        String getSku();
+
+        Long getUnitsSold();
+
+        BigDecimal getRevenue();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ocommerce.services.reporting.repository;
+
+import com.ocommerce.services.reporting.domain.DailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    List<DailySales> findBySalesDateBetweenOrderBySalesDate(LocalDate from, LocalDate to);
+
+    // Apply a delta in place so concurrent writers never lose each other's updates
+    @Modifying
+    @Query("UPDATE DailySales s SET s.orderCount = s.orderCount + :orders, s.unitsSold = s.unitsSold + :units, " +
+           "s.revenue = s.revenue + :revenue, s.reversedOrderCount = s.reversedOrderCount + :reversedOrders, " +
+           "s.updatedAt = :now WHERE s.salesDate = :salesDate")
+    int increment(@Param("salesDate") LocalDate salesDate,
+                  @Param("orders") long orders,
+                  @Param("units") long units,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("reversedOrders") long reversedOrders,
+                  @Param("now") Instant now);
+
+    // Used by the backfill; clears the persistence context so rebuilt rows are inserted afresh
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM DailySales s WHERE s.salesDate = :salesDate")
+    int deleteBySalesDate(@Param("salesDate") LocalDate salesDate);
+}
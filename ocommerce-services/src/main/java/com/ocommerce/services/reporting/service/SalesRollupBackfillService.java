@@ -0,0 +1,141 @@
+package com.ocommerce.services.reporting.service;
+
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.domain.PaymentStatus;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository.OrderSalesTotal;
+import com.ocommerce.services.order.repository.OrderRepository.ProductSalesLine;
+import com.ocommerce.services.reporting.domain.DailyProductSales;
+import com.ocommerce.services.reporting.domain.DailyProductSalesId;
+import com.ocommerce.services.reporting.domain.DailySales;
+import com.ocommerce.services.reporting.dto.SalesBackfillResponse;
+import com.ocommerce.services.reporting.repository.DailyProductSalesRepository;
+import com.ocommerce.services.reporting.repository.DailySalesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the sales rollups from order history, archived orders included, one day per transaction.
+ * Each day is recomputed from scratch and the orders' rollup flags are settled in the same
+ * transaction, so a rebuild is repeatable and safe to run while events are being relayed:
+ * events for orders the backfill already counted are skipped by the flags.
+ */
+@Slf4j
+@Service
+public class SalesRollupBackfillService {
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final DailyProductSalesRepository dailyProductSalesRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer dayDuration;
+
+    @Autowired
+    public SalesRollupBackfillService(OrderRepository orderRepository,
+                                      ArchivedOrderRepository archivedOrderRepository,
+                                      DailySalesRepository dailySalesRepository,
+                                      DailyProductSalesRepository dailyProductSalesRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.dailySalesRepository = dailySalesRepository;
+        this.dailyProductSalesRepository = dailyProductSalesRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dayDuration = Timer.builder("sales.rollup.backfill.day")
+            .description("Time to rebuild the sales rollups of one day")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Rebuild the rollups of every day in the range, both ends inclusive
+     * @throws IllegalArgumentException if the range is inverted or too long
+     */
+    public SalesBackfillResponse rebuild(LocalDate from, LocalDate to) {
+        SalesRollupService.validateRange(from, to);
+        long started = System.nanoTime();
+        int days = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate salesDate = day;
+            dayDuration.record(() -> transactionTemplate.executeWithoutResult(status -> rebuildDay(salesDate)));
+            days++;
+        }
+        log.info("Rebuilt sales rollups for {} days from {} to {} ({} ms)",
+            days, from, to, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return new SalesBackfillResponse(from, to, days);
+    }
+
+    private void rebuildDay(LocalDate salesDate) {
+        Instant start = salesDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant end = salesDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        // Settle the flags first; this also locks the day's orders against concurrent rollup updates
+        orderRepository.markSalesRecordedCreatedBetween(start, end);
+        orderRepository.markSalesReversedCreatedBetween(start, end, OrderStatus.CANCELLED, PaymentStatus.REFUNDED);
+        archivedOrderRepository.markSalesRecordedCreatedBetween(start, end);
+        archivedOrderRepository.markSalesReversedCreatedBetween(start, end,
+            OrderStatus.CANCELLED.name(), PaymentStatus.REFUNDED.name());
+        dailyProductSalesRepository.deleteBySalesDate(salesDate);
+        dailySalesRepository.deleteBySalesDate(salesDate);
+
+        // Orders of the day may be split between the orders table and the archive
+        List<OrderSalesTotal> totals = new ArrayList<>(orderRepository.sumSalesCreatedBetween(start, end));
+        totals.addAll(archivedOrderRepository.sumSalesCreatedBetween(start, end));
+        if (totals.isEmpty()) {
+            return;
+        }
+        List<ProductSalesLine> lines = new ArrayList<>(orderRepository.sumProductSalesCreatedBetween(start, end));
+        lines.addAll(archivedOrderRepository.sumProductSalesCreatedBetween(start, end));
+
+        DailySales dailySales = new DailySales();
+        dailySales.setSalesDate(salesDate);
+        for (OrderSalesTotal total : totals) {
+            if (total.isReversed()) {
+                dailySales.setReversedOrderCount(dailySales.getReversedOrderCount() + total.getOrderCount());
+            } else {
+                dailySales.setOrderCount(dailySales.getOrderCount() + total.getOrderCount());
+                dailySales.setRevenue(dailySales.getRevenue().add(total.getRevenue()));
+            }
+        }
+        Map<DailyProductSalesId, DailyProductSales> productSalesById = new LinkedHashMap<>();
+        for (ProductSalesLine line : lines) {
+            DailyProductSalesId id = new DailyProductSalesId(salesDate, line.getProductId(),
+                DailyProductSalesId.variantKey(line.getVariantId()));
+            DailyProductSales productSales = productSalesById.computeIfAbsent(id, key -> {
+                DailyProductSales created = new DailyProductSales();
+                created.setId(key);
+                return created;
+            });
+            if (line.getSku() != null) {
+                productSales.setSku(line.getSku());
+            }
+            productSales.setUnitsSold(productSales.getUnitsSold() + line.getUnitsSold());
+            if (line.getRevenue() != null) {
+                productSales.setRevenue(productSales.getRevenue().add(line.getRevenue()));
+            }
+        }
+        long units = 0;
+        for (DailyProductSales productSales : productSalesById.values()) {
+            dailyProductSalesRepository.save(productSales);
+            units += productSales.getUnitsSold();
+        }
+        dailySales.setUnitsSold(units);
+        dailySalesRepository.save(dailySales);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ocommerce.services.reporting.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.domain.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps the sales rollups up to date from order events relayed through the outbox.
+ * Runs in the relay's per-event delivery transaction, so a failed rollup update rolls back on
+ * its own and the event is retried; checkout itself never touches the contended per-day rows.
+ * A redelivered event is ignored through the order's salesRecorded/salesReversed flags and,
+ * for re-pricing, its pricing version.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupListener {
+
+    private final SalesRollupService salesRollupService;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onOutboxMessage(OutboxMessage message) {
+        if (!OutboxEventTypes.ORDER.equals(message.aggregateType())) {
+            return;
+        }
+        switch (message.eventType()) {
+            case OutboxEventTypes.ORDER_CREATED -> salesRollupService.recordOrder(message.aggregateId());
+            case OutboxEventTypes.ORDER_STATUS_CHANGED -> {
+                if (isCancellation(message)) {
+                    salesRollupService.reverseOrder(message.aggregateId());
+                }
+            }
+            case OutboxEventTypes.PAYMENT_REFUNDED -> salesRollupService.reverseOrder(message.aggregateId());
+            case OutboxEventTypes.ORDER_REPRICED -> reprice(message);
+            default -> {
+            }
+        }
+    }
+
+    private boolean isCancellation(OutboxMessage message) {
+        String status = readPayload(message).path("status").asText();
+        return OrderStatus.CANCELLED.name().equals(status);
+    }
+
+    private void reprice(OutboxMessage message) {
+        JsonNode payload = readPayload(message);
+        BigDecimal revenueDelta = payload.path("totalAmount").decimalValue()
+            .subtract(payload.path("previousTotal").decimalValue());
+        List<SalesRollupService.RevenueDelta> lines = new ArrayList<>();
+        for (JsonNode line : payload.path("lines")) {
+            lines.add(new SalesRollupService.RevenueDelta(
+                UUID.fromString(line.path("productId").asText()),
+                line.hasNonNull("variantId") ? UUID.fromString(line.get("variantId").asText()) : null,
+                line.path("sku").textValue(),
+                line.path("totalPrice").decimalValue().subtract(line.path("previousTotalPrice").decimalValue())));
+        }
+        salesRollupService.repriceOrder(message.aggregateId(), payload.path("pricingVersion").asInt(),
+            revenueDelta, lines);
+    }
+
+    private JsonNode readPayload(OutboxMessage message) {
+        try {
+            return objectMapper.readTree(message.payload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed payload of outbox event " + message.id(), e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.ocommerce.services.reporting.service;
+
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.reporting.domain.DailyProductSales;
+import com.ocommerce.services.reporting.domain.DailyProductSalesId;
+import com.ocommerce.services.reporting.domain.DailySales;
+import com.ocommerce.services.reporting.dto.DailySalesResponse;
+import com.ocommerce.services.reporting.dto.ProductSalesResponse;
+import com.ocommerce.services.reporting.repository.DailyProductSalesRepository;
+import com.ocommerce.services.reporting.repository.DailySalesRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Maintains the daily sales rollups incrementally and serves reports from them.
+ * Orders are bucketed by the UTC day they were placed. The salesRecorded/salesReversed
+ * flags on the order make adding and reversing an order idempotent, so redelivered
+ * events, or a cancellation followed by a refund, are only applied once. Re-pricing is applied as
+ * a revenue delta, guarded by the order's pricing version so each re-pricing is counted once.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    static final int MAX_RANGE_DAYS = 366;
+    static final int MAX_TOP_PRODUCTS = 100;
+
+    private static final Comparator<DailyProductSalesId> LOCK_ORDER = Comparator
+        .comparing(DailyProductSalesId::getProductId)
+        .thenComparing(DailyProductSalesId::getVariantKey);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final DailySalesRepository dailySalesRepository;
+    private final DailyProductSalesRepository dailyProductSalesRepository;
+
+    /**
+     * Add a newly created order to the rollups
+     * @return false if the order does not exist or is already counted
+     * @throws IllegalStateException if the order was archived before it was counted
+     */
+    @Transactional
+    public boolean recordOrder(UUID orderId) {
+        Order order = findOrderWithItems(orderId, ArchivedOrder::isSalesRecorded);
+        if (order == null || orderRepository.markSalesRecorded(orderId) == 0) {
+            return false;
+        }
+        apply(order, 1);
+        log.debug("Recorded order {} in sales rollups", orderId);
+        return true;
+    }
+
+    /**
+     * Take a cancelled or refunded order out of the rollups. An archived order, e.g. one
+     * refunded after archival, is reversed from its archived items.
+     * @return false if the order does not exist, was never counted or is already reversed
+     */
+    @Transactional
+    public boolean reverseOrder(UUID orderId) {
+        List<Order> orders = orderRepository.findWithItemsByIdIn(List.of(orderId));
+        if (!orders.isEmpty()) {
+            if (orderRepository.markSalesReversed(orderId) == 0) {
+                return false;
+            }
+            apply(orders.get(0), -1);
+        } else {
+            List<ArchivedOrder> archived = archivedOrderRepository.findWithItemsByIdIn(List.of(orderId));
+            if (archived.isEmpty()) {
+                log.warn("Order {} not found for sales rollup", orderId);
+                return false;
+            }
+            if (archivedOrderRepository.markSalesReversed(orderId) == 0) {
+                return false;
+            }
+            apply(archived.get(0), -1);
+        }
+        log.debug("Reversed order {} in sales rollups", orderId);
+        return true;
+    }
+
+    /**
+     * Move a counted order's revenue to a new pricing
+     * @param revenueDelta Change of the order total
+     * @param lines Change of each line total; lines of the same variant are summed
+     * @return false if the order does not exist, is not counted, is reversed or already carries this pricing
+     * @throws IllegalStateException if the order was archived while counted, as the archive does not track pricing
+     */
+    @Transactional
+    public boolean repriceOrder(UUID orderId, int pricingVersion, BigDecimal revenueDelta, List<RevenueDelta> lines) {
+        Order order = findOrderWithItems(orderId, archived -> !archived.isSalesRecorded() || archived.isSalesReversed());
+        if (order == null || orderRepository.markSalesRepriced(orderId, pricingVersion) == 0) {
+            return false;
+        }
+        LocalDate salesDate = salesDate(order.getCreatedAt());
+        Instant now = Instant.now();
+
+        Map<DailyProductSalesId, ProductDelta> deltas = new TreeMap<>(LOCK_ORDER);
+        for (RevenueDelta line : lines) {
+            DailyProductSalesId id = new DailyProductSalesId(salesDate, line.productId(),
+                DailyProductSalesId.variantKey(line.variantId()));
+            deltas.computeIfAbsent(id, key -> new ProductDelta(line.sku())).add(0, line.amount());
+        }
+
+        addTotals(salesDate, 0, 0, revenueDelta, 0, now);
+        deltas.forEach((id, delta) -> addProduct(id, delta.sku, 0, delta.revenue, now));
+        log.debug("Re-priced order {} in sales rollups to pricing version {}", orderId, pricingVersion);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySalesResponse> getDailySales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return dailySalesRepository.findBySalesDateBetweenOrderBySalesDate(from, to).stream()
+            .map(s -> new DailySalesResponse(s.getSalesDate(), s.getOrderCount(), s.getUnitsSold(),
+                s.getRevenue(), s.getReversedOrderCount()))
+            .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesResponse> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        validateRange(from, to);
+        int size = Math.max(1, Math.min(limit, MAX_TOP_PRODUCTS));
+        return dailyProductSalesRepository.findTopProducts(from, to, PageRequest.of(0, size)).stream()
+            .map(p -> new ProductSalesResponse(p.getProductId(), DailyProductSalesId.variantId(p.getVariantKey()),
+                p.getSku(), p.getUnitsSold(), p.getRevenue()))
+            .toList();
+    }
+
+    static LocalDate salesDate(Instant createdAt) {
+        return LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the range is inverted or longer than {@value #MAX_RANGE_DAYS} days
+     */
+    static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Date range end must not be before its start");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    /**
+     * @param applied Whether an archived order already carries the change; the archive only supports
+     *                reversals, so any other change still missing there can no longer be applied
+     */
+    private Order findOrderWithItems(UUID orderId, Predicate<ArchivedOrder> applied) {
+        List<Order> orders = orderRepository.findWithItemsByIdIn(List.of(orderId));
+        if (!orders.isEmpty()) {
+            return orders.get(0);
+        }
+        Optional<ArchivedOrder> archived = archivedOrderRepository.findById(orderId);
+        if (archived.isPresent() && !applied.test(archived.get())) {
+            // Fail the event so it is retried and dead-lettered instead of silently skewing the rollups
+            throw new IllegalStateException("Order " + orderId + " was archived before its sales rollup was updated");
+        }
+        log.warn("Order {} not found for sales rollup", orderId);
+        return null;
+    }
+
+    private void apply(Order order, int sign) {
+        apply(order.getCreatedAt(), order.getTotalAmount(), order.getItems().stream()
+            .map(item -> new SalesLine(item.getProductId(), item.getVariantId(), item.getSku(),
+                item.getQuantity(), item.getTotalPrice()))
+            .toList(), sign);
+    }
+
+    private void apply(ArchivedOrder order, int sign) {
+        apply(order.getCreatedAt(), order.getTotalAmount(), order.getItems().stream()
+            .map(item -> new SalesLine(item.getProductId(), item.getVariantId(), item.getSku(),
+                item.getQuantity(), item.getTotalPrice()))
+            .toList(), sign);
+    }
+
+    private void apply(Instant createdAt, BigDecimal revenue, List<SalesLine> lines, int sign) {
+        LocalDate salesDate = salesDate(createdAt);
+        Instant now = Instant.now();
+
+        // One delta per variant, applied in a fixed order so concurrent writers lock rows alike
+        Map<DailyProductSalesId, ProductDelta> deltas = new TreeMap<>(LOCK_ORDER);
+        long units = 0;
+        for (SalesLine line : lines) {
+            DailyProductSalesId id = new DailyProductSalesId(salesDate, line.productId(),
+                DailyProductSalesId.variantKey(line.variantId()));
+            deltas.computeIfAbsent(id, key -> new ProductDelta(line.sku()))
+                .add(line.quantity(), line.totalPrice());
+            units += line.quantity();
+        }
+
+        addTotals(salesDate, sign, sign * units, sign < 0 ? revenue.negate() : revenue, sign < 0 ? 1 : 0, now);
+        deltas.forEach((id, delta) -> addProduct(id, delta.sku,
+            sign * delta.units, sign < 0 ? delta.revenue.negate() : delta.revenue, now));
+    }
+
+    private void addTotals(LocalDate salesDate, long orders, long units, BigDecimal revenue, long reversedOrders, Instant now) {
+        if (dailySalesRepository.increment(salesDate, orders, units, revenue, reversedOrders, now) > 0) {
+            return;
+        }
+        // First order of the day; a concurrent insert fails the transaction, which is then retried
+        DailySales totals = new DailySales();
+        totals.setSalesDate(salesDate);
+        totals.setOrderCount(orders);
+        totals.setUnitsSold(units);
+        totals.setRevenue(revenue);
+        totals.setReversedOrderCount(reversedOrders);
+        dailySalesRepository.save(totals);
+    }
+
+    private void addProduct(DailyProductSalesId id, String sku, long units, BigDecimal revenue, Instant now) {
+        if (dailyProductSalesRepository.increment(id.getSalesDate(), id.getProductId(), id.getVariantKey(),
+                units, revenue, now) > 0) {
+            return;
+        }
+        DailyProductSales line = new DailyProductSales();
+        line.setId(id);
+        line.setSku(sku);
+        line.setUnitsSold(units);
+        line.setRevenue(revenue);
+        dailyProductSalesRepository.save(line);
+    }
+
+    /**
+     * Revenue change of one order line
+     */
+    public record RevenueDelta(UUID productId, UUID variantId, String sku, BigDecimal amount) {
+    }
+
+    private record SalesLine(UUID productId, UUID variantId, String sku, int quantity, BigDecimal totalPrice) {
+    }
+
+    private static final class ProductDelta {
+        private final String sku;
+        private long units;
+        private BigDecimal revenue = BigDecimal.ZERO;
+
+        private ProductDelta(String sku) {
+            this.sku = sku;
+        }
+
+        private void add(int quantity, BigDecimal amount) {
+            units += quantity;
+            revenue = revenue.add(amount);
+        }
+    }
+}
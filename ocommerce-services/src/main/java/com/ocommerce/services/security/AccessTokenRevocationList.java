@@ -0,0 +1,213 @@
+package com.ocommerce.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ocommerce.services.user.domain.AccessTokenRevocation;
+import com.ocommerce.services.user.repository.AccessTokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Access tokens revoked before their expiry, checked by the JWT filter with two hash lookups:
+ * revoked token ids (jti), and per user a time before which all tokens were revoked. Each entry
+ * expires once the tokens it covers have expired, so the lists hold at most one access token
+ * lifetime of logouts.
+ * <p>
+ * Revocations are written to a shared table and applied locally at once. Every instance loads
+ * the unexpired rows at startup and then polls for rows added since, so a logout on another
+ * instance takes effect here within the poll interval.
+ */
+@Slf4j
+@Component
+public class AccessTokenRevocationList {
+
+    // Revocations committed late with an earlier creation time are still caught by the next poll
+    private static final Duration POLL_OVERLAP = Duration.ofMinutes(1);
+
+    private final AccessTokenRevocationRepository revocationRepository;
+    private final Duration accessTokenLifetime;
+    // Token id to the token's expiry, epoch millis
+    private final Cache<String, Long> revokedTokens;
+    // User id to the time before which the user's tokens are revoked, epoch millis
+    private final Cache<UUID, Long> revokedBefore;
+    private final Counter rejected;
+    private volatile LocalDateTime polledFrom;
+
+    @Autowired
+    public AccessTokenRevocationList(AccessTokenRevocationRepository revocationRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.jwt.access-token-expiration-ms}") long accessTokenExpirationMs) {
+        this.revocationRepository = revocationRepository;
+        this.accessTokenLifetime = Duration.ofMillis(accessTokenExpirationMs);
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(expiringAt(expiresAt -> expiresAt))
+                .build();
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfter(expiringAt(cutoff -> cutoff + accessTokenLifetime.toMillis()))
+                .build();
+        this.rejected = Counter.builder("auth.access-token-revocations.rejected")
+                .description("Requests refused because their access token was revoked")
+                .register(meterRegistry);
+        Gauge.builder("auth.access-token-revocations.size", revokedTokens, Cache::estimatedSize)
+                .description("Revocations held in memory")
+                .tag("type", "token")
+                .register(meterRegistry);
+        Gauge.builder("auth.access-token-revocations.size", revokedBefore, Cache::estimatedSize)
+                .description("Revocations held in memory")
+                .tag("type", "user")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check whether verified access token claims were revoked
+     *
+     * @param claims verified token claims
+     * @param userId the token's user, or null if unknown
+     * @return true if the token must be rejected
+     */
+    public boolean isRevoked(Claims claims, UUID userId) {
+        String tokenId = claims.getId();
+        if (tokenId != null && revokedTokens.getIfPresent(tokenId) != null) {
+            rejected.increment();
+            return true;
+        }
+        if (userId != null) {
+            Long cutoff = revokedBefore.getIfPresent(userId);
+            Date issuedAt = claims.getIssuedAt();
+            // iat has second precision, so a token issued in the same second as the revocation is rejected too
+            if (cutoff != null && issuedAt != null && issuedAt.getTime() < cutoff) {
+                rejected.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single access token until it expires
+     *
+     * @param claims verified claims of the token
+     */
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            log.debug("Access token without an id cannot be revoked individually");
+            return;
+        }
+        AccessTokenRevocation revocation = AccessTokenRevocation.ofToken(claims.getId(),
+                toLocalDateTime(claims.getExpiration().getTime()));
+        revocationRepository.save(revocation);
+        apply(revocation);
+    }
+
+    /**
+     * Revoke every access token of the user issued until now
+     *
+     * @param userId user ID
+     */
+    public void revokeAllForUser(UUID userId) {
+        LocalDateTime now = LocalDateTime.now();
+        AccessTokenRevocation revocation = AccessTokenRevocation.ofUser(userId, now, now.plus(accessTokenLifetime));
+        revocationRepository.save(revocation);
+        apply(revocation);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        poll();
+    }
+
+    /**
+     * Apply revocations recorded by any instance: all unexpired ones on the first run, then
+     * those added since the previous run
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-revocation.poll-interval-ms:5000}",
+               initialDelayString = "${app.security.token-revocation.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<AccessTokenRevocation> revocations = polledFrom == null
+                    ? revocationRepository.findUnexpired(startedAt)
+                    : revocationRepository.findCreatedSince(polledFrom.minus(POLL_OVERLAP));
+            revocations.forEach(this::apply);
+            polledFrom = startedAt;
+            log.debug("Applied {} access token revocations", revocations.size());
+        } catch (Exception e) {
+            log.error("Polling access token revocations failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-revocation.purge-interval-ms:3600000}",
+               initialDelayString = "${app.security.token-revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = revocationRepository.deleteExpired(LocalDateTime.now());
+            log.info("Deleted {} expired access token revocations", deleted);
+        } catch (Exception e) {
+            log.error("Purging access token revocations failed", e);
+        }
+    }
+
+    private void apply(AccessTokenRevocation revocation) {
+        if (revocation.getTokenId() != null) {
+            revokedTokens.put(revocation.getTokenId(), toEpochMillis(revocation.getExpiresAt()));
+        }
+        if (revocation.getUserId() != null && revocation.getIssuedBefore() != null) {
+            revokedBefore.asMap().merge(revocation.getUserId(), toEpochMillis(revocation.getIssuedBefore()), Math::max);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Expire each entry at the epoch millis derived from its value
+     */
+    private static <K> Expiry<K, Long> expiringAt(LongUnaryOperator expiryOf) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, Long value, long currentTime) {
+                return remaining(value);
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, Long value, long currentTime, long currentDuration) {
+                return remaining(value);
+            }
+
+            @Override
+            public long expireAfterRead(K key, Long value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            private long remaining(Long value) {
+                long millis = expiryOf.applyAsLong(value) - System.currentTimeMillis();
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+            }
+        };
+    }
+}
@@ -37,7 +37,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         log.debug("Loading user by email: {}", email);
 
-        User user = userRepository.findByEmailIgnoreCaseAndAccountEnabled(email)
+        User user = userRepository.findByEmailNormalizedAndAccountEnabled(User.normalizeEmail(email))
                 .orElseThrow(() -> {
                     log.warn("User not found or not enabled with email: {}", email);
                     return new UsernameNotFoundException("User not found with email: " + email);
@@ -58,7 +58,7 @@ public class CustomUserDetailsService implements UserDetailsService {
     public User loadUserEntityByEmail(String email) throws UsernameNotFoundException {
         log.debug("Loading user entity by email: {}", email);
 
-        return userRepository.findByEmailIgnoreCase(email)
+        return userRepository.findByEmailNormalized(User.normalizeEmail(email))
                 .orElseThrow(() -> {
                     log.warn("User entity not found with email: {}", email);
                     return new UsernameNotFoundException("User not found with email: " + email);
@@ -1,5 +1,8 @@
 package com.ocommerce.services.security;
 
+import com.ocommerce.services.user.domain.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,10 +19,14 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.UUID;
 
 /**
  * JWT Authentication Filter to validate tokens from Authorization header
- * Runs once per request and sets authentication in SecurityContext
+ * Runs once per request and sets authentication in SecurityContext.
+ * Tokens carrying a user id are authenticated from their claims plus a cached account status
+ * check; older tokens without one fall back to loading the user. Revoked tokens are rejected
+ * by an in-memory check against the {@link AccessTokenRevocationList}.
  */
 @Slf4j
 @Component
@@ -30,11 +37,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final AccessTokenRevocationList accessTokenRevocationList;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+            UserStatusCache userStatusCache, AccessTokenRevocationList accessTokenRevocationList) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
+        this.accessTokenRevocationList = accessTokenRevocationList;
     }
 
     @Override
@@ -45,19 +57,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.extractUsername(jwt);
+            // Only process if no authentication is set; the token is verified once and its claims reused
+            if (StringUtils.hasText(jwt) && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Claims claims = verifiedClaims(jwt);
 
-                // Only process if no authentication is set and this is an access token
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null
-                        && jwtUtil.isAccessToken(jwt)) {
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                if (claims != null && claims.getSubject() != null && jwtUtil.isAccessToken(claims)) {
+                    String email = claims.getSubject();
+                    UsernamePasswordAuthenticationToken authentication = authenticate(claims);
 
+                    if (authentication != null) {
                         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -73,6 +81,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Build the authentication for verified access token claims
+     *
+     * @param claims verified token claims
+     * @return authentication, or null if the token was revoked or the account is disabled, locked or deleted
+     */
+    private UsernamePasswordAuthenticationToken authenticate(Claims claims) {
+        UUID userId = jwtUtil.extractUserId(claims);
+        if (userId == null) {
+            // Token issued before user ids were embedded
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            UUID legacyUserId = userDetails instanceof User user ? user.getId() : null;
+            if (!jwtUtil.validateClaims(claims, userDetails)
+                    || accessTokenRevocationList.isRevoked(claims, legacyUserId)) {
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        }
+        if (accessTokenRevocationList.isRevoked(claims, userId)) {
+            log.debug("Rejected revoked JWT token of user: {}", userId);
+            return null;
+        }
+        if (!userStatusCache.isActive(userId)) {
+            log.debug("Rejected JWT token of inactive user: {}", userId);
+            return null;
+        }
+        // Detached user with just the fields the token vouches for
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(claims.getSubject());
+        return new UsernamePasswordAuthenticationToken(user, null, jwtUtil.extractAuthorities(claims));
+    }
+
+    /**
+     * Verify the token and return its claims
+     *
+     * @param jwt JWT token
+     * @return claims, or null if the token is invalid or expired
+     */
+    private Claims verifiedClaims(String jwt) {
+        try {
+            return jwtUtil.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Extract JWT token from Authorization header
      * 
@@ -1,37 +1,87 @@
 package com.ocommerce.services.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import com.ocommerce.services.user.domain.User;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
- * JWT utility class for token generation, validation, and extraction
+ * JWT utility class for token generation, validation, and extraction.
+ * The signing key and parser are built once. Each token's signature is verified once and
+ * its claims are cached, keyed by a SHA-256 of the token, until the token expires.
+ * Access tokens carry the user id and authorities, so a request can be authenticated from
+ * the claims alone.
  */
 @Slf4j
 @Component
 public class JwtUtil {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String AUTHORITIES_CLAIM = "roles";
 
-    @Value("${app.jwt.access-token-expiration-ms}")
-    private long accessTokenExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long accessTokenExpirationMs;
+    private final long refreshTokenExpirationMs;
+    private final Cache<String, Claims> verifiedClaims;
 
-    @Value("${app.jwt.refresh-token-expiration-ms}")
-    private long refreshTokenExpirationMs;
+    @Autowired
+    public JwtUtil(@Value("${app.jwt.secret}") String jwtSecret,
+                   @Value("${app.jwt.access-token-expiration-ms}") long accessTokenExpirationMs,
+                   @Value("${app.jwt.refresh-token-expiration-ms}") long refreshTokenExpirationMs,
+                   @Value("${app.jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.accessTokenExpirationMs = accessTokenExpirationMs;
+        this.refreshTokenExpirationMs = refreshTokenExpirationMs;
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    // An entry lives until its token expires
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), claims.getExpiration().toInstant()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     /**
      * Generate JWT access token from user authentication
@@ -40,10 +90,29 @@ public class JwtUtil {
      * @return JWT access token
      */
     public String generateAccessToken(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof User user) {
+            return generateAccessToken(user.getId(), user.getUsername(), authentication.getAuthorities());
+        }
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         return generateAccessToken(userPrincipal.getUsername());
     }
 
+    /**
+     * Generate JWT access token carrying the user id and authorities
+     *
+     * @param userId      the user ID
+     * @param username    the username (email)
+     * @param authorities the user's granted authorities
+     * @return JWT access token
+     */
+    public String generateAccessToken(UUID userId, String username, Collection<? extends GrantedAuthority> authorities) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("type", "access");
+        claims.put(USER_ID_CLAIM, userId.toString());
+        claims.put(AUTHORITIES_CLAIM, authorities.stream().map(GrantedAuthority::getAuthority).toList());
+        return createToken(claims, username, accessTokenExpirationMs);
+    }
+
     /**
      * Generate JWT access token from username
      * 
@@ -69,7 +138,7 @@ public class JwtUtil {
     }
 
     /**
-     * Create JWT token with claims, subject, and expiration
+     * Create JWT token with claims, subject, expiration and a unique id (jti) it can be revoked by
      * 
      * @param claims       token claims
      * @param subject      token subject (username)
@@ -82,10 +151,11 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -121,6 +191,28 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verify the token's signature and expiry and return its claims.
+     * A token already verified is answered from the cache without parsing it again.
+     *
+     * @param token JWT token
+     * @return claims
+     * @throws JwtException if the token is malformed, expired or not signed with our key
+     */
+    public Claims verify(String token) {
+        String tokenHash = hash(token);
+        Claims claims = verifiedClaims.getIfPresent(tokenHash);
+        if (claims != null) {
+            return claims;
+        }
+        claims = parser.parseSignedClaims(token).getPayload();
+        // Tokens without an expiry are not cached, so they are re-verified every time
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(tokenHash, claims);
+        }
+        return claims;
+    }
+
     /**
      * Extract all claims from JWT token
      * 
@@ -129,11 +221,7 @@ public class JwtUtil {
      */
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return verify(token);
         } catch (JwtException e) {
             log.error("Failed to extract claims from JWT token", e);
             throw e;
@@ -163,14 +251,25 @@ public class JwtUtil {
      */
     public boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            return validateClaims(verify(token), userDetails);
         } catch (JwtException e) {
             log.error("JWT token validation failed", e);
             return false;
         }
     }
 
+    /**
+     * Validate already verified claims against user details
+     *
+     * @param claims      verified token claims
+     * @param userDetails user details
+     * @return true if the token belongs to the user and has not expired since it was verified
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername())
+                && claims.getExpiration().after(new Date());
+    }
+
     /**
      * Validate JWT token structure and signature
      * 
@@ -179,10 +278,7 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            verify(token);
             return true;
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -198,16 +294,6 @@ public class JwtUtil {
         return false;
     }
 
-    /**
-     * Get signing key for JWT tokens
-     * 
-     * @return signing key
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     /**
      * Get access token expiration time in seconds
      * 
@@ -260,6 +346,43 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Check if verified claims belong to an access token
+     *
+     * @param claims verified token claims
+     * @return true if access token, false otherwise
+     */
+    public boolean isAccessToken(Claims claims) {
+        return "access".equals(claims.get("type", String.class));
+    }
+
+    /**
+     * Extract the user id from verified claims
+     *
+     * @param claims verified token claims
+     * @return user ID, or null if the token was issued without one
+     */
+    public UUID extractUserId(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        return userId == null ? null : UUID.fromString(userId);
+    }
+
+    /**
+     * Extract the granted authorities from verified claims
+     *
+     * @param claims verified token claims
+     * @return authorities, empty if the token carries none
+     */
+    public List<GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> authorities = claims.get(AUTHORITIES_CLAIM, List.class);
+        if (authorities == null) {
+            return List.of();
+        }
+        return authorities.stream()
+                .<GrantedAuthority>map(authority -> new SimpleGrantedAuthority(authority.toString()))
+                .toList();
+    }
+
     /**
      * Check if token is refresh token
      * 
@@ -274,4 +397,12 @@ public class JwtUtil {
             return false;
         }
     }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
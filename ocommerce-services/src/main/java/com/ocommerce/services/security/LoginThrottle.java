@@ -0,0 +1,114 @@
+package com.ocommerce.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ocommerce.services.user.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Counts failed logins per account and per client IP in fixed windows and refuses further
+ * attempts once either limit is reached, before any password is hashed. A successful login
+ * clears the account's count. Counts are kept in bounded in-memory caches per instance.
+ */
+@Slf4j
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, FailureWindow> accountFailures;
+    private final Cache<String, FailureWindow> clientFailures;
+    private final Duration window;
+    private final int maxAccountFailures;
+    private final int maxClientFailures;
+    private final Counter accountThrottled;
+    private final Counter clientThrottled;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.auth.login-throttle.window-seconds:900}") long windowSeconds,
+                         @Value("${app.auth.login-throttle.max-account-failures:5}") int maxAccountFailures,
+                         @Value("${app.auth.login-throttle.max-client-failures:50}") int maxClientFailures,
+                         @Value("${app.auth.login-throttle.max-size:100000}") long maxSize) {
+        this.window = Duration.ofSeconds(windowSeconds);
+        this.maxAccountFailures = maxAccountFailures;
+        this.maxClientFailures = maxClientFailures;
+        this.accountFailures = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+        this.clientFailures = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+        this.accountThrottled = Counter.builder("auth.login.throttled")
+            .description("Login attempts refused because of too many recent failures")
+            .tag("scope", "account")
+            .register(meterRegistry);
+        this.clientThrottled = Counter.builder("auth.login.throttled")
+            .description("Login attempts refused because of too many recent failures")
+            .tag("scope", "client")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Refuse the attempt if the account or the client has too many failures in the current window
+     * @param account Normalized email the login is for
+     * @param clientIp Address of the client, or null if unknown
+     * @throws LoginThrottledException if either limit is reached
+     */
+    public void checkAllowed(String account, String clientIp) {
+        Instant now = Instant.now();
+        FailureWindow accountWindow = accountFailures.getIfPresent(account);
+        if (accountWindow != null && accountWindow.reached(maxAccountFailures, now, window)) {
+            accountThrottled.increment();
+            log.warn("Login throttled for account: {}", account);
+            throw new LoginThrottledException("Too many failed login attempts, please retry later",
+                accountWindow.secondsLeft(now, window));
+        }
+        if (clientIp == null) {
+            return;
+        }
+        FailureWindow clientWindow = clientFailures.getIfPresent(clientIp);
+        if (clientWindow != null && clientWindow.reached(maxClientFailures, now, window)) {
+            clientThrottled.increment();
+            log.warn("Login throttled for client: {}", clientIp);
+            throw new LoginThrottledException("Too many failed login attempts, please retry later",
+                clientWindow.secondsLeft(now, window));
+        }
+    }
+
+    public void recordFailure(String account, String clientIp) {
+        Instant now = Instant.now();
+        accountFailures.asMap().compute(account, (key, current) -> FailureWindow.increment(current, now, window));
+        if (clientIp != null) {
+            clientFailures.asMap().compute(clientIp, (key, current) -> FailureWindow.increment(current, now, window));
+        }
+    }
+
+    public void recordSuccess(String account) {
+        accountFailures.invalidate(account);
+    }
+
+    private record FailureWindow(Instant start, int failures) {
+
+        static FailureWindow increment(FailureWindow current, Instant now, Duration window) {
+            if (current == null || !current.isOpen(now, window)) {
+                return new FailureWindow(now, 1);
+            }
+            return new FailureWindow(current.start, current.failures + 1);
+        }
+
+        boolean isOpen(Instant now, Duration window) {
+            return now.isBefore(start.plus(window));
+        }
+
+        boolean reached(int limit, Instant now, Duration window) {
+            return failures >= limit && isOpen(now, window);
+        }
+
+        long secondsLeft(Instant now, Duration window) {
+            return Math.max(1, Duration.between(now, start.plus(window)).toSeconds());
+        }
+    }
+}
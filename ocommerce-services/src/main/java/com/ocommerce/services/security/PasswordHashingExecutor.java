@@ -0,0 +1,105 @@
+package com.ocommerce.services.security;
+
+import com.ocommerce.services.user.exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing and verification on a small pool of dedicated threads with a bounded
+ * queue, so a burst of logins or signups is capped at a fixed share of the CPU instead of
+ * occupying request threads. Work that does not fit in the queue is rejected immediately.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.auth.password-hashing.workers:0}") int workers,
+                                   @Value("${app.auth.password-hashing.queue-capacity:32}") int queueCapacity,
+                                   @Value("${app.auth.password-hashing.timeout-ms:5000}") long timeoutMs) {
+        // Hashing is CPU bound, so by default it may use at most half the processors
+        int poolSize = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("auth.password-hashing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password hashes waiting for a worker")
+            .register(meterRegistry);
+        Gauge.builder("auth.password-hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashes in progress")
+            .register(meterRegistry);
+        this.queueWait = Timer.builder("auth.password-hashing.queue.wait")
+            .description("Time a password hash waited in the queue before a worker picked it up")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password-hashing.rejected")
+            .description("Password hashes rejected because the queue was full or the wait timed out")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run a hashing operation on a hashing worker and wait for its result
+     * @throws PasswordHashingBusyException if the queue is full or the result is not ready in time
+     */
+    public <T> T execute(Supplier<T> operation) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return operation.get();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue full ({} waiting), rejected request", executor.getQueue().size());
+            throw new PasswordHashingBusyException("Authentication is busy, please retry shortly");
+        }
+
+        try {
+            return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingBusyException("Authentication is busy, please retry shortly");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
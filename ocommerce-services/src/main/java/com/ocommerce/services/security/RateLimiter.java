@@ -0,0 +1,175 @@
+package com.ocommerce.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * Token buckets per route rule and client, configured under {@code app.rate-limit.routes}.
+ * Every rule whose path pattern matches a request must grant a token. A rule's scope decides
+ * who shares a bucket: the signed-in user or else the IP ({@code CLIENT}), the IP ({@code IP}),
+ * or every caller of the route ({@code ROUTE}).
+ * <p>
+ * Each bucket is a single long holding the time at which it will be full again (the GCRA form
+ * of a token bucket), updated by compare-and-set without locks. A client's buckets live in a
+ * bounded Caffeine map and are dropped after being idle, when they would be full anyway.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    // Paths seen recently and the routes they match, so repeated paths skip pattern matching
+    private static final int MATCHED_PATHS = 10_000;
+
+    public enum Scope { CLIENT, IP, ROUTE }
+
+    /**
+     * A configured limit: {@code capacity} requests in a burst, refilled at {@code refillPerSecond}
+     */
+    public record Route(String pattern, Scope scope, long capacity, double refillPerSecond) {
+    }
+
+    private final List<CompiledRoute> routes;
+    private final Cache<String, CompiledRoute[]> matchedRoutes;
+    private final Cache<String, AtomicLongArray> clientBuckets;
+    private final long origin = System.nanoTime();
+
+    @Autowired
+    public RateLimiter(Environment environment,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${app.rate-limit.max-buckets:100000}") long maxBuckets,
+                       @Value("${app.rate-limit.bucket-idle-seconds:600}") long bucketIdleSeconds) {
+        this(enabled
+                ? Binder.get(environment).bind("app.rate-limit.routes", Bindable.listOf(Route.class)).orElse(List.of())
+                : List.of(),
+            meterRegistry, maxBuckets, Duration.ofSeconds(bucketIdleSeconds));
+    }
+
+    public RateLimiter(List<Route> routes, MeterRegistry meterRegistry, long maxBuckets, Duration bucketIdle) {
+        PathPatternParser parser = new PathPatternParser();
+        this.routes = IntStream.range(0, routes.size()).mapToObj(slot -> new CompiledRoute(routes.get(slot), slot,
+            parser.parse(routes.get(slot).pattern()),
+            Counter.builder("http.rate-limit.rejected")
+                .description("Requests refused because a rate limit was exceeded")
+                .tag("route", routes.get(slot).pattern())
+                .tag("scope", routes.get(slot).scope().name())
+                .register(meterRegistry))).toList();
+        // Amortized maintenance runs on the calling thread rather than waking a pool thread per batch
+        this.matchedRoutes = Caffeine.newBuilder()
+            .maximumSize(MATCHED_PATHS)
+            .executor(Runnable::run)
+            .build();
+        this.clientBuckets = Caffeine.newBuilder()
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(bucketIdle)
+            .executor(Runnable::run)
+            .build();
+        Gauge.builder("http.rate-limit.buckets", clientBuckets, Cache::estimatedSize)
+            .description("Clients with rate limit buckets currently tracked")
+            .register(meterRegistry);
+        log.info("Rate limiting {} route rules", this.routes.size());
+    }
+
+    /**
+     * Take a token from every bucket that applies to the request
+     * @param path Request path without the context path
+     * @param userId Signed-in user, or null for anonymous requests
+     * @param clientIp Address of the client
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String path, String userId, String clientIp) {
+        if (routes.isEmpty()) {
+            return 0;
+        }
+        CompiledRoute[] matching = matchedRoutes.get(path, this::match);
+        // Relative to construction so an unused slot (0) always reads as a full bucket
+        long now = System.nanoTime() - origin;
+        AtomicLongArray userSlots = null;
+        AtomicLongArray ipSlots = null;
+        for (CompiledRoute route : matching) {
+            long wait;
+            if (route.route().scope() == Scope.ROUTE) {
+                wait = route.take(route.shared(), 0, now);
+            } else if (route.route().scope() == Scope.CLIENT && userId != null) {
+                if (userSlots == null) {
+                    userSlots = slots(userId);
+                }
+                wait = route.take(userSlots, route.slot(), now);
+            } else {
+                if (ipSlots == null) {
+                    ipSlots = slots(clientIp);
+                }
+                wait = route.take(ipSlots, route.slot(), now);
+            }
+            if (wait > 0) {
+                route.rejected().increment();
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private CompiledRoute[] match(String path) {
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        return routes.stream().filter(route -> route.pattern().matches(pathContainer)).toArray(CompiledRoute[]::new);
+    }
+
+    private AtomicLongArray slots(String client) {
+        return clientBuckets.get(client, key -> new AtomicLongArray(routes.size()));
+    }
+
+    /**
+     * A route and, for {@code ROUTE} scope, its one shared bucket. Buckets of the other scopes
+     * are the route's slot in each client's array, so a request needs at most one map lookup
+     * per user and one per address however many routes it matches.
+     */
+    private record CompiledRoute(Route route, int slot, PathPattern pattern, Counter rejected, AtomicLongArray shared,
+                                 long intervalNanos, long burstNanos) {
+
+        CompiledRoute(Route route, int slot, PathPattern pattern, Counter rejected) {
+            this(route, slot, pattern, rejected, new AtomicLongArray(1), intervalNanos(route),
+                intervalNanos(route) * route.capacity());
+        }
+
+        private static long intervalNanos(Route route) {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / route.refillPerSecond());
+        }
+
+        /**
+         * @param buckets Holds, per bucket, the time at which it will be full again
+         * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+         */
+        long take(AtomicLongArray buckets, int slot, long now) {
+            while (true) {
+                long fullAt = buckets.get(slot);
+                long next = Math.max(fullAt, now) + intervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (buckets.compareAndSet(slot, fullAt, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.ocommerce.services.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.ocommerce.services.user.domain.User;
+import com.ocommerce.services.user.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Bounded cache of whether a user may authenticate (enabled and not locked), keyed by user id.
+ * Lets the JWT filter reject disabled or locked accounts without loading the user on every request.
+ * Locking a user on this instance takes effect immediately; other instances pick it up once
+ * their entry expires after the TTL.
+ */
+@Slf4j
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final LoadingCache<UUID, Boolean> activeUsers;
+
+    @Autowired
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${app.security.user-status-cache.ttl-ms:30000}") long ttlMs,
+                           @Value("${app.security.user-status-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.activeUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build(this::load);
+    }
+
+    /**
+     * Check whether the user exists, is enabled and is not locked
+     *
+     * @param userId user ID
+     * @return true if the user may authenticate
+     */
+    public boolean isActive(UUID userId) {
+        return activeUsers.get(userId);
+    }
+
+    /**
+     * Record the status of a user that was just loaded, e.g. on login
+     *
+     * @param user user entity
+     */
+    public void put(User user) {
+        activeUsers.put(user.getId(), user.isEnabled() && user.isAccountNonLocked());
+    }
+
+    /**
+     * Reject the user until the entry is evicted or expires
+     *
+     * @param userId user ID
+     */
+    public void markInactive(UUID userId) {
+        activeUsers.put(userId, false);
+    }
+
+    /**
+     * Drop the cached status so the next request reads it again
+     *
+     * @param userId user ID
+     */
+    public void evict(UUID userId) {
+        activeUsers.invalidate(userId);
+    }
+
+    private Boolean load(UUID userId) {
+        log.debug("Loading account status for user: {}", userId);
+        return userRepository.findActiveStatusById(userId).orElse(false);
+    }
+}
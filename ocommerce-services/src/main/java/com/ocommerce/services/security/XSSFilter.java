@@ -10,7 +10,7 @@ import org.springframework.context.annotation.Configuration;
 public class XSSFilter implements Filter {
 
     @Value("${app.security.xss.enabled:false}")
-    private String enabled;
+    private boolean enabled;
 
     // Implement filter methods to sanitize incoming requests
     @Override
@@ -18,7 +18,7 @@ public class XSSFilter implements Filter {
             jakarta.servlet.FilterChain chain) throws java.io.IOException, jakarta.servlet.ServletException {
 
         // If XSS protection is disabled, proceed without wrapping
-        if (!Boolean.parseBoolean(enabled)) {
+        if (!enabled) {
             chain.doFilter(request, response);
             return;
         }
@@ -0,0 +1,124 @@
+package com.ocommerce.services.security.wrapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.owasp.encoder.Encode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Re-emits a JSON body token by token with every string value HTML-encoded. Field names,
+ * numbers and literals pass through unchanged, numbers as their original text. Only the
+ * tokens needed to fill the next read are parsed, so memory stays at the parser's and
+ * generator's buffers plus the current token rather than a copy of the body.
+ */
+class SanitizingJsonInputStream extends ServletInputStream {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Tokens are parsed until at least this many bytes are ready, to amortize the flush per batch
+    private static final int CHUNK_SIZE = 8192;
+
+    private final JsonParser parser;
+    private final JsonGenerator generator;
+    private final Chunk chunk = new Chunk();
+    private int position;
+    private boolean finished;
+
+    SanitizingJsonInputStream(InputStream body) throws IOException {
+        this.parser = JSON_FACTORY.createParser(body);
+        this.generator = JSON_FACTORY.createGenerator(chunk);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return chunk.bytes()[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, chunk.size() - position);
+        System.arraycopy(chunk.bytes(), position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished && position >= chunk.size();
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+        throw new UnsupportedOperationException("Sanitized request bodies are read synchronously");
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+        generator.close();
+    }
+
+    /**
+     * Make sure unread bytes are available, parsing the next tokens if needed
+     * @return false once the body is exhausted
+     */
+    private boolean fill() throws IOException {
+        while (position >= chunk.size()) {
+            if (finished) {
+                return false;
+            }
+            chunk.reset();
+            position = 0;
+            while (chunk.size() < CHUNK_SIZE) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    finished = true;
+                    break;
+                }
+                copy(token);
+                generator.flush();
+            }
+        }
+        return true;
+    }
+
+    private void copy(JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING -> generator.writeString(Encode.forHtml(parser.getText()));
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> generator.writeNumber(parser.getText());
+            default -> generator.copyCurrentEvent(parser);
+        }
+    }
+
+    private static final class Chunk extends ByteArrayOutputStream {
+
+        Chunk() {
+            super(CHUNK_SIZE);
+        }
+
+        byte[] bytes() {
+            return buf;
+        }
+    }
+}
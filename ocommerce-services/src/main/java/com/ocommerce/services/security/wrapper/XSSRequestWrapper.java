@@ -1,60 +1,68 @@
 package com.ocommerce.services.security.wrapper;
 
-import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import org.owasp.encoder.Encode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 
 public class XSSRequestWrapper extends HttpServletRequestWrapper {
 
+    // The body can only be read once, so every caller shares one sanitizing stream
+    private ServletInputStream sanitizedInputStream;
+    private BufferedReader sanitizedReader;
+
     // Constructor to initialize the wrapper with the original request
     public XSSRequestWrapper(HttpServletRequest request) {
         super(request);
     }
 
+    /**
+     * JSON bodies are sanitized while they are read, encoding only string values; other
+     * bodies are passed through, their form parameters being sanitized individually
+     */
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        // Get the original input stream from the wrapped request
-        ServletInputStream originalInputStream = super.getInputStream();
-
-        // Read the entire request body into a String
-        String requestBody = new String(originalInputStream.readAllBytes());
-
-        // Sanitize the JSON body using the sanitizeInput method
-        String sanitizedBody = sanitizeInput(requestBody);
-
-        // Create a new ServletInputStream with the sanitized body
-        return new ServletInputStream() {
-
-            private final ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(
-                    sanitizedBody.getBytes()
-            );
-
-            @Override
-            public int read() throws IOException {
-                return byteArrayInputStream.read();
-            }
-
-            @Override
-            public boolean isFinished() {
-                return byteArrayInputStream.available() == 0;
-            }
-
-            @Override
-            public boolean isReady() {
-                return true;
-            }
-
-            @Override
-            public void setReadListener(ReadListener readListener) {
-                // No implementation needed for this example
-            }
-        };
+        if (!isJson()) {
+            return super.getInputStream();
+        }
+        if (sanitizedInputStream == null) {
+            sanitizedInputStream = new SanitizingJsonInputStream(super.getInputStream());
+        }
+        return sanitizedInputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (!isJson()) {
+            return super.getReader();
+        }
+        if (sanitizedReader == null) {
+            // The sanitized body is always written as UTF-8
+            sanitizedReader = new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+        return sanitizedReader;
+    }
+
+    private boolean isJson() {
+        String contentType = getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return "application".equals(mediaType.getType())
+                && ("json".equals(mediaType.getSubtype()) || mediaType.getSubtype().endsWith("+json"));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
     }
 
     // Override the method to get parameter values and sanitize each value
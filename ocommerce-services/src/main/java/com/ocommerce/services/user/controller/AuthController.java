@@ -11,9 +11,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -31,6 +33,8 @@ import java.util.Map;
 @Tag(name = "Authentication", description = "User authentication operations")
 public class AuthController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthenticationService authenticationService;
 
     @Autowired
@@ -46,12 +50,15 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User authenticated successfully", content = @Content(schema = @Schema(implementation = AuthResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many failed login attempts"),
+            @ApiResponse(responseCode = "503", description = "Authentication is busy")
     })
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
         log.info("Login request for email: {}", loginRequest.getEmail());
 
-        AuthResponse authResponse = authenticationService.login(loginRequest);
+        AuthResponse authResponse = authenticationService.login(loginRequest, request.getRemoteAddr());
 
         return ResponseEntity.ok(authResponse);
     }
@@ -63,7 +70,8 @@ public class AuthController {
     @Operation(summary = "Register new user", description = "Register new user account and return access and refresh tokens")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User registered successfully", content = @Content(schema = @Schema(implementation = AuthResponse.class))),
-            @ApiResponse(responseCode = "400", description = "Invalid request data or user already exists")
+            @ApiResponse(responseCode = "400", description = "Invalid request data or user already exists"),
+            @ApiResponse(responseCode = "503", description = "Authentication is busy")
     })
     public ResponseEntity<AuthResponse> signup(@Valid @RequestBody SignupRequest signupRequest) {
         log.info("Signup request for email: {}", signupRequest.getEmail());
@@ -102,18 +110,22 @@ public class AuthController {
      */
     @PostMapping("/logout")
     @SecurityRequirement(name = "Bearer Authentication")
-    @Operation(summary = "Logout user", description = "Revoke refresh token to logout user from current device")
+    @Operation(summary = "Logout user", description = "Revoke the refresh token and the current access token to logout user from current device")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User logged out successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request")
     })
     public ResponseEntity<Map<String, String>> logout(
             @AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
             @RequestBody Map<String, String> request) {
         String refreshToken = request.get("refreshToken");
 
         if (refreshToken != null && !refreshToken.trim().isEmpty()) {
-            authenticationService.logout(userDetails.getUsername(), refreshToken);
+            String accessToken = authorization != null && authorization.startsWith(BEARER_PREFIX)
+                    ? authorization.substring(BEARER_PREFIX.length())
+                    : null;
+            authenticationService.logout(userDetails.getUsername(), refreshToken, accessToken);
         } else {
             return ResponseEntity.badRequest().body(Map.of("error", "Refresh token is required"));
         }
@@ -0,0 +1,59 @@
+package com.ocommerce.services.user.domain;
+
+import com.ocommerce.services.common.BaseEntity;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Revocation of access tokens before their expiry, shared between instances.
+ * Either a single token by its id (jti), or every token of a user issued before a point in
+ * time. A row is only needed until the tokens it covers have expired.
+ */
+@Entity
+@Table(name = "access_token_revocations", indexes = {
+        @Index(name = "idx_access_token_revocations_created_at", columnList = "created_at"),
+        @Index(name = "idx_access_token_revocations_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class AccessTokenRevocation extends BaseEntity {
+
+    // Set when a single token is revoked
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    // Set, with issuedBefore, when all of a user's tokens are revoked
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "issued_before")
+    private LocalDateTime issuedBefore;
+
+    @NotNull(message = "Expiry is required")
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public static AccessTokenRevocation ofToken(String tokenId, LocalDateTime expiresAt) {
+        AccessTokenRevocation revocation = new AccessTokenRevocation();
+        revocation.setTokenId(tokenId);
+        revocation.setExpiresAt(expiresAt);
+        return revocation;
+    }
+
+    public static AccessTokenRevocation ofUser(UUID userId, LocalDateTime issuedBefore, LocalDateTime expiresAt) {
+        AccessTokenRevocation revocation = new AccessTokenRevocation();
+        revocation.setUserId(userId);
+        revocation.setIssuedBefore(issuedBefore);
+        revocation.setExpiresAt(expiresAt);
+        return revocation;
+    }
+}
@@ -0,0 +1,46 @@
+package com.ocommerce.services.user.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a user's authorities as a comma-separated list of names, e.g. "ORDER_ADMIN".
+ * Null or blank means none.
+ */
+@Converter
+public class AuthoritiesConverter implements AttributeConverter<Set<Authority>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Set<Authority> authorities) {
+        if (authorities == null || authorities.isEmpty()) {
+            return null;
+        }
+        return authorities.stream()
+                .sorted()
+                .map(Authority::name)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the column names an unknown authority
+     */
+    @Override
+    public Set<Authority> convertToEntityAttribute(String column) {
+        if (column == null || column.isBlank()) {
+            return EnumSet.noneOf(Authority.class);
+        }
+        Set<Authority> authorities = EnumSet.noneOf(Authority.class);
+        Arrays.stream(column.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(Authority::valueOf)
+                .forEach(authorities::add);
+        return authorities;
+    }
+}
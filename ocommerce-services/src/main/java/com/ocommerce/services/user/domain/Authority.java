@@ -0,0 +1,11 @@
+package com.ocommerce.services.user.domain;
+
+/**
+ * Authorities that can be granted to a user, checked by name with hasAuthority(...)
+ */
+public enum Authority {
+    // Bulk order status transitions
+    ORDER_ADMIN,
+    // Sales reports and rollup backfills
+    SALES_REPORTS
+}
@@ -15,19 +15,27 @@ import java.time.LocalDateTime;
 /**
  * Refresh token entity for JWT authentication.
  * Stores refresh tokens securely in the database for revocation and lifecycle
- * management.
+ * management. Only a SHA-256 hash of the token is persisted; the raw value is
+ * available on a newly issued token so it can be handed to the client.
  */
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date"),
+        @Index(name = "idx_refresh_tokens_revoked", columnList = "revoked")
+})
 @Getter
 @Setter
 @NoArgsConstructor
-@ToString(exclude = {"token", "user"}) // Exclude sensitive token and user to avoid circular references
-@EqualsAndHashCode(callSuper = true, exclude = "user") // Exclude user to avoid circular references
+@ToString(exclude = {"token", "tokenHash", "user"}) // Exclude sensitive token and user to avoid circular references
+@EqualsAndHashCode(callSuper = true, exclude = {"token", "user"}) // Exclude transient token and user to avoid circular references
 public class RefreshToken extends BaseEntity {
 
-    @NotBlank(message = "Token is required")
-    @Column(name = "token", nullable = false, unique = true, length = 500)
+    @NotBlank(message = "Token hash is required")
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    // Raw token, only set when the token is issued
+    @Transient
     private String token;
 
     @NotNull(message = "Expiry date is required")
@@ -43,9 +51,9 @@ public class RefreshToken extends BaseEntity {
     private User user;
 
     // Custom constructor
-    public RefreshToken(String token, LocalDateTime expiryDate, User user) {
+    public RefreshToken(String tokenHash, LocalDateTime expiryDate, User user) {
         super();
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.expiryDate = expiryDate;
         this.user = user;
     }
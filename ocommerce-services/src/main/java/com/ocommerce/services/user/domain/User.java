@@ -5,12 +5,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.*;
@@ -20,7 +22,9 @@ import java.util.*;
  * Stores user authentication and profile information.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -42,6 +46,11 @@ public class User extends BaseEntity implements UserDetails {
     @Column(name = "email", nullable = false, unique = true, length = 255)
     private String email;
 
+    // Lowercased copy of the email that every lookup goes through, so they can use its unique index
+    @Column(name = "email_normalized", nullable = false, unique = true, length = 255)
+    @Setter(AccessLevel.NONE)
+    private String emailNormalized;
+
     @NotBlank(message = "Password is required")
     @Size(min = 8, message = "Password must be at least 8 characters")
     @Column(name = "password", nullable = false)
@@ -60,6 +69,11 @@ public class User extends BaseEntity implements UserDetails {
     @Column(name = "account_enabled", nullable = false)
     private boolean accountEnabled = true;
 
+    // Granted by operators, see db/user-authorities-postgresql.sql; embedded in access tokens at issue
+    @Convert(converter = AuthoritiesConverter.class)
+    @Column(name = "authorities")
+    private Set<Authority> grantedAuthorities = EnumSet.noneOf(Authority.class);
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Address> addresses = new ArrayList<>();
 
@@ -71,15 +85,28 @@ public class User extends BaseEntity implements UserDetails {
         super();
         this.firstName = firstName;
         this.lastName = lastName;
-        this.email = email;
+        setEmail(email);
         this.password = password;
     }
 
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    /**
+     * Form of an email address used for storage lookups: trimmed and lowercased
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
     // UserDetails interface implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Return empty list for now - role-based access control not implemented yet
-        return Collections.emptyList();
+        return grantedAuthorities.stream()
+                .map(authority -> new SimpleGrantedAuthority(authority.name()))
+                .toList();
     }
 
     @Override
@@ -0,0 +1,11 @@
+package com.ocommerce.services.user.exception;
+
+/**
+ * Exception thrown when no password hashing worker is available to take a login or signup
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
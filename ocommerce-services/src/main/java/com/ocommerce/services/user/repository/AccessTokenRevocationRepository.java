@@ -0,0 +1,52 @@
+package com.ocommerce.services.user.repository;
+
+import com.ocommerce.services.user.domain.AccessTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for AccessTokenRevocation entity, polled by every instance
+ */
+@Repository
+public interface AccessTokenRevocationRepository extends JpaRepository<AccessTokenRevocation, UUID> {
+
+    /**
+     * Find revocations that still cover unexpired tokens
+     *
+     * @param now current time
+     * @return revocations expiring after now
+     */
+    // Served by idx_access_token_revocations_expires_at
+    @Query("SELECT r FROM AccessTokenRevocation r WHERE r.expiresAt > :now")
+    List<AccessTokenRevocation> findUnexpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Find revocations recorded since the given time, by any instance
+     *
+     * @param since creation time to start from
+     * @return recent revocations
+     */
+    // Served by idx_access_token_revocations_created_at
+    @Query("SELECT r FROM AccessTokenRevocation r WHERE r.createdAt >= :since")
+    List<AccessTokenRevocation> findCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Delete revocations whose tokens have all expired
+     *
+     * @param now current time
+     * @return number of rows deleted
+     */
+    // Rows live for one access token lifetime, so the table stays small enough for one statement
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AccessTokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,6 +2,7 @@ package com.ocommerce.services.user.repository;
 
 import com.ocommerce.services.user.domain.RefreshToken;
 import com.ocommerce.services.user.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,21 +23,22 @@ import java.util.UUID;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
 
     /**
-     * Find refresh token by token string
+     * Find refresh token by user and token hash
      * 
-     * @param token the token string
+     * @param tokenHash SHA-256 hash of the token
      * @return Optional containing the refresh token if found
      */
-    Optional<RefreshToken> findByUserAndToken(User user, String token);
+    Optional<RefreshToken> findByUserAndTokenHash(User user, String tokenHash);
 
     /**
-     * Find valid (non-revoked and non-expired) refresh token by token string
+     * Find valid (non-revoked and non-expired) refresh token by token hash
      * 
-     * @param token the token string
+     * @param tokenHash SHA-256 hash of the token
      * @return Optional containing the valid refresh token if found
      */
-    @Query("SELECT rt FROM RefreshToken rt WHERE rt.token = :token AND rt.revoked = false AND rt.expiryDate > :now")
-    Optional<RefreshToken> findValidByToken(@Param("token") String token, @Param("now") LocalDateTime now);
+    // Single row lookup through the unique index on token_hash
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash AND rt.revoked = false AND rt.expiryDate > :now")
+    Optional<RefreshToken> findValidByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
 
     /**
      * Find all refresh tokens for a user
@@ -67,30 +70,41 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
     /**
      * Revoke specific refresh token
      * 
-     * @param token the token string
+     * @param tokenHash SHA-256 hash of the token
      */
     @Modifying(clearAutomatically = true)
     @Transactional
-    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.token = :token AND rt.user = :user")
-    void revokeByTokenAndUser(@Param("token") String token, @Param("user") User user);
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.tokenHash = :tokenHash AND rt.user = :user")
+    void revokeByTokenHashAndUser(@Param("tokenHash") String tokenHash, @Param("user") User user);
 
     /**
-     * Delete expired refresh tokens (cleanup job)
+     * Find a batch of expired refresh tokens (cleanup job)
      * 
      * @param now current timestamp
+     * @return ids of expired tokens, oldest first
      */
-    @Modifying
-    @Transactional
-    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now")
-    void deleteExpiredTokens(@Param("now") LocalDateTime now);
+    // Range scan of idx_refresh_tokens_expiry_date, bounded by the page size
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate < :now ORDER BY rt.expiryDate")
+    List<UUID> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Find a batch of revoked refresh tokens (cleanup job)
+     * 
+     * @return ids of revoked tokens
+     */
+    // Lookup on idx_refresh_tokens_revoked, bounded by the page size
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.revoked = true")
+    List<UUID> findRevokedIds(Pageable pageable);
 
     /**
-     * Delete all revoked refresh tokens (cleanup job)
+     * Delete refresh tokens by id (cleanup job)
+     * 
+     * @param ids token ids
+     * @return number of tokens deleted
      */
     @Modifying
-    @Transactional
-    @Query("DELETE FROM RefreshToken rt WHERE rt.revoked = true")
-    void deleteRevokedTokens();
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<UUID> ids);
 
     /**
      * Count valid refresh tokens for a user
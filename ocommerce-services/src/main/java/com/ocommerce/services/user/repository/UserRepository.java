@@ -1,11 +1,14 @@
 package com.ocommerce.services.user.repository;
 
 import com.ocommerce.services.user.domain.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,41 +19,62 @@ import java.util.UUID;
 public interface UserRepository extends JpaRepository<User, UUID> {
 
     /**
-     * Find user by email address (case insensitive)
+     * Find user by normalized email address
      * 
-     * @param email the email address
+     * @param email the email address, normalized with {@link User#normalizeEmail(String)}
      * @return Optional containing the user if found
      */
-    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email)")
-    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+    @Query("SELECT u FROM User u WHERE u.emailNormalized = :email")
+    Optional<User> findByEmailNormalized(@Param("email") String email);
 
     /**
-     * Check if user exists by email address (case insensitive)
+     * Check if user exists by normalized email address
      * 
-     * @param email the email address
+     * @param email the email address, normalized with {@link User#normalizeEmail(String)}
      * @return true if user exists, false otherwise
      */
-    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE LOWER(u.email) = LOWER(:email)")
-    boolean existsByEmailIgnoreCase(@Param("email") String email);
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM User u WHERE u.emailNormalized = :email")
+    boolean existsByEmailNormalized(@Param("email") String email);
 
     /**
-     * Find enabled users by email
+     * Find enabled users by normalized email
      * 
-     * @param email the email address
+     * @param email the email address, normalized with {@link User#normalizeEmail(String)}
      * @return Optional containing the user if found and enabled
      */
-    @Query("SELECT u FROM User u WHERE LOWER(u.email) = LOWER(:email) AND u.accountEnabled = true")
-    Optional<User> findByEmailIgnoreCaseAndAccountEnabled(@Param("email") String email);
+    @Query("SELECT u FROM User u WHERE u.emailNormalized = :email AND u.accountEnabled = true")
+    Optional<User> findByEmailNormalizedAndAccountEnabled(@Param("email") String email);
 
     /**
-     * Find user by email with addresses (fetch join to avoid N+1 problem)
+     * Find user by normalized email with addresses (fetch join to avoid N+1 problem)
      * 
-     * @param email the email address
+     * @param email the email address, normalized with {@link User#normalizeEmail(String)}
      * @return Optional containing the user with addresses if found
      */
-    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.addresses a WHERE LOWER(u.email) = LOWER(:email) AND (a.isDeleted = false OR a IS NULL)")
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.addresses a WHERE u.emailNormalized = :email AND (a.isDeleted = false OR a IS NULL)")
     Optional<User> findByEmailWithActiveAddresses(@Param("email") String email);
 
+    /**
+     * Page through normalized emails in order
+     *
+     * @param after    last email of the previous page, or an empty string for the first page
+     * @param pageable page size (the page number should stay 0)
+     * @return the next emails after {@code after}
+     */
+    // Keyset pagination over the unique index, so each page is an index range scan
+    @Query("SELECT u.emailNormalized FROM User u WHERE u.emailNormalized > :after ORDER BY u.emailNormalized")
+    List<String> findEmailsNormalizedAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Find normalized emails of users created since the given time
+     *
+     * @param since creation time to start from
+     * @return normalized emails
+     */
+    // Served by idx_users_created_at
+    @Query("SELECT u.emailNormalized FROM User u WHERE u.createdAt >= :since")
+    List<String> findEmailsNormalizedCreatedSince(@Param("since") LocalDateTime since);
+
     /**
      * Count active users (enabled and not locked)
      * 
@@ -58,4 +82,14 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     @Query("SELECT COUNT(u) FROM User u WHERE u.accountEnabled = true AND u.accountLocked = false")
     long countActiveUsers();
+
+    /**
+     * Check whether a user may authenticate (enabled and not locked)
+     *
+     * @param id the user ID
+     * @return Optional containing true if active, false if disabled or locked, empty if not found
+     */
+    // Primary key lookup of two flags, so authenticating a request never loads the entity
+    @Query("SELECT CASE WHEN u.accountEnabled = true AND u.accountLocked = false THEN true ELSE false END FROM User u WHERE u.id = :id")
+    Optional<Boolean> findActiveStatusById(@Param("id") UUID id);
 }
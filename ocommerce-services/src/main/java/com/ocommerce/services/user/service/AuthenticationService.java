@@ -1,12 +1,17 @@
 package com.ocommerce.services.user.service;
 
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.LoginThrottle;
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.domain.RefreshToken;
 import com.ocommerce.services.user.domain.User;
 import com.ocommerce.services.user.dto.AuthResponse;
 import com.ocommerce.services.user.dto.LoginRequest;
 import com.ocommerce.services.user.dto.SignupRequest;
 import com.ocommerce.services.user.dto.UserResponse;
+import com.ocommerce.services.user.exception.LoginThrottledException;
+import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,43 +38,59 @@ public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final UserService userService;
     private final RefreshTokenService refreshTokenService;
+    private final UserStatusCache userStatusCache;
+    private final LoginThrottle loginThrottle;
+    private final AccessTokenRevocationList accessTokenRevocationList;
 
     @Autowired
     public AuthenticationService(AuthenticationManager authenticationManager,
             JwtUtil jwtUtil,
             UserService userService,
-            RefreshTokenService refreshTokenService) {
+            RefreshTokenService refreshTokenService,
+            UserStatusCache userStatusCache,
+            LoginThrottle loginThrottle,
+            AccessTokenRevocationList accessTokenRevocationList) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userService = userService;
         this.refreshTokenService = refreshTokenService;
+        this.userStatusCache = userStatusCache;
+        this.loginThrottle = loginThrottle;
+        this.accessTokenRevocationList = accessTokenRevocationList;
     }
 
     /**
      * Authenticate user with email and password, then generate access and refresh
      * tokens
-     * Normalizes email to lowercase and trims whitespace before authentication
+     * Normalizes email to lowercase and trims whitespace before authentication.
+     * Accounts and clients with too many recent failures are refused before the
+     * password is verified.
      * 
      * @param loginRequest the login credentials containing email and password
+     * @param clientIp     address of the client, or null if unknown
      * @return authentication response containing access token, refresh token, and
      *         expiration time
      * @throws BadCredentialsException if email or password is invalid
+     * @throws LoginThrottledException if the account or client is throttled
      */
-    public AuthResponse login(LoginRequest loginRequest) {
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
         log.info("Authentication attempt for email: {}", loginRequest.getEmail());
 
+        String email = User.normalizeEmail(loginRequest.getEmail());
+        loginThrottle.checkAllowed(email, clientIp);
+
         try {
             // Authenticate user
             Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail().toLowerCase().trim(),
-                            loginRequest.getPassword()));
+                    new UsernamePasswordAuthenticationToken(email, loginRequest.getPassword()));
 
             User user = (User) authentication.getPrincipal();
 
             // Generate tokens
             String accessToken = jwtUtil.generateAccessToken(authentication);
             RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+            userStatusCache.put(user);
+            loginThrottle.recordSuccess(email);
 
             log.info("User authenticated successfully: {}", user.getEmail());
 
@@ -79,6 +100,7 @@ public class AuthenticationService {
                     jwtUtil.getAccessTokenExpirationSeconds());
 
         } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(email, clientIp);
             log.warn("Authentication failed for email: {}", loginRequest.getEmail());
             throw new BadCredentialsException("Invalid email or password");
         }
@@ -106,8 +128,9 @@ public class AuthenticationService {
                 .orElseThrow(() -> new RuntimeException("User registration failed"));
 
         // Generate tokens
-        String accessToken = jwtUtil.generateAccessToken(user.getEmail());
+        String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getAuthorities());
         RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+        userStatusCache.put(user);
 
         log.info("User registered and authenticated successfully: {}", user.getEmail());
 
@@ -137,11 +160,12 @@ public class AuthenticationService {
         User user = refreshToken.getUser();
 
         // Generate new access token
-        String newAccessToken = jwtUtil.generateAccessToken(user.getEmail());
+        String newAccessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getAuthorities());
+        userStatusCache.put(user);
 
         // Optionally rotate the refresh token
         RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user);
-        refreshTokenService.revokeTokenForUser(refreshToken.getToken(), user);
+        refreshTokenService.revokeTokenForUser(refreshTokenString, user);
 
         log.info("Access token refreshed successfully for user: {}", user.getEmail());
 
@@ -152,16 +176,22 @@ public class AuthenticationService {
     }
     /**
      * Logout user from current session by revoking the specific refresh token
+     * and the access token the request was made with
      * Finds and revokes the refresh token for the specified user
      * Fails silently if token is invalid or not found to prevent information
      * disclosure
      * 
      * @param email              the email address of the user to logout
      * @param refreshTokenString the refresh token to revoke for this logout session
+     * @param accessToken        the access token of this session, or null if unknown
      */
-    public void logout(String email, String refreshTokenString) {
+    public void logout(String email, String refreshTokenString, String accessToken) {
         log.info("Logout attempt");
 
+        if (accessToken != null) {
+            revokeAccessToken(accessToken);
+        }
+
         try {
             User user = userService.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
@@ -169,7 +199,7 @@ public class AuthenticationService {
             RefreshToken refreshToken = refreshTokenService.findByUserAndToken(user, refreshTokenString)
                     .orElseThrow(() -> new RefreshTokenService.InvalidRefreshTokenException("Refresh token not found"));
 
-            refreshTokenService.revokeTokenForUser(refreshToken.getToken(), user);
+            refreshTokenService.revokeTokenForUser(refreshTokenString, user);
             log.info("User logged out successfully: {}", user.getEmail());
 
         } catch (RefreshTokenService.InvalidRefreshTokenException e) {
@@ -180,6 +210,7 @@ public class AuthenticationService {
 
     /**
      * Logout user from all devices by revoking all associated refresh tokens
+     * and every access token issued so far
      * Invalidates all active sessions across all devices for security purposes
      * Useful for password changes, account compromise, or explicit "logout
      * everywhere" requests
@@ -194,9 +225,19 @@ public class AuthenticationService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         refreshTokenService.revokeAllTokensForUser(user);
+        accessTokenRevocationList.revokeAllForUser(user.getId());
         log.info("User logged out from all devices: {}", userEmail);
     }
 
+    private void revokeAccessToken(String accessToken) {
+        try {
+            accessTokenRevocationList.revokeToken(jwtUtil.verify(accessToken));
+        } catch (JwtException | IllegalArgumentException e) {
+            // Already expired or invalid, nothing left to revoke
+            log.debug("Access token not revoked on logout: {}", e.getMessage());
+        }
+    }
+
     /**
      * Validate an access token for authenticity and type
      * Performs both general JWT validation and confirms the token is specifically
@@ -0,0 +1,105 @@
+package com.ocommerce.services.user.service;
+
+import com.ocommerce.services.user.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Deletes expired and revoked refresh tokens.
+ * Each batch is selected through the expiry or revoked index and deleted by id in its own
+ * short transaction, so a run never holds locks on the whole table.
+ */
+@Slf4j
+@Service
+public class RefreshTokenCleanupService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter expiredDeleted;
+    private final Counter revokedDeleted;
+
+    @Autowired
+    public RefreshTokenCleanupService(RefreshTokenRepository refreshTokenRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.auth.refresh-token-cleanup.batch-size:1000}") int batchSize,
+                                      @Value("${app.auth.refresh-token-cleanup.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.expiredDeleted = Counter.builder("auth.refresh-tokens.deleted")
+            .description("Refresh tokens deleted by the cleanup job")
+            .tag("reason", "expired")
+            .register(meterRegistry);
+        this.revokedDeleted = Counter.builder("auth.refresh-tokens.deleted")
+            .description("Refresh tokens deleted by the cleanup job")
+            .tag("reason", "revoked")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-token-cleanup.interval-ms:3600000}",
+               initialDelayString = "${app.auth.refresh-token-cleanup.initial-delay-ms:60000}")
+    public void cleanup() {
+        try {
+            int expired = deleteExpiredTokens();
+            int revoked = deleteRevokedTokens();
+            log.info("Deleted {} expired and {} revoked refresh tokens", expired, revoked);
+        } catch (Exception e) {
+            log.error("Refresh token cleanup failed", e);
+        }
+    }
+
+    /**
+     * Delete tokens past their expiry date
+     * @return Number of tokens deleted
+     */
+    public int deleteExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = deleteInBatches(() -> refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, batchSize)));
+        expiredDeleted.increment(deleted);
+        return deleted;
+    }
+
+    /**
+     * Delete revoked tokens
+     * @return Number of tokens deleted
+     */
+    public int deleteRevokedTokens() {
+        int deleted = deleteInBatches(() -> refreshTokenRepository.findRevokedIds(PageRequest.of(0, batchSize)));
+        revokedDeleted.increment(deleted);
+        return deleted;
+    }
+
+    private int deleteInBatches(Supplier<List<UUID>> nextBatch) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // Deleted rows drop out of the next query, so no keyset position is needed
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<UUID> ids = nextBatch.get();
+                return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIds(ids);
+            });
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
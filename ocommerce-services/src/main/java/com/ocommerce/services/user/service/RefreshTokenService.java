@@ -9,12 +9,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Optional;
-import java.util.UUID;
 
 /**
- * Service for managing refresh tokens
+ * Service for managing refresh tokens.
+ * Tokens are 256-bit random values; only their SHA-256 hash is stored and looked up.
  */
 @Slf4j
 @Service
@@ -23,6 +29,7 @@ public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtUtil jwtUtil;
+    private final SecureRandom secureRandom = new SecureRandom();
 
     @Autowired
     public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtUtil jwtUtil) {
@@ -32,17 +39,17 @@ public class RefreshTokenService {
 
     /**
      * Create a new refresh token for the specified user
-     * Generates a unique UUID-based token with expiration date from JwtUtil
+     * Generates a random token with expiration date from JwtUtil
      * 
      * @param user the user for whom to create the refresh token
-     * @return the created and saved refresh token
+     * @return the created and saved refresh token, carrying the raw token
      */
     public RefreshToken createRefreshToken(User user) {
-        // Generate unique token
-        String tokenValue = generateUniqueToken();
+        String tokenValue = generateToken();
 
         RefreshToken refreshToken = new RefreshToken();
         refreshToken.setToken(tokenValue);
+        refreshToken.setTokenHash(hash(tokenValue));
         refreshToken.setUser(user);
         refreshToken.setExpiryDate(jwtUtil.getRefreshTokenExpiration());
 
@@ -61,7 +68,7 @@ public class RefreshTokenService {
      */
     @Transactional(readOnly = true)
     public Optional<RefreshToken> findByUserAndToken(User user, String token) {
-        return refreshTokenRepository.findByUserAndToken(user, token);
+        return refreshTokenRepository.findByUserAndTokenHash(user, hash(token));
     }
 
     /**
@@ -72,7 +79,7 @@ public class RefreshTokenService {
      */
     @Transactional(readOnly = true)
     public Optional<RefreshToken> findValidToken(String token) {
-        return refreshTokenRepository.findValidByToken(token, LocalDateTime.now());
+        return refreshTokenRepository.findValidByTokenHash(hash(token), LocalDateTime.now());
     }
 
     /**
@@ -88,7 +95,7 @@ public class RefreshTokenService {
      */
     @Transactional(readOnly = true)
     public RefreshToken verifyTokenForUser(String token, User user) {
-        RefreshToken refreshToken = refreshTokenRepository.findByUserAndToken(user, token)
+        RefreshToken refreshToken = refreshTokenRepository.findByUserAndTokenHash(user, hash(token))
                 .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token not found"));
 
         if (!refreshToken.isValid()) {
@@ -107,7 +114,7 @@ public class RefreshTokenService {
      * @param user  the user who owns the token
      */
     public void revokeTokenForUser(String token, User user) {
-        refreshTokenRepository.revokeByTokenAndUser(token, user);
+        refreshTokenRepository.revokeByTokenHashAndUser(hash(token), user);
         log.info("Refresh token revoked for user: {}", user.getId());
     }
 
@@ -135,26 +142,6 @@ public class RefreshTokenService {
         log.info("Refresh token deleted for user: {}", refreshToken.getUser().getEmail());
     }
 
-    /**
-     * Clean up expired tokens from the database (scheduled job)
-     * Removes all tokens that have passed their expiry date
-     * Typically called by a scheduled task for database maintenance
-     */
-    public void cleanupExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
-        log.info("Cleaned up expired refresh tokens");
-    }
-
-    /**
-     * Clean up revoked tokens from the database (scheduled job)
-     * Removes all tokens that have been marked as revoked
-     * Typically called by a scheduled task for database maintenance
-     */
-    public void cleanupRevokedTokens() {
-        refreshTokenRepository.deleteRevokedTokens();
-        log.info("Cleaned up revoked refresh tokens");
-    }
-
     /**
      * Count the number of valid (non-expired, non-revoked) tokens for a specific
      * user
@@ -169,18 +156,29 @@ public class RefreshTokenService {
     }
 
     /**
-     * Generate a unique token string using UUID
-     * Ensures uniqueness by checking against existing tokens in the database
+     * Hash a refresh token for storage and lookup
      * 
-     * @return a unique UUID-based token string
+     * @param token the raw token string
+     * @return hex-encoded SHA-256 of the token
      */
-    private String generateUniqueToken() {
-        String token;
-        do {
-            token = UUID.randomUUID().toString();
-        } while (refreshTokenRepository.findValidByToken(token, LocalDateTime.now()).isPresent());
+    public static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 
-        return token;
+    /**
+     * Generate a random token string
+     * Collisions are practically impossible and the unique index on the hash rejects them anyway
+     * 
+     * @return a URL-safe 256-bit random token
+     */
+    private String generateToken() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     // Exception class
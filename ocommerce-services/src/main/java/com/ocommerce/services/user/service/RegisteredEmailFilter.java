@@ -0,0 +1,183 @@
+package com.ocommerce.services.user.service;
+
+import com.ocommerce.services.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter over the normalized emails of registered users, so signup
+ * availability checks for unknown emails are answered without a query.
+ * A positive answer still needs the database. A negative answer is only definite for this
+ * instance: registrations on other instances are picked up by a periodic sync of recently
+ * created users, so they are unknown here for up to the sync interval. Only use it where a
+ * stale negative is harmless, never to reject a login.
+ * <p>
+ * The filter is loaded at startup and answers "maybe" for every email until then.
+ * Registrations on this instance are added immediately. Bits are set with compare-and-set,
+ * so reads and updates never lock.
+ */
+@Slf4j
+@Component
+public class RegisteredEmailFilter {
+
+    // Registrations committed late with an earlier creation time are still caught by the next sync
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final Counter absent;
+    private final Counter maybePresent;
+    private volatile boolean ready;
+    private volatile LocalDateTime syncedFrom;
+
+    @Autowired
+    public RegisteredEmailFilter(UserRepository userRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.user.email-filter.enabled:true}") boolean enabled,
+                                 @Value("${app.user.email-filter.expected-emails:1000000}") long expectedEmails,
+                                 @Value("${app.user.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${app.user.email-filter.batch-size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        // Optimal size and hash count for the expected number of emails and false positive rate
+        long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) / 64));
+        this.bitCount = bits.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+        this.absent = Counter.builder("users.email-filter.lookups")
+            .description("Registered email lookups answered by the Bloom filter")
+            .tag("result", "absent")
+            .register(meterRegistry);
+        this.maybePresent = Counter.builder("users.email-filter.lookups")
+            .description("Registered email lookups answered by the Bloom filter")
+            .tag("result", "maybe")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param normalizedEmail Email normalized with {@code User.normalizeEmail}
+     * @return false only if no user is registered with this email
+     */
+    public boolean mightContain(String normalizedEmail) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        long hash1 = mix(fnv1a(normalizedEmail));
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                absent.increment();
+                return false;
+            }
+        }
+        maybePresent.increment();
+        return true;
+    }
+
+    /**
+     * Record a newly registered email
+     * @param normalizedEmail Email normalized with {@code User.normalizeEmail}
+     */
+    public void add(String normalizedEmail) {
+        long hash1 = mix(fnv1a(normalizedEmail));
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((bits.get(word) & mask) == 0) {
+                bits.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int loaded = load();
+            log.info("Loaded {} registered emails into the email filter ({} bits, {} hashes)", loaded, bitCount, hashCount);
+        } catch (Exception e) {
+            log.error("Loading the registered email filter failed, lookups will use the database", e);
+        }
+    }
+
+    /**
+     * Add every registered email, page by page in email order, then start answering lookups
+     * @return Number of emails added
+     */
+    public int load() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        int loaded = 0;
+        String after = "";
+        List<String> page;
+        do {
+            page = userRepository.findEmailsNormalizedAfter(after, PageRequest.of(0, batchSize));
+            page.forEach(this::add);
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == batchSize);
+        syncedFrom = startedAt;
+        ready = true;
+        return loaded;
+    }
+
+    @Scheduled(fixedDelayString = "${app.user.email-filter.sync-interval-ms:30000}",
+               initialDelayString = "${app.user.email-filter.sync-interval-ms:30000}")
+    public void syncRecentRegistrations() {
+        if (!ready) {
+            return;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<String> emails = userRepository.findEmailsNormalizedCreatedSince(syncedFrom.minus(SYNC_OVERLAP));
+            emails.forEach(this::add);
+            syncedFrom = startedAt;
+            log.debug("Synced {} recently registered emails into the email filter", emails.size());
+        } catch (Exception e) {
+            log.error("Syncing the registered email filter failed", e);
+        }
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Final mixing step of MurmurHash3, spreading FNV's weak low bits over the whole word
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ocommerce.services.user.service;
 
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.domain.User;
 import com.ocommerce.services.user.dto.SignupRequest;
 import com.ocommerce.services.user.dto.UserResponse;
@@ -10,6 +11,7 @@ import com.ocommerce.services.user.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,11 +29,16 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserStatusCache userStatusCache;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            UserStatusCache userStatusCache, RegisteredEmailFilter registeredEmailFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userStatusCache = userStatusCache;
+        this.registeredEmailFilter = registeredEmailFilter;
     }
 
     /**
@@ -45,7 +52,7 @@ public class UserService {
         log.info("Attempting to register user with email: {}", signupRequest.getEmail());
 
         // Check if user already exists
-        if (userRepository.existsByEmailIgnoreCase(signupRequest.getEmail())) {
+        if (existsByEmail(signupRequest.getEmail())) {
             log.warn("User registration failed - email already exists: {}", signupRequest.getEmail());
             throw new UserAlreadyExistsException("User with email " + signupRequest.getEmail() + " already exists");
         }
@@ -54,14 +61,21 @@ public class UserService {
         User user = new User();
         user.setFirstName(signupRequest.getFirstName());
         user.setLastName(signupRequest.getLastName());
-        user.setEmail(signupRequest.getEmail().toLowerCase().trim());
+        user.setEmail(User.normalizeEmail(signupRequest.getEmail()));
         user.setPassword(passwordEncoder.encode(signupRequest.getPassword()));
         user.setPhoneNumber(signupRequest.getPhoneNumber());
         user.setAccountEnabled(true);
         user.setEmailVerified(false); // Email verification can be implemented later
 
-        // Save user
-        User savedUser = userRepository.save(user);
+        // Save user; flushed so an email the filter did not know yet is reported as taken
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("User registration failed - email already exists: {}", signupRequest.getEmail());
+            throw new UserAlreadyExistsException("User with email " + signupRequest.getEmail() + " already exists");
+        }
+        registeredEmailFilter.add(savedUser.getEmailNormalized());
         log.info("User registered successfully with ID: {}", savedUser.getId());
 
         return convertToUserResponse(savedUser);
@@ -75,7 +89,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmailIgnoreCase(email);
+        return userRepository.findByEmailNormalized(User.normalizeEmail(email));
     }
 
     /**
@@ -86,7 +100,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Optional<User> findEnabledUserByEmail(String email) {
-        return userRepository.findByEmailIgnoreCaseAndAccountEnabled(email);
+        return userRepository.findByEmailNormalizedAndAccountEnabled(User.normalizeEmail(email));
     }
 
     /**
@@ -108,7 +122,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public UserResponse getUserProfile(String email) {
-        User user = userRepository.findByEmailWithActiveAddresses(email)
+        User user = userRepository.findByEmailWithActiveAddresses(User.normalizeEmail(email))
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
         return convertToUserResponseWithAddresses(user);
@@ -122,7 +136,7 @@ public class UserService {
      * @return updated user response
      */
     public UserResponse updateUserProfile(String email, UserUpdateRequest updateRequest) {
-        User user = userRepository.findByEmailIgnoreCase(email)
+        User user = userRepository.findByEmailNormalized(User.normalizeEmail(email))
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
 
@@ -148,11 +162,12 @@ public class UserService {
      * @param email user email
      */
     public void lockUserAccount(String email) {
-        User user = userRepository.findByEmailIgnoreCase(email)
+        User user = userRepository.findByEmailNormalized(User.normalizeEmail(email))
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
         user.setAccountLocked(true);
         userRepository.save(user);
+        userStatusCache.markInactive(user.getId());
         log.info("User account locked for email: {}", email);
     }
 
@@ -162,23 +177,30 @@ public class UserService {
      * @param email user email
      */
     public void unlockUserAccount(String email) {
-        User user = userRepository.findByEmailIgnoreCase(email)
+        User user = userRepository.findByEmailNormalized(User.normalizeEmail(email))
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
 
         user.setAccountLocked(false);
         userRepository.save(user);
+        // Re-read on the next request; a read before this commits keeps the account locked until the entry expires
+        userStatusCache.evict(user.getId());
         log.info("User account unlocked for email: {}", email);
     }
 
     /**
      * Check if user exists by email
+     * Emails the registered email filter has never seen are answered without a query,
+     * so an account registered on another instance within the filter sync interval may
+     * be reported as missing.
      * 
      * @param email user email
      * @return true if user exists
      */
     @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmailIgnoreCase(email);
+        String normalizedEmail = User.normalizeEmail(email);
+        return registeredEmailFilter.mightContain(normalizedEmail)
+                && userRepository.existsByEmailNormalized(normalizedEmail);
     }
 
     /**
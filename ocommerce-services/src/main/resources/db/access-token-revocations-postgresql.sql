@@ -0,0 +1,18 @@
+-- Access token revocations polled by every instance (PostgreSQL).
+-- Rows are deleted by the application once the tokens they cover have expired.
+
+CREATE TABLE access_token_revocations (
+    id            uuid         NOT NULL,
+    token_id      varchar(36),
+    user_id       uuid,
+    issued_before timestamp(6),
+    expires_at    timestamp(6) NOT NULL,
+    created_at    timestamp(6) NOT NULL,
+    updated_at    timestamp(6) NOT NULL,
+    deleted       boolean      NOT NULL,
+    deleted_at    timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_access_token_revocations_created_at ON access_token_revocations (created_at);
+CREATE INDEX idx_access_token_revocations_expires_at ON access_token_revocations (expires_at);
@@ -0,0 +1,3 @@
+-- Index the abandoned-cart expiry sweeper pages through (PostgreSQL).
+
+CREATE INDEX idx_carts_updated_at ON carts (updated_at, id);
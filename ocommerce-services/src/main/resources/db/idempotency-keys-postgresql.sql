@@ -0,0 +1,19 @@
+-- Idempotency-Key records of order creation and checkout (PostgreSQL).
+-- Rows are deleted by the application once they expire.
+
+CREATE TABLE idempotency_keys (
+    id              uuid                        NOT NULL,
+    user_id         uuid                        NOT NULL,
+    scope           varchar(50)                 NOT NULL,
+    idempotency_key varchar(255)                NOT NULL,
+    request_hash    varchar(64)                 NOT NULL,
+    status          varchar(255)                NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status integer,
+    response_body   text,
+    created_at      timestamp(6) with time zone NOT NULL,
+    expires_at      timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_keys_user_scope_key UNIQUE (user_id, scope, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
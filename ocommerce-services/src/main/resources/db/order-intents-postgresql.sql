@@ -0,0 +1,21 @@
+-- Order intents of asynchronous checkout (PostgreSQL).
+-- The partial unique index backs up the cart row lock taken on submit: a user has at
+-- most one intent in flight, even if a second submit slips past the lock.
+
+CREATE TABLE order_intents (
+    id                  uuid                        NOT NULL,
+    user_id             uuid                        NOT NULL,
+    shipping_address_id uuid                        NOT NULL,
+    billing_address_id  uuid                        NOT NULL,
+    status              varchar(255)                NOT NULL
+        CHECK (status IN ('QUEUED', 'PROCESSING', 'COMPLETED', 'FAILED')),
+    order_id            uuid,
+    failure_reason      varchar(500),
+    created_at          timestamp(6) with time zone NOT NULL,
+    updated_at          timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_order_intents_user_status ON order_intents (user_id, status);
+CREATE UNIQUE INDEX uk_order_intents_user_in_flight ON order_intents (user_id)
+    WHERE status IN ('QUEUED', 'PROCESSING');
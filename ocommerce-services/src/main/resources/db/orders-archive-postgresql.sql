@@ -0,0 +1,43 @@
+-- Order archive tables range-partitioned by month of order creation (PostgreSQL).
+-- Use instead of plain orders_archive/order_items_archive tables, then set
+-- app.orders.archive.partitioning.enabled=true so the archival job creates the
+-- monthly partitions (e.g. orders_archive_p2024_01) before moving orders into them.
+-- Primary keys must include the partition key; ids remain unique on their own.
+
+CREATE TABLE orders_archive (
+    id                  uuid                     NOT NULL,
+    user_id             uuid                     NOT NULL,
+    shipping_address_id uuid                     NOT NULL,
+    billing_address_id  uuid                     NOT NULL,
+    order_status        varchar(255)             NOT NULL,
+    payment_status      varchar(255)             NOT NULL,
+    total_amount        numeric(38, 2)           NOT NULL,
+    sales_recorded      boolean                  NOT NULL,
+    sales_reversed      boolean                  NOT NULL,
+    created_at          timestamp(6) with time zone NOT NULL,
+    updated_at          timestamp(6) with time zone NOT NULL,
+    archived_at         timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_orders_archive_id ON orders_archive (id);
+CREATE INDEX idx_orders_archive_user_created_id ON orders_archive (user_id, created_at DESC, id DESC);
+
+CREATE TABLE order_items_archive (
+    id               uuid                     NOT NULL,
+    order_id         uuid                     NOT NULL,
+    product_id       uuid                     NOT NULL,
+    variant_id       uuid,
+    quantity         integer                  NOT NULL,
+    unit_price       numeric(38, 2)           NOT NULL,
+    discount_amount  numeric(38, 2),
+    tax_amount       numeric(38, 2),
+    product_name     varchar(255),
+    variant_name     varchar(255),
+    sku              varchar(255),
+    total_price      numeric(38, 2)           NOT NULL,
+    order_created_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id, order_created_at)
+) PARTITION BY RANGE (order_created_at);
+
+CREATE INDEX idx_order_items_archive_order_id ON order_items_archive (order_id);
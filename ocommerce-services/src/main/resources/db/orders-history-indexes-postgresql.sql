@@ -0,0 +1,4 @@
+-- Indexes behind keyset-paginated order history and per-page item loading (PostgreSQL).
+
+CREATE INDEX idx_orders_user_created_id ON orders (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
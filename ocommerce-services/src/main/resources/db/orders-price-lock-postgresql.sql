@@ -0,0 +1,8 @@
+-- Order price locks and the pricing version the sales rollups track (PostgreSQL).
+-- Existing orders get no lock, so they are re-priced when next paid.
+
+ALTER TABLE orders ADD COLUMN price_locked_until timestamp(6) with time zone;
+ALTER TABLE orders ADD COLUMN pricing_version integer NOT NULL DEFAULT 0;
+ALTER TABLE orders ADD COLUMN sales_pricing_version integer NOT NULL DEFAULT 0;
+ALTER TABLE orders ALTER COLUMN pricing_version DROP DEFAULT;
+ALTER TABLE orders ALTER COLUMN sales_pricing_version DROP DEFAULT;
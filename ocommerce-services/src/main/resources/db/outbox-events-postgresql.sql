@@ -0,0 +1,19 @@
+-- Transactional outbox of order and payment events (PostgreSQL).
+-- Delivered and dead-lettered rows are kept; published_at/failed_at stay null while pending.
+
+CREATE TABLE outbox_events (
+    id             bigserial                   NOT NULL,
+    aggregate_type varchar(50)                 NOT NULL,
+    aggregate_id   uuid                        NOT NULL,
+    event_type     varchar(100)                NOT NULL,
+    payload        text                        NOT NULL,
+    created_at     timestamp(6) with time zone NOT NULL,
+    published_at   timestamp(6) with time zone,
+    failed_at      timestamp(6) with time zone,
+    attempts       integer                     NOT NULL,
+    last_error     varchar(500),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_events_pending ON outbox_events (published_at, failed_at, id);
+CREATE INDEX idx_outbox_events_aggregate ON outbox_events (aggregate_id, id);
@@ -0,0 +1,17 @@
+-- Discrepancies found by the payment reconciliation job, grouped by run (PostgreSQL).
+
+CREATE TABLE payment_discrepancies (
+    id                uuid                        NOT NULL,
+    run_id            uuid                        NOT NULL,
+    payment_id        uuid                        NOT NULL,
+    discrepancy_type  varchar(255)                NOT NULL CHECK (discrepancy_type IN (
+        'MISSING_SETTLEMENT', 'UNEXPECTED_SETTLEMENT', 'DUPLICATE_SETTLEMENT', 'AMOUNT_MISMATCH', 'STATUS_MISMATCH')),
+    ledger_status     varchar(255),
+    settlement_status varchar(255),
+    ledger_amount     numeric(38, 2),
+    settled_amount    numeric(38, 2),
+    created_at        timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_payment_discrepancies_run_id ON payment_discrepancies (run_id);
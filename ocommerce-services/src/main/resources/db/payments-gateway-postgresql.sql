@@ -0,0 +1,9 @@
+-- Payment columns and indexes used by the recovery sweeper, refund claims and
+-- idempotency-key replay (PostgreSQL).
+-- Adding the unique constraint fails if two payments share a transaction id; resolve those first.
+
+ALTER TABLE payments ADD COLUMN refund_requested_at timestamp(6) with time zone;
+ALTER TABLE payments ADD CONSTRAINT uk_payments_transaction_id UNIQUE (transaction_id);
+
+CREATE INDEX idx_payments_status_created_at ON payments (payment_status, created_at);
+CREATE INDEX idx_payments_refund_requested_at ON payments (refund_requested_at);
@@ -0,0 +1,26 @@
+-- Promotions and the cart totals written by the cart pricing pipeline (PostgreSQL).
+-- The totals stay null on existing carts until the cart is next priced.
+
+CREATE TABLE promotions (
+    id              uuid                        NOT NULL,
+    name            varchar(255)                NOT NULL,
+    scope           varchar(255)                NOT NULL CHECK (scope IN ('SKU', 'CATEGORY', 'CART')),
+    discount_type   varchar(255)                NOT NULL CHECK (discount_type IN ('PERCENTAGE', 'FIXED_AMOUNT')),
+    discount_value  numeric(38, 2)              NOT NULL,
+    sku             varchar(255),
+    category_id     uuid,
+    min_cart_amount numeric(38, 2),
+    starts_at       timestamp(6) with time zone,
+    ends_at         timestamp(6) with time zone,
+    active          boolean                     NOT NULL,
+    created_at      timestamp(6) with time zone NOT NULL,
+    updated_at      timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_promotions_active_ends_at ON promotions (active, ends_at);
+
+ALTER TABLE carts ADD COLUMN subtotal_amount numeric(38, 2);
+ALTER TABLE carts ADD COLUMN discount_amount numeric(38, 2);
+ALTER TABLE carts ADD COLUMN tax_amount numeric(38, 2);
+ALTER TABLE carts ADD COLUMN total_amount numeric(38, 2);
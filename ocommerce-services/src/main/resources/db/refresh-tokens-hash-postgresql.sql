@@ -0,0 +1,12 @@
+-- Refresh tokens stored as SHA-256 hashes instead of raw values (PostgreSQL).
+-- Existing tokens are hashed in place, hex-encoded like RefreshTokenService.hash,
+-- so sessions survive the upgrade. Needs PostgreSQL 11+ for sha256().
+
+ALTER TABLE refresh_tokens ADD COLUMN token_hash varchar(64);
+UPDATE refresh_tokens SET token_hash = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash);
+ALTER TABLE refresh_tokens DROP COLUMN token;
+
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
+CREATE INDEX idx_refresh_tokens_revoked ON refresh_tokens (revoked);
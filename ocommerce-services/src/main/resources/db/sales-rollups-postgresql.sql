@@ -0,0 +1,33 @@
+-- Daily sales rollups and the order flags that make updating them idempotent (PostgreSQL).
+-- Existing orders start uncounted; rebuild the rollups for past days with the
+-- backfill endpoint once this is deployed.
+
+CREATE TABLE sales_daily_totals (
+    sales_date           date                        NOT NULL,
+    order_count          bigint                      NOT NULL,
+    units_sold           bigint                      NOT NULL,
+    revenue              numeric(38, 2)              NOT NULL,
+    reversed_order_count bigint                      NOT NULL,
+    updated_at           timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (sales_date)
+);
+
+CREATE TABLE sales_daily_products (
+    sales_date  date                        NOT NULL,
+    product_id  uuid                        NOT NULL,
+    variant_key uuid                        NOT NULL,
+    sku         varchar(255),
+    units_sold  bigint                      NOT NULL,
+    revenue     numeric(38, 2)              NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (sales_date, product_id, variant_key)
+);
+
+CREATE INDEX idx_sales_daily_products_product_date ON sales_daily_products (product_id, sales_date);
+
+ALTER TABLE orders ADD COLUMN sales_recorded boolean NOT NULL DEFAULT false;
+ALTER TABLE orders ADD COLUMN sales_reversed boolean NOT NULL DEFAULT false;
+ALTER TABLE orders ALTER COLUMN sales_recorded DROP DEFAULT;
+ALTER TABLE orders ALTER COLUMN sales_reversed DROP DEFAULT;
+
+CREATE INDEX idx_orders_created_at ON orders (created_at);
@@ -0,0 +1,11 @@
+-- Authorities granted to users (PostgreSQL), as a comma-separated list of
+-- com.ocommerce.services.user.domain.Authority names. Null means none.
+-- Access tokens carry the authorities they were issued with, so a grant or revoke
+-- takes effect at the user's next login or token refresh.
+
+ALTER TABLE users ADD COLUMN authorities varchar(255);
+
+-- Grant, e.g.:
+-- UPDATE users SET authorities = 'ORDER_ADMIN,SALES_REPORTS' WHERE email_normalized = 'ops@example.com';
+-- Revoke all:
+-- UPDATE users SET authorities = NULL WHERE email_normalized = 'ops@example.com';
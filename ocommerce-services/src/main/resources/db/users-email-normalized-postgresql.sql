@@ -0,0 +1,10 @@
+-- Normalized email column that every user lookup goes through (PostgreSQL).
+-- Run before deploying; lower(trim(email)) matches User.normalizeEmail for ASCII addresses.
+-- Adding the unique constraint fails if two accounts differ only in case; merge those first.
+
+ALTER TABLE users ADD COLUMN email_normalized varchar(255);
+UPDATE users SET email_normalized = lower(trim(email));
+ALTER TABLE users ALTER COLUMN email_normalized SET NOT NULL;
+ALTER TABLE users ADD CONSTRAINT uk_users_email_normalized UNIQUE (email_normalized);
+
+CREATE INDEX idx_users_created_at ON users (created_at);
@@ -0,0 +1,121 @@
+package com.ocommerce.services.benchmark;
+
+import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.cart.service.CartPricingService;
+import com.ocommerce.services.promotion.domain.DiscountType;
+import com.ocommerce.services.promotion.domain.Promotion;
+import com.ocommerce.services.promotion.domain.PromotionScope;
+import com.ocommerce.services.promotion.service.PromotionEvaluator;
+import com.ocommerce.services.promotion.service.PromotionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices a 100-line cart against 10k active promotions.
+ * Run the main method from the IDE, or:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.ocommerce.services.benchmark.CartPricingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartPricingBenchmark {
+
+    private static final int PROMOTIONS = 10_000;
+    private static final int CART_LINES = 100;
+    private static final int CATEGORIES = 500;
+
+    private List<Promotion> promotions;
+    private CartPricingService cartPricingService;
+    private Cart cart;
+    private Map<UUID, List<UUID>> categoryIdsByProduct;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<UUID> categoryIds = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            categoryIds.add(UUID.randomUUID());
+        }
+
+        promotions = new ArrayList<>(PROMOTIONS);
+        for (int i = 0; i < PROMOTIONS; i++) {
+            Promotion promotion = new Promotion();
+            promotion.setName("Promotion " + i);
+            promotion.setDiscountType(i % 2 == 0 ? DiscountType.PERCENTAGE : DiscountType.FIXED_AMOUNT);
+            promotion.setDiscountValue(BigDecimal.valueOf(1 + random.nextInt(30)));
+            switch (i % 10) {
+                case 0 -> {
+                    promotion.setScope(PromotionScope.CART);
+                    promotion.setMinCartAmount(BigDecimal.valueOf(random.nextInt(100_000)));
+                }
+                case 1, 2, 3 -> {
+                    promotion.setScope(PromotionScope.CATEGORY);
+                    promotion.setCategoryId(categoryIds.get(random.nextInt(CATEGORIES)));
+                }
+                default -> {
+                    promotion.setScope(PromotionScope.SKU);
+                    promotion.setSku("SKU-" + random.nextInt(20_000));
+                }
+            }
+            promotions.add(promotion);
+        }
+
+        PromotionEvaluator evaluator = PromotionEvaluator.compile(promotions, Instant.now());
+        PromotionService promotionService = new PromotionService(null, Long.MAX_VALUE) {
+            @Override
+            public PromotionEvaluator getEvaluator() {
+                return evaluator;
+            }
+        };
+        cartPricingService = new CartPricingService(promotionService, new BigDecimal("0.08"));
+
+        cart = new Cart();
+        cart.setItems(new ArrayList<>());
+        categoryIdsByProduct = new HashMap<>();
+        for (int i = 0; i < CART_LINES; i++) {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProductId(UUID.randomUUID());
+            item.setSku("SKU-" + random.nextInt(20_000));
+            item.setUnitPrice(BigDecimal.valueOf(100 + random.nextInt(10_000), 2));
+            item.setQuantity(1 + random.nextInt(5));
+            cart.getItems().add(item);
+            categoryIdsByProduct.put(item.getProductId(),
+                List.of(categoryIds.get(random.nextInt(CATEGORIES)), categoryIds.get(random.nextInt(CATEGORIES))));
+        }
+    }
+
+    @Benchmark
+    public BigDecimal priceCart() {
+        cartPricingService.priceCart(cart, categoryIdsByProduct);
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public PromotionEvaluator compilePromotions() {
+        return PromotionEvaluator.compile(promotions, Instant.now());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CartPricingBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ocommerce.services.benchmark;
+
+import com.ocommerce.services.security.AccessTokenRevocationList;
+import com.ocommerce.services.security.JwtAuthenticationFilter;
+import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.UserStatusCache;
+import com.ocommerce.services.user.repository.AccessTokenRevocationRepository;
+import com.ocommerce.services.user.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Overhead of the JWT filter for an authenticated request. The principal comes from the token's
+ * claims and the account status from the cache, so no repository is involved after the first call.
+ * {@code fivefoldParse} repeats what the filter used to do: five signature checks, each
+ * with a freshly decoded key. Run the main method from the IDE, or:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.ocommerce.services.benchmark.JwtAuthenticationFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvbkFuZFZhbGlkYXRpb25JbkVDb21tZXJjZVNlcnZpY2Vz";
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtUtil cachingJwtUtil;
+    private JwtUtil nonCachingJwtUtil;
+    private JwtAuthenticationFilter cachingFilter;
+    private JwtAuthenticationFilter nonCachingFilter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        UserDetails user = User.withUsername(EMAIL).password("password").authorities(Collections.emptyList()).build();
+        cachingJwtUtil = new JwtUtil(SECRET, 3_600_000L, 86_400_000L, 10_000);
+        nonCachingJwtUtil = new JwtUtil(SECRET, 3_600_000L, 86_400_000L, 0);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findActiveStatusById(any())).thenReturn(Optional.of(true));
+        UserStatusCache userStatusCache = new UserStatusCache(userRepository, 3_600_000L, 10_000);
+        AccessTokenRevocationList revocationList = new AccessTokenRevocationList(
+            mock(AccessTokenRevocationRepository.class), new SimpleMeterRegistry(), 3_600_000L);
+        cachingFilter = new JwtAuthenticationFilter(cachingJwtUtil, username -> user, userStatusCache, revocationList);
+        nonCachingFilter = new JwtAuthenticationFilter(nonCachingJwtUtil, username -> user, userStatusCache, revocationList);
+        token = cachingJwtUtil.generateAccessToken(UUID.randomUUID(), EMAIL, Collections.emptyList());
+    }
+
+    @Benchmark
+    public Object filterWithClaimsCache() throws ServletException, IOException {
+        return filter(cachingFilter);
+    }
+
+    @Benchmark
+    public Object filterWithoutClaimsCache() throws ServletException, IOException {
+        return filter(nonCachingFilter);
+    }
+
+    @Benchmark
+    public Claims fivefoldParse() {
+        Claims claims = null;
+        for (int i = 0; i < 5; i++) {
+            claims = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        }
+        return claims;
+    }
+
+    private Object filter(JwtAuthenticationFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.ocommerce.services.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.security.RateLimitFilter;
+import com.ocommerce.services.security.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rate limiting a product search, which matches the same four routes as the default
+ * configuration, spread over 10,000 clients. Capacities are large enough that every request is
+ * allowed, so the figures are the per-request overhead. {@code filter} and {@code bareChain}
+ * include building the mock request, so their difference is the filter's share. Run the main
+ * method from the IDE, or:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.ocommerce.services.benchmark.RateLimitFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitFilterBenchmark {
+
+    private static final String PATH = "/api/v1/products/search";
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private String[] clientIps;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(List.of(
+            new RateLimiter.Route("/api/v*/**", RateLimiter.Scope.CLIENT, 1_000_000_000L, 1_000_000),
+            new RateLimiter.Route("/api/v*/auth/**", RateLimiter.Scope.IP, 20, 1),
+            new RateLimiter.Route(PATH, RateLimiter.Scope.CLIENT, 1_000_000_000L, 1_000_000),
+            new RateLimiter.Route(PATH, RateLimiter.Scope.ROUTE, 1_000_000_000L, 1_000_000)),
+            new SimpleMeterRegistry(), 100_000, Duration.ofMinutes(10));
+        filter = new RateLimitFilter(rateLimiter, new ObjectMapper());
+        clientIps = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientIps[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return rateLimiter.tryAcquire(PATH, null, randomClient());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireContended() {
+        return rateLimiter.tryAcquire(PATH, null, randomClient());
+    }
+
+    @Benchmark
+    public Object filter() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(), new MockHttpServletResponse(), chain);
+        return chain.getRequest();
+    }
+
+    @Benchmark
+    public Object bareChain() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+        chain.doFilter(request(), new MockHttpServletResponse());
+        return chain.getRequest();
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PATH);
+        request.setRemoteAddr(randomClient());
+        return request;
+    }
+
+    private String randomClient() {
+        return clientIps[ThreadLocalRandom.current().nextInt(CLIENTS)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(RateLimitFilterBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -4,12 +4,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ocommerce.services.cart.domain.Cart;
 import com.ocommerce.services.cart.dto.CartItemRequest;
 import com.ocommerce.services.cart.dto.CartItemRequest;
+import com.ocommerce.services.cart.dto.CartItemsRequest;
 import com.ocommerce.services.cart.dto.CartRequest;
 import com.ocommerce.services.cart.dto.CartResponse;
 import com.ocommerce.services.cart.mapper.CartMapper;
 import com.ocommerce.services.cart.service.CartService;
 import com.ocommerce.services.config.WithCustomUser;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyInProgressException;
+import com.ocommerce.services.idempotency.service.IdempotencyService;
+import com.ocommerce.services.idempotency.service.IdempotentResponse;
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.domain.OrderIntentStatus;
+import com.ocommerce.services.order.dto.OrderIntentResponse;
+import com.ocommerce.services.order.exception.OrderPlacementRejectedException;
+import com.ocommerce.services.order.mapper.OrderMapper;
+import com.ocommerce.services.order.service.OrderPlacementService;
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,8 +34,10 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static com.ocommerce.services.user.UserConstants.*;
 import static com.ocommerce.services.user.UserConstants.ACCOUNT_ENABLED;
@@ -30,7 +45,10 @@ import static com.ocommerce.services.user.UserConstants.EMAIL_VERIFIED;
 import static com.ocommerce.services.user.UserConstants.LAST_NAME;
 import static com.ocommerce.services.user.UserConstants.PHONE_NUMBER;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -55,12 +73,30 @@ class CartControllerTest {
     @MockBean
     private CartMapper cartMapper;
 
+    @MockBean
+    private OrderPlacementService orderPlacementService;
+
+    @MockBean
+    private OrderMapper orderMapper;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     private Cart cart;
     private CartResponse CartResponse;
     private CartItemRequest cartItemRequest;
@@ -69,6 +105,10 @@ class CartControllerTest {
     @BeforeEach
     void setUp() {
         userId = UUID.fromString(USER_ID);
+        // Run requests straight through; deduplication itself is covered by IdempotencyServiceTest
+        when(idempotencyService.execute(any(), any(), any(), any(), anyInt(), any(), any()))
+            .thenAnswer(invocation -> new IdempotentResponse<>(invocation.getArgument(4),
+                invocation.<Supplier<?>>getArgument(6).get(), false));
 
         cart = new Cart();
         cart.setId(UUID.randomUUID());
@@ -140,6 +180,54 @@ class CartControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void addItems_shouldAddItemsToCart() throws Exception {
+        // Given
+        CartItemsRequest itemsRequest = new CartItemsRequest();
+        itemsRequest.setItems(List.of(cartItemRequest));
+        when(cartService.addItems(eq(userId), any())).thenReturn(cart);
+        when(cartMapper.toCartResponse(cart)).thenReturn(CartResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/cart/items/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemsRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(CartResponse.getId().toString()));
+    }
+
+    @Test
+    void addItems_shouldReturn400ForEmptyRequest() throws Exception {
+        // Given
+        CartItemsRequest itemsRequest = new CartItemsRequest();
+        itemsRequest.setItems(List.of());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/cart/items/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemsRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void replaceItems_shouldReplaceCartItems() throws Exception {
+        // Given
+        CartItemsRequest itemsRequest = new CartItemsRequest();
+        itemsRequest.setItems(List.of(cartItemRequest));
+        when(cartService.replaceItems(eq(userId), any())).thenReturn(cart);
+        when(cartMapper.toCartResponse(cart)).thenReturn(CartResponse);
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/cart/items")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(itemsRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(CartResponse.getId().toString()));
+    }
+
     @Test
     void updateItemQuantity_shouldUpdateQuantity() throws Exception {
         // Given
@@ -227,6 +315,57 @@ class CartControllerTest {
         // When & Then
         mockMvc.perform(post("/api/v1/cart/checkout")
                         .with(csrf()))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"));
+
+        verify(cartService).convertCartToOrder(userId);
+    }
+
+    @Test
+    void convertCartToOrder_shouldReturn409WhileSameKeyIsInProgress() throws Exception {
+        // Given
+        doThrow(new IdempotencyKeyInProgressException("A request with this Idempotency-Key is being processed"))
+            .when(idempotencyService).execute(eq(userId), eq("cart.checkout"), eq("retry-key-1"), any(), anyInt(), any(), any());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/cart/checkout")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-key-1"))
+                .andExpect(status().isConflict())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void checkoutAsync_shouldAcceptAndPointToIntent() throws Exception {
+        // Given
+        OrderIntent intent = new OrderIntent();
+        intent.setId(UUID.randomUUID());
+        intent.setUserId(userId);
+        OrderIntentResponse intentResponse = new OrderIntentResponse();
+        intentResponse.setId(intent.getId());
+        intentResponse.setStatus(OrderIntentStatus.QUEUED);
+        when(orderPlacementService.submit(userId)).thenReturn(intent);
+        when(orderMapper.toOrderIntentResponse(intent)).thenReturn(intentResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/cart/checkout/async")
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/orders/intents/" + intent.getId()))
+                .andExpect(jsonPath("$.id").value(intent.getId().toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void checkoutAsync_shouldReturn503WhenQueueIsFull() throws Exception {
+        // Given
+        when(orderPlacementService.submit(userId))
+                .thenThrow(new OrderPlacementRejectedException("Checkout is busy, please retry shortly"));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/cart/checkout/async")
+                        .with(csrf()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
     }
 }
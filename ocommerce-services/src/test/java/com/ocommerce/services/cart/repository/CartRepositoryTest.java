@@ -6,10 +6,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,6 +27,9 @@ class CartRepositoryTest {
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private UUID userId;
     private Cart cart;
 
@@ -58,6 +66,32 @@ class CartRepositoryTest {
         assertThat(result.get().getItems()).hasSize(1);
     }
 
+    @Test
+    void findByUserIdForUpdate_shouldReturnUsersCart() {
+        // Given
+        Cart savedCart = cartRepository.save(cart);
+
+        // When
+        Optional<Cart> result = cartRepository.findByUserIdForUpdate(userId);
+
+        // Then
+        assertThat(result).map(Cart::getId).contains(savedCart.getId());
+        assertThat(cartRepository.findByUserIdForUpdate(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void findWithItemsById_shouldReturnCartWithItems() {
+        // Given
+        Cart savedCart = cartRepository.save(cart);
+
+        // When
+        Optional<Cart> result = cartRepository.findWithItemsById(savedCart.getId());
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getItems()).hasSize(1);
+    }
+
     @Test
     void findByUserId_shouldReturnEmptyWhenNotExists() {
         // Given
@@ -131,4 +165,70 @@ class CartRepositoryTest {
         // Then
         assertThat(totalAmount).isEqualTo(BigDecimal.valueOf(200)); // 2 * 100
     }
+
+    @Test
+    void findIdleCarts_shouldPageInKeysetOrder() {
+        // Given
+        Instant now = Instant.now();
+        Cart oldest = savedCartUpdatedAt(now.minus(40, ChronoUnit.DAYS));
+        Cart older = savedCartUpdatedAt(now.minus(35, ChronoUnit.DAYS));
+        savedCartUpdatedAt(now.minus(1, ChronoUnit.DAYS));
+        Instant cutoff = now.minus(30, ChronoUnit.DAYS);
+
+        // When
+        List<CartRepository.IdleCart> firstPage = cartRepository.findIdleCarts(
+            cutoff, Instant.EPOCH, new UUID(0L, 0L), PageRequest.of(0, 1));
+        List<CartRepository.IdleCart> secondPage = cartRepository.findIdleCarts(
+            cutoff, firstPage.get(0).getUpdatedAt(), firstPage.get(0).getId(), PageRequest.of(0, 1));
+        List<CartRepository.IdleCart> thirdPage = cartRepository.findIdleCarts(
+            cutoff, secondPage.get(0).getUpdatedAt(), secondPage.get(0).getId(), PageRequest.of(0, 1));
+
+        // Then
+        assertThat(firstPage).extracting(CartRepository.IdleCart::getId).containsExactly(oldest.getId());
+        assertThat(secondPage).extracting(CartRepository.IdleCart::getId).containsExactly(older.getId());
+        assertThat(thirdPage).isEmpty();
+    }
+
+    @Test
+    void deleteIdleCarts_shouldDeleteOnlyCartsStillIdle() {
+        // Given
+        Instant now = Instant.now();
+        Cart idle = savedCartUpdatedAt(now.minus(40, ChronoUnit.DAYS));
+        Cart active = savedCartUpdatedAt(now.minus(1, ChronoUnit.DAYS));
+        Instant cutoff = now.minus(30, ChronoUnit.DAYS);
+        List<UUID> ids = List.of(idle.getId(), active.getId());
+
+        // When
+        int deletedItems = cartRepository.deleteItemsOfIdleCarts(ids, cutoff);
+        int deletedCarts = cartRepository.deleteIdleCarts(ids, cutoff);
+        entityManager.clear();
+
+        // Then
+        assertThat(deletedItems).isEqualTo(1);
+        assertThat(deletedCarts).isEqualTo(1);
+        assertThat(cartRepository.findById(idle.getId())).isEmpty();
+        assertThat(cartRepository.findWithItemsById(active.getId()).get().getItems()).hasSize(1);
+    }
+
+    // Persist a cart with one item and backdate its last update
+    private Cart savedCartUpdatedAt(Instant updatedAt) {
+        Cart newCart = new Cart();
+        newCart.setUserId(UUID.randomUUID());
+        newCart.setItems(new ArrayList<>());
+        CartItem item = new CartItem();
+        item.setCart(newCart);
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(1);
+        item.setUnitPrice(BigDecimal.TEN);
+        newCart.getItems().add(item);
+
+        Cart saved = entityManager.persistFlushFind(newCart);
+        entityManager.getEntityManager()
+            .createQuery("UPDATE Cart c SET c.updatedAt = :updatedAt WHERE c.id = :id")
+            .setParameter("updatedAt", updatedAt)
+            .setParameter("id", saved.getId())
+            .executeUpdate();
+        entityManager.clear();
+        return saved;
+    }
 }
@@ -0,0 +1,114 @@
+package com.ocommerce.services.cart.service;
+
+import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.cart.repository.CartRepository.IdleCart;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CartExpiryServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CartExpiryService cartExpiryService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cartExpiryService = new CartExpiryService(cartRepository, transactionManager, meterRegistry, 30, 2, 10);
+    }
+
+    @Test
+    void expireIdleCarts_shouldDeleteInChunksAndAdvanceKeyset() {
+        // Given
+        Instant base = Instant.now().minus(60, ChronoUnit.DAYS);
+        IdleCart first = idleCart(base);
+        IdleCart second = idleCart(base.plusSeconds(1));
+        IdleCart third = idleCart(base.plusSeconds(2));
+        when(cartRepository.findIdleCarts(any(), eq(Instant.EPOCH), any(), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(first, second));
+        when(cartRepository.findIdleCarts(any(), eq(second.getUpdatedAt()), eq(second.getId()), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(third));
+        when(cartRepository.deleteIdleCarts(anyList(), any())).thenReturn(2, 1);
+
+        // When
+        int expired = cartExpiryService.expireIdleCarts();
+
+        // Then
+        assertThat(expired).isEqualTo(3);
+        verify(cartRepository).deleteItemsOfIdleCarts(eq(List.of(first.getId(), second.getId())), any());
+        verify(cartRepository).deleteItemsOfIdleCarts(eq(List.of(third.getId())), any());
+        verify(cartRepository, times(2)).findIdleCarts(any(), any(), any(), any());
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(meterRegistry.get("cart.expiry.expired").summary().totalAmount()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("cart.expiry.run").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void expireIdleCarts_shouldStopAtMaxChunksPerRun() {
+        // Given
+        cartExpiryService = new CartExpiryService(cartRepository, transactionManager, meterRegistry, 30, 1, 2);
+        Instant base = Instant.now().minus(60, ChronoUnit.DAYS);
+        when(cartRepository.findIdleCarts(any(), any(), any(), any()))
+            .thenReturn(List.of(idleCart(base)), List.of(idleCart(base.plusSeconds(1))));
+        when(cartRepository.deleteIdleCarts(anyList(), any())).thenReturn(1);
+
+        // When
+        int expired = cartExpiryService.expireIdleCarts();
+
+        // Then
+        assertThat(expired).isEqualTo(2);
+        verify(cartRepository, times(2)).findIdleCarts(any(), any(), any(), any());
+    }
+
+    @Test
+    void expireIdleCarts_shouldRecordEmptyRun() {
+        // Given
+        when(cartRepository.findIdleCarts(any(), any(), any(), any())).thenReturn(List.of());
+
+        // When
+        int expired = cartExpiryService.expireIdleCarts();
+
+        // Then
+        assertThat(expired).isZero();
+        verify(cartRepository, never()).deleteIdleCarts(anyList(), any());
+        assertThat(meterRegistry.get("cart.expiry.expired").summary().count()).isEqualTo(1);
+    }
+
+    private IdleCart idleCart(Instant updatedAt) {
+        UUID id = UUID.randomUUID();
+        return new IdleCart() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getUpdatedAt() {
+                return updatedAt;
+            }
+        };
+    }
+}
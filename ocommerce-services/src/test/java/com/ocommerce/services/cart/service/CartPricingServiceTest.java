@@ -0,0 +1,132 @@
+package com.ocommerce.services.cart.service;
+
+import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.promotion.domain.DiscountType;
+import com.ocommerce.services.promotion.domain.Promotion;
+import com.ocommerce.services.promotion.domain.PromotionScope;
+import com.ocommerce.services.promotion.service.PromotionEvaluator;
+import com.ocommerce.services.promotion.service.PromotionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CartPricingServiceTest {
+
+    @Mock
+    private PromotionService promotionService;
+
+    private CartPricingService cartPricingService;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        cartPricingService = new CartPricingService(promotionService, new BigDecimal("0.10"));
+        cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setItems(new ArrayList<>());
+    }
+
+    @Test
+    void priceCart_shouldApplyPromotionsThenTaxAndCacheTotals() {
+        // Given
+        UUID categoryId = UUID.randomUUID();
+        CartItem shoes = item("SHOES-1", "60.00", 2);
+        CartItem socks = item("SOCKS-1", "10.00", 3);
+        cart.getItems().addAll(List.of(shoes, socks));
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.compile(List.of(
+            promotion(PromotionScope.CATEGORY, DiscountType.PERCENTAGE, "25", null, categoryId, null),
+            promotion(PromotionScope.CART, DiscountType.FIXED_AMOUNT, "12", null, null, "100")
+        ), Instant.now()));
+
+        // When
+        cartPricingService.priceCart(cart, Map.of(shoes.getProductId(), List.of(categoryId)));
+
+        // Then
+        // Shoes: 120.00 - 30.00 (25%) = 90.00, socks: 30.00; cart discount 12.00 split 9.00 / 3.00
+        assertThat(shoes.getDiscountAmount()).isEqualByComparingTo("39.00");
+        assertThat(shoes.getTaxAmount()).isEqualByComparingTo("8.10");
+        assertThat(shoes.getTotalPrice()).isEqualByComparingTo("89.10");
+        assertThat(socks.getDiscountAmount()).isEqualByComparingTo("3.00");
+        assertThat(socks.getTaxAmount()).isEqualByComparingTo("2.70");
+        assertThat(socks.getTotalPrice()).isEqualByComparingTo("29.70");
+
+        assertThat(cart.getSubtotalAmount()).isEqualByComparingTo("150.00");
+        assertThat(cart.getDiscountAmount()).isEqualByComparingTo("42.00");
+        assertThat(cart.getTaxAmount()).isEqualByComparingTo("10.80");
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("118.80");
+    }
+
+    @Test
+    void priceCart_shouldAllocateCartDiscountWithoutLosingCents() {
+        // Given
+        cart.getItems().addAll(List.of(item("A", "10.00", 1), item("B", "10.00", 1), item("C", "10.00", 1)));
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.compile(List.of(
+            promotion(PromotionScope.CART, DiscountType.FIXED_AMOUNT, "10", null, null, null)
+        ), Instant.now()));
+
+        // When
+        cartPricingService.priceCart(cart, Map.of());
+
+        // Then
+        BigDecimal allocated = cart.getItems().stream()
+            .map(CartItem::getDiscountAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(allocated).isEqualByComparingTo("10.00");
+        assertThat(cart.getDiscountAmount()).isEqualByComparingTo("10.00");
+        // Tax is rounded per line: 3 x 0.67
+        assertThat(cart.getTaxAmount()).isEqualByComparingTo("2.01");
+        assertThat(cart.getTotalAmount())
+            .isEqualByComparingTo(cart.getSubtotalAmount().subtract(cart.getDiscountAmount()).add(cart.getTaxAmount()));
+    }
+
+    @Test
+    void priceCart_shouldZeroTotalsForEmptyCart() {
+        // Given
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.EMPTY);
+
+        // When
+        cartPricingService.priceCart(cart, Map.of());
+
+        // Then
+        assertThat(cart.getSubtotalAmount()).isEqualByComparingTo("0");
+        assertThat(cart.getTotalAmount()).isEqualByComparingTo("0");
+    }
+
+    private CartItem item(String sku, String unitPrice, int quantity) {
+        CartItem item = new CartItem();
+        item.setId(UUID.randomUUID());
+        item.setCart(cart);
+        item.setProductId(UUID.randomUUID());
+        item.setSku(sku);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private Promotion promotion(PromotionScope scope, DiscountType type, String value,
+                                String sku, UUID categoryId, String minCartAmount) {
+        Promotion promotion = new Promotion();
+        promotion.setName(scope + " " + type + " " + value);
+        promotion.setScope(scope);
+        promotion.setDiscountType(type);
+        promotion.setDiscountValue(new BigDecimal(value));
+        promotion.setSku(sku);
+        promotion.setCategoryId(categoryId);
+        promotion.setMinCartAmount(minCartAmount != null ? new BigDecimal(minCartAmount) : null);
+        return promotion;
+    }
+}
@@ -2,8 +2,15 @@ package com.ocommerce.services.cart.service;
 
 import com.ocommerce.services.cart.domain.Cart;
 import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.cart.dto.CartItemRequest;
 import com.ocommerce.services.cart.dto.ProductPricingInfo;
+import com.ocommerce.services.cart.exception.ProductValidationException;
 import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.ArchivedOrderItem;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
 import com.ocommerce.services.order.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,7 +22,10 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +47,9 @@ class CartServiceTest {
     @Mock
     private ProductValidationService productValidationService;
 
+    @Mock
+    private CartPricingService cartPricingService;
+
     @InjectMocks
     private CartService cartService;
 
@@ -118,6 +131,26 @@ class CartServiceTest {
         verify(productValidationService).validateStockAvailability(productId, variantId, 2);
     }
 
+    @Test
+    void addItem_shouldPriceCartWithProductCategories() {
+        // Given
+        UUID categoryId = UUID.randomUUID();
+        ProductResponse product = new ProductResponse();
+        product.setId(productId);
+        product.setCategoryIds(List.of(categoryId));
+        when(productValidationService.validateAndGetProductPricing(productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(productId, variantId, 2)).thenReturn(true);
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(Map.of(productId, product));
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+        // When
+        cartService.addItem(userId, productId, variantId, 2);
+
+        // Then
+        verify(cartPricingService).priceCart(cart, Map.of(productId, List.of(categoryId)));
+    }
+
     @Test
     void removeItem_shouldRemoveItemFromCart() {
         // Given
@@ -195,4 +228,235 @@ class CartServiceTest {
         assertThat(result.getBillingAddressId()).isEqualTo(addressId);
         verify(cartRepository).save(cart);
     }
+
+    @Test
+    void addItems_shouldCombineLinesAndValidateWithSingleCatalogQuery() {
+        // Given
+        cart.getItems().add(cartItem);
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 5)).thenReturn(true);
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+        // When
+        Cart result = cartService.addItems(userId, List.of(
+            cartItemRequest(productId, variantId, 1),
+            cartItemRequest(productId, variantId, 2)));
+
+        // Then
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(5);
+        assertThat(result.getItems().get(0).getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(500));
+        verify(productValidationService, times(1)).getProductsForValidation(any());
+        verify(productValidationService, never()).validateAndGetProductPricing(any(UUID.class), any());
+        verify(cartRepository, times(1)).save(cart);
+    }
+
+    @Test
+    void addItems_shouldFailWhenAnyLineIsOutOfStock() {
+        // Given
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 50)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.addItems(userId, List.of(cartItemRequest(productId, variantId, 50))))
+            .isInstanceOf(ProductValidationException.class);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void replaceItems_shouldDropLinesNotInRequest() {
+        // Given
+        UUID otherProductId = UUID.randomUUID();
+        cart.getItems().add(cartItem);
+        Map<UUID, ProductResponse> products = Map.of(otherProductId, new ProductResponse());
+        ProductPricingInfo otherPricing = ProductPricingInfo.builder()
+            .productId(otherProductId)
+            .productName("Other Product")
+            .price(BigDecimal.valueOf(10))
+            .build();
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(otherProductId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, otherProductId, null)).thenReturn(otherPricing);
+        when(productValidationService.validateStockAvailability(otherPricing, 3)).thenReturn(true);
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+        // When
+        Cart result = cartService.replaceItems(userId, List.of(cartItemRequest(otherProductId, null, 3)));
+
+        // Then
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getProductId()).isEqualTo(otherProductId);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(3);
+    }
+
+    @Test
+    void copyItemsFromOrder_shouldAddOrderItemsAndSkipUnavailableProducts() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        UUID discontinuedProductId = UUID.randomUUID();
+        Order order = new Order();
+        order.setId(orderId);
+        order.setItems(List.of(
+            orderItem(productId, variantId, 2),
+            orderItem(discontinuedProductId, null, 1)));
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+
+        when(orderService.getOrderById(orderId, userId)).thenReturn(Optional.of(order));
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(productId, discontinuedProductId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateAndGetProductPricing(products, discontinuedProductId, null))
+            .thenThrow(new ProductValidationException("Product not found: " + discontinuedProductId));
+        when(productValidationService.validateStockAvailability(pricingInfo, 2)).thenReturn(true);
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+        // When
+        Cart result = cartService.copyItemsFromOrder(userId, orderId);
+
+        // Then
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getProductId()).isEqualTo(productId);
+        verify(cartRepository, times(1)).save(cart);
+    }
+
+    @Test
+    void copyItemsFromOrder_shouldCopyItemsOfArchivedOrder() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        ArchivedOrderItem archivedItem = new ArchivedOrderItem();
+        archivedItem.setProductId(productId);
+        archivedItem.setVariantId(variantId);
+        archivedItem.setQuantity(2);
+        ArchivedOrder archivedOrder = new ArchivedOrder();
+        archivedOrder.setId(orderId);
+        archivedOrder.setItems(List.of(archivedItem));
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+
+        when(orderService.getOrderById(orderId, userId)).thenReturn(Optional.empty());
+        when(orderService.getArchivedOrder(orderId, userId)).thenReturn(Optional.of(archivedOrder));
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 2)).thenReturn(true);
+        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+
+        // When
+        Cart result = cartService.copyItemsFromOrder(userId, orderId);
+
+        // Then
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void copyItemsFromOrder_shouldThrowWhenOrderNotFound() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        when(orderService.getOrderById(orderId, userId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> cartService.copyItemsFromOrder(userId, orderId))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Order not found");
+    }
+
+    @Test
+    void mergeGuestCart_shouldCoalesceLinesWithSingleCatalogQuery() {
+        // Given
+        cart.getItems().add(cartItem);
+        Cart guestCart = guestCart(1, 2);
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+        when(cartRepository.findWithItemsById(guestCart.getId())).thenReturn(Optional.of(guestCart));
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 5)).thenReturn(true);
+
+        // When
+        cartService.mergeGuestCart(guestCart.getId(), userId);
+
+        // Then
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(5);
+        verify(productValidationService, times(1)).getProductsForValidation(any());
+        verify(productValidationService, never()).validateAndGetProductPricing(any(UUID.class), any());
+        verify(cartRepository).delete(guestCart);
+        verify(cartRepository).save(cart);
+    }
+
+    @Test
+    void mergeGuestCart_shouldCapQuantityAtAvailableStock() {
+        // Given
+        cart.getItems().add(cartItem);
+        Cart guestCart = guestCart(12);
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+        when(cartRepository.findWithItemsById(guestCart.getId())).thenReturn(Optional.of(guestCart));
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 14)).thenReturn(false);
+
+        // When
+        cartService.mergeGuestCart(guestCart.getId(), userId);
+
+        // Then
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(10);
+        verify(cartRepository).delete(guestCart);
+        verify(cartRepository).save(cart);
+    }
+
+    @Test
+    void mergeGuestCart_shouldDoNothingWhenGuestCartNotFound() {
+        // Given
+        UUID guestCartId = UUID.randomUUID();
+        when(cartRepository.findWithItemsById(guestCartId)).thenReturn(Optional.empty());
+
+        // When
+        cartService.mergeGuestCart(guestCartId, userId);
+
+        // Then
+        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository, never()).delete(any(Cart.class));
+    }
+
+    private CartItemRequest cartItemRequest(UUID productId, UUID variantId, int quantity) {
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(productId);
+        request.setVariantId(variantId);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private OrderItem orderItem(UUID productId, UUID variantId, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setVariantId(variantId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    // Guest cart with one line per quantity, all for the test product and variant
+    private Cart guestCart(int... quantities) {
+        Cart guestCart = new Cart();
+        guestCart.setId(UUID.randomUUID());
+        guestCart.setUserId(UUID.randomUUID());
+        guestCart.setItems(new ArrayList<>());
+        for (int quantity : quantities) {
+            CartItem item = new CartItem();
+            item.setCart(guestCart);
+            item.setProductId(productId);
+            item.setVariantId(variantId);
+            item.setQuantity(quantity);
+            item.setUnitPrice(BigDecimal.valueOf(100));
+            guestCart.getItems().add(item);
+        }
+        return guestCart;
+    }
 }
@@ -0,0 +1,92 @@
+package com.ocommerce.services.idempotency.repository;
+
+import com.ocommerce.services.idempotency.domain.IdempotencyRecord;
+import com.ocommerce.services.idempotency.domain.IdempotencyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class IdempotencyRecordRepositoryTest {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void saveAndFlush_shouldRejectSecondClaimOfSameKey() {
+        // Given
+        idempotencyRecordRepository.saveAndFlush(claim("key-1", Instant.now().plusSeconds(60)));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyRecordRepository.saveAndFlush(claim("key-1", Instant.now().plusSeconds(60))))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void complete_shouldOnlyCompleteClaimStillInProgress() {
+        // Given
+        IdempotencyRecord record = idempotencyRecordRepository.saveAndFlush(claim("key-1", Instant.now().plusSeconds(60)));
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        // When
+        int first = idempotencyRecordRepository.complete(record.getId(), 201, "{\"id\":1}", expiresAt);
+        int second = idempotencyRecordRepository.complete(record.getId(), 201, "{\"id\":2}", expiresAt);
+        entityManager.clear();
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        IdempotencyRecord stored = idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, "order.create", "key-1")
+            .orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+        assertThat(stored.getResponseStatus()).isEqualTo(201);
+        assertThat(stored.getResponseBody()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void deleteExpired_shouldOnlyRemoveExpiredKeys() {
+        // Given
+        idempotencyRecordRepository.save(claim("expired", Instant.now().minusSeconds(1)));
+        idempotencyRecordRepository.save(claim("live", Instant.now().plusSeconds(60)));
+        entityManager.flush();
+
+        // When
+        int deleted = idempotencyRecordRepository.deleteExpired(Instant.now());
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, "order.create", "live"))
+            .isPresent();
+    }
+
+    private IdempotencyRecord claim(String key, Instant expiresAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setScope("order.create");
+        record.setIdempotencyKey(key);
+        record.setRequestHash("a".repeat(64));
+        record.setExpiresAt(expiresAt);
+        return record;
+    }
+}
@@ -0,0 +1,223 @@
+package com.ocommerce.services.idempotency.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.idempotency.domain.IdempotencyRecord;
+import com.ocommerce.services.idempotency.domain.IdempotencyStatus;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyInProgressException;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyMismatchException;
+import com.ocommerce.services.idempotency.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "order.create";
+    private static final String KEY = "retry-key-1";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyService idempotencyService;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper, transactionManager,
+            meterRegistry, 24, 60, 5_000);
+        userId = UUID.randomUUID();
+        lenient().when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            record.setId(UUID.randomUUID());
+            return record;
+        });
+        lenient().when(idempotencyRecordRepository.complete(any(), anyInt(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void execute_shouldRunConcurrentDuplicatesOnce() throws Exception {
+        // Given
+        int requests = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        List<Future<IdempotentResponse<Map>>> futures = new ArrayList<>();
+
+        // When
+        try {
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> idempotencyService.execute(userId, SCOPE, KEY, Map.of("cart", 1),
+                    201, Map.class, () -> {
+                        executions.incrementAndGet();
+                        await(release);
+                        return Map.of("orderId", "order-1");
+                    })));
+            }
+            // Let every duplicate reach the single-flight before the first execution finishes
+            Thread.sleep(200);
+            release.countDown();
+
+            // Then
+            int replayed = 0;
+            for (Future<IdempotentResponse<Map>> future : futures) {
+                IdempotentResponse<Map> response = future.get(5, TimeUnit.SECONDS);
+                assertThat(response.status()).isEqualTo(201);
+                assertThat(response.body()).containsEntry("orderId", "order-1");
+                replayed += response.replayed() ? 1 : 0;
+            }
+            assertThat(executions).hasValue(1);
+            assertThat(replayed).isEqualTo(requests - 1);
+            verify(idempotencyRecordRepository, times(1)).saveAndFlush(any());
+            verify(idempotencyRecordRepository, times(1)).complete(any(), eq(201), eq("{\"orderId\":\"order-1\"}"), any());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponseWithoutRunningAction() throws Exception {
+        // Given
+        IdempotencyRecord completed = record(IdempotencyStatus.COMPLETED, hashOf(Map.of("cart", 1)));
+        completed.setResponseStatus(201);
+        completed.setResponseBody("{\"orderId\":\"order-1\"}");
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, SCOPE, KEY))
+            .thenReturn(Optional.of(completed));
+
+        // When
+        IdempotentResponse<Map> response = idempotencyService.execute(userId, SCOPE, KEY, Map.of("cart", 1),
+            201, Map.class, () -> {
+                throw new AssertionError("must not run");
+            });
+
+        // Then
+        assertThat(response.replayed()).isTrue();
+        assertThat(response.body()).containsEntry("orderId", "order-1");
+        assertThat(meterRegistry.get("idempotency.replayed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_shouldRejectKeyReusedForDifferentRequest() throws Exception {
+        // Given
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, SCOPE, KEY))
+            .thenReturn(Optional.of(record(IdempotencyStatus.COMPLETED, hashOf(Map.of("cart", 1)))));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.execute(userId, SCOPE, KEY, Map.of("cart", 2),
+            201, Map.class, Map::of))
+            .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    void execute_shouldRejectKeyClaimedByAnotherInstance() throws Exception {
+        // Given
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, SCOPE, KEY))
+            .thenReturn(Optional.of(record(IdempotencyStatus.IN_PROGRESS, hashOf(null))));
+
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.execute(userId, SCOPE, KEY, null, 200, Void.class, () -> null))
+            .isInstanceOf(IdempotencyKeyInProgressException.class);
+    }
+
+    @Test
+    void execute_shouldTakeOverExpiredClaim() throws Exception {
+        // Given
+        IdempotencyRecord abandoned = record(IdempotencyStatus.IN_PROGRESS, hashOf(null));
+        abandoned.setExpiresAt(Instant.now().minusSeconds(1));
+        when(idempotencyRecordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, SCOPE, KEY))
+            .thenReturn(Optional.of(abandoned));
+
+        // When
+        IdempotentResponse<Void> response = idempotencyService.execute(userId, SCOPE, KEY, null, 200, Void.class, () -> null);
+
+        // Then
+        assertThat(response.replayed()).isFalse();
+        verify(idempotencyRecordRepository).delete(abandoned);
+        verify(idempotencyRecordRepository).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_shouldReleaseKeyWhenActionFails() {
+        // When & Then
+        assertThatThrownBy(() -> idempotencyService.execute(userId, SCOPE, KEY, null, 200, Void.class, () -> {
+            throw new RuntimeException("Cart is empty");
+        })).hasMessage("Cart is empty");
+        verify(idempotencyRecordRepository).deleteById(any());
+        verify(idempotencyRecordRepository, never()).complete(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void execute_shouldRunActionDirectlyWithoutKey() {
+        // When
+        IdempotentResponse<String> response = idempotencyService.execute(userId, SCOPE, null, null, 200, String.class, () -> "done");
+
+        // Then
+        assertThat(response.body()).isEqualTo("done");
+        assertThat(response.replayed()).isFalse();
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void execute_shouldRejectOverlongKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(userId, SCOPE, "k".repeat(256), null, 200, String.class, () -> "done"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private IdempotencyRecord record(IdempotencyStatus status, String requestHash) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setId(UUID.randomUUID());
+        record.setUserId(userId);
+        record.setScope(SCOPE);
+        record.setIdempotencyKey(KEY);
+        record.setRequestHash(requestHash);
+        record.setStatus(status);
+        record.setExpiresAt(Instant.now().plusSeconds(60));
+        return record;
+    }
+
+    // Same fingerprint the service computes: SHA-256 of the JSON request body
+    private String hashOf(Object request) throws Exception {
+        byte[] content = request == null ? new byte[0] : objectMapper.writeValueAsBytes(request);
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,22 +2,41 @@ package com.ocommerce.services.order.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ocommerce.services.config.WithCustomUser;
+import com.ocommerce.services.idempotency.service.IdempotencyService;
+import com.ocommerce.services.idempotency.service.IdempotentResponse;
+import com.ocommerce.services.order.domain.ArchivedOrder;
 import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.domain.OrderIntentStatus;
 import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.dto.BulkStatusTransitionRequest;
+import com.ocommerce.services.order.dto.BulkStatusTransitionResponse;
 import com.ocommerce.services.order.dto.CreateOrderRequest;
+import com.ocommerce.services.order.dto.OrderIntentResponse;
 import com.ocommerce.services.order.dto.OrderResponse;
+import com.ocommerce.services.order.dto.OrderSliceResponse;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import com.ocommerce.services.order.dto.OrderTransitionOutcome;
 import com.ocommerce.services.order.mapper.OrderMapper;
+import com.ocommerce.services.order.service.OrderCursor;
+import com.ocommerce.services.order.service.OrderPlacementService;
 import com.ocommerce.services.order.service.OrderService;
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,6 +47,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static com.ocommerce.services.user.UserConstants.*;
 import static com.ocommerce.services.user.UserConstants.ACCOUNT_ENABLED;
@@ -35,13 +55,17 @@ import static com.ocommerce.services.user.UserConstants.EMAIL_VERIFIED;
 import static com.ocommerce.services.user.UserConstants.LAST_NAME;
 import static com.ocommerce.services.user.UserConstants.PHONE_NUMBER;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OrderController.class)
+@Import(OrderControllerTest.MethodSecurityConfig.class)
 @ActiveProfiles("test")
 @WithCustomUser(email = EMAIL, userId = USER_ID,
         firstName = FIRST_NAME,
@@ -51,6 +75,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         emailVerified = EMAIL_VERIFIED)
 class OrderControllerTest {
 
+    // Method security is configured in SecurityConfig, which the MVC slice does not load
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurityConfig {
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -60,12 +90,27 @@ class OrderControllerTest {
     @MockBean
     private OrderMapper orderMapper;
 
+    @MockBean
+    private OrderPlacementService orderPlacementService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     private Order order;
     private OrderResponse OrderResponse;
     private CreateOrderRequest CreateOrderRequest;
@@ -74,6 +119,10 @@ class OrderControllerTest {
     @BeforeEach
     void setUp() {
         userId = UUID.fromString(USER_ID);
+        // Run requests straight through; deduplication itself is covered by IdempotencyServiceTest
+        when(idempotencyService.execute(any(), any(), any(), any(), anyInt(), any(), any()))
+            .thenAnswer(invocation -> new IdempotentResponse<>(invocation.getArgument(4),
+                invocation.<Supplier<?>>getArgument(6).get(), false));
 
         order = new Order();
         order.setId(UUID.randomUUID());
@@ -117,6 +166,25 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.orderStatus").value("PENDING"));
     }
 
+    @Test
+    void createOrder_shouldReplayResponseForRepeatedIdempotencyKey() throws Exception {
+        // Given
+        doReturn(new IdempotentResponse<>(201, OrderResponse, true)).when(idempotencyService)
+            .execute(eq(userId), eq("order.create"), eq("retry-key-1"), any(), eq(201), eq(OrderResponse.class), any());
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/orders")
+                        .with(csrf())
+                        .header("Idempotency-Key", "retry-key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CreateOrderRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(OrderResponse.getId().toString()));
+
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     void createOrder_shouldReturn400ForInvalidRequest() throws Exception {
         // Given
@@ -157,14 +225,28 @@ class OrderControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getOrder_shouldFallBackToArchivedOrder() throws Exception {
+        // Given
+        ArchivedOrder archivedOrder = new ArchivedOrder();
+        archivedOrder.setId(order.getId());
+        archivedOrder.setUserId(userId);
+        when(orderService.getOrderById(order.getId(), userId)).thenReturn(Optional.empty());
+        when(orderService.getArchivedOrder(order.getId(), userId)).thenReturn(Optional.of(archivedOrder));
+        when(orderMapper.toOrderResponse(archivedOrder)).thenReturn(OrderResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(order.getId().toString()));
+    }
+
     @Test
     void getUserOrders_shouldReturnPagedOrders() throws Exception {
         // Given
-        Page<Order> orderPage = new PageImpl<>(List.of(order), PageRequest.of(0, 10), 1);
         Page<OrderResponse> responsePage = new PageImpl<>(List.of(OrderResponse), PageRequest.of(0, 10), 1);
 
-        when(orderService.getUserOrders(eq(userId), any())).thenReturn(orderPage);
-        when(orderMapper.toOrderResponse(order)).thenReturn(OrderResponse);
+        when(orderService.getUserOrders(eq(userId), any())).thenReturn(responsePage);
 
         // When & Then
         mockMvc.perform(get("/api/v1/orders")
@@ -176,6 +258,138 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(OrderResponse.getId().toString()));
     }
 
+    @Test
+    void getUserOrderSummaries_shouldReturnPagedSummaries() throws Exception {
+        // Given
+        OrderSummaryResponse summary = new OrderSummaryResponse(
+            order.getId(), OrderStatus.PENDING, BigDecimal.valueOf(200), 2, Instant.now());
+        when(orderService.getUserOrderSummaries(eq(userId), any()))
+            .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/summary")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(order.getId().toString()))
+                .andExpect(jsonPath("$.content[0].itemCount").value(2))
+                .andExpect(jsonPath("$.content[0].items").doesNotExist());
+    }
+
+    @Test
+    void getUserOrderHistory_shouldReturnSliceWithNextCursor() throws Exception {
+        // Given
+        when(orderService.getUserOrderSlice(userId, null, 1))
+            .thenReturn(new OrderSliceResponse(List.of(OrderResponse), OrderCursor.of(order).encode(), true));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/history")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(order.getId().toString()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(OrderCursor.of(order).encode()))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getUserOrderHistory_shouldOmitCursorOnLastSlice() throws Exception {
+        // Given
+        String cursor = OrderCursor.of(order).encode();
+        when(orderService.getUserOrderSlice(userId, cursor, 10))
+            .thenReturn(new OrderSliceResponse(List.of(), null, false));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/history")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void countUserOrders_shouldReturnCount() throws Exception {
+        // Given
+        when(orderService.countUserOrders(userId)).thenReturn(7L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(7));
+    }
+
+    @Test
+    void getOrderIntent_shouldReturnCompletedIntent() throws Exception {
+        // Given
+        OrderIntent intent = new OrderIntent();
+        intent.setId(UUID.randomUUID());
+        intent.setUserId(userId);
+        OrderIntentResponse intentResponse = new OrderIntentResponse();
+        intentResponse.setId(intent.getId());
+        intentResponse.setStatus(OrderIntentStatus.COMPLETED);
+        intentResponse.setOrderId(order.getId());
+        when(orderPlacementService.getOrderIntent(intent.getId(), userId)).thenReturn(Optional.of(intent));
+        when(orderMapper.toOrderIntentResponse(intent)).thenReturn(intentResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/intents/{intentId}", intent.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.orderId").value(order.getId().toString()));
+    }
+
+    @Test
+    void getOrderIntent_shouldReturn404ForUnknownIntent() throws Exception {
+        // Given
+        UUID intentId = UUID.randomUUID();
+        when(orderPlacementService.getOrderIntent(intentId, userId)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/orders/intents/{intentId}", intentId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ORDER_ADMIN")
+    void transitionOrderStatuses_shouldReturnPerOrderOutcomes() throws Exception {
+        // Given
+        UUID missingId = UUID.randomUUID();
+        BulkStatusTransitionRequest request = new BulkStatusTransitionRequest();
+        request.setOrderIds(List.of(order.getId(), missingId));
+        request.setTargetStatus(OrderStatus.SHIPPED);
+        when(orderService.transitionOrderStatuses(request.getOrderIds(), OrderStatus.SHIPPED))
+            .thenReturn(new BulkStatusTransitionResponse(OrderStatus.SHIPPED, 1, List.of(
+                new OrderTransitionOutcome(order.getId(), OrderTransitionOutcome.Result.TRANSITIONED, OrderStatus.CONFIRMED),
+                new OrderTransitionOutcome(missingId, OrderTransitionOutcome.Result.NOT_FOUND, null))));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/orders/status/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transitioned").value(1))
+                .andExpect(jsonPath("$.outcomes[0].result").value("TRANSITIONED"))
+                .andExpect(jsonPath("$.outcomes[1].result").value("NOT_FOUND"));
+    }
+
+    @Test
+    void transitionOrderStatuses_shouldRequireOrderAdminAuthority() throws Exception {
+        // Given
+        BulkStatusTransitionRequest request = new BulkStatusTransitionRequest();
+        request.setOrderIds(List.of(order.getId()));
+        request.setTargetStatus(OrderStatus.SHIPPED);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/orders/status/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(orderService);
+    }
+
     @Test
     void cancelOrder_shouldCancelOrderSuccessfully() throws Exception {
         // Given
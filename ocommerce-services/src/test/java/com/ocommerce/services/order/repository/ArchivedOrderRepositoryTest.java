@@ -0,0 +1,131 @@
+package com.ocommerce.services.order.repository;
+
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.ArchivedOrderItem;
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.domain.PaymentStatus;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ArchivedOrderRepositoryTest {
+
+    private static final Instant BASE = Instant.parse("2023-06-01T00:00:00Z");
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void findHistoryPage_shouldApplyOffsetWithinTheArchive() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        ArchivedOrder oldest = persistOrder(userId, BASE);
+        ArchivedOrder middle = persistOrder(userId, BASE.plusSeconds(60));
+        persistOrder(userId, BASE.plusSeconds(120));
+        persistOrder(UUID.randomUUID(), BASE.plusSeconds(90));
+
+        // When
+        List<ArchivedOrder> page = archivedOrderRepository.findHistoryPage(userId, 1, 5);
+
+        // Then
+        assertThat(page).extracting(ArchivedOrder::getId).containsExactly(middle.getId(), oldest.getId());
+        assertThat(archivedOrderRepository.countByUserId(userId)).isEqualTo(3);
+    }
+
+    @Test
+    void findOrderSliceAfter_shouldContinueAfterPosition() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        ArchivedOrder oldest = persistOrder(userId, BASE);
+        ArchivedOrder newest = persistOrder(userId, BASE.plusSeconds(60));
+
+        // When
+        Slice<ArchivedOrder> slice = archivedOrderRepository.findOrderSliceAfter(
+            userId, newest.getCreatedAt(), newest.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(slice.getContent()).extracting(ArchivedOrder::getId).containsExactly(oldest.getId());
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    void findSummariesByIdIn_shouldCountItems() {
+        // Given
+        ArchivedOrder order = persistOrder(UUID.randomUUID(), BASE);
+        persistItem(order);
+        persistItem(order);
+        entityManager.clear();
+
+        // When
+        List<OrderSummaryResponse> summaries = archivedOrderRepository.findSummariesByIdIn(List.of(order.getId()));
+
+        // Then
+        assertThat(summaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getId()).isEqualTo(order.getId());
+            assertThat(summary.getItemCount()).isEqualTo(2);
+            assertThat(summary.getOrderStatus()).isEqualTo(OrderStatus.DELIVERED);
+        });
+    }
+
+    @Test
+    void updatePaymentStatus_shouldRecordRefundOnArchivedOrder() {
+        // Given
+        ArchivedOrder order = persistOrder(UUID.randomUUID(), BASE);
+        entityManager.clear();
+
+        // When
+        int updated = archivedOrderRepository.updatePaymentStatus(order.getId(), PaymentStatus.REFUNDED.name(), Instant.now());
+        int missing = archivedOrderRepository.updatePaymentStatus(UUID.randomUUID(), PaymentStatus.REFUNDED.name(), Instant.now());
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(entityManager.find(ArchivedOrder.class, order.getId()).getPaymentStatus()).isEqualTo(PaymentStatus.REFUNDED);
+    }
+
+    private ArchivedOrder persistOrder(UUID userId, Instant createdAt) {
+        ArchivedOrder order = new ArchivedOrder();
+        order.setId(UUID.randomUUID());
+        order.setUserId(userId);
+        order.setShippingAddressId(UUID.randomUUID());
+        order.setBillingAddressId(UUID.randomUUID());
+        order.setOrderStatus(OrderStatus.DELIVERED);
+        order.setPaymentStatus(PaymentStatus.COMPLETED);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(createdAt);
+        order.setArchivedAt(Instant.now());
+        return entityManager.persistAndFlush(order);
+    }
+
+    private void persistItem(ArchivedOrder order) {
+        ArchivedOrderItem item = new ArchivedOrderItem();
+        item.setId(UUID.randomUUID());
+        item.setOrder(order);
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("5.00"));
+        item.setTotalPrice(new BigDecimal("5.00"));
+        item.setProductName("Archived product");
+        item.setSku("SKU");
+        item.setOrderCreatedAt(order.getCreatedAt());
+        entityManager.persistAndFlush(item);
+    }
+}
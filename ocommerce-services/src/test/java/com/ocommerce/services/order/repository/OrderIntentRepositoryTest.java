@@ -0,0 +1,92 @@
+package com.ocommerce.services.order.repository;
+
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.domain.OrderIntentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OrderIntentRepositoryTest {
+
+    @Autowired
+    private OrderIntentRepository orderIntentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void transition_shouldClaimIntentOnlyOnce() {
+        // Given
+        OrderIntent intent = entityManager.persistFlushFind(intent());
+
+        // When
+        int first = orderIntentRepository.transition(
+            intent.getId(), OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING, Instant.now());
+        int second = orderIntentRepository.transition(
+            intent.getId(), OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING, Instant.now());
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        entityManager.clear();
+        assertThat(orderIntentRepository.findById(intent.getId()).orElseThrow().getStatus())
+            .isEqualTo(OrderIntentStatus.PROCESSING);
+    }
+
+    @Test
+    void markCompleted_shouldNotCompleteFailedIntent() {
+        // Given
+        OrderIntent intent = intent();
+        intent.setStatus(OrderIntentStatus.FAILED);
+        intent = entityManager.persistFlushFind(intent);
+
+        // When
+        int updated = orderIntentRepository.markCompleted(intent.getId(), UUID.randomUUID(),
+            OrderIntentStatus.PROCESSING, OrderIntentStatus.COMPLETED, Instant.now());
+
+        // Then
+        assertThat(updated).isZero();
+    }
+
+    @Test
+    void findByStatusInAndUpdatedAtBefore_shouldReturnOnlyStaleInFlightIntents() {
+        // Given
+        OrderIntent queued = entityManager.persist(intent());
+        OrderIntent completed = intent();
+        completed.setStatus(OrderIntentStatus.COMPLETED);
+        entityManager.persist(completed);
+        entityManager.flush();
+
+        // When
+        List<OrderIntent> stale = orderIntentRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAt(
+            EnumSet.of(OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING), Instant.now().plusSeconds(1),
+            PageRequest.of(0, 10));
+        List<OrderIntent> fresh = orderIntentRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAt(
+            EnumSet.of(OrderIntentStatus.QUEUED, OrderIntentStatus.PROCESSING), Instant.now().minusSeconds(60),
+            PageRequest.of(0, 10));
+
+        // Then
+        assertThat(stale).extracting(OrderIntent::getId).containsExactly(queued.getId());
+        assertThat(fresh).isEmpty();
+    }
+
+    private static OrderIntent intent() {
+        OrderIntent intent = new OrderIntent();
+        intent.setUserId(UUID.randomUUID());
+        intent.setShippingAddressId(UUID.randomUUID());
+        intent.setBillingAddressId(UUID.randomUUID());
+        return intent;
+    }
+}
@@ -4,29 +4,39 @@ import com.ocommerce.services.order.domain.Order;
 import com.ocommerce.services.order.domain.OrderItem;
 import com.ocommerce.services.order.domain.OrderStatus;
 import com.ocommerce.services.order.domain.PaymentStatus;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @ActiveProfiles("test")
 class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private UUID userId;
     private Order order1;
     private Order order2;
@@ -115,6 +125,19 @@ class OrderRepositoryTest {
         assertThat(result.get().getUserId()).isEqualTo(userId);
     }
 
+    @Test
+    void findByIdForUpdate_shouldLockAndReturnOrder() {
+        // Given
+        Order savedOrder = orderRepository.saveAndFlush(order1);
+
+        // When
+        Optional<Order> result = orderRepository.findByIdForUpdate(savedOrder.getId());
+
+        // Then
+        assertThat(result).map(Order::getId).contains(savedOrder.getId());
+        assertThat(orderRepository.findByIdForUpdate(UUID.randomUUID())).isEmpty();
+    }
+
     @Test
     void findByIdAndUserId_shouldReturnEmptyWhenUserDoesNotOwnOrder() {
         // Given
@@ -180,4 +203,119 @@ class OrderRepositoryTest {
         // Then
         assertThat(totalAmount).isEqualTo(BigDecimal.valueOf(200)); // 2 * 100
     }
+
+    @Test
+    void orderHistoryPage_shouldLoadItemsWithConstantNumberOfStatements() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(orderWithItems(3));
+        }
+        Statistics statistics = clearedStatistics();
+
+        // When
+        Page<Order> page = orderRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, 10));
+        List<Order> orders = orderRepository.findWithItemsByIdIn(page.map(Order::getId).getContent());
+        int itemCount = orders.stream().mapToInt(order -> order.getItems().size()).sum();
+
+        // Then
+        assertThat(orders).hasSize(5);
+        assertThat(itemCount).isEqualTo(15);
+        // One page query and one items query, independent of the number of orders
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void findSummariesByUserId_shouldNotLoadItems() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(orderWithItems(i + 1));
+        }
+        Statistics statistics = clearedStatistics();
+
+        // When
+        Page<OrderSummaryResponse> page = orderRepository.findSummariesByUserId(userId, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getContent()).extracting(OrderSummaryResponse::getItemCount)
+            .containsExactlyInAnyOrder(1, 2, 3, 4, 5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void orderSlices_shouldWalkHistoryByKeysetWithoutGapsOrCount() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(orderWithItems(1));
+        }
+        Statistics statistics = clearedStatistics();
+        Pageable pageable = PageRequest.of(0, 2);
+
+        // When
+        List<UUID> seen = new ArrayList<>();
+        Slice<Order> slice = orderRepository.findFirstOrderSlice(userId, pageable);
+        seen.addAll(slice.map(Order::getId).getContent());
+        while (slice.hasNext()) {
+            Order last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            slice = orderRepository.findOrderSliceAfter(userId, last.getCreatedAt(), last.getId(), pageable);
+            seen.addAll(slice.map(Order::getId).getContent());
+        }
+
+        // Then
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+        // Three slices (2 + 2 + 1) and no count query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void transitionStatus_shouldOnlyUpdateOrdersInAllowedPredecessorStatus() {
+        // Given
+        order1.setOrderStatus(OrderStatus.CONFIRMED);
+        order2.setOrderStatus(OrderStatus.CANCELLED);
+        UUID confirmedId = orderRepository.save(order1).getId();
+        UUID cancelledId = orderRepository.save(order2).getId();
+        List<UUID> ids = List.of(confirmedId, cancelledId);
+        assertThat(orderRepository.findAllByIdInForUpdate(ids)).hasSize(2);
+
+        // When
+        int updated = orderRepository.transitionStatus(
+            ids, OrderStatus.SHIPPED.predecessors(), OrderStatus.SHIPPED, Instant.now());
+
+        // Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(orderRepository.findById(confirmedId)).get()
+            .extracting(Order::getOrderStatus).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(orderRepository.findById(cancelledId)).get()
+            .extracting(Order::getOrderStatus).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    private Order orderWithItems(int itemCount) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setShippingAddressId(UUID.randomUUID());
+        order.setBillingAddressId(UUID.randomUUID());
+        order.setTotalAmount(BigDecimal.valueOf(10L * itemCount));
+        order.setItems(new ArrayList<>());
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProductId(UUID.randomUUID());
+            item.setQuantity(1);
+            item.setUnitPrice(BigDecimal.TEN);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+
+    // Flush pending inserts, empty the persistence context and reset the statement counters
+    private Statistics clearedStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
 }
@@ -0,0 +1,136 @@
+package com.ocommerce.services.order.service;
+
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderArchivalService.class, OrderArchivePartitionManager.class, OrderArchivalServiceTest.MetricsConfig.class})
+@TestPropertySource(properties = {
+    "app.orders.archive.after-months=6",
+    "app.orders.archive.chunk-size=2"
+})
+class OrderArchivalServiceTest {
+
+    @Autowired
+    private OrderArchivalService orderArchivalService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UUID userId;
+    private Instant longAgo;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        longAgo = Instant.now().minus(300, ChronoUnit.DAYS);
+    }
+
+    @Test
+    void archiveClosedOrders_shouldMoveOldClosedOrdersWithItemsInChunks() {
+        // Given
+        Order delivered = persistOrder(OrderStatus.DELIVERED, longAgo);
+        Order cancelled = persistOrder(OrderStatus.CANCELLED, longAgo.plusSeconds(1));
+        Order alsoDelivered = persistOrder(OrderStatus.DELIVERED, longAgo.plusSeconds(2));
+
+        // When
+        int archived = orderArchivalService.archiveClosedOrders();
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        entityManager.clear();
+        assertThat(orderRepository.findAllById(List.of(delivered.getId(), cancelled.getId(), alsoDelivered.getId())))
+            .isEmpty();
+        ArchivedOrder archivedOrder = archivedOrderRepository.findWithItemsByIdAndUserId(delivered.getId(), userId)
+            .orElseThrow();
+        assertThat(archivedOrder.getOrderStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(archivedOrder.getCreatedAt()).isCloseTo(longAgo, within(1, ChronoUnit.MILLIS));
+        assertThat(archivedOrder.getArchivedAt()).isNotNull();
+        assertThat(archivedOrder.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getQuantity()).isEqualTo(2);
+            assertThat(item.getTotalPrice()).isEqualByComparingTo("20.00");
+            assertThat(item.getOrderCreatedAt()).isEqualTo(archivedOrder.getCreatedAt());
+        });
+    }
+
+    @Test
+    void archiveClosedOrders_shouldKeepOpenAndRecentOrders() {
+        // Given
+        Order shipped = persistOrder(OrderStatus.SHIPPED, longAgo);
+        Order recentlyDelivered = persistOrder(OrderStatus.DELIVERED, Instant.now().minus(10, ChronoUnit.DAYS));
+
+        // When
+        int archived = orderArchivalService.archiveClosedOrders();
+
+        // Then
+        assertThat(archived).isZero();
+        entityManager.clear();
+        assertThat(orderRepository.findAllById(List.of(shipped.getId(), recentlyDelivered.getId()))).hasSize(2);
+        assertThat(archivedOrderRepository.count()).isZero();
+    }
+
+    private Order persistOrder(OrderStatus status, Instant createdAt) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setShippingAddressId(UUID.randomUUID());
+        order.setBillingAddressId(UUID.randomUUID());
+        order.setOrderStatus(status);
+        order.setTotalAmount(BigDecimal.valueOf(20));
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProductId(UUID.randomUUID());
+        item.setQuantity(2);
+        item.setUnitPrice(BigDecimal.TEN);
+        order.setItems(new ArrayList<>(List.of(item)));
+        entityManager.persistAndFlush(order);
+        // created_at is not updatable through the entity
+        entityManager.getEntityManager()
+            .createNativeQuery("UPDATE orders SET created_at = :createdAt WHERE id = :id")
+            .setParameter("createdAt", createdAt)
+            .setParameter("id", order.getId())
+            .executeUpdate();
+        entityManager.clear();
+        return order;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ocommerce.services.order.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchivePartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ensurePartitions_shouldCreateMonthlyPartitionsOfBothArchiveTablesOnce() {
+        // Given
+        OrderArchivePartitionManager manager = new OrderArchivePartitionManager(jdbcTemplate, true);
+
+        // When
+        manager.ensurePartitions(Instant.parse("2023-12-20T10:00:00Z"), Instant.parse("2024-01-05T00:00:00Z"));
+        manager.ensurePartitions(Instant.parse("2024-01-01T00:00:00Z"), Instant.parse("2024-01-31T00:00:00Z"));
+
+        // Then
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS orders_archive_p2023_12 PARTITION OF orders_archive " +
+            "FOR VALUES FROM ('2023-12-01 00:00:00+00') TO ('2024-01-01 00:00:00+00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS order_items_archive_p2023_12 PARTITION OF order_items_archive " +
+            "FOR VALUES FROM ('2023-12-01 00:00:00+00') TO ('2024-01-01 00:00:00+00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS orders_archive_p2024_01 PARTITION OF orders_archive " +
+            "FOR VALUES FROM ('2024-01-01 00:00:00+00') TO ('2024-02-01 00:00:00+00')");
+        verify(jdbcTemplate, times(4)).execute(anyString());
+    }
+
+    @Test
+    void ensurePartitions_shouldDoNothingWhenDisabled() {
+        // Given
+        OrderArchivePartitionManager manager = new OrderArchivePartitionManager(jdbcTemplate, false);
+
+        // When
+        manager.ensurePartitions(Instant.parse("2023-12-20T10:00:00Z"), Instant.parse("2024-01-05T00:00:00Z"));
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
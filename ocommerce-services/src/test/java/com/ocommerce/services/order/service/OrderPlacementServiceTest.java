@@ -0,0 +1,293 @@
+package com.ocommerce.services.order.service;
+
+import com.ocommerce.services.cart.domain.Cart;
+import com.ocommerce.services.cart.domain.CartItem;
+import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderIntent;
+import com.ocommerce.services.order.domain.OrderIntentStatus;
+import com.ocommerce.services.order.exception.OrderPlacementRejectedException;
+import com.ocommerce.services.order.repository.OrderIntentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPlacementServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private OrderIntentRepository orderIntentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderPlacementService orderPlacementService;
+    private Map<UUID, OrderIntent> intents;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        orderPlacementService = new OrderPlacementService(orderService, cartRepository, orderIntentRepository,
+            transactionManager, meterRegistry, 1, 1, 300, 100);
+
+        // Keep saved intents in memory so workers can load them back
+        intents = new ConcurrentHashMap<>();
+        lenient().when(orderIntentRepository.save(any(OrderIntent.class))).thenAnswer(invocation -> {
+            OrderIntent intent = invocation.getArgument(0);
+            if (intent.getId() == null) {
+                intent.setId(UUID.randomUUID());
+            }
+            intents.put(intent.getId(), intent);
+            return intent;
+        });
+        lenient().when(orderIntentRepository.findById(any())).thenAnswer(invocation ->
+            Optional.ofNullable(intents.get(invocation.<UUID>getArgument(0))));
+        lenient().when(orderIntentRepository.findFirstByUserIdAndStatusIn(any(), anyCollection())).thenReturn(Optional.empty());
+        // Conditional updates applied to the in-memory intents
+        lenient().when(orderIntentRepository.transition(any(), any(), any(), any())).thenAnswer(invocation -> {
+            OrderIntent intent = intents.get(invocation.<UUID>getArgument(0));
+            if (intent == null || intent.getStatus() != invocation.getArgument(1)) {
+                return 0;
+            }
+            intent.setStatus(invocation.getArgument(2));
+            return 1;
+        });
+        lenient().when(orderIntentRepository.markCompleted(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            OrderIntent intent = intents.get(invocation.<UUID>getArgument(0));
+            if (intent.getStatus() != invocation.getArgument(2)) {
+                return 0;
+            }
+            intent.setStatus(invocation.getArgument(3));
+            intent.setOrderId(invocation.getArgument(1));
+            return 1;
+        });
+        lenient().when(orderIntentRepository.markFailed(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            OrderIntent intent = intents.get(invocation.<UUID>getArgument(0));
+            if (intent.getStatus() != invocation.getArgument(1)) {
+                return 0;
+            }
+            intent.setStatus(invocation.getArgument(2));
+            intent.setFailureReason(invocation.getArgument(3));
+            return 1;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderPlacementService.shutdown();
+    }
+
+    @Test
+    void submit_shouldQueueIntentAndPlaceOrderInBackground() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        Cart cart = checkoutReadyCart(userId);
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        when(cartRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(cart));
+        when(orderService.createOrderFromCart(userId, cart.getShippingAddressId(), cart.getBillingAddressId()))
+            .thenReturn(order);
+
+        // When
+        OrderIntent intent = orderPlacementService.submit(userId);
+
+        // Then
+        assertThat(intent.getId()).isNotNull();
+        verify(orderIntentRepository, timeout(2000)).markCompleted(eq(intent.getId()), eq(order.getId()), any(), any(), any());
+        assertThat(intent.getStatus()).isEqualTo(OrderIntentStatus.COMPLETED);
+        assertThat(intent.getOrderId()).isEqualTo(order.getId());
+        assertThat(meterRegistry.get("order.placement.duration").tag("outcome", "completed").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("order.placement.queue.wait").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void place_shouldMarkIntentFailedWhenOrderCannotBeCreated() {
+        // Given
+        OrderIntent intent = orderIntentRepository.save(intent(UUID.randomUUID()));
+        when(orderService.createOrderFromCart(any(), any(), any()))
+            .thenThrow(new RuntimeException("Insufficient stock for product"));
+
+        // When
+        orderPlacementService.place(intent.getId(), System.nanoTime());
+
+        // Then
+        assertThat(intent.getStatus()).isEqualTo(OrderIntentStatus.FAILED);
+        assertThat(intent.getFailureReason()).isEqualTo("Insufficient stock for product");
+        assertThat(intent.getOrderId()).isNull();
+        assertThat(meterRegistry.get("order.placement.duration").tag("outcome", "failed").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void place_shouldSkipIntentAlreadyClaimed() {
+        // Given
+        OrderIntent intent = orderIntentRepository.save(intent(UUID.randomUUID()));
+        intent.setStatus(OrderIntentStatus.PROCESSING);
+
+        // When
+        orderPlacementService.place(intent.getId(), System.nanoTime());
+
+        // Then
+        verifyNoInteractions(orderService);
+        assertThat(intent.getStatus()).isEqualTo(OrderIntentStatus.PROCESSING);
+        assertThat(meterRegistry.get("order.placement.duration").tag("outcome", "skipped").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void place_shouldRollBackOrderWhenIntentWasFailedMeanwhile() {
+        // Given
+        OrderIntent intent = orderIntentRepository.save(intent(UUID.randomUUID()));
+        when(orderService.createOrderFromCart(any(), any(), any())).thenAnswer(invocation -> {
+            // Recovery on another instance gives up on the intent while the order is being placed
+            intent.setStatus(OrderIntentStatus.FAILED);
+            Order order = new Order();
+            order.setId(UUID.randomUUID());
+            return order;
+        });
+
+        // When
+        orderPlacementService.place(intent.getId(), System.nanoTime());
+
+        // Then
+        assertThat(intent.getStatus()).isEqualTo(OrderIntentStatus.FAILED);
+        assertThat(intent.getOrderId()).isNull();
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void recoverStaleIntents_shouldRequeueQueuedAndFailInterruptedIntents() {
+        // Given
+        OrderIntent queued = orderIntentRepository.save(intent(UUID.randomUUID()));
+        OrderIntent interrupted = orderIntentRepository.save(intent(UUID.randomUUID()));
+        interrupted.setStatus(OrderIntentStatus.PROCESSING);
+        when(orderIntentRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAt(anyCollection(), any(), any()))
+            .thenReturn(List.of(queued, interrupted));
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        when(orderService.createOrderFromCart(eq(queued.getUserId()), any(), any())).thenReturn(order);
+
+        // When
+        int resolved = orderPlacementService.recoverStaleIntents();
+
+        // Then
+        assertThat(resolved).isEqualTo(2);
+        verify(orderIntentRepository, timeout(2000)).markCompleted(eq(queued.getId()), eq(order.getId()), any(), any(), any());
+        assertThat(queued.getStatus()).isEqualTo(OrderIntentStatus.COMPLETED);
+        assertThat(interrupted.getStatus()).isEqualTo(OrderIntentStatus.FAILED);
+        assertThat(interrupted.getFailureReason()).isEqualTo("Checkout was interrupted, please try again");
+        verify(orderService, never()).createOrderFromCart(eq(interrupted.getUserId()), any(), any());
+        assertThat(meterRegistry.get("order.placement.recovery.requeued").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.placement.recovery.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void submit_shouldReturnCheckoutAlreadyInFlight() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        OrderIntent inFlight = intent(userId);
+        inFlight.setId(UUID.randomUUID());
+        when(cartRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(checkoutReadyCart(userId)));
+        when(orderIntentRepository.findFirstByUserIdAndStatusIn(eq(userId), anyCollection()))
+            .thenReturn(Optional.of(inFlight));
+
+        // When
+        OrderIntent result = orderPlacementService.submit(userId);
+
+        // Then
+        assertThat(result).isSameAs(inFlight);
+        verify(orderIntentRepository, never()).save(any());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void submit_shouldRejectWhenQueueIsFull() throws InterruptedException {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cartRepository.findByUserIdForUpdate(any())).thenAnswer(invocation ->
+            Optional.of(checkoutReadyCart(invocation.getArgument(0))));
+        when(orderService.createOrderFromCart(any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            Order order = new Order();
+            order.setId(UUID.randomUUID());
+            return order;
+        });
+
+        // When: one checkout is being placed, one waits in the queue
+        orderPlacementService.submit(UUID.randomUUID());
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+        orderPlacementService.submit(UUID.randomUUID());
+
+        // Then
+        assertThat(meterRegistry.get("order.placement.queue.depth").gauge().value()).isEqualTo(1.0);
+        assertThatThrownBy(() -> orderPlacementService.submit(UUID.randomUUID()))
+            .isInstanceOf(OrderPlacementRejectedException.class);
+        verify(orderIntentRepository).deleteById(any());
+        assertThat(meterRegistry.get("order.placement.rejected").counter().count()).isEqualTo(1.0);
+        release.countDown();
+    }
+
+    @Test
+    void submit_shouldRequireAddressesBeforeQueueing() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        Cart cart = checkoutReadyCart(userId);
+        cart.setShippingAddressId(null);
+        when(cartRepository.findByUserIdForUpdate(userId)).thenReturn(Optional.of(cart));
+
+        // When & Then
+        assertThatThrownBy(() -> orderPlacementService.submit(userId))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Shipping and billing addresses must be set");
+        verify(orderIntentRepository, never()).save(any());
+    }
+
+    private Cart checkoutReadyCart(UUID userId) {
+        Cart cart = new Cart();
+        cart.setId(UUID.randomUUID());
+        cart.setUserId(userId);
+        cart.setShippingAddressId(UUID.randomUUID());
+        cart.setBillingAddressId(UUID.randomUUID());
+        cart.setItems(new ArrayList<>(List.of(new CartItem())));
+        return cart;
+    }
+
+    private OrderIntent intent(UUID userId) {
+        OrderIntent intent = new OrderIntent();
+        intent.setUserId(userId);
+        intent.setShippingAddressId(UUID.randomUUID());
+        intent.setBillingAddressId(UUID.randomUUID());
+        return intent;
+    }
+}
@@ -0,0 +1,219 @@
+package com.ocommerce.services.order.service;
+
+import com.ocommerce.services.cart.dto.ProductPricingInfo;
+import com.ocommerce.services.cart.exception.ProductValidationException;
+import com.ocommerce.services.cart.service.CartPricingService;
+import com.ocommerce.services.cart.service.ProductValidationService;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.service.OutboxService;
+import com.ocommerce.services.promotion.domain.DiscountType;
+import com.ocommerce.services.promotion.domain.Promotion;
+import com.ocommerce.services.promotion.domain.PromotionScope;
+import com.ocommerce.services.promotion.service.PromotionEvaluator;
+import com.ocommerce.services.promotion.service.PromotionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPricingServiceTest {
+
+    @Mock
+    private ProductValidationService productValidationService;
+
+    @Mock
+    private PromotionService promotionService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    private OrderPricingService orderPricingService;
+
+    private UUID productId;
+    private UUID otherProductId;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        orderPricingService = new OrderPricingService(productValidationService,
+            new CartPricingService(promotionService, BigDecimal.ZERO), outboxService, 15);
+        productId = UUID.randomUUID();
+        otherProductId = UUID.randomUUID();
+
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setItems(new ArrayList<>(List.of(
+            item(productId, 2, "10.00"),
+            item(otherProductId, 1, "5.00"),
+            item(productId, 1, "10.00"))));
+        order.setTotalAmount(new BigDecimal("35.00"));
+        order.setPriceLockedUntil(Instant.now().minusSeconds(60));
+    }
+
+    @Test
+    void lockExpiry_shouldBeLockDurationFromNow() {
+        // When
+        Instant expiry = orderPricingService.lockExpiry();
+
+        // Then
+        assertThat(expiry).isCloseTo(Instant.now().plus(Duration.ofMinutes(15)), within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void reprice_shouldLoadAllProductsInOneQueryAndRenewLock() {
+        // Given
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse(), otherProductId, new ProductResponse());
+        when(productValidationService.getProductsForValidation(Set.of(productId, otherProductId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, null)).thenReturn(pricing("12.00"));
+        when(productValidationService.validateAndGetProductPricing(products, otherProductId, null)).thenReturn(pricing("5.00"));
+        when(productValidationService.validateStockAvailability(any(ProductPricingInfo.class), anyInt())).thenReturn(true);
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.EMPTY);
+
+        // When
+        BigDecimal total = orderPricingService.reprice(order);
+
+        // Then
+        assertThat(total).isEqualByComparingTo("41.00");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo("41.00");
+        assertThat(order.getItems().get(0).getUnitPrice()).isEqualByComparingTo("12.00");
+        assertThat(order.getItems().get(0).getTotalPrice()).isEqualByComparingTo("24.00");
+        assertThat(order.isPriceLocked(Instant.now())).isTrue();
+        verify(productValidationService, times(1)).getProductsForValidation(anyCollection());
+    }
+
+    @Test
+    void reprice_shouldApplyCurrentPromotionsAndTax() {
+        // Given
+        orderPricingService = new OrderPricingService(productValidationService,
+            new CartPricingService(promotionService, new BigDecimal("0.10")), outboxService, 15);
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse(), otherProductId, new ProductResponse());
+        when(productValidationService.getProductsForValidation(Set.of(productId, otherProductId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(anyMap(), any(), any())).thenReturn(pricing("10.00"));
+        when(productValidationService.validateStockAvailability(any(ProductPricingInfo.class), anyInt())).thenReturn(true);
+        Promotion cartPromotion = new Promotion();
+        cartPromotion.setName("Cart 10%");
+        cartPromotion.setScope(PromotionScope.CART);
+        cartPromotion.setDiscountType(DiscountType.PERCENTAGE);
+        cartPromotion.setDiscountValue(BigDecimal.TEN);
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.compile(List.of(cartPromotion), Instant.now()));
+
+        // When
+        BigDecimal total = orderPricingService.reprice(order);
+
+        // Then
+        // 40.00 - 4.00 (10%) = 36.00, plus 10% tax
+        assertThat(total).isEqualByComparingTo("39.60");
+        assertThat(order.getItems()).allSatisfy(item -> {
+            assertThat(item.getDiscountAmount()).isPositive();
+            assertThat(item.getTaxAmount()).isPositive();
+        });
+        assertThat(order.calculateTotalAmount()).isEqualByComparingTo(total);
+    }
+
+    @Test
+    void reprice_shouldRecordChangedAmountsInOutbox() {
+        // Given
+        when(productValidationService.getProductsForValidation(Set.of(productId, otherProductId))).thenReturn(Map.of());
+        when(productValidationService.validateAndGetProductPricing(Map.of(), productId, null)).thenReturn(pricing("12.00"));
+        when(productValidationService.validateAndGetProductPricing(Map.of(), otherProductId, null)).thenReturn(pricing("5.00"));
+        when(productValidationService.validateStockAvailability(any(ProductPricingInfo.class), anyInt())).thenReturn(true);
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.EMPTY);
+
+        // When
+        orderPricingService.reprice(order);
+
+        // Then
+        assertThat(order.getPricingVersion()).isEqualTo(1);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), eq(order.getId()),
+            eq(OutboxEventTypes.ORDER_REPRICED), event.capture());
+        OrderPricingService.OrderRepricedEvent repriced = (OrderPricingService.OrderRepricedEvent) event.getValue();
+        assertThat(repriced.pricingVersion()).isEqualTo(1);
+        assertThat(repriced.previousTotal()).isEqualByComparingTo("35.00");
+        assertThat(repriced.totalAmount()).isEqualByComparingTo("41.00");
+        assertThat(repriced.lines()).hasSize(3);
+        assertThat(repriced.lines().get(0).previousTotalPrice()).isEqualByComparingTo("20.00");
+        assertThat(repriced.lines().get(0).totalPrice()).isEqualByComparingTo("24.00");
+    }
+
+    @Test
+    void reprice_shouldNotRecordUnchangedPricing() {
+        // Given
+        when(productValidationService.getProductsForValidation(Set.of(productId, otherProductId))).thenReturn(Map.of());
+        when(productValidationService.validateAndGetProductPricing(Map.of(), productId, null)).thenReturn(pricing("10.00"));
+        when(productValidationService.validateAndGetProductPricing(Map.of(), otherProductId, null)).thenReturn(pricing("5.00"));
+        when(productValidationService.validateStockAvailability(any(ProductPricingInfo.class), anyInt())).thenReturn(true);
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.EMPTY);
+
+        // When
+        orderPricingService.reprice(order);
+
+        // Then
+        assertThat(order.getPricingVersion()).isZero();
+        assertThat(order.isPriceLocked(Instant.now())).isTrue();
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void reprice_shouldRejectOrderWhenStockRanOut() {
+        // Given
+        when(productValidationService.getProductsForValidation(Set.of(productId, otherProductId))).thenReturn(Map.of());
+        when(productValidationService.validateAndGetProductPricing(anyMap(), any(), any())).thenReturn(pricing("10.00"));
+        when(productValidationService.validateStockAvailability(any(ProductPricingInfo.class), anyInt())).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> orderPricingService.reprice(order))
+            .isInstanceOf(ProductValidationException.class)
+            .hasMessageContaining("Insufficient stock");
+        assertThat(order.isPriceLocked(Instant.now())).isFalse();
+    }
+
+    private OrderItem item(UUID product, int quantity, String unitPrice) {
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProductId(product);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        item.setTotalPrice(new BigDecimal(unitPrice).multiply(BigDecimal.valueOf(quantity)));
+        return item;
+    }
+
+    private static ProductPricingInfo pricing(String price) {
+        return ProductPricingInfo.builder()
+            .productName("Test Product")
+            .price(new BigDecimal(price))
+            .inventoryTracking(true)
+            .availableStock(10)
+            .isActive(true)
+            .build();
+    }
+}
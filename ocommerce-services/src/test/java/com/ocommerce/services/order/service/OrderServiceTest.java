@@ -3,32 +3,61 @@ package com.ocommerce.services.order.service;
 import com.ocommerce.services.cart.domain.Cart;
 import com.ocommerce.services.cart.domain.CartItem;
 import com.ocommerce.services.cart.dto.ProductPricingInfo;
+import com.ocommerce.services.cart.exception.ProductValidationException;
 import com.ocommerce.services.cart.repository.CartRepository;
+import com.ocommerce.services.cart.service.CartPricingService;
 import com.ocommerce.services.cart.service.ProductValidationService;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.order.domain.ArchivedOrder;
 import com.ocommerce.services.order.domain.Order;
 import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.dto.BulkStatusTransitionResponse;
+import com.ocommerce.services.order.dto.OrderResponse;
+import com.ocommerce.services.order.dto.OrderSliceResponse;
+import com.ocommerce.services.order.dto.OrderSummaryResponse;
+import com.ocommerce.services.order.dto.OrderTransitionOutcome;
+import com.ocommerce.services.order.mapper.OrderMapper;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
 import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.service.OutboxService;
+import com.ocommerce.services.promotion.domain.DiscountType;
+import com.ocommerce.services.promotion.domain.Promotion;
+import com.ocommerce.services.promotion.domain.PromotionScope;
+import com.ocommerce.services.promotion.service.PromotionEvaluator;
+import com.ocommerce.services.promotion.service.PromotionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -45,6 +74,21 @@ class OrderServiceTest {
     @Mock
     private ProductValidationService productValidationService;
 
+    @Mock
+    private OrderPricingService orderPricingService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Spy
+    private OrderCountCache orderCountCache = new OrderCountCache(60_000, 100);
+
+    @Spy
+    private OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+
     @InjectMocks
     private OrderService orderService;
 
@@ -110,10 +154,18 @@ class OrderServiceTest {
         when(cartRepository.save(any(Cart.class))).thenReturn(cart);
 
         // Mock product validation for secure pricing
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId))
             .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(true);
+        when(productValidationService.validateStockAvailability(pricingInfo, 2)).thenReturn(true);
+        when(orderPricingService.applyPricing(any(Order.class), eq(products))).thenAnswer(invocation -> {
+            Order priced = invocation.getArgument(0);
+            priced.setTotalAmount(priced.calculateTotalAmount());
+            return priced.getTotalAmount();
+        });
+        Instant lockedUntil = Instant.now().plusSeconds(900);
+        when(orderPricingService.lockExpiry()).thenReturn(lockedUntil);
 
         // When
         Order result = orderService.createOrderFromCart(userId, shippingAddressId, billingAddressId);
@@ -123,10 +175,56 @@ class OrderServiceTest {
         assertThat(result.getUserId()).isEqualTo(userId);
         assertThat(result.getShippingAddressId()).isEqualTo(shippingAddressId);
         assertThat(result.getBillingAddressId()).isEqualTo(billingAddressId);
-        verify(orderRepository).save(any(Order.class));
+        ArgumentCaptor<Order> created = ArgumentCaptor.forClass(Order.class);
+        verify(orderRepository).save(created.capture());
+        assertThat(created.getValue().getTotalAmount()).isEqualByComparingTo("200");
+        assertThat(created.getValue().getPriceLockedUntil()).isEqualTo(lockedUntil);
         verify(cartRepository).save(cart); // Cart should be cleared
-        verify(productValidationService, times(2)).validateAndGetProductPricing(productId, variantId);
-        verify(productValidationService).validateStockAvailability(productId, variantId, 2);
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), any(), eq(OutboxEventTypes.ORDER_CREATED), any());
+        verify(productValidationService, times(1)).getProductsForValidation(any());
+        verify(productValidationService).validateAndGetProductPricing(products, productId, variantId);
+    }
+
+    @Test
+    void createOrderFromCart_shouldTotalWhatThePricedCartShowed() {
+        // Given
+        UUID categoryId = UUID.randomUUID();
+        cartItem.setSku("TEST-SKU");
+        PromotionService promotionService = mock(PromotionService.class);
+        when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.compile(List.of(
+            promotion(PromotionScope.CATEGORY, DiscountType.PERCENTAGE, "25", categoryId, null),
+            promotion(PromotionScope.CART, DiscountType.FIXED_AMOUNT, "10", null, "100")
+        ), Instant.now()));
+        CartPricingService cartPricingService = new CartPricingService(promotionService, new BigDecimal("0.10"));
+        OrderService pricingOrderService = new OrderService(orderRepository, archivedOrderRepository, cartRepository,
+            productValidationService, new OrderPricingService(productValidationService, cartPricingService, outboxService, 15),
+            orderCountCache, orderMapper, outboxService);
+
+        ProductResponse product = new ProductResponse();
+        product.setCategoryIds(List.of(categoryId));
+        Map<UUID, ProductResponse> products = Map.of(productId, product);
+        cartPricingService.priceCart(cart, Map.of(productId, List.of(categoryId)));
+        BigDecimal cartTotal = cart.getTotalAmount();
+
+        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId))
+            .thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 2)).thenReturn(true);
+
+        // When
+        Order result = pricingOrderService.createOrderFromCart(userId, shippingAddressId, billingAddressId);
+
+        // Then
+        // 200.00 - 50.00 (25%) - 10.00 (cart) = 140.00, plus 10% tax
+        assertThat(cartTotal).isEqualByComparingTo("154.00");
+        assertThat(result.getTotalAmount()).isEqualByComparingTo(cartTotal);
+        assertThat(result.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getDiscountAmount()).isEqualByComparingTo("60.00");
+            assertThat(item.getTaxAmount()).isEqualByComparingTo("14.00");
+            assertThat(item.getTotalPrice()).isEqualByComparingTo("154.00");
+        });
     }
 
     @Test
@@ -156,8 +254,9 @@ class OrderServiceTest {
     void createOrderFromCart_shouldThrowExceptionIfProductValidationFails() {
         // Given
         when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenThrow(new RuntimeException("Product not found"));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(Map.of());
+        when(productValidationService.validateAndGetProductPricing(Map.of(), productId, variantId))
+            .thenThrow(new ProductValidationException("Product not found: " + productId));
 
         // When & Then
         assertThatThrownBy(() -> orderService.createOrderFromCart(userId, shippingAddressId, billingAddressId))
@@ -169,10 +268,10 @@ class OrderServiceTest {
     void createOrderFromCart_shouldThrowExceptionIfInsufficientStock() {
         // Given
         when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(cart));
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(Map.of());
+        when(productValidationService.validateAndGetProductPricing(Map.of(), productId, variantId))
             .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(false);
+        when(productValidationService.validateStockAvailability(pricingInfo, 2)).thenReturn(false);
 
         // When & Then
         assertThatThrownBy(() -> orderService.createOrderFromCart(userId, shippingAddressId, billingAddressId))
@@ -198,17 +297,172 @@ class OrderServiceTest {
     @Test
     void getUserOrders_shouldReturnPagedOrders() {
         // Given
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Order> expectedPage = new PageImpl<>(List.of(order));
+        Pageable pageable = PageRequest.of(0, 1);
+        Page<Order> expectedPage = new PageImpl<>(List.of(order), pageable, 1);
         when(orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)).thenReturn(expectedPage);
+        when(orderRepository.findWithItemsByIdIn(List.of(order.getId()))).thenReturn(List.of(order));
 
         // When
-        Page<Order> result = orderService.getUserOrders(userId, pageable);
+        Page<OrderResponse> result = orderService.getUserOrders(userId, pageable);
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0)).isEqualTo(order);
+        assertThat(result.getContent()).extracting(OrderResponse::getId).containsExactly(order.getId());
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verify(orderRepository).findWithItemsByIdIn(List.of(order.getId()));
+        verify(archivedOrderRepository, never()).findHistoryPage(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getUserOrders_shouldContinueIntoArchiveAfterHotOrders() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 2);
+        ArchivedOrder archived = archivedOrder(Instant.parse("2023-01-01T00:00:00Z"));
+        when(orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable))
+            .thenReturn(new PageImpl<>(List.of(order), pageable, 3));
+        when(orderRepository.findWithItemsByIdIn(List.of(order.getId()))).thenReturn(List.of(order));
+        when(archivedOrderRepository.findHistoryPage(userId, 0, 1)).thenReturn(List.of(archived));
+        when(archivedOrderRepository.findWithItemsByIdIn(List.of(archived.getId()))).thenReturn(List.of(archived));
+        when(archivedOrderRepository.countByUserId(userId)).thenReturn(5L);
+
+        // When
+        Page<OrderResponse> result = orderService.getUserOrders(userId, pageable);
+
+        // Then
+        assertThat(result.getContent()).extracting(OrderResponse::getId)
+            .containsExactly(order.getId(), archived.getId());
+        assertThat(result.getTotalElements()).isEqualTo(8);
+    }
+
+    @Test
+    void getUserOrders_shouldSkipItemQueryForEmptyPage() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(orderRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)).thenReturn(Page.empty(pageable));
+
+        // When
+        Page<OrderResponse> result = orderService.getUserOrders(userId, pageable);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        verify(orderRepository, never()).findWithItemsByIdIn(any());
+        verify(archivedOrderRepository, never()).findWithItemsByIdIn(any());
+    }
+
+    @Test
+    void getUserOrderSummaries_shouldContinueIntoArchiveAfterHotOrders() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        ArchivedOrder archived = archivedOrder(Instant.parse("2023-01-01T00:00:00Z"));
+        OrderSummaryResponse hotSummary = new OrderSummaryResponse(order.getId(), OrderStatus.PENDING,
+            order.getTotalAmount(), 1, Instant.now());
+        OrderSummaryResponse archivedSummary = new OrderSummaryResponse(archived.getId(), OrderStatus.DELIVERED,
+            archived.getTotalAmount(), 2, archived.getCreatedAt());
+        when(orderRepository.findSummariesByUserId(userId, pageable))
+            .thenReturn(new PageImpl<>(List.of(hotSummary), pageable, 1));
+        when(archivedOrderRepository.findHistoryPage(userId, 0, 9)).thenReturn(List.of(archived));
+        when(archivedOrderRepository.findSummariesByIdIn(List.of(archived.getId()))).thenReturn(List.of(archivedSummary));
+        when(archivedOrderRepository.countByUserId(userId)).thenReturn(1L);
+
+        // When
+        Page<OrderSummaryResponse> result = orderService.getUserOrderSummaries(userId, pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(hotSummary, archivedSummary);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void getUserOrderSlice_shouldStartFromNewestWithoutCursor() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        order.setCreatedAt(Instant.now());
+        when(orderRepository.findFirstOrderSlice(userId, pageable))
+            .thenReturn(new SliceImpl<>(List.of(order), pageable, true));
+        when(archivedOrderRepository.findFirstOrderSlice(userId, pageable))
+            .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(orderRepository.findWithItemsByIdIn(List.of(order.getId()))).thenReturn(List.of(order));
+
+        // When
+        OrderSliceResponse result = orderService.getUserOrderSlice(userId, null, 10);
+
+        // Then
+        assertThat(result.getContent()).extracting(OrderResponse::getId).containsExactly(order.getId());
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getNextCursor()).isEqualTo(OrderCursor.of(order).encode());
+        verify(orderRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    void getUserOrderSlice_shouldMergeHotAndArchivedOrdersByDate() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 2);
+        order.setCreatedAt(Instant.parse("2024-03-01T00:00:00Z"));
+        ArchivedOrder newer = archivedOrder(Instant.parse("2024-04-01T00:00:00Z"));
+        ArchivedOrder older = archivedOrder(Instant.parse("2024-02-01T00:00:00Z"));
+        when(orderRepository.findFirstOrderSlice(userId, pageable))
+            .thenReturn(new SliceImpl<>(List.of(order), pageable, false));
+        when(archivedOrderRepository.findFirstOrderSlice(userId, pageable))
+            .thenReturn(new SliceImpl<>(List.of(newer, older), pageable, false));
+        when(orderRepository.findWithItemsByIdIn(List.of(order.getId()))).thenReturn(List.of(order));
+        when(archivedOrderRepository.findWithItemsByIdIn(List.of(newer.getId(), older.getId())))
+            .thenReturn(List.of(older, newer));
+
+        // When
+        OrderSliceResponse result = orderService.getUserOrderSlice(userId, null, 2);
+
+        // Then
+        assertThat(result.getContent()).extracting(OrderResponse::getId)
+            .containsExactly(newer.getId(), order.getId());
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(OrderCursor.decode(result.getNextCursor())).isEqualTo(OrderCursor.of(order));
+    }
+
+    @Test
+    void getUserOrderSlice_shouldContinueAfterCursorAndClampSize() {
+        // Given
+        OrderCursor cursor = new OrderCursor(Instant.parse("2024-01-01T10:15:30.123456Z"), UUID.randomUUID());
+        Pageable pageable = PageRequest.of(0, 100);
+        when(orderRepository.findOrderSliceAfter(userId, cursor.createdAt(), cursor.id(), pageable))
+            .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(archivedOrderRepository.findOrderSliceAfter(userId, cursor.createdAt(), cursor.id(), pageable))
+            .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        // When
+        OrderSliceResponse result = orderService.getUserOrderSlice(userId, cursor.encode(), 1_000);
+
+        // Then
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        verify(orderRepository, never()).findWithItemsByIdIn(any());
+    }
+
+    @Test
+    void getUserOrderSlice_shouldRejectMalformedCursor() {
+        // When & Then
+        assertThatThrownBy(() -> orderService.getUserOrderSlice(userId, "not-a-cursor", 10))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid order cursor");
+    }
+
+    @Test
+    void countUserOrders_shouldCacheCountUntilNextOrder() {
+        // Given
+        when(orderRepository.countByUserId(userId)).thenReturn(3L, 4L);
+        when(archivedOrderRepository.countByUserId(userId)).thenReturn(2L);
+
+        // When
+        long first = orderService.countUserOrders(userId);
+        long cached = orderService.countUserOrders(userId);
+        orderCountCache.evict(userId);
+        long refreshed = orderService.countUserOrders(userId);
+
+        // Then
+        assertThat(first).isEqualTo(5);
+        assertThat(cached).isEqualTo(5);
+        assertThat(refreshed).isEqualTo(6);
+        verify(orderRepository, times(2)).countByUserId(userId);
     }
 
     @Test
@@ -224,6 +478,7 @@ class OrderServiceTest {
         // Then
         assertThat(result.getOrderStatus()).isEqualTo(OrderStatus.CANCELLED);
         verify(orderRepository).save(order);
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), eq(order.getId()), eq(OutboxEventTypes.ORDER_STATUS_CHANGED), any());
     }
 
     @Test
@@ -265,6 +520,7 @@ class OrderServiceTest {
         // Then
         assertThat(result.getOrderStatus()).isEqualTo(newStatus);
         verify(orderRepository).save(order);
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), eq(orderId), eq(OutboxEventTypes.ORDER_STATUS_CHANGED), any());
     }
 
     @Test
@@ -278,5 +534,93 @@ class OrderServiceTest {
         assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.CONFIRMED))
             .isInstanceOf(RuntimeException.class)
             .hasMessageContaining("Cannot change status from");
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void updateOrderStatus_shouldRejectSkippingStates() {
+        // Given
+        UUID orderId = order.getId();
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+
+        // When & Then
+        assertThatThrownBy(() -> orderService.updateOrderStatus(orderId, OrderStatus.DELIVERED))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Cannot change status from PENDING to DELIVERED");
+    }
+
+    @Test
+    void transitionOrderStatuses_shouldUpdateEligibleOrdersInOneStatement() {
+        // Given
+        Order confirmed = orderWithStatus(OrderStatus.CONFIRMED);
+        Order delivered = orderWithStatus(OrderStatus.DELIVERED);
+        UUID missingId = UUID.randomUUID();
+        List<UUID> requested = List.of(confirmed.getId(), delivered.getId(), missingId, confirmed.getId());
+        when(orderRepository.findAllByIdInForUpdate(any())).thenReturn(List.of(confirmed, delivered));
+        when(orderRepository.transitionStatus(any(), any(), eq(OrderStatus.SHIPPED), any())).thenReturn(1);
+
+        // When
+        BulkStatusTransitionResponse result = orderService.transitionOrderStatuses(requested, OrderStatus.SHIPPED);
+
+        // Then
+        assertThat(result.getTransitioned()).isEqualTo(1);
+        assertThat(result.getOutcomes()).extracting(OrderTransitionOutcome::getOrderId, OrderTransitionOutcome::getResult)
+            .containsExactly(
+                tuple(confirmed.getId(), OrderTransitionOutcome.Result.TRANSITIONED),
+                tuple(delivered.getId(), OrderTransitionOutcome.Result.INVALID_TRANSITION),
+                tuple(missingId, OrderTransitionOutcome.Result.NOT_FOUND));
+        verify(orderRepository).transitionStatus(eq(Set.of(confirmed.getId())),
+            eq(Set.of(OrderStatus.CONFIRMED)), eq(OrderStatus.SHIPPED), any());
+        verify(outboxService).recordAll(eq(OutboxEventTypes.ORDER), eq(OutboxEventTypes.ORDER_STATUS_CHANGED),
+            argThat(events -> events.keySet().equals(Set.of(confirmed.getId()))));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void transitionOrderStatuses_shouldSkipUpdateWhenNothingIsEligible() {
+        // Given
+        Order cancelled = orderWithStatus(OrderStatus.CANCELLED);
+        when(orderRepository.findAllByIdInForUpdate(any())).thenReturn(List.of(cancelled));
+
+        // When
+        BulkStatusTransitionResponse result = orderService.transitionOrderStatuses(
+            List.of(cancelled.getId()), OrderStatus.SHIPPED);
+
+        // Then
+        assertThat(result.getTransitioned()).isZero();
+        assertThat(result.getOutcomes().get(0).getPreviousStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
+        verifyNoInteractions(outboxService);
+    }
+
+    private Order orderWithStatus(OrderStatus status) {
+        Order result = new Order();
+        result.setId(UUID.randomUUID());
+        result.setUserId(userId);
+        result.setOrderStatus(status);
+        return result;
+    }
+
+    private Promotion promotion(PromotionScope scope, DiscountType type, String value,
+                                UUID categoryId, String minCartAmount) {
+        Promotion promotion = new Promotion();
+        promotion.setName(scope + " " + type + " " + value);
+        promotion.setScope(scope);
+        promotion.setDiscountType(type);
+        promotion.setDiscountValue(new BigDecimal(value));
+        promotion.setCategoryId(categoryId);
+        promotion.setMinCartAmount(minCartAmount != null ? new BigDecimal(minCartAmount) : null);
+        return promotion;
+    }
+
+    private ArchivedOrder archivedOrder(Instant createdAt) {
+        ArchivedOrder archived = new ArchivedOrder();
+        archived.setId(UUID.randomUUID());
+        archived.setUserId(userId);
+        archived.setOrderStatus(OrderStatus.DELIVERED);
+        archived.setTotalAmount(BigDecimal.TEN);
+        archived.setCreatedAt(createdAt);
+        archived.setItems(List.of());
+        return archived;
     }
 }
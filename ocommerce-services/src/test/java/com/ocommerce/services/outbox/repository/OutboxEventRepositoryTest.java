@@ -0,0 +1,95 @@
+package com.ocommerce.services.outbox.repository;
+
+import com.ocommerce.services.outbox.domain.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void claimPending_shouldReturnOnlyOldestPendingEventPerAggregate() {
+        // Given
+        UUID firstOrder = UUID.randomUUID();
+        UUID secondOrder = UUID.randomUUID();
+        OutboxEvent published = event(firstOrder, "OrderCreated");
+        published.setPublishedAt(Instant.now());
+        OutboxEvent firstPending = event(firstOrder, "OrderStatusChanged");
+        OutboxEvent firstLater = event(firstOrder, "PaymentCompleted");
+        OutboxEvent secondPending = event(secondOrder, "OrderCreated");
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<OutboxEvent> claimed = outboxEventRepository.claimPending(10);
+
+        // Then
+        assertThat(claimed).extracting(OutboxEvent::getId)
+            .containsExactly(firstPending.getId(), secondPending.getId())
+            .doesNotContain(published.getId(), firstLater.getId());
+    }
+
+    @Test
+    void claimPending_shouldSkipDeadLetteredEvents() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+        OutboxEvent dead = event(orderId, "OrderCreated");
+        dead.setFailedAt(Instant.now());
+        OutboxEvent next = event(orderId, "OrderStatusChanged");
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<OutboxEvent> claimed = outboxEventRepository.claimPending(10);
+
+        // Then
+        assertThat(claimed).extracting(OutboxEvent::getId).containsExactly(next.getId());
+        assertThat(outboxEventRepository.findOldestPendingCreatedAt()).isPresent();
+    }
+
+    @Test
+    void deletePublishedBefore_shouldKeepPendingAndRecentEvents() {
+        // Given
+        OutboxEvent old = event(UUID.randomUUID(), "OrderCreated");
+        old.setPublishedAt(Instant.now().minus(4, ChronoUnit.DAYS));
+        OutboxEvent recent = event(UUID.randomUUID(), "OrderCreated");
+        recent.setPublishedAt(Instant.now());
+        OutboxEvent pending = event(UUID.randomUUID(), "OrderCreated");
+        entityManager.flush();
+
+        // When
+        int deleted = outboxEventRepository.deletePublishedBefore(Instant.now().minus(3, ChronoUnit.DAYS));
+        entityManager.clear();
+
+        // Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getId)
+            .containsExactlyInAnyOrder(recent.getId(), pending.getId());
+    }
+
+    private OutboxEvent event(UUID orderId, String eventType) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("Order");
+        event.setAggregateId(orderId);
+        event.setEventType(eventType);
+        event.setPayload("{\"orderId\":\"" + orderId + "\"}");
+        return entityManager.persist(event);
+    }
+}
@@ -0,0 +1,122 @@
+package com.ocommerce.services.outbox.service;
+
+import com.ocommerce.services.outbox.domain.OutboxEvent;
+import com.ocommerce.services.outbox.domain.OutboxMessage;
+import com.ocommerce.services.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OutboxEventSink sink;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxRelay = new OutboxRelay(outboxEventRepository, List.of(sink), transactionManager, meterRegistry, 2, 10, 3, 72);
+    }
+
+    @Test
+    void relay_shouldDeliverBatchesAndMarkEventsPublished() {
+        // Given
+        OutboxEvent first = event(1L);
+        OutboxEvent second = event(2L);
+        OutboxEvent third = event(3L);
+        when(outboxEventRepository.claimPending(2)).thenReturn(List.of(first, second), List.of(third));
+        when(outboxEventRepository.findOldestPendingCreatedAt()).thenReturn(Optional.empty());
+
+        // When
+        int delivered = outboxRelay.relay();
+
+        // Then
+        assertThat(delivered).isEqualTo(3);
+        ArgumentCaptor<OutboxMessage> messages = ArgumentCaptor.forClass(OutboxMessage.class);
+        verify(sink, times(3)).deliver(messages.capture());
+        assertThat(messages.getAllValues()).extracting(OutboxMessage::id).containsExactly(1L, 2L, 3L);
+        assertThat(List.of(first, second, third)).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+        // Two batches, and one delivery transaction per event
+        verify(transactionManager, times(5)).commit(any());
+        assertThat(meterRegistry.get("outbox.relay.delivered").counter().count()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("outbox.event.lag").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("outbox.relay.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    void relay_shouldKeepFailedEventPendingForRetry() {
+        // Given
+        OutboxEvent failing = event(1L);
+        OutboxEvent other = event(2L);
+        when(outboxEventRepository.claimPending(2)).thenReturn(List.of(failing, other), List.of());
+        doThrow(new IllegalStateException("broker down")).doNothing().when(sink).deliver(any());
+        when(outboxEventRepository.findOldestPendingCreatedAt()).thenReturn(Optional.of(failing.getCreatedAt()));
+
+        // When
+        int delivered = outboxRelay.relay();
+
+        // Then
+        assertThat(delivered).isEqualTo(1);
+        assertThat(failing.getPublishedAt()).isNull();
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getLastError()).isEqualTo("broker down");
+        assertThat(failing.getFailedAt()).isNull();
+        assertThat(other.getPublishedAt()).isNotNull();
+        assertThat(meterRegistry.get("outbox.relay.failed").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("outbox.relay.lag").gauge().value()).isGreaterThan(0.0);
+    }
+
+    @Test
+    void relay_shouldDeadLetterEventAfterMaxAttempts() {
+        // Given
+        OutboxEvent failing = event(1L);
+        failing.setAttempts(2);
+        when(outboxEventRepository.claimPending(2)).thenReturn(List.of(failing));
+        doThrow(new IllegalStateException("bad payload")).when(sink).deliver(any());
+        when(outboxEventRepository.findOldestPendingCreatedAt()).thenReturn(Optional.empty());
+
+        // When
+        int delivered = outboxRelay.relay();
+
+        // Then
+        assertThat(delivered).isZero();
+        assertThat(failing.getAttempts()).isEqualTo(3);
+        assertThat(failing.getFailedAt()).isNotNull();
+        assertThat(meterRegistry.get("outbox.relay.dead-lettered").counter().count()).isEqualTo(1.0);
+    }
+
+    private OutboxEvent event(long id) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setAggregateType("Order");
+        event.setAggregateId(UUID.randomUUID());
+        event.setEventType("OrderCreated");
+        event.setPayload("{}");
+        event.setCreatedAt(Instant.now().minusSeconds(5));
+        return event;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ocommerce.services.outbox.service;
+
+import com.ocommerce.services.outbox.domain.OutboxEvent;
+import com.ocommerce.services.outbox.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Relays through real transactions, where a failing transactional listener marks its
+ * transaction rollback-only
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OutboxRelayTransactionTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTransactionTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FailingWriter failingWriter;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void relay_shouldRecordAttemptsAndDeadLetterWhenTransactionalSinkFails() {
+        // Given
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType("Order");
+        event.setAggregateId(UUID.randomUUID());
+        event.setEventType("OrderCreated");
+        event.setPayload("{}");
+        Long eventId = outboxEventRepository.save(event).getId();
+        OutboxEventSink sink = message -> failingWriter.write();
+        OutboxRelay relay = new OutboxRelay(outboxEventRepository, List.of(sink), transactionManager,
+            new SimpleMeterRegistry(), 10, 1, 2, 72);
+
+        // When
+        relay.relay();
+        OutboxEvent afterFirstAttempt = outboxEventRepository.findById(eventId).orElseThrow();
+        relay.relay();
+        OutboxEvent afterSecondAttempt = outboxEventRepository.findById(eventId).orElseThrow();
+
+        // Then
+        assertThat(afterFirstAttempt.getAttempts()).isEqualTo(1);
+        assertThat(afterFirstAttempt.getLastError()).isEqualTo("duplicate rollup row");
+        assertThat(afterFirstAttempt.getFailedAt()).isNull();
+        assertThat(afterSecondAttempt.getAttempts()).isEqualTo(2);
+        assertThat(afterSecondAttempt.getFailedAt()).isNotNull();
+        assertThat(afterSecondAttempt.getPublishedAt()).isNull();
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        FailingWriter failingWriter() {
+            return new FailingWriter();
+        }
+    }
+
+    static class FailingWriter {
+        @Transactional
+        public void write() {
+            throw new IllegalStateException("duplicate rollup row");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ocommerce.services.outbox.service;
+
+import com.ocommerce.services.outbox.domain.OutboxEvent;
+import com.ocommerce.services.outbox.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OutboxService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class OutboxServiceTest {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void record_shouldStoreEventWithJsonPayload() {
+        // Given
+        UUID orderId = UUID.randomUUID();
+
+        // When
+        OutboxEvent event = outboxService.record("Order", orderId, "OrderCreated",
+            Map.of("orderId", orderId, "totalAmount", new BigDecimal("12.50")));
+
+        // Then
+        OutboxEvent stored = outboxEventRepository.findById(event.getId()).orElseThrow();
+        assertThat(stored.getAggregateId()).isEqualTo(orderId);
+        assertThat(stored.getCreatedAt()).isNotNull();
+        assertThat(stored.getPublishedAt()).isNull();
+        assertThat(stored.getPayload()).contains("\"orderId\":\"" + orderId + "\"").contains("12.5");
+    }
+
+    @Test
+    void recordAll_shouldInsertEventsInGivenOrder() {
+        // Given
+        Map<UUID, Object> payloads = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            payloads.put(UUID.randomUUID(), Map.of("sequence", i));
+        }
+
+        // When
+        outboxService.recordAll("Order", "OrderStatusChanged", payloads);
+
+        // Then
+        List<OutboxEvent> stored = outboxEventRepository.findAll(Sort.by("id"));
+        assertThat(stored).extracting(OutboxEvent::getAggregateId).containsExactlyElementsOf(payloads.keySet());
+        assertThat(stored).allSatisfy(event -> {
+            assertThat(event.getEventType()).isEqualTo("OrderStatusChanged");
+            assertThat(event.getCreatedAt()).isNotNull();
+            assertThat(event.getAttempts()).isZero();
+        });
+        assertThat(stored.get(2).getPayload()).isEqualTo("{\"sequence\":2}");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void record_shouldRequireCallerTransaction() {
+        assertThatThrownBy(() -> outboxService.record("Order", UUID.randomUUID(), "OrderCreated", Map.of()))
+            .isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
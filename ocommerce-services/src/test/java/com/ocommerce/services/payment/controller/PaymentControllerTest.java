@@ -7,9 +7,13 @@ import com.ocommerce.services.payment.domain.PaymentMethod;
 import com.ocommerce.services.payment.domain.PaymentStatus;
 import com.ocommerce.services.payment.dto.InitiatePaymentRequest;
 import com.ocommerce.services.payment.dto.PaymentResponse;
+import com.ocommerce.services.payment.exception.RefundInProgressException;
 import com.ocommerce.services.payment.mapper.PaymentMapper;
 import com.ocommerce.services.payment.service.PaymentService;
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -63,6 +67,15 @@ class PaymentControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     private Payment payment;
     private PaymentResponse PaymentResponse;
     private InitiatePaymentRequest InitiatePaymentRequest;
@@ -191,6 +204,37 @@ class PaymentControllerTest {
                 .andExpect(jsonPath("$.paymentStatus").value("REFUNDED"));
     }
 
+    @Test
+    void refundPayment_shouldReturn202WhenRefundStillProcessing() throws Exception {
+        // Given
+        UUID paymentId = payment.getId();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        payment.setRefundRequestedAt(Instant.now());
+        PaymentResponse.setPaymentStatus(PaymentStatus.COMPLETED);
+
+        when(paymentService.refundPayment(paymentId)).thenReturn(payment);
+        when(paymentMapper.toPaymentResponse(payment)).thenReturn(PaymentResponse);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/payments/{id}/refund", paymentId)
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.paymentStatus").value("COMPLETED"));
+    }
+
+    @Test
+    void refundPayment_shouldReturn409WhenRefundAlreadyInProgress() throws Exception {
+        // Given
+        UUID paymentId = UUID.randomUUID();
+        when(paymentService.refundPayment(paymentId))
+                .thenThrow(new RefundInProgressException("Refund already in progress for payment: " + paymentId));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/payments/{id}/refund", paymentId)
+                        .with(csrf()))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void refundPayment_shouldReturn500WhenRefundFails() throws Exception {
         // Given
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -15,6 +16,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -94,6 +96,17 @@ class PaymentRepositoryTest {
         assertThat(notFound).isEmpty();
     }
 
+    @Test
+    void saveAndFlush_shouldRejectSecondPaymentWithSameTransactionId() {
+        // Given
+        paymentRepository.saveAndFlush(payment1);
+        payment2.setTransactionId(payment1.getTransactionId());
+
+        // When & Then
+        assertThatThrownBy(() -> paymentRepository.saveAndFlush(payment2))
+            .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
     @Test
     void findByPaymentStatus_shouldReturnPaymentsWithStatus() {
         // Given
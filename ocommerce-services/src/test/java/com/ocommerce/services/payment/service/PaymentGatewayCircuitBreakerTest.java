@@ -0,0 +1,119 @@
+package com.ocommerce.services.payment.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentGatewayCircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MS = 50;
+
+    private PaymentGatewayCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // Window of 10 calls, at least 4 needed, opens at 50% failures, 2 half-open probes
+        circuitBreaker = new PaymentGatewayCircuitBreaker(new SimpleMeterRegistry(), 10, 4, 50, OPEN_DURATION_MS, 2);
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        // When
+        fail(3);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldOpenAndRefuseCallsOnceFailureRateIsReached() {
+        // When
+        succeed(2);
+        fail(2);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldOnlyCountOutcomesInsideTheWindow() {
+        // Given
+        fail(1);
+        succeed(9);
+
+        // When
+        // The early failure slides out of the window, so 4 failures in 10 calls stays below 50%
+        fail(4);
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void shouldCloseWhenHalfOpenProbesSucceed() throws Exception {
+        // Given
+        fail(4);
+        Thread.sleep(OPEN_DURATION_MS + 20);
+
+        // When
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        // Only the configured number of probes is let through
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldReopenWhenHalfOpenProbeFails() throws Exception {
+        // Given
+        fail(4);
+        Thread.sleep(OPEN_DURATION_MS + 20);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        // When
+        circuitBreaker.onFailure();
+
+        // Then
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldGiveBackProbeThatNeverReachedGateway() throws Exception {
+        // Given
+        fail(4);
+        Thread.sleep(OPEN_DURATION_MS + 20);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        // When
+        circuitBreaker.release();
+
+        // Then
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ocommerce.services.payment.service;
+
+import com.ocommerce.services.payment.exception.PaymentGatewayBusyException;
+import com.ocommerce.services.payment.exception.PaymentGatewayTimeoutException;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentGatewayExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentGatewayCircuitBreaker circuitBreaker;
+    private PaymentGatewayExecutor paymentGatewayExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Opens after 2 failures out of 2 calls
+        circuitBreaker = new PaymentGatewayCircuitBreaker(meterRegistry, 10, 2, 100, 30_000, 1);
+        paymentGatewayExecutor = new PaymentGatewayExecutor(circuitBreaker, meterRegistry, 1, 1, 200);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        paymentGatewayExecutor.shutdown();
+    }
+
+    @Test
+    void submit_shouldReturnResultAndRecordLatency() throws Exception {
+        // When
+        String result = paymentGatewayExecutor.submit("payment", () -> "Success").get(1, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(result).isEqualTo("Success");
+        assertThat(meterRegistry.get("payment.gateway.call").tag("operation", "payment").tag("outcome", "success")
+            .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_shouldInterruptCallThatMissesItsDeadline() throws Exception {
+        // Given
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+
+        // When
+        CompletableFuture<String> result = paymentGatewayExecutor.submit("payment", () -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            } finally {
+                finished.countDown();
+            }
+            return "Too late";
+        });
+
+        // Then
+        assertThatThrownBy(() -> result.get(2, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(PaymentGatewayTimeoutException.class);
+        assertThat(finished.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted).isTrue();
+        assertThat(meterRegistry.get("payment.gateway.call").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_shouldRejectCallsWhenWorkersAndQueueAreFull() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        paymentGatewayExecutor.submit("payment", () -> await(release));
+        paymentGatewayExecutor.submit("payment", () -> await(release));
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> paymentGatewayExecutor.submit("payment", () -> "Success"))
+                .isInstanceOf(PaymentGatewayBusyException.class);
+            assertThat(meterRegistry.get("payment.gateway.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_shouldFailFastOnceCircuitIsOpen() {
+        // Given
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<String> failed = paymentGatewayExecutor.submit("payment", () -> {
+                throw new IllegalStateException("Gateway error");
+            });
+            assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        // When & Then
+        assertThat(circuitBreaker.getState()).isEqualTo(PaymentGatewayCircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> paymentGatewayExecutor.submit("payment", () -> "Success"))
+            .isInstanceOf(PaymentGatewayUnavailableException.class)
+            .isNotInstanceOf(PaymentGatewayBusyException.class);
+        assertThat(meterRegistry.get("payment.gateway.short-circuited").counter().count()).isEqualTo(1);
+    }
+
+    private static String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "Success";
+    }
+}
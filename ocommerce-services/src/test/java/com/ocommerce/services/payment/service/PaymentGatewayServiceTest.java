@@ -0,0 +1,65 @@
+package com.ocommerce.services.payment.service;
+
+import com.ocommerce.services.payment.domain.Payment;
+import com.ocommerce.services.payment.domain.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaymentGatewayServiceTest {
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setAmount(BigDecimal.TEN);
+        payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+    }
+
+    @Test
+    void processPayment_shouldRememberProcessedPaymentForRecovery() {
+        // Given
+        PaymentGatewayService gateway = new PaymentGatewayService(0, 0, 0.0);
+
+        // When
+        String response = gateway.processPayment(payment);
+
+        // Then
+        assertThat(gateway.findPayment(payment)).contains(response);
+    }
+
+    @Test
+    void processPayment_shouldFailAtConfiguredRate() {
+        // Given
+        PaymentGatewayService gateway = new PaymentGatewayService(0, 0, 1.0);
+
+        // When & Then
+        assertThatThrownBy(() -> gateway.processPayment(payment))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Mock gateway error");
+        assertThat(gateway.findPayment(payment)).isEmpty();
+    }
+
+    @Test
+    void processPayment_shouldStopWhenInterrupted() {
+        // Given
+        PaymentGatewayService gateway = new PaymentGatewayService(5_000, 5_000, 0.0);
+        Thread.currentThread().interrupt();
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> gateway.processPayment(payment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("interrupted");
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
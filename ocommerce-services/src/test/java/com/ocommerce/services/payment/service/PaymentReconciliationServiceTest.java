@@ -0,0 +1,203 @@
+package com.ocommerce.services.payment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.payment.domain.DiscrepancyType;
+import com.ocommerce.services.payment.domain.Payment;
+import com.ocommerce.services.payment.domain.PaymentDiscrepancy;
+import com.ocommerce.services.payment.domain.PaymentMethod;
+import com.ocommerce.services.payment.domain.PaymentStatus;
+import com.ocommerce.services.payment.repository.PaymentDiscrepancyRepository;
+import com.ocommerce.services.payment.repository.PaymentRepository;
+import com.ocommerce.services.payment.service.PaymentReconciliationService.ReconciliationSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({PaymentReconciliationService.class, PaymentReconciliationServiceTest.Config.class})
+@TestPropertySource(properties = {
+    "app.payments.reconciliation.chunk-size=2",
+    "app.payments.reconciliation.write-batch-size=2"
+})
+class PaymentReconciliationServiceTest {
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDiscrepancyRepository paymentDiscrepancyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TempDir
+    Path tempDir;
+
+    private Instant from;
+    private Instant to;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        from = Instant.now().minus(1, ChronoUnit.HOURS);
+        to = Instant.now().plus(1, ChronoUnit.HOURS);
+    }
+
+    @Test
+    void reconcile_shouldRecordEachKindOfDiscrepancyInBatches() throws IOException {
+        // Given
+        Payment matched = persistPayment(PaymentStatus.COMPLETED, "100.00");
+        Payment refunded = persistPayment(PaymentStatus.REFUNDED, "40.00");
+        Payment wrongAmount = persistPayment(PaymentStatus.COMPLETED, "100.00");
+        Payment unsettled = persistPayment(PaymentStatus.COMPLETED, "25.00");
+        Payment failedButSettled = persistPayment(PaymentStatus.FAILED, "60.00");
+        Payment failed = persistPayment(PaymentStatus.FAILED, "70.00");
+        Payment settledTwice = persistPayment(PaymentStatus.COMPLETED, "80.00");
+        persistPayment(PaymentStatus.PENDING, "90.00");
+        UUID unknown = UUID.randomUUID();
+        List<String> lines = new ArrayList<>(List.of(
+            matched.getId() + ",100.0,SETTLED",
+            refunded.getId() + ",40,REFUNDED",
+            wrongAmount.getId() + ",90.00,SETTLED",
+            failedButSettled.getId() + ",60.00,SETTLED",
+            settledTwice.getId() + ",80.00,SETTLED",
+            settledTwice.getId() + ",80.00,SETTLED",
+            unknown + ",10.00,SETTLED"));
+        Path file = writeCsv("settlement.csv", lines);
+        double amountMismatchesBefore = amountMismatches();
+
+        // When
+        ReconciliationSummary summary = paymentReconciliationService.reconcile(file, from, to);
+
+        // Then
+        assertThat(summary.payments()).isEqualTo(7);
+        assertThat(summary.settlements()).isEqualTo(7);
+        assertThat(summary.discrepancies()).isEqualTo(5);
+        assertThat(paymentDiscrepancyRepository.findByRunId(summary.runId()))
+            .extracting(PaymentDiscrepancy::getPaymentId, PaymentDiscrepancy::getDiscrepancyType)
+            .containsExactlyInAnyOrder(
+                tuple(wrongAmount.getId(), DiscrepancyType.AMOUNT_MISMATCH),
+                tuple(unsettled.getId(), DiscrepancyType.MISSING_SETTLEMENT),
+                tuple(failedButSettled.getId(), DiscrepancyType.STATUS_MISMATCH),
+                tuple(settledTwice.getId(), DiscrepancyType.DUPLICATE_SETTLEMENT),
+                tuple(unknown, DiscrepancyType.UNEXPECTED_SETTLEMENT));
+        assertThat(failed.getId()).isNotIn(paymentDiscrepancyRepository.findAll().stream()
+            .map(PaymentDiscrepancy::getPaymentId).toList());
+        assertThat(amountMismatches() - amountMismatchesBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    void reconcile_shouldReadNdjsonSettlementFiles() throws IOException {
+        // Given
+        Payment matched = persistPayment(PaymentStatus.COMPLETED, "100.00");
+        Payment wrongAmount = persistPayment(PaymentStatus.COMPLETED, "50.00");
+        List<Payment> sorted = sortById(List.of(matched, wrongAmount));
+        Path file = tempDir.resolve("settlement.ndjson");
+        Files.write(file, sorted.stream()
+            .map(payment -> "{\"reference\":\"" + payment.getId() + "\",\"amount\":"
+                + (payment == matched ? "100.00" : "55.00") + ",\"status\":\"SETTLED\"}")
+            .toList());
+
+        // When
+        ReconciliationSummary summary = paymentReconciliationService.reconcile(file, from, to);
+
+        // Then
+        assertThat(summary.discrepancies()).isEqualTo(1);
+        assertThat(paymentDiscrepancyRepository.findByRunId(summary.runId())).singleElement().satisfies(discrepancy -> {
+            assertThat(discrepancy.getPaymentId()).isEqualTo(wrongAmount.getId());
+            assertThat(discrepancy.getLedgerAmount()).isEqualByComparingTo("50.00");
+            assertThat(discrepancy.getSettledAmount()).isEqualByComparingTo("55.00");
+        });
+    }
+
+    @Test
+    void reconcile_shouldRejectUnsortedSettlementFile() throws IOException {
+        // Given
+        List<Payment> sorted = sortById(List.of(
+            persistPayment(PaymentStatus.COMPLETED, "10.00"),
+            persistPayment(PaymentStatus.COMPLETED, "20.00")));
+        Path file = Files.write(tempDir.resolve("settlement.csv"), List.of(
+            "reference,amount,status",
+            sorted.get(1).getId() + "," + sorted.get(1).getAmount() + ",SETTLED",
+            sorted.get(0).getId() + "," + sorted.get(0).getAmount() + ",SETTLED"));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentReconciliationService.reconcile(file, from, to))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("not sorted");
+    }
+
+    @Test
+    void reconcileDay_shouldSkipWhenSettlementFileIsMissing() {
+        // When & Then
+        assertThat(paymentReconciliationService.reconcileDay(LocalDate.of(2020, 1, 1))).isEmpty();
+    }
+
+    private double amountMismatches() {
+        return meterRegistry.get("payment.reconciliation.discrepancies")
+            .tag("type", DiscrepancyType.AMOUNT_MISMATCH.name()).counter().count();
+    }
+
+    private Payment persistPayment(PaymentStatus status, String amount) {
+        Payment payment = new Payment();
+        payment.setOrderId(UUID.randomUUID());
+        payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        payment.setPaymentStatus(status);
+        payment.setAmount(new BigDecimal(amount));
+        payment.setTransactionId("TXN-" + UUID.randomUUID());
+        return paymentRepository.saveAndFlush(payment);
+    }
+
+    // Settlement files list references in the same order the reconciliation walks payments
+    private Path writeCsv(String name, List<String> lines) throws IOException {
+        List<String> content = new ArrayList<>();
+        content.add("reference,amount,status");
+        content.addAll(lines.stream().sorted(Comparator.comparing(line -> line.substring(0, 36))).toList());
+        return Files.write(tempDir.resolve(name), content);
+    }
+
+    private static List<Payment> sortById(List<Payment> payments) {
+        return payments.stream().sorted(Comparator.comparing(payment -> payment.getId().toString())).toList();
+    }
+}
@@ -0,0 +1,173 @@
+package com.ocommerce.services.payment.service;
+
+import com.ocommerce.services.payment.domain.Payment;
+import com.ocommerce.services.payment.domain.PaymentMethod;
+import com.ocommerce.services.payment.domain.PaymentStatus;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import com.ocommerce.services.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRecoveryServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentGatewayService paymentGatewayService;
+
+    @Mock
+    private PaymentGatewayExecutor paymentGatewayExecutor;
+
+    @Mock
+    private PaymentService paymentService;
+
+    private PaymentRecoveryService paymentRecoveryService;
+
+    @BeforeEach
+    void setUp() {
+        paymentRecoveryService = new PaymentRecoveryService(paymentRepository, paymentGatewayService,
+            paymentGatewayExecutor, paymentService, new SimpleMeterRegistry(), 300, 100);
+        // Run gateway calls on the calling thread
+        lenient().when(paymentGatewayExecutor.submit(any(), any()))
+            .thenAnswer(invocation -> CompletableFuture.supplyAsync(invocation.getArgument(1), Runnable::run));
+    }
+
+    @Test
+    void recoverStalePayments_shouldCompletePaymentsTheGatewayProcessed() {
+        // Given
+        Payment payment = stalePayment();
+        when(paymentRepository.findByPaymentStatusAndCreatedAtBeforeOrderByCreatedAt(eq(PaymentStatus.PENDING), any(), any()))
+            .thenReturn(List.of(payment));
+        when(paymentGatewayService.findPayment(payment)).thenReturn(Optional.of("Success"));
+
+        // When
+        int resolved = paymentRecoveryService.recoverStalePayments();
+
+        // Then
+        assertThat(resolved).isEqualTo(1);
+        verify(paymentService).completePayment(payment.getId(), "Success");
+        verify(paymentService, never()).failPayment(any(), any());
+    }
+
+    @Test
+    void recoverStalePayments_shouldFailPaymentsTheGatewayNeverSaw() {
+        // Given
+        Payment payment = stalePayment();
+        when(paymentRepository.findByPaymentStatusAndCreatedAtBeforeOrderByCreatedAt(eq(PaymentStatus.PENDING), any(), any()))
+            .thenReturn(List.of(payment));
+        when(paymentGatewayService.findPayment(payment)).thenReturn(Optional.empty());
+
+        // When
+        int resolved = paymentRecoveryService.recoverStalePayments();
+
+        // Then
+        assertThat(resolved).isEqualTo(1);
+        verify(paymentService).failPayment(eq(payment.getId()), any());
+        verify(paymentService, never()).completePayment(any(), any());
+    }
+
+    @Test
+    void recoverStalePayments_shouldContinueAfterFailingPayment() {
+        // Given
+        Payment unreachable = stalePayment();
+        Payment processed = stalePayment();
+        when(paymentRepository.findByPaymentStatusAndCreatedAtBeforeOrderByCreatedAt(eq(PaymentStatus.PENDING), any(), any()))
+            .thenReturn(List.of(unreachable, processed));
+        when(paymentGatewayService.findPayment(unreachable)).thenThrow(new RuntimeException("Gateway unavailable"));
+        when(paymentGatewayService.findPayment(processed)).thenReturn(Optional.of("Success"));
+
+        // When
+        int resolved = paymentRecoveryService.recoverStalePayments();
+
+        // Then
+        assertThat(resolved).isEqualTo(1);
+        verify(paymentService).completePayment(processed.getId(), "Success");
+    }
+
+    @Test
+    void recoverStalePayments_shouldStopWhileGatewayIsUnavailable() {
+        // Given
+        when(paymentRepository.findByPaymentStatusAndCreatedAtBeforeOrderByCreatedAt(eq(PaymentStatus.PENDING), any(), any()))
+            .thenReturn(List.of(stalePayment(), stalePayment()));
+        doThrow(new PaymentGatewayUnavailableException("Payment gateway is unavailable"))
+            .when(paymentGatewayExecutor).submit(any(), any());
+
+        // When
+        int resolved = paymentRecoveryService.recoverStalePayments();
+
+        // Then
+        assertThat(resolved).isZero();
+        verify(paymentGatewayExecutor, times(1)).submit(any(), any());
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void recoverStaleRefunds_shouldRecordRefundsTheGatewayMade() {
+        // Given
+        Payment payment = staleRefund();
+        when(paymentRepository.findByPaymentStatusAndRefundRequestedAtBeforeOrderByRefundRequestedAt(
+            eq(PaymentStatus.COMPLETED), any(), any())).thenReturn(List.of(payment));
+        when(paymentGatewayService.findRefund(payment)).thenReturn(Optional.of("Refunded"));
+
+        // When
+        int resolved = paymentRecoveryService.recoverStaleRefunds();
+
+        // Then
+        assertThat(resolved).isEqualTo(1);
+        verify(paymentService).recordRefund(payment.getId(), "Refunded");
+        verify(paymentService, never()).releaseRefund(any());
+    }
+
+    @Test
+    void recoverStaleRefunds_shouldReleaseRefundsTheGatewayNeverMade() {
+        // Given
+        Payment payment = staleRefund();
+        when(paymentRepository.findByPaymentStatusAndRefundRequestedAtBeforeOrderByRefundRequestedAt(
+            eq(PaymentStatus.COMPLETED), any(), any())).thenReturn(List.of(payment));
+        when(paymentGatewayService.findRefund(payment)).thenReturn(Optional.empty());
+
+        // When
+        int resolved = paymentRecoveryService.recoverStaleRefunds();
+
+        // Then
+        assertThat(resolved).isEqualTo(1);
+        verify(paymentService).releaseRefund(payment.getId());
+        verify(paymentService, never()).recordRefund(any(), any());
+    }
+
+    private Payment staleRefund() {
+        Payment payment = stalePayment();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        payment.setRefundRequestedAt(Instant.now().minusSeconds(600));
+        return payment;
+    }
+
+    private Payment stalePayment() {
+        Payment payment = new Payment();
+        payment.setId(UUID.randomUUID());
+        payment.setOrderId(UUID.randomUUID());
+        payment.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        payment.setAmount(BigDecimal.TEN);
+        payment.setPaymentStatus(PaymentStatus.PENDING);
+        payment.setCreatedAt(Instant.now().minusSeconds(600));
+        return payment;
+    }
+}
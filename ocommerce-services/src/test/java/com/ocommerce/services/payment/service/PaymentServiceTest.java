@@ -1,27 +1,58 @@
 package com.ocommerce.services.payment.service;
 
 import com.ocommerce.services.cart.dto.ProductPricingInfo;
+import com.ocommerce.services.cart.exception.ProductValidationException;
+import com.ocommerce.services.cart.service.CartPricingService;
 import com.ocommerce.services.cart.service.ProductValidationService;
+import com.ocommerce.services.catalog.dto.ProductResponse;
+import com.ocommerce.services.idempotency.exception.IdempotencyKeyMismatchException;
 import com.ocommerce.services.order.domain.Order;
 import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
 import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.order.service.OrderPricingService;
 import com.ocommerce.services.payment.domain.Payment;
 import com.ocommerce.services.payment.domain.PaymentMethod;
 import com.ocommerce.services.payment.domain.PaymentStatus;
+import com.ocommerce.services.payment.exception.PaymentGatewayBusyException;
+import com.ocommerce.services.payment.exception.PaymentGatewayTimeoutException;
+import com.ocommerce.services.payment.exception.PaymentGatewayUnavailableException;
+import com.ocommerce.services.payment.exception.RefundInProgressException;
 import com.ocommerce.services.payment.repository.PaymentRepository;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.service.OutboxService;
+import com.ocommerce.services.promotion.service.PromotionEvaluator;
+import com.ocommerce.services.promotion.service.PromotionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -39,13 +70,27 @@ class PaymentServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
     @Mock
     private PaymentGatewayService paymentGatewayService;
 
     @Mock
     private ProductValidationService productValidationService;
 
-    @InjectMocks
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PromotionService promotionService;
+
+    @Mock
+    private PaymentGatewayExecutor paymentGatewayExecutor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private PaymentService paymentService;
 
     private UUID orderId;
@@ -61,6 +106,14 @@ class PaymentServiceTest {
 
     @BeforeEach
     void setUp() {
+        paymentService = new PaymentService(paymentRepository, orderRepository, archivedOrderRepository, paymentGatewayService,
+            paymentGatewayExecutor, orderPricingService(), outboxService, transactionManager,
+            new SimpleMeterRegistry(), 200, 60_000, 100);
+        lenient().when(promotionService.getEvaluator()).thenReturn(PromotionEvaluator.EMPTY);
+        // Run gateway calls on the calling thread
+        lenient().when(paymentGatewayExecutor.submit(any(), any()))
+            .thenAnswer(invocation -> CompletableFuture.supplyAsync(invocation.getArgument(1), Runnable::run));
+
         orderId = UUID.randomUUID();
         productId = UUID.randomUUID();
         variantId = UUID.randomUUID();
@@ -81,6 +134,7 @@ class PaymentServiceTest {
         order = new Order();
         order.setId(orderId);
         order.setTotalAmount(amount);
+        order.setPriceLockedUntil(Instant.now().plus(10, ChronoUnit.MINUTES));
         List<OrderItem> items = new ArrayList<>();
         items.add(orderItem);
         order.setItems(items);
@@ -111,17 +165,15 @@ class PaymentServiceTest {
     void initiatePayment_shouldCreatePaymentSuccessfully() {
         // Given
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
         when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.findByIdForUpdate(payment.getId())).thenReturn(Optional.of(payment));
         when(paymentGatewayService.processPayment(any(Payment.class))).thenReturn("Success");
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
-        // Mock product validation
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(true);
 
         // When
         Payment result = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
@@ -131,10 +183,13 @@ class PaymentServiceTest {
         assertThat(result.getOrderId()).isEqualTo(orderId);
         assertThat(result.getPaymentMethod()).isEqualTo(paymentMethod);
         assertThat(result.getAmount()).isEqualTo(amount);
-        verify(paymentRepository, times(2)).save(any(Payment.class));
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        verify(paymentRepository).saveAndFlush(any(Payment.class));
+        verify(paymentRepository).save(any(Payment.class));
         verify(paymentGatewayService).processPayment(any(Payment.class));
-        verify(productValidationService).validateAndGetProductPricing(productId, variantId);
-        verify(productValidationService).validateStockAvailability(productId, variantId, 2);
+        // The order's price lock holds, so the catalog is not consulted
+        verifyNoInteractions(productValidationService);
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), eq(orderId), eq(OutboxEventTypes.PAYMENT_COMPLETED), any());
     }
 
     @Test
@@ -149,14 +204,14 @@ class PaymentServiceTest {
         assertThat(result).isEqualTo(payment);
         verify(paymentRepository, never()).save(any(Payment.class));
         verify(paymentGatewayService, never()).processPayment(any(Payment.class));
-        verify(productValidationService, never()).validateAndGetProductPricing(any(), any());
+        verifyNoInteractions(productValidationService);
     }
 
     @Test
     void initiatePayment_shouldThrowExceptionIfOrderNotFound() {
         // Given
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
@@ -169,13 +224,8 @@ class PaymentServiceTest {
         // Given
         BigDecimal wrongAmount = BigDecimal.valueOf(300.00);
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
 
-        // Mock product validation to return current pricing
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, wrongAmount, idempotencyKey))
@@ -190,14 +240,9 @@ class PaymentServiceTest {
         Payment completedPayment = new Payment();
         completedPayment.setPaymentStatus(PaymentStatus.COMPLETED);
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED)).thenReturn(Optional.of(completedPayment));
 
-        // Mock product validation
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
@@ -205,58 +250,115 @@ class PaymentServiceTest {
             .hasMessageContaining("Payment already completed for order");
     }
 
+    @Test
+    void initiatePayment_shouldRejectSecondPaymentWhileOneIsPending() {
+        // Given
+        Payment pendingPayment = new Payment();
+        pendingPayment.setPaymentStatus(PaymentStatus.PENDING);
+        stubValidOrder();
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.PENDING))
+            .thenReturn(Optional.of(pendingPayment));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Payment already in progress for order");
+        verify(paymentRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(paymentGatewayService);
+    }
+
     @Test
     void initiatePayment_shouldHandleGatewayFailure() {
         // Given
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
         when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
         when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.findByIdForUpdate(payment.getId())).thenReturn(Optional.of(payment));
         when(paymentGatewayService.processPayment(any(Payment.class))).thenThrow(new RuntimeException("Gateway error"));
 
-        // Mock product validation
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(true);
 
         // When
         Payment result = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
 
         // Then
         assertThat(result).isNotNull(); // Verify result is returned even on gateway failure
-        verify(paymentRepository, times(2)).save(any(Payment.class));
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        assertThat(result.getFailureReason()).isEqualTo("Gateway error");
+        verify(paymentRepository).saveAndFlush(any(Payment.class));
+        verify(paymentRepository).save(any(Payment.class));
         verify(paymentGatewayService).processPayment(any(Payment.class));
-        verify(productValidationService).validateAndGetProductPricing(productId, variantId);
+        verifyNoInteractions(outboxService);
     }
 
     @Test
-    void initiatePayment_shouldThrowExceptionIfProductValidationFails() {
+    void initiatePayment_shouldRepriceOrderWithOneCatalogQueryWhenPriceLockExpired() {
         // Given
+        order.setPriceLockedUntil(Instant.now().minusSeconds(1));
+        pricingInfo.setPrice(BigDecimal.valueOf(110.00));
+        BigDecimal repricedAmount = BigDecimal.valueOf(220.00);
+        payment.setAmount(repricedAmount);
+        stubValidOrder();
+        stubCatalog(true);
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.findByIdForUpdate(payment.getId())).thenReturn(Optional.of(payment));
+        when(paymentGatewayService.processPayment(any(Payment.class))).thenReturn("Success");
+
+        // When
+        Payment result = paymentService.initiatePayment(orderId, paymentMethod, repricedAmount, idempotencyKey);
+
+        // Then
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(repricedAmount);
+        assertThat(orderItem.getUnitPrice()).isEqualByComparingTo("110.00");
+        assertThat(order.isPriceLocked(Instant.now())).isTrue();
+        verify(productValidationService, times(1)).getProductsForValidation(Set.of(productId));
+        verify(orderRepository, atLeastOnce()).save(order);
+    }
+
+    @Test
+    void initiatePayment_shouldRejectOldAmountWhenPriceChangedAfterLockExpired() {
+        // Given
+        order.setPriceLockedUntil(Instant.now().minusSeconds(1));
+        pricingInfo.setPrice(BigDecimal.valueOf(110.00));
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        stubCatalog(true);
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("does not match calculated order total");
+    }
 
-        // Mock product validation failure
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenThrow(new RuntimeException("Product not found"));
+    @Test
+    void initiatePayment_shouldThrowExceptionIfProductValidationFails() {
+        // Given
+        order.setPriceLockedUntil(null);
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(Map.of());
+        when(productValidationService.validateAndGetProductPricing(Map.of(), productId, variantId))
+            .thenThrow(new ProductValidationException("Product not found: " + productId));
 
         // When & Then
         assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
             .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Payment validation failed")
             .hasMessageContaining("Product not found");
     }
 
     @Test
     void initiatePayment_shouldThrowExceptionIfInsufficientStock() {
         // Given
+        order.setPriceLockedUntil(Instant.now().minusSeconds(1));
         when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-
-        // Mock product validation with insufficient stock
-        when(productValidationService.validateAndGetProductPricing(eq(productId), eq(variantId)))
-            .thenReturn(pricingInfo);
-        when(productValidationService.validateStockAvailability(eq(productId), eq(variantId), eq(2)))
-            .thenReturn(false);
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        stubCatalog(false);
 
         // When & Then
         assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
@@ -270,7 +372,8 @@ class PaymentServiceTest {
         // Given
         UUID paymentId = payment.getId();
         payment.setPaymentStatus(PaymentStatus.COMPLETED);
-        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
+        when(orderRepository.existsById(orderId)).thenReturn(true);
         when(paymentGatewayService.processRefund(payment)).thenReturn("Refund successful");
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
@@ -281,15 +384,251 @@ class PaymentServiceTest {
 
         // Then
         assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.REFUNDED);
+        assertThat(result.getRefundRequestedAt()).isNotNull();
         verify(paymentGatewayService).processRefund(payment);
-        verify(paymentRepository).save(payment);
+        verify(paymentRepository, times(2)).save(payment);
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), any(), eq(OutboxEventTypes.PAYMENT_REFUNDED), any());
+    }
+
+    @Test
+    void initiatePayment_shouldReturnPendingPaymentWhenGatewayIsSlow() {
+        // Given
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        doReturn(new CompletableFuture<>()).when(paymentGatewayExecutor).submit(any(), any());
+
+        // When
+        Payment result = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
+
+        // Then
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.PENDING);
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void initiatePayment_shouldDiscardPendingPaymentWhenGatewayIsBusy() {
+        // Given
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        doThrow(new PaymentGatewayBusyException("Payment gateway is busy")).when(paymentGatewayExecutor).submit(any(), any());
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
+            .isInstanceOf(PaymentGatewayBusyException.class);
+        verify(paymentRepository).deleteById(payment.getId());
+        verifyNoInteractions(paymentGatewayService);
+    }
+
+    @Test
+    void initiatePayment_shouldLeavePaymentPendingWhenGatewayDeadlinePasses() {
+        // Given
+        stubValidOrder();
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        doReturn(CompletableFuture.failedFuture(new PaymentGatewayTimeoutException("Payment gateway payment did not complete")))
+            .when(paymentGatewayExecutor).submit(any(), any());
+
+        // When
+        Payment result = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
+
+        // Then
+        // The gateway may have charged, so the outcome is left to the recovery sweeper
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.PENDING);
+        verify(paymentRepository, never()).findByIdForUpdate(any());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void initiatePayment_shouldDiscardPendingPaymentWhenCircuitIsOpen() {
+        // Given
+        stubValidOrder();
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        doThrow(new PaymentGatewayUnavailableException("Payment gateway is unavailable"))
+            .when(paymentGatewayExecutor).submit(any(), any());
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
+            .isInstanceOf(PaymentGatewayUnavailableException.class);
+        verify(paymentRepository).deleteById(payment.getId());
+    }
+
+    @Test
+    void completePayment_shouldIgnorePaymentThatIsNoLongerPending() {
+        // Given
+        payment.setPaymentStatus(PaymentStatus.FAILED);
+        when(paymentRepository.findByIdForUpdate(payment.getId())).thenReturn(Optional.of(payment));
+
+        // When
+        Payment result = paymentService.completePayment(payment.getId(), "Success");
+
+        // Then
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void initiatePayment_shouldNotHoldConnectionsWhileGatewayProcessesConcurrentPayments() throws Exception {
+        // Given
+        int payments = 20;
+        long gatewayLatencyMs = 50;
+        // Each transaction stands for a pooled connection; track how long they are held in total
+        Map<TransactionStatus, Long> openedAt = new ConcurrentHashMap<>();
+        AtomicLong connectionHeldNanos = new AtomicLong();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            TransactionStatus status = new SimpleTransactionStatus();
+            openedAt.put(status, System.nanoTime());
+            return status;
+        });
+        doAnswer(invocation -> {
+            connectionHeldNanos.addAndGet(System.nanoTime() - openedAt.remove(invocation.<TransactionStatus>getArgument(0)));
+            return null;
+        }).when(transactionManager).commit(any());
+
+        Map<UUID, Payment> saved = new ConcurrentHashMap<>();
+        Answer<Payment> save = invocation -> {
+            Payment saving = invocation.getArgument(0);
+            if (saving.getId() == null) {
+                saving.setId(UUID.randomUUID());
+            }
+            saved.put(saving.getId(), saving);
+            return saving;
+        };
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenAnswer(save);
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(save);
+        when(paymentRepository.findByIdForUpdate(any())).thenAnswer(invocation -> Optional.ofNullable(saved.get(invocation.getArgument(0))));
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(paymentGatewayService.processPayment(any(Payment.class))).thenAnswer(invocation -> {
+            Thread.sleep(gatewayLatencyMs);
+            return "Success";
+        });
+        PaymentService concurrentPaymentService = new PaymentService(paymentRepository, orderRepository,
+            archivedOrderRepository, paymentGatewayService, new PaymentGatewayExecutor(circuitBreaker(), new SimpleMeterRegistry(), payments, payments, 5_000),
+            orderPricingService(), outboxService, transactionManager,
+            new SimpleMeterRegistry(), 5_000, 60_000, 100);
+        ExecutorService clients = Executors.newFixedThreadPool(payments);
+
+        // When
+        List<Future<Payment>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < payments; i++) {
+                String key = "load-key-" + i;
+                results.add(clients.submit(() -> concurrentPaymentService.initiatePayment(orderId, paymentMethod, amount, key)));
+            }
+            for (Future<Payment> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        // Then
+        assertThat(openedAt).isEmpty();
+        verify(transactionManager, times(2 * payments)).commit(any());
+        // Holding a connection across the gateway call costs at least payments * latency (1 s here);
+        // with the call outside the transactions only the two short transactions per payment remain
+        assertThat(TimeUnit.NANOSECONDS.toMillis(connectionHeldNanos.get()))
+            .isLessThan(payments * gatewayLatencyMs / 4);
+    }
+
+    @Test
+    void initiatePayment_shouldChargeConcurrentRequestsWithSameKeyOnce() throws Exception {
+        // Given
+        int requests = 8;
+        CountDownLatch gatewayReleased = new CountDownLatch(1);
+        stubValidOrder();
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.findByIdForUpdate(payment.getId())).thenReturn(Optional.of(payment));
+        when(paymentGatewayService.processPayment(any(Payment.class))).thenAnswer(invocation -> {
+            gatewayReleased.await(5, TimeUnit.SECONDS);
+            return "Success";
+        });
+        ExecutorService clients = Executors.newFixedThreadPool(requests);
+
+        // When
+        List<Future<Payment>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                results.add(clients.submit(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey)));
+            }
+            // Let the duplicates reach the service while the first request is at the gateway
+            Thread.sleep(200);
+            gatewayReleased.countDown();
+
+            // Then
+            for (Future<Payment> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getId()).isEqualTo(payment.getId());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        verify(paymentGatewayService, times(1)).processPayment(any(Payment.class));
+        verify(paymentRepository, times(1)).saveAndFlush(any(Payment.class));
+    }
+
+    @Test
+    void initiatePayment_shouldReplayFinishedPaymentWithoutDatabaseLookup() {
+        // Given
+        stubValidOrder();
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.empty());
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentRepository.findByIdForUpdate(payment.getId())).thenReturn(Optional.of(payment));
+        when(paymentGatewayService.processPayment(any(Payment.class))).thenReturn("Success");
+        Payment first = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
+
+        // When
+        Payment retry = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
+
+        // Then
+        assertThat(retry).isSameAs(first);
+        verify(paymentRepository, times(1)).findByTransactionId(idempotencyKey);
+        verify(paymentGatewayService, times(1)).processPayment(any(Payment.class));
+    }
+
+    @Test
+    void initiatePayment_shouldRejectKeyReusedForAnotherOrder() {
+        // Given
+        payment.setOrderId(UUID.randomUUID());
+        when(paymentRepository.findByTransactionId(idempotencyKey)).thenReturn(Optional.of(payment));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey))
+            .isInstanceOf(IdempotencyKeyMismatchException.class);
+        verifyNoInteractions(paymentGatewayService);
+    }
+
+    @Test
+    void initiatePayment_shouldReturnPaymentCreatedConcurrentlyByAnotherInstance() {
+        // Given
+        stubValidOrder();
+        when(paymentRepository.findByTransactionId(idempotencyKey))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(payment));
+        when(paymentRepository.saveAndFlush(any(Payment.class)))
+            .thenThrow(new DataIntegrityViolationException("uk_payments_transaction_id"));
+
+        // When
+        Payment result = paymentService.initiatePayment(orderId, paymentMethod, amount, idempotencyKey);
+
+        // Then
+        assertThat(result).isSameAs(payment);
+        verifyNoInteractions(paymentGatewayService);
     }
 
     @Test
     void refundPayment_shouldThrowExceptionIfPaymentNotFound() {
         // Given
         UUID paymentId = UUID.randomUUID();
-        when(paymentRepository.findById(paymentId)).thenReturn(Optional.empty());
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> paymentService.refundPayment(paymentId))
@@ -297,12 +636,103 @@ class PaymentServiceTest {
             .hasMessageContaining("Payment not found");
     }
 
+    @Test
+    void refundPayment_shouldRecordRefundOnArchivedOrder() {
+        // Given
+        UUID paymentId = payment.getId();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
+        when(orderRepository.existsById(orderId)).thenReturn(false);
+        when(archivedOrderRepository.existsById(orderId)).thenReturn(true);
+        when(paymentGatewayService.processRefund(payment)).thenReturn("Refund successful");
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.updatePaymentStatus(eq(orderId), eq("REFUNDED"), any(Instant.class))).thenReturn(1);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+
+        // When
+        Payment result = paymentService.refundPayment(paymentId);
+
+        // Then
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.REFUNDED);
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(outboxService).record(eq(OutboxEventTypes.ORDER), eq(orderId), eq(OutboxEventTypes.PAYMENT_REFUNDED), any());
+    }
+
+    @Test
+    void refundPayment_shouldRejectPaymentWithoutOrderBeforeCallingGateway() {
+        // Given
+        UUID paymentId = payment.getId();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
+        when(orderRepository.existsById(orderId)).thenReturn(false);
+        when(archivedOrderRepository.existsById(orderId)).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.refundPayment(paymentId))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Order not found");
+        verify(paymentGatewayService, never()).processRefund(any());
+    }
+
+    @Test
+    void refundPayment_shouldRejectRefundAlreadyInProgress() {
+        // Given
+        UUID paymentId = payment.getId();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        payment.setRefundRequestedAt(Instant.now());
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.refundPayment(paymentId))
+            .isInstanceOf(RefundInProgressException.class)
+            .hasMessageContaining("Refund already in progress");
+        verify(paymentGatewayService, never()).processRefund(any());
+    }
+
+    @Test
+    void refundPayment_shouldReturnClaimedPaymentWhenGatewayDeadlinePasses() {
+        // Given
+        UUID paymentId = payment.getId();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
+        when(orderRepository.existsById(orderId)).thenReturn(true);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        doReturn(CompletableFuture.failedFuture(new PaymentGatewayTimeoutException("Payment gateway refund did not complete")))
+            .when(paymentGatewayExecutor).submit(any(), any());
+
+        // When
+        Payment result = paymentService.refundPayment(paymentId);
+
+        // Then
+        assertThat(result.getPaymentStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(result.getRefundRequestedAt()).isNotNull();
+        verify(paymentRepository, times(1)).save(any(Payment.class));
+    }
+
+    @Test
+    void refundPayment_shouldReleaseClaimWhenGatewayRejectsRefund() {
+        // Given
+        UUID paymentId = payment.getId();
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
+        when(orderRepository.existsById(orderId)).thenReturn(true);
+        when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+        when(paymentGatewayService.processRefund(payment)).thenThrow(new RuntimeException("Refund declined"));
+
+        // When & Then
+        assertThatThrownBy(() -> paymentService.refundPayment(paymentId))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Refund declined");
+        assertThat(payment.getRefundRequestedAt()).isNull();
+        verifyNoInteractions(outboxService);
+    }
+
     @Test
     void refundPayment_shouldThrowExceptionIfPaymentNotCompleted() {
         // Given
         UUID paymentId = payment.getId();
         payment.setPaymentStatus(PaymentStatus.PENDING);
-        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
 
         // When & Then
         assertThatThrownBy(() -> paymentService.refundPayment(paymentId))
@@ -315,7 +745,7 @@ class PaymentServiceTest {
         // Given
         UUID paymentId = payment.getId();
         payment.setPaymentStatus(PaymentStatus.REFUNDED);
-        when(paymentRepository.findById(paymentId)).thenReturn(Optional.of(payment));
+        when(paymentRepository.findByIdForUpdate(paymentId)).thenReturn(Optional.of(payment));
 
         // When & Then
         assertThatThrownBy(() -> paymentService.refundPayment(paymentId))
@@ -336,4 +766,27 @@ class PaymentServiceTest {
         assertThat(result).isPresent();
         assertThat(result.get()).isEqualTo(payment);
     }
+
+    private void stubValidOrder() {
+        when(orderRepository.findByIdForUpdate(orderId)).thenReturn(Optional.of(order));
+        // Read again when the gateway outcome is recorded
+        lenient().when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(paymentRepository.findByOrderIdAndPaymentStatus(orderId, PaymentStatus.COMPLETED)).thenReturn(Optional.empty());
+    }
+
+    private void stubCatalog(boolean inStock) {
+        Map<UUID, ProductResponse> products = Map.of(productId, new ProductResponse());
+        when(productValidationService.getProductsForValidation(Set.of(productId))).thenReturn(products);
+        when(productValidationService.validateAndGetProductPricing(products, productId, variantId)).thenReturn(pricingInfo);
+        when(productValidationService.validateStockAvailability(pricingInfo, 2)).thenReturn(inStock);
+    }
+
+    private static PaymentGatewayCircuitBreaker circuitBreaker() {
+        return new PaymentGatewayCircuitBreaker(new SimpleMeterRegistry(), 50, 20, 50, 30_000, 3);
+    }
+
+    private OrderPricingService orderPricingService() {
+        return new OrderPricingService(productValidationService, new CartPricingService(promotionService, BigDecimal.ZERO),
+            outboxService, 15);
+    }
 }
@@ -0,0 +1,107 @@
+package com.ocommerce.services.promotion.service;
+
+import com.ocommerce.services.promotion.domain.DiscountType;
+import com.ocommerce.services.promotion.domain.Promotion;
+import com.ocommerce.services.promotion.domain.PromotionScope;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromotionEvaluatorTest {
+
+    private final Instant now = Instant.parse("2025-01-15T10:00:00Z");
+
+    @Test
+    void lineDiscount_shouldPickBestMatchingSkuOrCategoryPromotion() {
+        // Given
+        UUID categoryId = UUID.randomUUID();
+        PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(
+            promotion(PromotionScope.SKU, DiscountType.PERCENTAGE, "10", "SKU-1", null, null),
+            promotion(PromotionScope.SKU, DiscountType.FIXED_AMOUNT, "3", "SKU-1", null, null),
+            promotion(PromotionScope.CATEGORY, DiscountType.PERCENTAGE, "20", null, categoryId, null),
+            promotion(PromotionScope.SKU, DiscountType.PERCENTAGE, "50", "SKU-2", null, null)
+        ), now);
+
+        // When / Then
+        // 10% of 50.00 = 5.00 vs 3.00 x 2 = 6.00
+        assertThat(evaluator.lineDiscount("SKU-1", List.of(), new BigDecimal("50.00"), 2))
+            .isEqualByComparingTo("6.00");
+        // Category promotion beats both SKU promotions
+        assertThat(evaluator.lineDiscount("SKU-1", List.of(categoryId), new BigDecimal("50.00"), 2))
+            .isEqualByComparingTo("10.00");
+        assertThat(evaluator.lineDiscount("SKU-3", List.of(UUID.randomUUID()), new BigDecimal("50.00"), 2))
+            .isEqualByComparingTo("0");
+    }
+
+    @Test
+    void lineDiscount_shouldNeverExceedLineSubtotal() {
+        // Given
+        PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(
+            promotion(PromotionScope.SKU, DiscountType.FIXED_AMOUNT, "30", "SKU-1", null, null)
+        ), now);
+
+        // When / Then
+        assertThat(evaluator.lineDiscount("SKU-1", null, new BigDecimal("25.00"), 1))
+            .isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void cartDiscount_shouldApplyBestPromotionWhoseThresholdIsReached() {
+        // Given
+        PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(
+            promotion(PromotionScope.CART, DiscountType.FIXED_AMOUNT, "10", null, null, "100"),
+            promotion(PromotionScope.CART, DiscountType.PERCENTAGE, "5", null, null, "200"),
+            promotion(PromotionScope.CART, DiscountType.FIXED_AMOUNT, "50", null, null, "500")
+        ), now);
+
+        // When / Then
+        assertThat(evaluator.cartDiscount(new BigDecimal("99.99"))).isEqualByComparingTo("0");
+        assertThat(evaluator.cartDiscount(new BigDecimal("100.00"))).isEqualByComparingTo("10.00");
+        // 5% of 300.00 = 15.00 beats the 10.00 from the lower threshold
+        assertThat(evaluator.cartDiscount(new BigDecimal("300.00"))).isEqualByComparingTo("15.00");
+        assertThat(evaluator.cartDiscount(new BigDecimal("600.00"))).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void compile_shouldSkipPromotionsOutsideTheirWindowAndTrackNextChange() {
+        // Given
+        Promotion expired = promotion(PromotionScope.SKU, DiscountType.PERCENTAGE, "10", "SKU-1", null, null);
+        expired.setEndsAt(now.minus(1, ChronoUnit.HOURS));
+        Promotion upcoming = promotion(PromotionScope.SKU, DiscountType.PERCENTAGE, "20", "SKU-1", null, null);
+        upcoming.setStartsAt(now.plus(2, ChronoUnit.HOURS));
+        Promotion running = promotion(PromotionScope.SKU, DiscountType.PERCENTAGE, "5", "SKU-1", null, null);
+        running.setEndsAt(now.plus(1, ChronoUnit.HOURS));
+        Promotion disabled = promotion(PromotionScope.SKU, DiscountType.PERCENTAGE, "90", "SKU-1", null, null);
+        disabled.setActive(false);
+
+        // When
+        PromotionEvaluator evaluator = PromotionEvaluator.compile(List.of(expired, upcoming, running, disabled), now);
+
+        // Then
+        assertThat(evaluator.getPromotionCount()).isEqualTo(1);
+        assertThat(evaluator.lineDiscount("SKU-1", null, new BigDecimal("100.00"), 1)).isEqualByComparingTo("5.00");
+        assertThat(evaluator.getValidUntil()).isEqualTo(now.plus(1, ChronoUnit.HOURS));
+        assertThat(evaluator.isValidAt(now.plus(59, ChronoUnit.MINUTES))).isTrue();
+        assertThat(evaluator.isValidAt(now.plus(1, ChronoUnit.HOURS))).isFalse();
+    }
+
+    private Promotion promotion(PromotionScope scope, DiscountType type, String value,
+                                String sku, UUID categoryId, String minCartAmount) {
+        Promotion promotion = new Promotion();
+        promotion.setId(UUID.randomUUID());
+        promotion.setName(scope + " " + type + " " + value);
+        promotion.setScope(scope);
+        promotion.setDiscountType(type);
+        promotion.setDiscountValue(new BigDecimal(value));
+        promotion.setSku(sku);
+        promotion.setCategoryId(categoryId);
+        promotion.setMinCartAmount(minCartAmount != null ? new BigDecimal(minCartAmount) : null);
+        return promotion;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ocommerce.services.reporting.controller;
+
+import com.ocommerce.services.reporting.dto.DailySalesResponse;
+import com.ocommerce.services.reporting.dto.ProductSalesResponse;
+import com.ocommerce.services.reporting.dto.SalesBackfillResponse;
+import com.ocommerce.services.reporting.service.SalesRollupBackfillService;
+import com.ocommerce.services.reporting.service.SalesRollupService;
+import com.ocommerce.services.security.AccessTokenRevocationList;
+import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SalesReportController.class)
+@Import(SalesReportControllerTest.MethodSecurityConfig.class)
+@ActiveProfiles("test")
+@WithMockUser(authorities = "SALES_REPORTS")
+class SalesReportControllerTest {
+
+    // Method security is configured in SecurityConfig, which the MVC slice does not load
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class MethodSecurityConfig {
+    }
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 1, 31);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SalesRollupService salesRollupService;
+
+    @MockBean
+    private SalesRollupBackfillService salesRollupBackfillService;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    @Test
+    void getDailySales_shouldReturnDailyTotals() throws Exception {
+        // Given
+        when(salesRollupService.getDailySales(FROM, TO)).thenReturn(List.of(
+            new DailySalesResponse(FROM, 12, 30, new BigDecimal("450.00"), 1)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reports/sales/daily")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].salesDate").value("2024-01-01"))
+                .andExpect(jsonPath("$[0].orderCount").value(12))
+                .andExpect(jsonPath("$[0].revenue").value(450.00))
+                .andExpect(jsonPath("$[0].reversedOrderCount").value(1));
+    }
+
+    @Test
+    void getDailySales_shouldRejectInvalidRange() throws Exception {
+        // Given
+        when(salesRollupService.getDailySales(TO, FROM))
+            .thenThrow(new IllegalArgumentException("Date range end must not be before its start"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reports/sales/daily")
+                        .param("from", "2024-01-31")
+                        .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTopProducts_shouldReturnProductSales() throws Exception {
+        // Given
+        UUID productId = UUID.randomUUID();
+        when(salesRollupService.getTopProducts(FROM, TO, 5)).thenReturn(List.of(
+            new ProductSalesResponse(productId, null, "TSHIRT-RED-M", 7, new BigDecimal("139.93"))));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/reports/sales/products")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(productId.toString()))
+                .andExpect(jsonPath("$[0].sku").value("TSHIRT-RED-M"))
+                .andExpect(jsonPath("$[0].unitsSold").value(7));
+    }
+
+    @Test
+    void backfill_shouldRebuildRange() throws Exception {
+        // Given
+        when(salesRollupBackfillService.rebuild(FROM, TO)).thenReturn(new SalesBackfillResponse(FROM, TO, 31));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/reports/sales/backfill")
+                        .with(csrf())
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.daysRebuilt").value(31));
+    }
+
+    @Test
+    @WithMockUser
+    void getDailySales_shouldRequireSalesReportsAuthority() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/reports/sales/daily")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-01-31"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(salesRollupService);
+    }
+}
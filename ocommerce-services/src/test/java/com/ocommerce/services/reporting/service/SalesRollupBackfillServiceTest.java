@@ -0,0 +1,202 @@
+package com.ocommerce.services.reporting.service;
+
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.domain.PaymentStatus;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.reporting.domain.DailyProductSales;
+import com.ocommerce.services.reporting.domain.DailyProductSalesId;
+import com.ocommerce.services.reporting.domain.DailySales;
+import com.ocommerce.services.reporting.dto.SalesBackfillResponse;
+import com.ocommerce.services.reporting.repository.DailyProductSalesRepository;
+import com.ocommerce.services.reporting.repository.DailySalesRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({SalesRollupBackfillService.class, SalesRollupService.class, SalesRollupBackfillServiceTest.MetricsConfig.class})
+class SalesRollupBackfillServiceTest {
+
+    private static final UUID PRODUCT_ID = UUID.randomUUID();
+
+    @Autowired
+    private SalesRollupBackfillService salesRollupBackfillService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void rebuild_shouldRecomputeDayFromOrdersAndReplaceStaleRollups() {
+        // Given
+        LocalDate today = SalesRollupService.salesDate(Instant.now());
+        persistOrder(OrderStatus.CONFIRMED, PaymentStatus.COMPLETED, 2, "20.00");
+        persistOrder(OrderStatus.PENDING, PaymentStatus.PENDING, 1, "10.00");
+        persistOrder(OrderStatus.CANCELLED, PaymentStatus.PENDING, 5, "50.00");
+        persistOrder(OrderStatus.DELIVERED, PaymentStatus.REFUNDED, 3, "30.00");
+        DailySales stale = new DailySales();
+        stale.setSalesDate(today);
+        stale.setOrderCount(99);
+        dailySalesRepository.saveAndFlush(stale);
+
+        // When
+        SalesBackfillResponse response = salesRollupBackfillService.rebuild(today.minusDays(2), today);
+
+        // Then
+        assertThat(response.getDaysRebuilt()).isEqualTo(3);
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today).orElseThrow();
+        assertThat(totals.getOrderCount()).isEqualTo(2);
+        assertThat(totals.getUnitsSold()).isEqualTo(3);
+        assertThat(totals.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(totals.getReversedOrderCount()).isEqualTo(2);
+        DailyProductSales line = dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today, PRODUCT_ID, DailyProductSalesId.NO_VARIANT)).orElseThrow();
+        assertThat(line.getUnitsSold()).isEqualTo(3);
+        assertThat(line.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(dailySalesRepository.findById(today.minusDays(1))).isEmpty();
+    }
+
+    @Test
+    void rebuild_shouldSettleFlagsSoLateEventsAreNotCountedTwice() {
+        // Given
+        LocalDate today = SalesRollupService.salesDate(Instant.now());
+        Order pending = persistOrder(OrderStatus.PENDING, PaymentStatus.PENDING, 1, "10.00");
+        Order cancelled = persistOrder(OrderStatus.CANCELLED, PaymentStatus.PENDING, 1, "10.00");
+
+        // When
+        salesRollupBackfillService.rebuild(today, today);
+        boolean recordedByEvent = salesRollupService.recordOrder(pending.getId());
+        boolean reversedByEvent = salesRollupService.reverseOrder(cancelled.getId());
+
+        // Then
+        assertThat(recordedByEvent).isFalse();
+        assertThat(reversedByEvent).isFalse();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(dailySalesRepository.findById(today)).get()
+            .extracting(DailySales::getOrderCount, DailySales::getReversedOrderCount)
+            .containsExactly(1L, 1L);
+    }
+
+    @Test
+    void rebuild_shouldCountArchivedOrdersOfTheDay() {
+        // Given
+        LocalDate today = SalesRollupService.salesDate(Instant.now());
+        persistOrder(OrderStatus.CONFIRMED, PaymentStatus.COMPLETED, 2, "20.00");
+        Order delivered = persistOrder(OrderStatus.DELIVERED, PaymentStatus.COMPLETED, 1, "10.00");
+        Order refunded = persistOrder(OrderStatus.DELIVERED, PaymentStatus.REFUNDED, 4, "40.00");
+        archive(delivered);
+        archive(refunded);
+
+        // When
+        salesRollupBackfillService.rebuild(today, today);
+
+        // Then
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today).orElseThrow();
+        assertThat(totals.getOrderCount()).isEqualTo(2);
+        assertThat(totals.getUnitsSold()).isEqualTo(3);
+        assertThat(totals.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(totals.getReversedOrderCount()).isEqualTo(1);
+        DailyProductSales line = dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today, PRODUCT_ID, DailyProductSalesId.NO_VARIANT)).orElseThrow();
+        assertThat(line.getUnitsSold()).isEqualTo(3);
+        assertThat(line.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(archivedOrderRepository.findById(refunded.getId())).get()
+            .extracting(ArchivedOrder::isSalesRecorded, ArchivedOrder::isSalesReversed)
+            .containsExactly(true, true);
+    }
+
+    @Test
+    void rebuild_shouldRollUpDayWhoseOrdersAreAllArchived() {
+        // Given
+        LocalDate today = SalesRollupService.salesDate(Instant.now());
+        archive(persistOrder(OrderStatus.DELIVERED, PaymentStatus.COMPLETED, 2, "20.00"));
+
+        // When
+        salesRollupBackfillService.rebuild(today, today);
+
+        // Then
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(dailySalesRepository.findById(today)).get()
+            .extracting(DailySales::getOrderCount, DailySales::getUnitsSold)
+            .containsExactly(1L, 2L);
+    }
+
+    private void archive(Order order) {
+        List<UUID> ids = List.of(order.getId());
+        archivedOrderRepository.copyOrders(ids, Instant.now());
+        archivedOrderRepository.copyOrderItems(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Order persistOrder(OrderStatus orderStatus, PaymentStatus paymentStatus, int quantity, String amount) {
+        Order order = new Order();
+        order.setUserId(UUID.randomUUID());
+        order.setShippingAddressId(UUID.randomUUID());
+        order.setBillingAddressId(UUID.randomUUID());
+        order.setOrderStatus(orderStatus);
+        order.setPaymentStatus(paymentStatus);
+        order.setTotalAmount(new BigDecimal(amount));
+        OrderItem item = new OrderItem();
+        item.setOrder(order);
+        item.setProductId(PRODUCT_ID);
+        item.setQuantity(quantity);
+        item.setUnitPrice(BigDecimal.TEN);
+        order.setItems(new ArrayList<>(List.of(item)));
+        Order saved = entityManager.persistFlushFind(order);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+}
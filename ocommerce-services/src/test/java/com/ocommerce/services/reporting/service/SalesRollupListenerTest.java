@@ -0,0 +1,104 @@
+package com.ocommerce.services.reporting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ocommerce.services.outbox.domain.OutboxEventTypes;
+import com.ocommerce.services.outbox.domain.OutboxMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupListenerTest {
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    private SalesRollupListener salesRollupListener;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupListener = new SalesRollupListener(salesRollupService, new ObjectMapper());
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    void onOutboxMessage_shouldRecordCreatedOrder() {
+        // When
+        salesRollupListener.onOutboxMessage(message(OutboxEventTypes.ORDER_CREATED, "{}"));
+
+        // Then
+        verify(salesRollupService).recordOrder(orderId);
+    }
+
+    @Test
+    void onOutboxMessage_shouldReverseCancelledAndRefundedOrders() {
+        // When
+        salesRollupListener.onOutboxMessage(message(OutboxEventTypes.ORDER_STATUS_CHANGED,
+            "{\"previousStatus\":\"PENDING\",\"status\":\"CANCELLED\"}"));
+        salesRollupListener.onOutboxMessage(message(OutboxEventTypes.PAYMENT_REFUNDED, "{}"));
+
+        // Then
+        verify(salesRollupService, times(2)).reverseOrder(orderId);
+    }
+
+    @Test
+    void onOutboxMessage_shouldApplyRepricingDelta() {
+        // Given
+        UUID productId = UUID.randomUUID();
+        String payload = "{\"orderId\":\"" + orderId + "\",\"pricingVersion\":2,\"previousTotal\":35.00," +
+            "\"totalAmount\":41.00,\"lines\":[{\"productId\":\"" + productId + "\",\"variantId\":null," +
+            "\"sku\":\"SKU-1\",\"previousTotalPrice\":20.00,\"totalPrice\":26.00}]}";
+
+        // When
+        salesRollupListener.onOutboxMessage(message(OutboxEventTypes.ORDER_REPRICED, payload));
+
+        // Then
+        ArgumentCaptor<BigDecimal> revenueDelta = ArgumentCaptor.forClass(BigDecimal.class);
+        ArgumentCaptor<List<SalesRollupService.RevenueDelta>> lines = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupService).repriceOrder(eq(orderId), eq(2), revenueDelta.capture(), lines.capture());
+        assertThat(revenueDelta.getValue()).isEqualByComparingTo("6.00");
+        assertThat(lines.getValue()).singleElement().satisfies(line -> {
+            assertThat(line.productId()).isEqualTo(productId);
+            assertThat(line.variantId()).isNull();
+            assertThat(line.sku()).isEqualTo("SKU-1");
+            assertThat(line.amount()).isEqualByComparingTo("6.00");
+        });
+    }
+
+    @Test
+    void onOutboxMessage_shouldIgnoreOtherStatusChangesAndEvents() {
+        // When
+        salesRollupListener.onOutboxMessage(message(OutboxEventTypes.ORDER_STATUS_CHANGED,
+            "{\"previousStatus\":\"PENDING\",\"status\":\"CONFIRMED\"}"));
+        salesRollupListener.onOutboxMessage(message(OutboxEventTypes.PAYMENT_COMPLETED, "{}"));
+
+        // Then
+        verifyNoInteractions(salesRollupService);
+    }
+
+    @Test
+    void onOutboxMessage_shouldFailOnMalformedPayload() {
+        assertThatThrownBy(() -> salesRollupListener.onOutboxMessage(
+            message(OutboxEventTypes.ORDER_STATUS_CHANGED, "not json")))
+            .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(salesRollupService);
+    }
+
+    private OutboxMessage message(String eventType, String payload) {
+        return new OutboxMessage(1L, OutboxEventTypes.ORDER, orderId, eventType, payload, Instant.now());
+    }
+}
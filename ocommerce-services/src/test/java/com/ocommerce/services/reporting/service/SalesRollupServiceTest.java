@@ -0,0 +1,364 @@
+package com.ocommerce.services.reporting.service;
+
+import com.ocommerce.services.order.domain.ArchivedOrder;
+import com.ocommerce.services.order.domain.Order;
+import com.ocommerce.services.order.domain.OrderItem;
+import com.ocommerce.services.order.domain.OrderStatus;
+import com.ocommerce.services.order.domain.PaymentStatus;
+import com.ocommerce.services.order.repository.ArchivedOrderRepository;
+import com.ocommerce.services.order.repository.OrderRepository;
+import com.ocommerce.services.reporting.domain.DailyProductSales;
+import com.ocommerce.services.reporting.domain.DailyProductSalesId;
+import com.ocommerce.services.reporting.domain.DailySales;
+import com.ocommerce.services.reporting.dto.ProductSalesResponse;
+import com.ocommerce.services.reporting.repository.DailyProductSalesRepository;
+import com.ocommerce.services.reporting.repository.DailySalesRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(SalesRollupService.class)
+class SalesRollupServiceTest {
+
+    private static final UUID PRODUCT_A = UUID.randomUUID();
+    private static final UUID PRODUCT_B = UUID.randomUUID();
+    private static final UUID VARIANT_A = UUID.randomUUID();
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private DailySalesRepository dailySalesRepository;
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void recordOrder_shouldAddOrderToDailyTotalsAndProductLines() {
+        // Given
+        Order order = persistOrder(
+            item(PRODUCT_A, VARIANT_A, 2, "20.00"),
+            item(PRODUCT_A, VARIANT_A, 1, "10.00"),
+            item(PRODUCT_B, null, 1, "5.00"));
+
+        // When
+        boolean recorded = salesRollupService.recordOrder(order.getId());
+
+        // Then
+        assertThat(recorded).isTrue();
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today()).orElseThrow();
+        assertThat(totals.getOrderCount()).isEqualTo(1);
+        assertThat(totals.getUnitsSold()).isEqualTo(4);
+        assertThat(totals.getRevenue()).isEqualByComparingTo("35.00");
+        assertThat(totals.getReversedOrderCount()).isZero();
+
+        DailyProductSales variantLine = dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today(), PRODUCT_A, VARIANT_A)).orElseThrow();
+        assertThat(variantLine.getUnitsSold()).isEqualTo(3);
+        assertThat(variantLine.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(variantLine.getSku()).isEqualTo("SKU-" + PRODUCT_A);
+        assertThat(dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today(), PRODUCT_B, DailyProductSalesId.NO_VARIANT))).isPresent();
+        assertThat(entityManager.find(Order.class, order.getId()).isSalesRecorded()).isTrue();
+    }
+
+    @Test
+    void recordOrder_shouldAccumulateOrdersOfTheSameDay() {
+        // Given
+        Order first = persistOrder(item(PRODUCT_A, null, 1, "10.00"));
+        Order second = persistOrder(item(PRODUCT_A, null, 2, "20.00"));
+
+        // When
+        salesRollupService.recordOrder(first.getId());
+        salesRollupService.recordOrder(second.getId());
+
+        // Then
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today()).orElseThrow();
+        assertThat(totals.getOrderCount()).isEqualTo(2);
+        assertThat(totals.getRevenue()).isEqualByComparingTo("30.00");
+        assertThat(dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today(), PRODUCT_A, DailyProductSalesId.NO_VARIANT)))
+            .get().extracting(DailyProductSales::getUnitsSold).isEqualTo(3L);
+    }
+
+    @Test
+    void recordOrder_shouldCountRedeliveredOrderOnce() {
+        // Given
+        Order order = persistOrder(item(PRODUCT_A, null, 1, "10.00"));
+        salesRollupService.recordOrder(order.getId());
+
+        // When
+        boolean recordedAgain = salesRollupService.recordOrder(order.getId());
+
+        // Then
+        assertThat(recordedAgain).isFalse();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(dailySalesRepository.findById(today())).get()
+            .extracting(DailySales::getOrderCount).isEqualTo(1L);
+    }
+
+    @Test
+    void recordOrder_shouldIgnoreUnknownOrder() {
+        assertThat(salesRollupService.recordOrder(UUID.randomUUID())).isFalse();
+        assertThat(dailySalesRepository.count()).isZero();
+    }
+
+    @Test
+    void reverseOrder_shouldSubtractOrderOnceWhenCancelledAndRefunded() {
+        // Given
+        Order kept = persistOrder(item(PRODUCT_A, null, 1, "10.00"));
+        Order cancelled = persistOrder(item(PRODUCT_A, null, 2, "20.00"));
+        salesRollupService.recordOrder(kept.getId());
+        salesRollupService.recordOrder(cancelled.getId());
+
+        // When
+        boolean reversed = salesRollupService.reverseOrder(cancelled.getId());
+        boolean reversedAgain = salesRollupService.reverseOrder(cancelled.getId());
+
+        // Then
+        assertThat(reversed).isTrue();
+        assertThat(reversedAgain).isFalse();
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today()).orElseThrow();
+        assertThat(totals.getOrderCount()).isEqualTo(1);
+        assertThat(totals.getUnitsSold()).isEqualTo(1);
+        assertThat(totals.getRevenue()).isEqualByComparingTo("10.00");
+        assertThat(totals.getReversedOrderCount()).isEqualTo(1);
+        assertThat(dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today(), PRODUCT_A, DailyProductSalesId.NO_VARIANT)))
+            .get().extracting(DailyProductSales::getUnitsSold).isEqualTo(1L);
+    }
+
+    @Test
+    void reverseOrder_shouldSkipOrderThatWasNeverRecorded() {
+        // Given
+        Order order = persistOrder(item(PRODUCT_A, null, 1, "10.00"));
+
+        // When
+        boolean reversed = salesRollupService.reverseOrder(order.getId());
+
+        // Then
+        assertThat(reversed).isFalse();
+        assertThat(dailySalesRepository.count()).isZero();
+    }
+
+    @Test
+    void reverseOrder_shouldReverseOrderRefundedAfterArchival() {
+        // Given
+        Order order = persistOrder(item(PRODUCT_A, VARIANT_A, 2, "20.00"), item(PRODUCT_B, null, 1, "5.00"));
+        salesRollupService.recordOrder(order.getId());
+        archive(order);
+
+        // When
+        boolean reversed = salesRollupService.reverseOrder(order.getId());
+        boolean reversedAgain = salesRollupService.reverseOrder(order.getId());
+
+        // Then
+        assertThat(reversed).isTrue();
+        assertThat(reversedAgain).isFalse();
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today()).orElseThrow();
+        assertThat(totals.getOrderCount()).isZero();
+        assertThat(totals.getUnitsSold()).isZero();
+        assertThat(totals.getRevenue()).isEqualByComparingTo("0.00");
+        assertThat(totals.getReversedOrderCount()).isEqualTo(1);
+        assertThat(dailyProductSalesRepository.findById(new DailyProductSalesId(today(), PRODUCT_A, VARIANT_A)))
+            .get().extracting(DailyProductSales::getUnitsSold).isEqualTo(0L);
+        assertThat(entityManager.find(ArchivedOrder.class, order.getId()).isSalesReversed()).isTrue();
+    }
+
+    @Test
+    void reverseOrder_shouldSkipArchivedOrderThatIsAlreadyReversed() {
+        // Given
+        ArchivedOrder archived = persistArchivedOrder(true, true);
+
+        // When
+        boolean reversed = salesRollupService.reverseOrder(archived.getId());
+
+        // Then
+        assertThat(reversed).isFalse();
+        assertThat(dailySalesRepository.count()).isZero();
+    }
+
+    @Test
+    void repriceOrder_shouldApplyRevenueDeltaOnce() {
+        // Given
+        Order order = persistOrder(item(PRODUCT_A, VARIANT_A, 2, "20.00"), item(PRODUCT_B, null, 1, "5.00"));
+        salesRollupService.recordOrder(order.getId());
+        List<SalesRollupService.RevenueDelta> lines = List.of(
+            new SalesRollupService.RevenueDelta(PRODUCT_A, VARIANT_A, "SKU-" + PRODUCT_A, new BigDecimal("4.00")),
+            new SalesRollupService.RevenueDelta(PRODUCT_B, null, "SKU-" + PRODUCT_B, BigDecimal.ZERO));
+
+        // When
+        boolean repriced = salesRollupService.repriceOrder(order.getId(), 1, new BigDecimal("4.00"), lines);
+        boolean repricedAgain = salesRollupService.repriceOrder(order.getId(), 1, new BigDecimal("4.00"), lines);
+
+        // Then
+        assertThat(repriced).isTrue();
+        assertThat(repricedAgain).isFalse();
+        entityManager.flush();
+        entityManager.clear();
+        DailySales totals = dailySalesRepository.findById(today()).orElseThrow();
+        assertThat(totals.getOrderCount()).isEqualTo(1);
+        assertThat(totals.getUnitsSold()).isEqualTo(3);
+        assertThat(totals.getRevenue()).isEqualByComparingTo("29.00");
+        DailyProductSales variantLine = dailyProductSalesRepository
+            .findById(new DailyProductSalesId(today(), PRODUCT_A, VARIANT_A)).orElseThrow();
+        assertThat(variantLine.getUnitsSold()).isEqualTo(2);
+        assertThat(variantLine.getRevenue()).isEqualByComparingTo("24.00");
+        assertThat(entityManager.find(Order.class, order.getId()).getSalesPricingVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void repriceOrder_shouldSkipOrderRecordedAtThatPricing() {
+        // Given
+        Order order = persistOrder(item(PRODUCT_A, null, 1, "12.00"));
+        entityManager.getEntityManager()
+            .createQuery("UPDATE Order o SET o.pricingVersion = 1 WHERE o.id = :id")
+            .setParameter("id", order.getId())
+            .executeUpdate();
+        salesRollupService.recordOrder(order.getId());
+
+        // When
+        boolean repriced = salesRollupService.repriceOrder(order.getId(), 1, new BigDecimal("2.00"), List.of(
+            new SalesRollupService.RevenueDelta(PRODUCT_A, null, "SKU-" + PRODUCT_A, new BigDecimal("2.00"))));
+
+        // Then
+        assertThat(repriced).isFalse();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(dailySalesRepository.findById(today())).get()
+            .extracting(DailySales::getRevenue).satisfies(revenue -> assertThat(revenue).isEqualByComparingTo("12.00"));
+    }
+
+    @Test
+    void repriceOrder_shouldSkipOrderThatWasNeverRecorded() {
+        // Given
+        Order order = persistOrder(item(PRODUCT_A, null, 1, "10.00"));
+
+        // When
+        boolean repriced = salesRollupService.repriceOrder(order.getId(), 1, BigDecimal.ONE, List.of());
+
+        // Then
+        assertThat(repriced).isFalse();
+        assertThat(dailySalesRepository.count()).isZero();
+    }
+
+    @Test
+    void getTopProducts_shouldRankVariantsByRevenue() {
+        // Given
+        salesRollupService.recordOrder(persistOrder(
+            item(PRODUCT_A, VARIANT_A, 1, "10.00"),
+            item(PRODUCT_B, null, 1, "50.00")).getId());
+
+        // When
+        List<ProductSalesResponse> top = salesRollupService.getTopProducts(today().minusDays(1), today(), 1);
+
+        // Then
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0).getProductId()).isEqualTo(PRODUCT_B);
+        assertThat(top.get(0).getVariantId()).isNull();
+        assertThat(top.get(0).getRevenue()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void getDailySales_shouldRejectInvalidRanges() {
+        assertThatThrownBy(() -> salesRollupService.getDailySales(today(), today().minusDays(1)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> salesRollupService.getDailySales(today().minusDays(366), today()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(salesRollupService.getDailySales(today().minusDays(365), today())).isEmpty();
+    }
+
+    private Order persistOrder(OrderItem... items) {
+        Order order = new Order();
+        order.setUserId(UUID.randomUUID());
+        order.setShippingAddressId(UUID.randomUUID());
+        order.setBillingAddressId(UUID.randomUUID());
+        order.setItems(new ArrayList<>(List.of(items)));
+        for (OrderItem item : items) {
+            item.setOrder(order);
+        }
+        order.setTotalAmount(order.calculateTotalAmount());
+        Order saved = entityManager.persistFlushFind(order);
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private void archive(Order order) {
+        List<UUID> ids = List.of(order.getId());
+        archivedOrderRepository.copyOrders(ids, Instant.now());
+        archivedOrderRepository.copyOrderItems(ids);
+        orderRepository.deleteItemsByOrderIdIn(ids);
+        orderRepository.deleteByIdIn(ids);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private ArchivedOrder persistArchivedOrder(boolean salesRecorded, boolean salesReversed) {
+        Instant now = Instant.now();
+        ArchivedOrder order = new ArchivedOrder();
+        order.setId(UUID.randomUUID());
+        order.setUserId(UUID.randomUUID());
+        order.setShippingAddressId(UUID.randomUUID());
+        order.setBillingAddressId(UUID.randomUUID());
+        order.setOrderStatus(OrderStatus.CANCELLED);
+        order.setPaymentStatus(PaymentStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setSalesRecorded(salesRecorded);
+        order.setSalesReversed(salesReversed);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        order.setArchivedAt(now);
+        entityManager.persistAndFlush(order);
+        entityManager.clear();
+        return order;
+    }
+
+    private OrderItem item(UUID productId, UUID variantId, int quantity, String totalPrice) {
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setVariantId(variantId);
+        item.setSku("SKU-" + productId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(totalPrice).divide(BigDecimal.valueOf(quantity)));
+        item.setTotalPrice(new BigDecimal(totalPrice));
+        return item;
+    }
+
+    private LocalDate today() {
+        return SalesRollupService.salesDate(Instant.now());
+    }
+}
@@ -0,0 +1,169 @@
+package com.ocommerce.services.security;
+
+import com.ocommerce.services.user.domain.AccessTokenRevocation;
+import com.ocommerce.services.user.repository.AccessTokenRevocationRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenRevocationListTest {
+
+    private static final long ACCESS_TOKEN_EXPIRATION_MS = 900_000L;
+
+    @Mock
+    private AccessTokenRevocationRepository revocationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccessTokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revocationList = new AccessTokenRevocationList(revocationRepository, meterRegistry, ACCESS_TOKEN_EXPIRATION_MS);
+    }
+
+    @Test
+    void revokeToken_shouldRejectOnlyThatToken() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        Claims revoked = claims(Instant.now());
+        Claims other = claims(Instant.now());
+
+        // When
+        revocationList.revokeToken(revoked);
+
+        // Then
+        assertThat(revocationList.isRevoked(revoked, userId)).isTrue();
+        assertThat(revocationList.isRevoked(other, userId)).isFalse();
+        verify(revocationRepository).save(any(AccessTokenRevocation.class));
+        assertThat(meterRegistry.get("auth.access-token-revocations.rejected").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("auth.access-token-revocations.size").tag("type", "token").gauge().value())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void revokeToken_shouldIgnoreTokenWithoutId() {
+        // Given
+        Claims claims = Jwts.claims().subject("test@example.com").build();
+
+        // When
+        revocationList.revokeToken(claims);
+
+        // Then
+        verify(revocationRepository, never()).save(any());
+    }
+
+    @Test
+    void revokeAllForUser_shouldRejectTokensIssuedBeforeOnly() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        Claims issuedEarlier = claims(Instant.now().minusSeconds(60));
+        Claims issuedLater = claims(Instant.now().plusSeconds(60));
+
+        // When
+        revocationList.revokeAllForUser(userId);
+
+        // Then
+        assertThat(revocationList.isRevoked(issuedEarlier, userId)).isTrue();
+        assertThat(revocationList.isRevoked(issuedLater, userId)).isFalse();
+        assertThat(revocationList.isRevoked(issuedEarlier, UUID.randomUUID())).isFalse();
+        assertThat(revocationList.isRevoked(issuedEarlier, null)).isFalse();
+    }
+
+    @Test
+    void poll_shouldLoadUnexpiredFirstAndThenOnlyNewRevocations() {
+        // Given
+        Claims loadedAtStartup = claims(Instant.now());
+        Claims revokedElsewhere = claims(Instant.now());
+        UUID userId = UUID.randomUUID();
+        when(revocationRepository.findUnexpired(any(LocalDateTime.class)))
+            .thenReturn(List.of(revocation(loadedAtStartup)));
+        when(revocationRepository.findCreatedSince(any(LocalDateTime.class)))
+            .thenReturn(List.of(revocation(revokedElsewhere)));
+
+        // When
+        revocationList.loadOnStartup();
+        boolean revokedBeforePoll = revocationList.isRevoked(revokedElsewhere, userId);
+        revocationList.poll();
+
+        // Then
+        assertThat(revocationList.isRevoked(loadedAtStartup, userId)).isTrue();
+        assertThat(revokedBeforePoll).isFalse();
+        assertThat(revocationList.isRevoked(revokedElsewhere, userId)).isTrue();
+        verify(revocationRepository).findUnexpired(any(LocalDateTime.class));
+        verify(revocationRepository).findCreatedSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void poll_shouldKeepLatestCutoffPerUser() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        when(revocationRepository.findUnexpired(any(LocalDateTime.class))).thenReturn(List.of(
+            AccessTokenRevocation.ofUser(userId, now, now.plusMinutes(15)),
+            AccessTokenRevocation.ofUser(userId, now.minusMinutes(10), now.plusMinutes(5))));
+
+        // When
+        revocationList.poll();
+
+        // Then
+        assertThat(revocationList.isRevoked(claims(Instant.now().minusSeconds(60)), userId)).isTrue();
+    }
+
+    @Test
+    void poll_shouldNotHoldExpiredRevocations() {
+        // Given
+        Claims expired = claims(Instant.now());
+        when(revocationRepository.findUnexpired(any(LocalDateTime.class))).thenReturn(List.of(
+            AccessTokenRevocation.ofToken(expired.getId(), LocalDateTime.now().minusSeconds(1))));
+
+        // When
+        revocationList.poll();
+
+        // Then
+        assertThat(revocationList.isRevoked(expired, UUID.randomUUID())).isFalse();
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteRevocationsOfExpiredTokens() {
+        // Given
+        when(revocationRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+
+        // When
+        revocationList.purgeExpired();
+
+        // Then
+        verify(revocationRepository).deleteExpired(any(LocalDateTime.class));
+    }
+
+    private static Claims claims(Instant issuedAt) {
+        return Jwts.claims()
+            .id(UUID.randomUUID().toString())
+            .subject("test@example.com")
+            .issuedAt(Date.from(issuedAt))
+            .expiration(Date.from(issuedAt.plusMillis(ACCESS_TOKEN_EXPIRATION_MS)))
+            .build();
+    }
+
+    private static AccessTokenRevocation revocation(Claims claims) {
+        return AccessTokenRevocation.ofToken(claims.getId(), LocalDateTime.now().plusMinutes(15));
+    }
+}
@@ -0,0 +1,165 @@
+package com.ocommerce.services.security;
+
+import com.ocommerce.services.user.domain.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvbkFuZFZhbGlkYXRpb25JbkVDb21tZXJjZVNlcnZpY2Vz";
+    private static final String EMAIL = "test@example.com";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserStatusCache userStatusCache;
+
+    @Mock
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil(SECRET, 60_000L, 86_400_000L, 1000));
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, userStatusCache, accessTokenRevocationList);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_shouldAuthenticateFromClaimsWithoutLoadingUser() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(userStatusCache.isActive(userId)).thenReturn(true);
+        String token = jwtUtil.generateAccessToken(userId, EMAIL, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        // When
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOf(User.class);
+        User principal = (User) authentication.getPrincipal();
+        assertThat(principal.getId()).isEqualTo(userId);
+        assertThat(principal.getEmail()).isEqualTo(EMAIL);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void doFilter_shouldRejectTokenOfLockedUser() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+        when(userStatusCache.isActive(userId)).thenReturn(false);
+        String token = jwtUtil.generateAccessToken(userId, EMAIL, List.of());
+
+        // When
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void doFilter_shouldRejectRevokedTokenWithoutCheckingUserStatus() throws Exception {
+        // Given
+        UUID userId = UUID.randomUUID();
+        String token = jwtUtil.generateAccessToken(userId, EMAIL, List.of());
+        when(accessTokenRevocationList.isRevoked(any(Claims.class), eq(userId))).thenReturn(true);
+
+        // When
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userStatusCache);
+    }
+
+    @Test
+    void doFilter_shouldLoadUserForTokenWithoutUserId() throws Exception {
+        // Given
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername(EMAIL).password("password").authorities(Collections.emptyList()).build();
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(user);
+        String token = jwtUtil.generateAccessToken(EMAIL);
+
+        // When
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(user);
+        verify(jwtUtil, times(1)).verify(token);
+        verify(jwtUtil, never()).validateToken(anyString());
+        verify(jwtUtil, never()).extractUsername(anyString());
+    }
+
+    @Test
+    void doFilter_shouldNotAuthenticateWithRefreshToken() throws Exception {
+        // Given
+        String token = jwtUtil.generateRefreshToken(EMAIL);
+
+        // When
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void doFilter_shouldContinueChainWithoutAuthenticationForInvalidToken() throws Exception {
+        // Given
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request("invalid.token.here"), new MockHttpServletResponse(), chain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -1,36 +1,37 @@
 package com.ocommerce.services.security;
 
+import com.ocommerce.services.user.domain.Authority;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class JwtUtilTest {
 
+    private static final String SECRET = "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvbkFuZFZhbGlkYXRpb25JbkVDb21tZXJjZVNlcnZpY2Vz"; // 32 characters for HMAC-SHA256
+
     private JwtUtil jwtUtil;
 
     @BeforeEach
-    void setUp() throws NoSuchFieldException, IllegalAccessException {
-        jwtUtil = org.mockito.Mockito.spy(new JwtUtil());
-        java.lang.reflect.Field accessTokenExpField = JwtUtil.class.getDeclaredField("accessTokenExpirationMs");
-        accessTokenExpField.setAccessible(true);
-        accessTokenExpField.set(jwtUtil, 3600L);
-
-        java.lang.reflect.Field refreshTokenExpField = JwtUtil.class.getDeclaredField("refreshTokenExpirationMs");
-        refreshTokenExpField.setAccessible(true);
-        refreshTokenExpField.set(jwtUtil, 86400L);
-
-        java.lang.reflect.Field jwtSecretField = JwtUtil.class.getDeclaredField("jwtSecret");
-        jwtSecretField.setAccessible(true);
-        jwtSecretField.set(jwtUtil, "bXlTdXBlclNlY3JldEtleUZvckpXVFRva2VuR2VuZXJhdGlvbkFuZFZhbGlkYXRpb25JbkVDb21tZXJjZVNlcnZpY2Vz"); // 32 characters for HMAC-SHA256
+    void setUp() {
+        jwtUtil = org.mockito.Mockito.spy(new JwtUtil(SECRET, 3600L, 86400L, 1000));
     }
 
     @Test
@@ -54,6 +55,39 @@ class JwtUtilTest {
         assertThat(jwtUtil.extractUsername(token)).isEqualTo(email);
     }
 
+    @Test
+    @DisplayName("Generate access token - should give every token its own id")
+    void generateAccessToken_ShouldAssignUniqueTokenId() {
+        // Given
+        String email = "test@example.com";
+
+        // When
+        Claims first = jwtUtil.verify(jwtUtil.generateAccessToken(email));
+        Claims second = jwtUtil.verify(jwtUtil.generateAccessToken(email));
+
+        // Then
+        assertThat(first.getId()).isNotBlank();
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+    }
+
+    @Test
+    @DisplayName("Generate access token - should carry the user's granted authorities")
+    void generateAccessToken_WithGrantedAuthorities_ShouldEmbedThem() {
+        // Given
+        com.ocommerce.services.user.domain.User user =
+                new com.ocommerce.services.user.domain.User("John", "Doe", "admin@example.com", "encoded-password");
+        user.setId(UUID.randomUUID());
+        user.setGrantedAuthorities(EnumSet.of(Authority.ORDER_ADMIN));
+
+        // When
+        Claims claims = jwtUtil.verify(jwtUtil.generateAccessToken(user.getId(), user.getUsername(), user.getAuthorities()));
+
+        // Then
+        assertThat(jwtUtil.extractAuthorities(claims))
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ORDER_ADMIN");
+    }
+
     @Test
     @DisplayName("Generate access token - should create valid JWT token with username")
     void generateAccessToken_WithUsername_ShouldReturnValidToken() {
@@ -260,4 +294,88 @@ class JwtUtilTest {
         assertThat(jwtUtil.extractTokenType(accessToken)).isEqualTo("access");
         assertThat(jwtUtil.extractTokenType(refreshToken)).isEqualTo("refresh");
     }
+
+    @Test
+    @DisplayName("Verify - should parse a token once and serve repeats from the cache")
+    void verify_WithSameTokenTwice_ShouldReuseVerifiedClaims() {
+        // Given
+        String token = jwtUtil.generateAccessToken("test@example.com");
+
+        // When
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("test@example.com");
+        assertThat(jwtUtil.isAccessToken(second)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Verify - should reject a token with a tampered payload even after the original was cached")
+    void verify_WithTamperedToken_ShouldThrow() {
+        // Given
+        String token = jwtUtil.generateAccessToken("test@example.com");
+        jwtUtil.verify(token);
+        String[] parts = token.split("\\.");
+        String forgedPayload = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"type\":\"access\",\"sub\":\"admin@example.com\",\"exp\":9999999999}".getBytes());
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        // When/Then
+        assertThatThrownBy(() -> jwtUtil.verify(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Verify - should reject an expired token")
+    void verify_WithExpiredToken_ShouldThrow() {
+        // Given
+        JwtUtil expiringJwtUtil = new JwtUtil(SECRET, -1000L, 86400L, 1000);
+        String token = expiringJwtUtil.generateAccessToken("test@example.com");
+
+        // When/Then
+        assertThatThrownBy(() -> expiringJwtUtil.verify(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(expiringJwtUtil.validateToken(token)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Validate claims - should only accept claims of the given user")
+    void validateClaims_ShouldCompareSubjectWithUser() {
+        // Given
+        Claims claims = jwtUtil.verify(jwtUtil.generateAccessToken("test@example.com"));
+        UserDetails owner = User.withUsername("test@example.com").password("password").authorities(Collections.emptyList()).build();
+        UserDetails other = User.withUsername("other@example.com").password("password").authorities(Collections.emptyList()).build();
+
+        // When/Then
+        assertThat(jwtUtil.validateClaims(claims, owner)).isTrue();
+        assertThat(jwtUtil.validateClaims(claims, other)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Generate access token with user id - should carry id and authorities")
+    void generateAccessToken_WithUserId_ShouldEmbedUserIdAndAuthorities() {
+        // Given
+        UUID userId = UUID.randomUUID();
+
+        // When
+        Claims claims = jwtUtil.verify(jwtUtil.generateAccessToken(userId, "test@example.com",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // Then
+        assertThat(claims.getSubject()).isEqualTo("test@example.com");
+        assertThat(jwtUtil.isAccessToken(claims)).isTrue();
+        assertThat(jwtUtil.extractUserId(claims)).isEqualTo(userId);
+        assertThat(jwtUtil.extractAuthorities(claims)).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("Extract user id - should be null for tokens issued without one")
+    void extractUserId_WithoutUserIdClaim_ShouldReturnNull() {
+        // Given
+        Claims claims = jwtUtil.verify(jwtUtil.generateAccessToken("test@example.com"));
+
+        // When/Then
+        assertThat(jwtUtil.extractUserId(claims)).isNull();
+        assertThat(jwtUtil.extractAuthorities(claims)).isEmpty();
+    }
 }
@@ -0,0 +1,80 @@
+package com.ocommerce.services.security;
+
+import com.ocommerce.services.user.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private static final String ACCOUNT = "test@example.com";
+    private static final String CLIENT_IP = "10.0.0.7";
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(meterRegistry, 900, 3, 5, 1000);
+    }
+
+    @Test
+    void checkAllowed_shouldRefuseAccountAfterMaxFailures() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            assertThatCode(() -> loginThrottle.checkAllowed(ACCOUNT, CLIENT_IP)).doesNotThrowAnyException();
+            loginThrottle.recordFailure(ACCOUNT, CLIENT_IP);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> loginThrottle.checkAllowed(ACCOUNT, "10.0.0.8"))
+            .isInstanceOf(LoginThrottledException.class)
+            .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isBetween(1L, 900L));
+        assertThat(meterRegistry.get("auth.login.throttled").tag("scope", "account").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void checkAllowed_shouldRefuseClientAfterMaxFailuresAcrossAccounts() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("user" + i + "@example.com", CLIENT_IP);
+        }
+
+        // When & Then
+        assertThatThrownBy(() -> loginThrottle.checkAllowed("other@example.com", CLIENT_IP))
+            .isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> loginThrottle.checkAllowed("other@example.com", "10.0.0.8")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("auth.login.throttled").tag("scope", "client").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void recordSuccess_shouldClearAccountFailures() {
+        // Given
+        loginThrottle.recordFailure(ACCOUNT, CLIENT_IP);
+        loginThrottle.recordFailure(ACCOUNT, CLIENT_IP);
+
+        // When
+        loginThrottle.recordSuccess(ACCOUNT);
+        loginThrottle.recordFailure(ACCOUNT, CLIENT_IP);
+        loginThrottle.recordFailure(ACCOUNT, CLIENT_IP);
+
+        // Then
+        assertThatCode(() -> loginThrottle.checkAllowed(ACCOUNT, CLIENT_IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkAllowed_shouldIgnoreUnknownClient() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.recordFailure("user" + i + "@example.com", null);
+        }
+
+        // When & Then
+        assertThatCode(() -> loginThrottle.checkAllowed(ACCOUNT, null)).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,168 @@
+package com.ocommerce.services.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private static final String SEARCH = "/api/v1/products/search";
+    private static final String CLIENT_IP = "10.0.0.7";
+
+    // Refills one token every 1000 seconds, so nothing refills while a test runs
+    private static final double SLOW_REFILL = 0.001;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void tryAcquire_shouldAllowCapacityThenRejectWithWait() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(new RateLimiter.Route("/api/v*/**", RateLimiter.Scope.CLIENT, 3, SLOW_REFILL));
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isZero();
+        }
+
+        // When
+        long wait = rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP);
+
+        // Then
+        assertThat(wait).isBetween(TimeUnit.SECONDS.toNanos(990), TimeUnit.SECONDS.toNanos(1000));
+        assertThat(meterRegistry.get("http.rate-limit.rejected")
+            .tag("route", "/api/v*/**").tag("scope", "CLIENT").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void tryAcquire_shouldRefillOverTime() throws InterruptedException {
+        // Given one token refilled every 20 ms
+        RateLimiter rateLimiter = rateLimiter(new RateLimiter.Route("/api/v*/**", RateLimiter.Scope.IP, 1, 50));
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isPositive();
+
+        // When
+        Thread.sleep(40);
+
+        // Then
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldKeepSeparateBucketsPerUserAndAddress() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(new RateLimiter.Route("/api/v*/**", RateLimiter.Scope.CLIENT, 1, SLOW_REFILL));
+
+        // When & Then
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-1", CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-1", "10.0.0.8")).isPositive();
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-2", CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isPositive();
+    }
+
+    @Test
+    void tryAcquire_shouldShareRouteBucketAcrossClients() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(new RateLimiter.Route(SEARCH, RateLimiter.Scope.ROUTE, 2, SLOW_REFILL));
+
+        // When & Then
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-1", CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-2", "10.0.0.8")).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, "10.0.0.9")).isPositive();
+        assertThat(rateLimiter.tryAcquire("/api/v1/products", null, "10.0.0.9")).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldRequireEveryMatchingRoute() {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(
+            new RateLimiter.Route("/api/v*/**", RateLimiter.Scope.CLIENT, 10, SLOW_REFILL),
+            new RateLimiter.Route(SEARCH, RateLimiter.Scope.CLIENT, 1, SLOW_REFILL));
+
+        // When & Then
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-1", CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, "user-1", CLIENT_IP)).isPositive();
+        assertThat(rateLimiter.tryAcquire("/api/v1/orders", "user-1", CLIENT_IP)).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldGrantExactlyCapacityUnderContention() throws InterruptedException {
+        // Given
+        RateLimiter rateLimiter = rateLimiter(new RateLimiter.Route(SEARCH, RateLimiter.Scope.ROUTE, 100, SLOW_REFILL));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    if (rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(granted.get()).isEqualTo(100);
+    }
+
+    @Test
+    void constructor_shouldBindRoutesFromEnvironment() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("app.rate-limit.routes[0].pattern", "/api/v*/auth/**")
+            .withProperty("app.rate-limit.routes[0].scope", "IP")
+            .withProperty("app.rate-limit.routes[0].capacity", "1")
+            .withProperty("app.rate-limit.routes[0].refill-per-second", "0.001");
+
+        // When
+        RateLimiter rateLimiter = new RateLimiter(environment, meterRegistry, true, 1000, 600);
+
+        // Then
+        assertThat(rateLimiter.tryAcquire("/api/v1/auth/login", null, CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire("/api/v1/auth/login", null, CLIENT_IP)).isPositive();
+        assertThat(rateLimiter.tryAcquire("/api/v1/products", null, CLIENT_IP)).isZero();
+    }
+
+    @Test
+    void constructor_shouldIgnoreRoutesWhenDisabled() {
+        // Given
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("app.rate-limit.routes[0].pattern", "/**")
+            .withProperty("app.rate-limit.routes[0].scope", "ROUTE")
+            .withProperty("app.rate-limit.routes[0].capacity", "1")
+            .withProperty("app.rate-limit.routes[0].refill-per-second", "0.001");
+
+        // When
+        RateLimiter rateLimiter = new RateLimiter(environment, meterRegistry, false, 1000, 600);
+
+        // Then
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isZero();
+        assertThat(rateLimiter.tryAcquire(SEARCH, null, CLIENT_IP)).isZero();
+    }
+
+    private RateLimiter rateLimiter(RateLimiter.Route... routes) {
+        return new RateLimiter(List.of(routes), meterRegistry, 1000, Duration.ofMinutes(10));
+    }
+}
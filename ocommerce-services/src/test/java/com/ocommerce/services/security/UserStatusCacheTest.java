@@ -0,0 +1,100 @@
+package com.ocommerce.services.security;
+
+import com.ocommerce.services.user.domain.User;
+import com.ocommerce.services.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserStatusCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserStatusCache userStatusCache;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userStatusCache = new UserStatusCache(userRepository, 60_000L, 100);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void isActive_shouldReadStatusOnceAndServeRepeatsFromCache() {
+        // Given
+        when(userRepository.findActiveStatusById(userId)).thenReturn(Optional.of(true));
+
+        // When
+        boolean first = userStatusCache.isActive(userId);
+        boolean second = userStatusCache.isActive(userId);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(userRepository, times(1)).findActiveStatusById(userId);
+    }
+
+    @Test
+    void isActive_shouldTreatUnknownUserAsInactive() {
+        // Given
+        when(userRepository.findActiveStatusById(userId)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThat(userStatusCache.isActive(userId)).isFalse();
+    }
+
+    @Test
+    void markInactive_shouldRejectCachedUserImmediately() {
+        // Given
+        when(userRepository.findActiveStatusById(userId)).thenReturn(Optional.of(true));
+        userStatusCache.isActive(userId);
+
+        // When
+        userStatusCache.markInactive(userId);
+
+        // Then
+        assertThat(userStatusCache.isActive(userId)).isFalse();
+    }
+
+    @Test
+    void evict_shouldReadStatusAgain() {
+        // Given
+        when(userRepository.findActiveStatusById(userId)).thenReturn(Optional.of(false), Optional.of(true));
+        userStatusCache.isActive(userId);
+
+        // When
+        userStatusCache.evict(userId);
+
+        // Then
+        assertThat(userStatusCache.isActive(userId)).isTrue();
+        verify(userRepository, times(2)).findActiveStatusById(userId);
+    }
+
+    @Test
+    void put_shouldPrimeStatusFromLoadedUser() {
+        // Given
+        User user = new User();
+        user.setId(userId);
+        user.setAccountLocked(true);
+
+        // When
+        userStatusCache.put(user);
+
+        // Then
+        assertThat(userStatusCache.isActive(userId)).isFalse();
+        verify(userRepository, never()).findActiveStatusById(userId);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ocommerce.services.security.wrapper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XSSRequestWrapperTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void getInputStream_shouldEncodeOnlyStringValues() throws IOException {
+        // Given
+        String body = """
+            {"name": "<script>alert('x')</script>", "<key>": "plain", "price": 19.990, "quantity": 3,
+             "active": true, "note": null, "tags": ["a&b", {"nested": "\\"quoted\\""}]}
+            """;
+
+        // When
+        JsonNode sanitized = objectMapper.readTree(new XSSRequestWrapper(jsonRequest(body)).getInputStream());
+
+        // Then
+        assertThat(sanitized.get("name").asText()).isEqualTo("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;");
+        assertThat(sanitized.get("<key>").asText()).isEqualTo("plain");
+        assertThat(sanitized.get("price").decimalValue()).isEqualByComparingTo("19.990");
+        assertThat(sanitized.get("quantity").asInt()).isEqualTo(3);
+        assertThat(sanitized.get("active").asBoolean()).isTrue();
+        assertThat(sanitized.get("note").isNull()).isTrue();
+        assertThat(sanitized.get("tags").get(0).asText()).isEqualTo("a&amp;b");
+        assertThat(sanitized.get("tags").get(1).get("nested").asText()).isEqualTo("&#34;quoted&#34;");
+    }
+
+    @Test
+    void getInputStream_shouldPreserveMultibyteCharacters() throws IOException {
+        // Given
+        String body = "{\"name\": \"Café – 東京 😀\"}";
+
+        // When
+        JsonNode sanitized = objectMapper.readTree(new XSSRequestWrapper(jsonRequest(body)).getInputStream());
+
+        // Then
+        assertThat(sanitized.get("name").asText()).isEqualTo("Café – 東京 😀");
+    }
+
+    @Test
+    void getInputStream_shouldStreamBodiesLargerThanOneChunk() throws IOException {
+        // Given
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"value\":\"<b>").append(i).append("</b>\"}");
+        }
+        body.append("]");
+
+        // When
+        InputStream inputStream = new XSSRequestWrapper(jsonRequest(body.toString())).getInputStream();
+        String sanitized = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+
+        // Then
+        JsonNode items = objectMapper.readTree(sanitized);
+        assertThat(items).hasSize(5000);
+        assertThat(items.get(4999).get("value").asText()).isEqualTo("&lt;b&gt;4999&lt;/b&gt;");
+        assertThat(inputStream.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void getInputStream_shouldReturnSameStreamOnRepeatedCalls() throws IOException {
+        // Given
+        XSSRequestWrapper wrapper = new XSSRequestWrapper(jsonRequest("{\"name\": \"<i>\"}"));
+
+        // When & Then
+        assertThat(wrapper.getInputStream()).isSameAs(wrapper.getInputStream());
+        assertThat(wrapper.getReader().readLine()).isEqualTo("{\"name\":\"&lt;i&gt;\"}");
+    }
+
+    @Test
+    void getInputStream_shouldPassThroughNonJsonBodies() throws IOException {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/upload");
+        request.setContentType("text/plain");
+        request.setContent("<b>raw</b>".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        String body = new String(new XSSRequestWrapper(request).getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        // Then
+        assertThat(body).isEqualTo("<b>raw</b>");
+    }
+
+    @Test
+    void getInputStream_shouldFailOnMalformedJson() {
+        // Given
+        XSSRequestWrapper wrapper = new XSSRequestWrapper(jsonRequest("{\"name\": \"unterminated"));
+
+        // When & Then
+        assertThatThrownBy(() -> wrapper.getInputStream().readAllBytes()).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void getParameterValues_shouldEncodeEachValue() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/search");
+        request.addParameter("q", "<script>", "shoes");
+
+        // When
+        String[] values = new XSSRequestWrapper(request).getParameterValues("q");
+
+        // Then
+        assertThat(values).containsExactly("&lt;script&gt;", "shoes");
+    }
+
+    private MockHttpServletRequest jsonRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/users/me");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -1,7 +1,10 @@
 package com.ocommerce.services.user.controller;
 
 import com.ocommerce.services.config.WithCustomUser;
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.domain.User;
 import com.ocommerce.services.user.dto.AddressResponse;
 import com.ocommerce.services.user.service.AddressService;
@@ -44,6 +47,15 @@ public class AddressControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     //test get addresses for user
     public AddressControllerTest() {
     }
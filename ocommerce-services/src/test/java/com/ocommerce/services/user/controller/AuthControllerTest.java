@@ -2,10 +2,15 @@ package com.ocommerce.services.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ocommerce.services.security.JwtAuthenticationFilter;
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.dto.AuthResponse;
 import com.ocommerce.services.user.dto.LoginRequest;
 import com.ocommerce.services.user.dto.SignupRequest;
+import com.ocommerce.services.user.exception.LoginThrottledException;
+import com.ocommerce.services.user.exception.PasswordHashingBusyException;
 import com.ocommerce.services.user.service.AuthenticationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,8 +23,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +50,15 @@ public class AuthControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -61,7 +77,7 @@ public class AuthControllerTest {
         authResponse.setAccessToken("access-token");
         authResponse.setRefreshToken("refresh-token");
 
-        when(authenticationService.login(any(LoginRequest.class))).thenReturn(authResponse);
+        when(authenticationService.login(any(LoginRequest.class), eq("10.0.0.7"))).thenReturn(authResponse);
 
         String requestBody = """
             {
@@ -71,6 +87,10 @@ public class AuthControllerTest {
             """;
 
         mockMvc.perform(post("/api/v1/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr("10.0.0.7");
+                    return request;
+                })
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(requestBody))
             .andExpect(status().isOk())
@@ -78,6 +98,44 @@ public class AuthControllerTest {
             .andExpect(jsonPath("$.refreshToken").value("refresh-token"));
     }
 
+    @Test
+    public void testLogin_Throttled() throws Exception {
+        when(authenticationService.login(any(LoginRequest.class), any()))
+            .thenThrow(new LoginThrottledException("Too many failed login attempts, please retry later", 120));
+
+        String requestBody = """
+            {
+                "email": "testuser@ibi.com",
+                "password": "password"
+            }
+            """;
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "120"));
+    }
+
+    @Test
+    public void testLogin_HashingBusy() throws Exception {
+        when(authenticationService.login(any(LoginRequest.class), any()))
+            .thenThrow(new PasswordHashingBusyException("Authentication is busy, please retry shortly"));
+
+        String requestBody = """
+            {
+                "email": "testuser@ibi.com",
+                "password": "password"
+            }
+            """;
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().exists("Retry-After"));
+    }
+
     @Test
     public void testSignup_InvalidEmail() throws Exception {
         String requestBody = """
@@ -1,7 +1,10 @@
 package com.ocommerce.services.user.controller;
 
 import com.ocommerce.services.config.WithCustomUser;
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.RateLimiter;
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.dto.UserResponse;
 import com.ocommerce.services.user.dto.UserUpdateRequest;
 import com.ocommerce.services.user.exception.UserNotFoundException;
@@ -34,6 +37,15 @@ public class UserControllerTest {
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private UserStatusCache userStatusCache;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
     @Test
     @WithCustomUser(email = EMAIL, userId = USER_ID,
             firstName = FIRST_NAME,
@@ -2,11 +2,13 @@ package com.ocommerce.services.user.repository;
 
 import com.ocommerce.services.user.domain.RefreshToken;
 import com.ocommerce.services.user.domain.User;
+import com.ocommerce.services.user.service.RefreshTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -46,27 +48,27 @@ class RefreshTokenRepositoryIT {
         expiredToken = createExpiredRefreshToken();
         revokedToken = createRevokedRefreshToken();
 
-        refreshTokenRepository.save(validToken);
-        refreshTokenRepository.save(expiredToken);
-        refreshTokenRepository.save(revokedToken);
+        validToken = refreshTokenRepository.save(validToken);
+        expiredToken = refreshTokenRepository.save(expiredToken);
+        revokedToken = refreshTokenRepository.save(revokedToken);
         refreshTokenRepository.flush();
     }
 
     @Test
     void findByUserAndToken_WhenTokenExists_ShouldReturnToken() {
         // When
-        Optional<RefreshToken> result = refreshTokenRepository.findByUserAndToken(testUser, "valid-token");
+        Optional<RefreshToken> result = refreshTokenRepository.findByUserAndTokenHash(testUser, RefreshTokenService.hash("valid-token"));
 
         // Then
         assertThat(result).isPresent();
-        assertThat(result.get().getToken()).isEqualTo("valid-token");
+        assertThat(result.get().getTokenHash()).isEqualTo(RefreshTokenService.hash("valid-token"));
         assertThat(result.get().getUser().getId()).isEqualTo(testUser.getId());
     }
 
     @Test
     void findByUserAndToken_WhenTokenNotExists_ShouldReturnEmpty() {
         // When
-        Optional<RefreshToken> result = refreshTokenRepository.findByUserAndToken(testUser, "non-existent-token");
+        Optional<RefreshToken> result = refreshTokenRepository.findByUserAndTokenHash(testUser, RefreshTokenService.hash("non-existent-token"));
 
         // Then
         assertThat(result).isEmpty();
@@ -75,18 +77,18 @@ class RefreshTokenRepositoryIT {
     @Test
     void findValidByToken_WhenTokenValidAndNotExpired_ShouldReturnToken() {
         // When
-        Optional<RefreshToken> result = refreshTokenRepository.findValidByToken("valid-token", LocalDateTime.now());
+        Optional<RefreshToken> result = refreshTokenRepository.findValidByTokenHash(RefreshTokenService.hash("valid-token"), LocalDateTime.now());
 
         // Then
         assertThat(result).isPresent();
-        assertThat(result.get().getToken()).isEqualTo("valid-token");
+        assertThat(result.get().getTokenHash()).isEqualTo(RefreshTokenService.hash("valid-token"));
         assertThat(result.get().isRevoked()).isFalse();
     }
 
     @Test
     void findValidByToken_WhenTokenExpired_ShouldReturnEmpty() {
         // When
-        Optional<RefreshToken> result = refreshTokenRepository.findValidByToken("expired-token", LocalDateTime.now());
+        Optional<RefreshToken> result = refreshTokenRepository.findValidByTokenHash(RefreshTokenService.hash("expired-token"), LocalDateTime.now());
 
         // Then
         assertThat(result).isEmpty();
@@ -95,7 +97,7 @@ class RefreshTokenRepositoryIT {
     @Test
     void findValidByToken_WhenTokenRevoked_ShouldReturnEmpty() {
         // When
-        Optional<RefreshToken> result = refreshTokenRepository.findValidByToken("revoked-token", LocalDateTime.now());
+        Optional<RefreshToken> result = refreshTokenRepository.findValidByTokenHash(RefreshTokenService.hash("revoked-token"), LocalDateTime.now());
 
         // Then
         assertThat(result).isEmpty();
@@ -108,8 +110,9 @@ class RefreshTokenRepositoryIT {
 
         // Then
         assertThat(result).hasSize(3);
-        assertThat(result).extracting(RefreshToken::getToken)
-                .containsExactlyInAnyOrder("valid-token", "expired-token", "revoked-token");
+        assertThat(result).extracting(RefreshToken::getTokenHash)
+                .containsExactlyInAnyOrder(RefreshTokenService.hash("valid-token"), RefreshTokenService.hash("expired-token"),
+                        RefreshTokenService.hash("revoked-token"));
     }
 
     @Test
@@ -119,7 +122,7 @@ class RefreshTokenRepositoryIT {
 
         // Then
         assertThat(result).hasSize(1);
-        assertThat(result.get(0).getToken()).isEqualTo("valid-token");
+        assertThat(result.get(0).getTokenHash()).isEqualTo(RefreshTokenService.hash("valid-token"));
         assertThat(result.get(0).isRevoked()).isFalse();
     }
 
@@ -138,44 +141,49 @@ class RefreshTokenRepositoryIT {
     @Test
     void revokeByTokenAndUser_WhenTokenExists_ShouldRevokeSpecificToken() {
         // When
-        refreshTokenRepository.revokeByTokenAndUser("valid-token", testUser);
+        refreshTokenRepository.revokeByTokenHashAndUser(RefreshTokenService.hash("valid-token"), testUser);
         refreshTokenRepository.flush();
 
         // Then
-        Optional<RefreshToken> revokedToken = refreshTokenRepository.findByUserAndToken(testUser, "valid-token");
+        Optional<RefreshToken> revokedToken = refreshTokenRepository.findByUserAndTokenHash(testUser, RefreshTokenService.hash("valid-token"));
         assertThat(revokedToken).isPresent();
         assertThat(revokedToken.get().isRevoked()).isTrue();
 
         // Other tokens should remain unchanged
-        Optional<RefreshToken> otherToken = refreshTokenRepository.findByUserAndToken(testUser, "expired-token");
+        Optional<RefreshToken> otherToken = refreshTokenRepository.findByUserAndTokenHash(testUser, RefreshTokenService.hash("expired-token"));
         assertThat(otherToken).isPresent();
         assertThat(otherToken.get().isRevoked()).isFalse();
     }
 
     @Test
-    void deleteExpiredTokens_WhenExpiredTokensExist_ShouldDeleteOnlyExpiredTokens() {
+    void findExpiredIds_ShouldReturnOnlyExpiredTokensUpToPageSize() {
         // When
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
-        refreshTokenRepository.flush();
+        List<UUID> expiredIds = refreshTokenRepository.findExpiredIds(LocalDateTime.now(), PageRequest.of(0, 10));
 
         // Then
-        List<RefreshToken> remainingTokens = refreshTokenRepository.findByUser(testUser);
-        assertThat(remainingTokens).hasSize(2);
-        assertThat(remainingTokens).extracting(RefreshToken::getToken)
-                .containsExactlyInAnyOrder("valid-token", "revoked-token");
+        assertThat(expiredIds).containsExactly(expiredToken.getId());
+    }
+
+    @Test
+    void findRevokedIds_ShouldReturnOnlyRevokedTokens() {
+        // When
+        List<UUID> revokedIds = refreshTokenRepository.findRevokedIds(PageRequest.of(0, 10));
+
+        // Then
+        assertThat(revokedIds).containsExactly(revokedToken.getId());
     }
 
     @Test
-    void deleteRevokedTokens_WhenRevokedTokensExist_ShouldDeleteOnlyRevokedTokens() {
+    void deleteByIds_ShouldDeleteOnlyGivenTokens() {
         // When
-        refreshTokenRepository.deleteRevokedTokens();
+        int deleted = refreshTokenRepository.deleteByIds(List.of(expiredToken.getId(), revokedToken.getId()));
         refreshTokenRepository.flush();
 
         // Then
+        assertThat(deleted).isEqualTo(2);
         List<RefreshToken> remainingTokens = refreshTokenRepository.findByUser(testUser);
-        assertThat(remainingTokens).hasSize(2);
-        assertThat(remainingTokens).extracting(RefreshToken::getToken)
-                .containsExactlyInAnyOrder("valid-token", "expired-token");
+        assertThat(remainingTokens).extracting(RefreshToken::getTokenHash)
+                .containsExactly(RefreshTokenService.hash("valid-token"));
     }
 
     @Test
@@ -205,7 +213,7 @@ class RefreshTokenRepositoryIT {
         // Given
         RefreshToken newToken = new RefreshToken();
         newToken.setUser(testUser);
-        newToken.setToken("new-token");
+        newToken.setTokenHash(RefreshTokenService.hash("new-token"));
         newToken.setExpiryDate(LocalDateTime.now().plusDays(7));
         newToken.setRevoked(false);
 
@@ -237,7 +245,7 @@ class RefreshTokenRepositoryIT {
         RefreshToken token = new RefreshToken();
         token.setId(UUID.randomUUID());
         token.setUser(testUser);
-        token.setToken("valid-token");
+        token.setTokenHash(RefreshTokenService.hash("valid-token"));
         token.setExpiryDate(LocalDateTime.now().plusDays(7));
         token.setRevoked(false);
         return token;
@@ -247,7 +255,7 @@ class RefreshTokenRepositoryIT {
         RefreshToken token = new RefreshToken();
         token.setId(UUID.randomUUID());
         token.setUser(testUser);
-        token.setToken("expired-token");
+        token.setTokenHash(RefreshTokenService.hash("expired-token"));
         token.setExpiryDate(LocalDateTime.now().minusDays(1));
         token.setRevoked(false);
         return token;
@@ -257,7 +265,7 @@ class RefreshTokenRepositoryIT {
         RefreshToken token = new RefreshToken();
         token.setId(UUID.randomUUID());
         token.setUser(testUser);
-        token.setToken("revoked-token");
+        token.setTokenHash(RefreshTokenService.hash("revoked-token"));
         token.setExpiryDate(LocalDateTime.now().plusDays(7));
         token.setRevoked(true);
         return token;
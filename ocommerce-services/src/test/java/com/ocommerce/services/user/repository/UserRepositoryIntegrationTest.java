@@ -1,15 +1,22 @@
 package com.ocommerce.services.user.repository;
 
+import com.ocommerce.services.user.domain.Authority;
 import com.ocommerce.services.user.domain.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,57 +40,59 @@ class UserRepositoryIntegrationTest {
     }
 
     @Test
-    void findByEmailIgnoreCase_WhenUserExists_ShouldReturnUser() {
+    void findByEmailNormalized_WhenUserExists_ShouldReturnUser() {
         // Given
+        testUser.setEmail("Test@Example.com");
         User savedUser = userRepository.save(testUser);
 
         // When
-        Optional<User> result = userRepository.findByEmailIgnoreCase("TEST@EXAMPLE.COM");
+        Optional<User> result = userRepository.findByEmailNormalized(User.normalizeEmail(" TEST@EXAMPLE.COM"));
 
         // Then
         assertThat(result).isPresent();
         assertThat(result.get().getId()).isEqualTo(savedUser.getId());
-        assertThat(result.get().getEmail()).isEqualTo("test@example.com");
+        assertThat(result.get().getEmail()).isEqualTo("Test@Example.com");
+        assertThat(result.get().getEmailNormalized()).isEqualTo("test@example.com");
     }
 
     @Test
-    void findByEmailIgnoreCase_WhenUserNotExists_ShouldReturnEmpty() {
+    void findByEmailNormalized_WhenUserNotExists_ShouldReturnEmpty() {
         // When
-        Optional<User> result = userRepository.findByEmailIgnoreCase("nonexistent@example.com");
+        Optional<User> result = userRepository.findByEmailNormalized("nonexistent@example.com");
 
         // Then
         assertThat(result).isEmpty();
     }
 
     @Test
-    void existsByEmailIgnoreCase_WhenUserExists_ShouldReturnTrue() {
+    void existsByEmailNormalized_WhenUserExists_ShouldReturnTrue() {
         // Given
         userRepository.save(testUser);
 
         // When
-        boolean result = userRepository.existsByEmailIgnoreCase("TEST@EXAMPLE.COM");
+        boolean result = userRepository.existsByEmailNormalized(User.normalizeEmail("TEST@EXAMPLE.COM"));
 
         // Then
         assertThat(result).isTrue();
     }
 
     @Test
-    void existsByEmailIgnoreCase_WhenUserNotExists_ShouldReturnFalse() {
+    void existsByEmailNormalized_WhenUserNotExists_ShouldReturnFalse() {
         // When
-        boolean result = userRepository.existsByEmailIgnoreCase("nonexistent@example.com");
+        boolean result = userRepository.existsByEmailNormalized("nonexistent@example.com");
 
         // Then
         assertThat(result).isFalse();
     }
 
     @Test
-    void findByEmailIgnoreCaseAndAccountEnabled_WhenUserEnabledExists_ShouldReturnUser() {
+    void findByEmailNormalizedAndAccountEnabled_WhenUserEnabledExists_ShouldReturnUser() {
         // Given
         testUser.setAccountEnabled(true);
         userRepository.save(testUser);
 
         // When
-        Optional<User> result = userRepository.findByEmailIgnoreCaseAndAccountEnabled("test@example.com");
+        Optional<User> result = userRepository.findByEmailNormalizedAndAccountEnabled("test@example.com");
 
         // Then
         assertThat(result).isPresent();
@@ -91,13 +100,13 @@ class UserRepositoryIntegrationTest {
     }
 
     @Test
-    void findByEmailIgnoreCaseAndAccountEnabled_WhenUserDisabled_ShouldReturnEmpty() {
+    void findByEmailNormalizedAndAccountEnabled_WhenUserDisabled_ShouldReturnEmpty() {
         // Given
         testUser.setAccountEnabled(false);
         userRepository.save(testUser);
 
         // When
-        Optional<User> result = userRepository.findByEmailIgnoreCaseAndAccountEnabled("test@example.com");
+        Optional<User> result = userRepository.findByEmailNormalizedAndAccountEnabled("test@example.com");
 
         // Then
         assertThat(result).isEmpty();
@@ -152,6 +161,51 @@ class UserRepositoryIntegrationTest {
         assertThat(count).isEqualTo(2L);
     }
 
+    @Test
+    void findActiveStatusById_ShouldReflectEnabledAndLockedFlags() {
+        // Given
+        User activeUser = userRepository.save(testUser);
+
+        User lockedUser = createTestUser();
+        lockedUser.setEmail("locked@example.com");
+        lockedUser.setAccountLocked(true);
+        lockedUser = userRepository.save(lockedUser);
+
+        // When & Then
+        assertThat(userRepository.findActiveStatusById(activeUser.getId())).contains(true);
+        assertThat(userRepository.findActiveStatusById(lockedUser.getId())).contains(false);
+        assertThat(userRepository.findActiveStatusById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void findEmailsNormalizedAfter_ShouldPageThroughEmailsInOrder() {
+        // Given
+        for (String email : new String[]{"c@example.com", "A@example.com", "b@example.com"}) {
+            User user = createTestUser();
+            user.setEmail(email);
+            userRepository.save(user);
+        }
+
+        // When
+        List<String> firstPage = userRepository.findEmailsNormalizedAfter("", PageRequest.of(0, 2));
+        List<String> secondPage = userRepository.findEmailsNormalizedAfter(firstPage.get(1), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(firstPage).containsExactly("a@example.com", "b@example.com");
+        assertThat(secondPage).containsExactly("c@example.com");
+    }
+
+    @Test
+    void findEmailsNormalizedCreatedSince_ShouldReturnOnlyRecentUsers() {
+        // Given
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        userRepository.save(testUser);
+
+        // When & Then
+        assertThat(userRepository.findEmailsNormalizedCreatedSince(before)).containsExactly("test@example.com");
+        assertThat(userRepository.findEmailsNormalizedCreatedSince(LocalDateTime.now().plusMinutes(1))).isEmpty();
+    }
+
     @Test
     void save_WhenNewUser_ShouldGenerateIdAndTimestamps() {
         // When
@@ -194,6 +248,23 @@ class UserRepositoryIntegrationTest {
         assertThat(foundUser.get().isDeleted()).isTrue();
     }
 
+    @Test
+    void save_ShouldRoundTripGrantedAuthorities() {
+        // Given
+        testUser.setGrantedAuthorities(EnumSet.of(Authority.ORDER_ADMIN, Authority.SALES_REPORTS));
+        User savedUser = userRepository.saveAndFlush(testUser);
+
+        // When
+        Optional<User> foundUser = userRepository.findById(savedUser.getId());
+
+        // Then
+        assertThat(foundUser).isPresent();
+        assertThat(foundUser.get().getGrantedAuthorities()).containsExactly(Authority.ORDER_ADMIN, Authority.SALES_REPORTS);
+        assertThat(foundUser.get().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ORDER_ADMIN", "SALES_REPORTS");
+    }
+
     // Helper methods
     private User createTestUser() {
         User user = new User();
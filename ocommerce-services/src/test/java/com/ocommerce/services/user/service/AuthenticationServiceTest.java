@@ -1,12 +1,18 @@
 package com.ocommerce.services.user.service;
 
+import com.ocommerce.services.security.AccessTokenRevocationList;
 import com.ocommerce.services.security.JwtUtil;
+import com.ocommerce.services.security.LoginThrottle;
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.domain.RefreshToken;
 import com.ocommerce.services.user.domain.User;
 import com.ocommerce.services.user.dto.AuthResponse;
 import com.ocommerce.services.user.dto.LoginRequest;
 import com.ocommerce.services.user.dto.SignupRequest;
 import com.ocommerce.services.user.dto.UserResponse;
+import com.ocommerce.services.user.exception.LoginThrottledException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -34,6 +40,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AuthenticationServiceTest {
 
+        private static final String CLIENT_IP = "10.0.0.7";
+
         @Mock
         private AuthenticationManager authenticationManager;
 
@@ -46,6 +54,15 @@ class AuthenticationServiceTest {
         @Mock
         private JwtUtil jwtUtil;
 
+        @Mock
+        private UserStatusCache userStatusCache;
+
+        @Mock
+        private LoginThrottle loginThrottle;
+
+        @Mock
+        private AccessTokenRevocationList accessTokenRevocationList;
+
         @InjectMocks
         private AuthenticationService authenticationService;
 
@@ -75,7 +92,7 @@ class AuthenticationServiceTest {
                                 .thenReturn(refreshToken);
 
                 // When
-                AuthResponse result = authenticationService.login(loginRequest);
+                AuthResponse result = authenticationService.login(loginRequest, CLIENT_IP);
 
                 // Then
                 assertThat(result).isNotNull();
@@ -88,6 +105,9 @@ class AuthenticationServiceTest {
                 verify(jwtUtil).generateAccessToken(authentication);
                 verify(jwtUtil).getAccessTokenExpirationSeconds();
                 verify(refreshTokenService).createRefreshToken(testUser);
+                verify(userStatusCache).put(testUser);
+                verify(loginThrottle).checkAllowed("test@example.com", CLIENT_IP);
+                verify(loginThrottle).recordSuccess("test@example.com");
         }
 
         @Test
@@ -106,7 +126,7 @@ class AuthenticationServiceTest {
                                 .thenReturn(userResponse);
                 when(userService.findByEmail(signupRequest.getEmail()))
                                 .thenReturn(Optional.of(testUser));
-                when(jwtUtil.generateAccessToken(testUser.getEmail()))
+                when(jwtUtil.generateAccessToken(testUser.getId(), testUser.getEmail(), testUser.getAuthorities()))
                                 .thenReturn("access-token");
                 when(jwtUtil.getAccessTokenExpirationSeconds())
                                 .thenReturn(3600L);
@@ -124,7 +144,7 @@ class AuthenticationServiceTest {
 
                 verify(userService).registerUser(signupRequest);
                 verify(userService).findByEmail(signupRequest.getEmail());
-                verify(jwtUtil).generateAccessToken(testUser.getEmail());
+                verify(jwtUtil).generateAccessToken(testUser.getId(), testUser.getEmail(), testUser.getAuthorities());
                 verify(jwtUtil).getAccessTokenExpirationSeconds();
                 verify(refreshTokenService).createRefreshToken(testUser);
         }
@@ -151,7 +171,7 @@ class AuthenticationServiceTest {
 
                 verify(userService).registerUser(signupRequest);
                 verify(userService).findByEmail(signupRequest.getEmail());
-                verify(jwtUtil, never()).generateAccessToken(anyString());
+                verify(jwtUtil, never()).generateAccessToken(any(UUID.class), anyString(), any());
                 verify(refreshTokenService, never()).createRefreshToken(any(User.class));
         }
 
@@ -167,9 +187,26 @@ class AuthenticationServiceTest {
                                 .thenThrow(new BadCredentialsException("Bad credentials"));
 
                 // When/Then
-                assertThatThrownBy(() -> authenticationService.login(loginRequest))
+                assertThatThrownBy(() -> authenticationService.login(loginRequest, CLIENT_IP))
                                 .isInstanceOf(BadCredentialsException.class)
                                 .hasMessage("Invalid email or password");
+
+                verify(loginThrottle).recordFailure(email, CLIENT_IP);
+                verify(loginThrottle, never()).recordSuccess(anyString());
+        }
+
+        @Test
+        void login_WhenThrottled_ShouldNotVerifyPassword() {
+                // Given
+                doThrow(new LoginThrottledException("Too many failed login attempts, please retry later", 60))
+                                .when(loginThrottle).checkAllowed("test@example.com", CLIENT_IP);
+
+                // When/Then
+                assertThatThrownBy(() -> authenticationService.login(loginRequest, CLIENT_IP))
+                                .isInstanceOf(LoginThrottledException.class);
+
+                verify(authenticationManager, never()).authenticate(any());
+                verify(loginThrottle, never()).recordFailure(anyString(), anyString());
         }
 
         @Test
@@ -181,7 +218,7 @@ class AuthenticationServiceTest {
                                 .thenReturn(authentication);
 
                 // When/Then
-                assertThatThrownBy(() -> authenticationService.login(loginRequest))
+                assertThatThrownBy(() -> authenticationService.login(loginRequest, CLIENT_IP))
                                 .isInstanceOf(RuntimeException.class);
 
                 verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
@@ -193,7 +230,7 @@ class AuthenticationServiceTest {
             String refreshTokenString = "valid-refresh-token";
             when(refreshTokenService.findValidToken(refreshTokenString))
                     .thenReturn(Optional.of(refreshToken));
-            when(jwtUtil.generateAccessToken(testUser.getEmail()))
+            when(jwtUtil.generateAccessToken(testUser.getId(), testUser.getEmail(), testUser.getAuthorities()))
                     .thenReturn("new-access-token");
             when(jwtUtil.getAccessTokenExpirationSeconds())
                     .thenReturn(3600L);
@@ -213,8 +250,8 @@ class AuthenticationServiceTest {
             assertThat(result.getExpiresIn()).isEqualTo(3600L);
 
             verify(refreshTokenService).findValidToken(refreshTokenString);
-            verify(refreshTokenService).revokeTokenForUser(refreshToken.getToken(), testUser);
-            verify(jwtUtil).generateAccessToken(testUser.getEmail());
+            verify(refreshTokenService).revokeTokenForUser(refreshTokenString, testUser);
+            verify(jwtUtil).generateAccessToken(testUser.getId(), testUser.getEmail(), testUser.getAuthorities());
             verify(jwtUtil).getAccessTokenExpirationSeconds();
             verify(refreshTokenService).createRefreshToken(testUser);
         }
@@ -245,12 +282,52 @@ class AuthenticationServiceTest {
                                 .thenReturn(Optional.of(refreshToken));
 
                 // When
-                authenticationService.logout(email, refreshTokenString);
+                authenticationService.logout(email, refreshTokenString, null);
 
                 // Then
                 verify(userService).findByEmail(email);
                 verify(refreshTokenService).findByUserAndToken(testUser, refreshTokenString);
-                verify(refreshTokenService).revokeTokenForUser(refreshToken.getToken(), testUser);
+                verify(refreshTokenService).revokeTokenForUser(refreshTokenString, testUser);
+                verifyNoInteractions(accessTokenRevocationList);
+        }
+
+        @Test
+        void logout_WhenAccessTokenPresented_ShouldRevokeAccessToken() {
+                // Given
+                String email = "test@example.com";
+                String refreshTokenString = "valid-refresh-token";
+                Claims claims = mock(Claims.class);
+                when(jwtUtil.verify("access-token")).thenReturn(claims);
+                when(userService.findByEmail(email))
+                                .thenReturn(Optional.of(testUser));
+                when(refreshTokenService.findByUserAndToken(testUser, refreshTokenString))
+                                .thenReturn(Optional.of(refreshToken));
+
+                // When
+                authenticationService.logout(email, refreshTokenString, "access-token");
+
+                // Then
+                verify(accessTokenRevocationList).revokeToken(claims);
+                verify(refreshTokenService).revokeTokenForUser(refreshTokenString, testUser);
+        }
+
+        @Test
+        void logout_WhenAccessTokenExpired_ShouldStillRevokeRefreshToken() {
+                // Given
+                String email = "test@example.com";
+                String refreshTokenString = "valid-refresh-token";
+                when(jwtUtil.verify("expired-token")).thenThrow(new ExpiredJwtException(null, null, "expired"));
+                when(userService.findByEmail(email))
+                                .thenReturn(Optional.of(testUser));
+                when(refreshTokenService.findByUserAndToken(testUser, refreshTokenString))
+                                .thenReturn(Optional.of(refreshToken));
+
+                // When
+                authenticationService.logout(email, refreshTokenString, "expired-token");
+
+                // Then
+                verify(accessTokenRevocationList, never()).revokeToken(any());
+                verify(refreshTokenService).revokeTokenForUser(refreshTokenString, testUser);
         }
 
         @Test
@@ -264,7 +341,7 @@ class AuthenticationServiceTest {
                                 .thenReturn(Optional.empty());
 
                 // When/Then - should not throw exception
-                assertThatCode(() -> authenticationService.logout(email, refreshTokenString))
+                assertThatCode(() -> authenticationService.logout(email, refreshTokenString, null))
                                 .doesNotThrowAnyException();
 
                 verify(userService).findByEmail(email);
@@ -285,6 +362,7 @@ class AuthenticationServiceTest {
                 // Then
                 verify(userService).findByEmail(userEmail);
                 verify(refreshTokenService).revokeAllTokensForUser(testUser);
+                verify(accessTokenRevocationList).revokeAllForUser(testUser.getId());
         }
 
         @Test
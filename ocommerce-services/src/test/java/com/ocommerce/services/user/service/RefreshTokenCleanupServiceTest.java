@@ -0,0 +1,127 @@
+package com.ocommerce.services.user.service;
+
+import com.ocommerce.services.user.domain.RefreshToken;
+import com.ocommerce.services.user.domain.User;
+import com.ocommerce.services.user.repository.RefreshTokenRepository;
+import com.ocommerce.services.user.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({RefreshTokenCleanupService.class, RefreshTokenCleanupServiceTest.Config.class})
+@TestPropertySource(properties = {
+    "app.auth.refresh-token-cleanup.batch-size=2",
+    "app.auth.refresh-token-cleanup.max-batches-per-run=10"
+})
+class RefreshTokenCleanupServiceTest {
+
+    @Autowired
+    private RefreshTokenCleanupService refreshTokenCleanupService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setEmail("cleanup@example.com");
+        user.setPassword("encoded-password");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void deleteExpiredTokens_shouldDeleteAllExpiredTokensAcrossBatches() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            saveToken("expired-" + i, LocalDateTime.now().minusDays(i + 1), false);
+        }
+        saveToken("valid", LocalDateTime.now().plusDays(1), false);
+        double before = deletedCount("expired");
+
+        // When
+        int deleted = refreshTokenCleanupService.deleteExpiredTokens();
+
+        // Then
+        assertThat(deleted).isEqualTo(5);
+        assertThat(remainingHashes()).containsExactly(RefreshTokenService.hash("valid"));
+        assertThat(deletedCount("expired") - before).isEqualTo(5.0);
+    }
+
+    @Test
+    void deleteRevokedTokens_shouldKeepValidTokens() {
+        // Given
+        saveToken("revoked-1", LocalDateTime.now().plusDays(1), true);
+        saveToken("revoked-2", LocalDateTime.now().plusDays(1), true);
+        saveToken("revoked-3", LocalDateTime.now().plusDays(1), true);
+        saveToken("valid", LocalDateTime.now().plusDays(1), false);
+
+        // When
+        int deleted = refreshTokenCleanupService.deleteRevokedTokens();
+
+        // Then
+        assertThat(deleted).isEqualTo(3);
+        assertThat(remainingHashes()).containsExactly(RefreshTokenService.hash("valid"));
+    }
+
+    @Test
+    void deleteExpiredTokens_shouldStopAfterMaxBatchesPerRun() {
+        // Given
+        for (int i = 0; i < 25; i++) {
+            saveToken("expired-" + i, LocalDateTime.now().minusDays(i + 1), false);
+        }
+
+        // When
+        int deleted = refreshTokenCleanupService.deleteExpiredTokens();
+
+        // Then
+        assertThat(deleted).isEqualTo(20);
+        assertThat(remainingHashes()).hasSize(5);
+    }
+
+    private void saveToken(String token, LocalDateTime expiryDate, boolean revoked) {
+        RefreshToken refreshToken = new RefreshToken(RefreshTokenService.hash(token), expiryDate, user);
+        refreshToken.setRevoked(revoked);
+        refreshTokenRepository.save(refreshToken);
+    }
+
+    private List<String> remainingHashes() {
+        return refreshTokenRepository.findByUser(user).stream().map(RefreshToken::getTokenHash).toList();
+    }
+
+    private double deletedCount(String reason) {
+        return meterRegistry.get("auth.refresh-tokens.deleted").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,122 @@
+package com.ocommerce.services.user.service;
+
+import com.ocommerce.services.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEmailFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RegisteredEmailFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RegisteredEmailFilter(userRepository, meterRegistry, true, 10_000, 0.01, 2);
+    }
+
+    @Test
+    void mightContain_shouldAnswerMaybeUntilLoaded() {
+        // When & Then
+        assertThat(filter.mightContain("unknown@example.com")).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void load_shouldAddEveryPageOfEmails() {
+        // Given
+        when(userRepository.findEmailsNormalizedAfter("", PageRequest.of(0, 2)))
+            .thenReturn(List.of("a@example.com", "b@example.com"));
+        when(userRepository.findEmailsNormalizedAfter("b@example.com", PageRequest.of(0, 2)))
+            .thenReturn(List.of("c@example.com"));
+
+        // When
+        int loaded = filter.load();
+
+        // Then
+        assertThat(loaded).isEqualTo(3);
+        assertThat(filter.mightContain("a@example.com")).isTrue();
+        assertThat(filter.mightContain("c@example.com")).isTrue();
+        assertThat(filter.mightContain("unknown@example.com")).isFalse();
+        assertThat(meterRegistry.get("users.email-filter.lookups").tag("result", "absent").counter().count())
+            .isEqualTo(1.0);
+    }
+
+    @Test
+    void add_shouldMakeNewRegistrationVisibleImmediately() {
+        // Given
+        when(userRepository.findEmailsNormalizedAfter("", PageRequest.of(0, 2))).thenReturn(List.of());
+        filter.load();
+
+        // When
+        filter.add("new@example.com");
+
+        // Then
+        assertThat(filter.mightContain("new@example.com")).isTrue();
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositivesNearConfiguredRate() {
+        // Given
+        when(userRepository.findEmailsNormalizedAfter("", PageRequest.of(0, 2))).thenReturn(List.of());
+        filter.load();
+        IntStream.range(0, 10_000).forEach(i -> filter.add("user" + i + "@example.com"));
+
+        // When
+        long falsePositives = IntStream.range(0, 10_000)
+            .filter(i -> filter.mightContain("other" + i + "@example.com"))
+            .count();
+
+        // Then
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i + "@example.com"))).isTrue();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void syncRecentRegistrations_shouldAddUsersCreatedOnOtherInstances() {
+        // Given
+        when(userRepository.findEmailsNormalizedAfter("", PageRequest.of(0, 2))).thenReturn(List.of());
+        filter.load();
+        when(userRepository.findEmailsNormalizedCreatedSince(any(LocalDateTime.class)))
+            .thenReturn(List.of("elsewhere@example.com"));
+
+        // When
+        filter.syncRecentRegistrations();
+
+        // Then
+        assertThat(filter.mightContain("elsewhere@example.com")).isTrue();
+        verify(userRepository).findEmailsNormalizedCreatedSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void mightContain_shouldAlwaysAnswerMaybeWhenDisabled() {
+        // Given
+        RegisteredEmailFilter disabled = new RegisteredEmailFilter(userRepository, meterRegistry, false, 10_000, 0.01, 2);
+
+        // When
+        disabled.loadOnStartup();
+
+        // Then
+        assertThat(disabled.mightContain("unknown@example.com")).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+}
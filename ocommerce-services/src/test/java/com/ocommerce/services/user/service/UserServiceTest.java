@@ -1,5 +1,6 @@
 package com.ocommerce.services.user.service;
 
+import com.ocommerce.services.security.UserStatusCache;
 import com.ocommerce.services.user.domain.User;
 import com.ocommerce.services.user.dto.SignupRequest;
 import com.ocommerce.services.user.dto.UserResponse;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -36,6 +38,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserStatusCache userStatusCache;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
     @InjectMocks
     private UserService userService;
 
@@ -51,9 +59,10 @@ class UserServiceTest {
     @Test
     void registerUser_WhenEmailNotExists_ShouldCreateUser() {
         // Given
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(false);
+        when(registeredEmailFilter.mightContain("test@example.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // When
         UserResponse result = userService.registerUser(signupRequest);
@@ -66,30 +75,63 @@ class UserServiceTest {
         assertThat(result.isAccountEnabled()).isTrue();
         assertThat(result.isEmailVerified()).isFalse();
 
-        verify(userRepository).existsByEmailIgnoreCase(signupRequest.getEmail());
+        verify(userRepository).existsByEmailNormalized("test@example.com");
         verify(passwordEncoder).encode(signupRequest.getPassword());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(registeredEmailFilter).add("test@example.com");
+    }
+
+    @Test
+    void registerUser_WhenFilterHasNotSeenEmail_ShouldSkipExistenceQuery() {
+        // Given
+        when(registeredEmailFilter.mightContain("test@example.com")).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
+
+        // When
+        userService.registerUser(signupRequest);
+
+        // Then
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
+        verify(userRepository).saveAndFlush(argThat(user -> "test@example.com".equals(user.getEmailNormalized())));
+    }
+
+    @Test
+    void registerUser_WhenEmailRegisteredElsewhereBeforeFilterSync_ShouldThrowException() {
+        // Given
+        when(registeredEmailFilter.mightContain("test@example.com")).thenReturn(false);
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded-password");
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_users_email_normalized"));
+
+        // When/Then
+        assertThatThrownBy(() -> userService.registerUser(signupRequest))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessageContaining("already exists");
+
+        verify(registeredEmailFilter, never()).add(anyString());
     }
 
     @Test
     void registerUser_WhenEmailExists_ShouldThrowException() {
         // Given
-        when(userRepository.existsByEmailIgnoreCase(anyString())).thenReturn(true);
+        when(registeredEmailFilter.mightContain("test@example.com")).thenReturn(true);
+        when(userRepository.existsByEmailNormalized(anyString())).thenReturn(true);
 
         // When/Then
         assertThatThrownBy(() -> userService.registerUser(signupRequest))
                 .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessageContaining("already exists");
 
-        verify(userRepository).existsByEmailIgnoreCase(signupRequest.getEmail());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).existsByEmailNormalized("test@example.com");
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
     void findByEmail_WhenUserExists_ShouldReturnUser() {
         // Given
         String email = "test@example.com";
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmailNormalized(email)).thenReturn(Optional.of(testUser));
 
         // When
         Optional<User> result = userService.findByEmail(email);
@@ -97,28 +139,28 @@ class UserServiceTest {
         // Then
         assertThat(result).isPresent();
         assertThat(result.get().getEmail()).isEqualTo(email);
-        verify(userRepository).findByEmailIgnoreCase(email);
+        verify(userRepository).findByEmailNormalized(email);
     }
 
     @Test
     void findByEmail_WhenUserNotExists_ShouldReturnEmpty() {
         // Given
         String email = "nonexistent@example.com";
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.empty());
+        when(userRepository.findByEmailNormalized(email)).thenReturn(Optional.empty());
 
         // When
         Optional<User> result = userService.findByEmail(email);
 
         // Then
         assertThat(result).isEmpty();
-        verify(userRepository).findByEmailIgnoreCase(email);
+        verify(userRepository).findByEmailNormalized(email);
     }
 
     @Test
     void findEnabledUserByEmail_WhenUserEnabledExists_ShouldReturnUser() {
         // Given
         String email = "test@example.com";
-        when(userRepository.findByEmailIgnoreCaseAndAccountEnabled(email)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmailNormalizedAndAccountEnabled(email)).thenReturn(Optional.of(testUser));
 
         // When
         Optional<User> result = userService.findEnabledUserByEmail(email);
@@ -126,7 +168,7 @@ class UserServiceTest {
         // Then
         assertThat(result).isPresent();
         assertThat(result.get().isAccountEnabled()).isTrue();
-        verify(userRepository).findByEmailIgnoreCaseAndAccountEnabled(email);
+        verify(userRepository).findByEmailNormalizedAndAccountEnabled(email);
     }
 
     @Test
@@ -182,7 +224,7 @@ class UserServiceTest {
         updateRequest.setLastName("Updated Last Name");
         updateRequest.setPhoneNumber("+1234567890");
 
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmailNormalized(email)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // When
@@ -190,7 +232,7 @@ class UserServiceTest {
 
         // Then
         assertThat(result).isNotNull();
-        verify(userRepository).findByEmailIgnoreCase(email);
+        verify(userRepository).findByEmailNormalized(email);
         verify(userRepository).save(testUser);
     }
 
@@ -198,7 +240,7 @@ class UserServiceTest {
     void lockUserAccount_WhenUserExists_ShouldLockAccount() {
         // Given
         String email = "test@example.com";
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmailNormalized(email)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // When
@@ -206,8 +248,9 @@ class UserServiceTest {
 
         // Then
         assertThat(testUser.isAccountLocked()).isTrue();
-        verify(userRepository).findByEmailIgnoreCase(email);
+        verify(userRepository).findByEmailNormalized(email);
         verify(userRepository).save(testUser);
+        verify(userStatusCache).markInactive(testUser.getId());
     }
 
     @Test
@@ -215,7 +258,7 @@ class UserServiceTest {
         // Given
         String email = "test@example.com";
         testUser.setAccountLocked(true);
-        when(userRepository.findByEmailIgnoreCase(email)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmailNormalized(email)).thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // When
@@ -223,22 +266,37 @@ class UserServiceTest {
 
         // Then
         assertThat(testUser.isAccountLocked()).isFalse();
-        verify(userRepository).findByEmailIgnoreCase(email);
+        verify(userRepository).findByEmailNormalized(email);
         verify(userRepository).save(testUser);
+        verify(userStatusCache).evict(testUser.getId());
     }
 
     @Test
     void existsByEmail_WhenUserExists_ShouldReturnTrue() {
         // Given
         String email = "test@example.com";
-        when(userRepository.existsByEmailIgnoreCase(email)).thenReturn(true);
+        when(registeredEmailFilter.mightContain(email)).thenReturn(true);
+        when(userRepository.existsByEmailNormalized(email)).thenReturn(true);
 
         // When
         boolean result = userService.existsByEmail(email);
 
         // Then
         assertThat(result).isTrue();
-        verify(userRepository).existsByEmailIgnoreCase(email);
+        verify(userRepository).existsByEmailNormalized(email);
+    }
+
+    @Test
+    void existsByEmail_WhenFilterHasNotSeenEmail_ShouldReturnFalseWithoutQuery() {
+        // Given
+        when(registeredEmailFilter.mightContain("new@example.com")).thenReturn(false);
+
+        // When
+        boolean result = userService.existsByEmail(" New@Example.com ");
+
+        // Then
+        assertThat(result).isFalse();
+        verify(userRepository, never()).existsByEmailNormalized(anyString());
     }
 
     @Test